@@ -1,9 +1,79 @@
 package net.milkbowl.vault.economy;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.milkbowl.vault.economy.EconomyResponse.ErrorCode;
+
+import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 
 @SuppressWarnings("deprecation")
-public abstract class AbstractEconomy implements Economy {
+public abstract class AbstractEconomy implements MultiCurrencyEconomy {
+
+	private static final int MASS_UPDATE_CHUNK_SIZE = 256;
+
+	private volatile CurrencyFormatter currencyFormatter;
+	private final FundHoldTable fundHolds = new FundHoldTable();
+	private final Object compareAndSetLock = new Object();
+	private volatile Currency defaultCurrency;
+
+	/**
+	 * Formats amounts with a {@link CurrencyFormatter} built from {@link #fractionalDigits()},
+	 * {@link #currencyNameSingular()} and {@link #currencyNamePlural()}.
+	 * 使用根据{@link #fractionalDigits()}, {@link #currencyNameSingular()}和{@link #currencyNamePlural()}创建的{@link CurrencyFormatter}格式化金额.
+	 */
+	@Override
+	public String format(double amount) {
+		return getCurrencyFormatter().format(amount);
+	}
+
+	/**
+	 * Gets the formatter used by {@link #format(double)}, creating it on first use
+	 * 获取{@link #format(double)}使用的格式化器, 首次使用时创建
+	 *
+	 * @return currency formatter
+	 * 货币格式化器
+	 */
+	public CurrencyFormatter getCurrencyFormatter() {
+		CurrencyFormatter formatter = currencyFormatter;
+		if (formatter == null) {
+			formatter = CurrencyFormatter.forEconomy(this);
+			currencyFormatter = formatter;
+		}
+		return formatter;
+	}
+
+	/**
+	 * Gets the table backing the default hold methods, so that subclasses can honor holds in their own
+	 * {@link #has(OfflinePlayer, double)} and withdraw methods
+	 * 获取默认预留方法使用的表, 以便子类在自己的金额检查和取款方法中遵守预留
+	 *
+	 * @return hold table
+	 * 预留表
+	 */
+	protected FundHoldTable getFundHolds() {
+		return fundHolds;
+	}
+
+	/**
+	 * Discards the cached formatter, to be called when the digits or currency names change (for example on reload)
+	 * 丢弃缓存的格式化器, 在位数或货币名称改变时(例如重载时)调用
+	 */
+	protected void resetCurrencyFormatter() {
+		currencyFormatter = null;
+	}
 
 	@Override
 	public boolean hasAccount(OfflinePlayer player) {
@@ -27,22 +97,34 @@ public abstract class AbstractEconomy implements Economy {
 
 	@Override
 	public boolean has(OfflinePlayer player, double amount) {
-		return has(player.getName(), amount);
+		return has(player.getName(), amount + fundHolds.getHeld(player.getUniqueId(), null));
 	}
 
 	@Override
 	public boolean has(OfflinePlayer player, String worldName, double amount) {
-		return has(player.getName(), worldName, amount);
+		return has(player.getName(), worldName, amount + fundHolds.getHeld(player.getUniqueId(), worldName));
 	}
 
 	@Override
 	public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
-		return withdrawPlayer(player.getName(), amount);
+		synchronized (fundHolds.lock(player.getUniqueId(), null)) {
+			double held = fundHolds.getHeld(player.getUniqueId(), null);
+			if (held > 0 && amount > 0 && !has(player.getName(), amount + held)) {
+				return EconomyResponse.failure(amount, getBalance(player.getName()), ErrorCode.INSUFFICIENT_FUNDS);
+			}
+			return withdrawPlayer(player.getName(), amount);
+		}
 	}
 
 	@Override
 	public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
-		return withdrawPlayer(player.getName(), worldName, amount);
+		synchronized (fundHolds.lock(player.getUniqueId(), worldName)) {
+			double held = fundHolds.getHeld(player.getUniqueId(), worldName);
+			if (held > 0 && amount > 0 && !has(player.getName(), worldName, amount + held)) {
+				return EconomyResponse.failure(amount, getBalance(player.getName(), worldName), ErrorCode.INSUFFICIENT_FUNDS);
+			}
+			return withdrawPlayer(player.getName(), worldName, amount);
+		}
 	}
 
 	@Override
@@ -80,4 +162,544 @@ public abstract class AbstractEconomy implements Economy {
 		return createPlayerAccount(player.getName(), worldName);
 	}
 
+	@Override
+	public long getBalanceMinor(OfflinePlayer player) {
+		return MinorUnits.toMinor(getBalance(player), MinorUnits.digits(this));
+	}
+
+	@Override
+	public long getBalanceMinor(OfflinePlayer player, String world) {
+		return MinorUnits.toMinor(getBalance(player, world), MinorUnits.digits(this));
+	}
+
+	@Override
+	public boolean hasMinor(OfflinePlayer player, long amount) {
+		return has(player, MinorUnits.toMajor(amount, MinorUnits.digits(this)));
+	}
+
+	@Override
+	public boolean hasMinor(OfflinePlayer player, String worldName, long amount) {
+		return has(player, worldName, MinorUnits.toMajor(amount, MinorUnits.digits(this)));
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayerMinor(OfflinePlayer player, long amount) {
+		return withdrawPlayer(player, MinorUnits.toMajor(amount, MinorUnits.digits(this)));
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayerMinor(OfflinePlayer player, String worldName, long amount) {
+		return withdrawPlayer(player, worldName, MinorUnits.toMajor(amount, MinorUnits.digits(this)));
+	}
+
+	@Override
+	public EconomyResponse depositPlayerMinor(OfflinePlayer player, long amount) {
+		return depositPlayer(player, MinorUnits.toMajor(amount, MinorUnits.digits(this)));
+	}
+
+	@Override
+	public EconomyResponse depositPlayerMinor(OfflinePlayer player, String worldName, long amount) {
+		return depositPlayer(player, worldName, MinorUnits.toMajor(amount, MinorUnits.digits(this)));
+	}
+
+	@Override
+	public boolean withdrawPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		return withdrawInto(player, worldName, amount, result);
+	}
+
+	@Override
+	public boolean depositPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		return depositInto(player, worldName, amount, result);
+	}
+
+	/**
+	 * Withdraws through {@link #withdrawPlayer(OfflinePlayer, double)} or
+	 * {@link #withdrawPlayer(OfflinePlayer, String, double)} and copies the response into a holder. Decorators
+	 * that intercept those methods call this from {@link #withdrawPlayer(OfflinePlayer, String, double, EconomyResponseHolder)},
+	 * so that holder calls are not forwarded past them.
+	 * 通过{@link #withdrawPlayer(OfflinePlayer, double)}或{@link #withdrawPlayer(OfflinePlayer, String, double)}取款, 并将回报复制到holder中.
+	 * 拦截这些方法的装饰器在{@link #withdrawPlayer(OfflinePlayer, String, double, EconomyResponseHolder)}中调用此方法, 使holder调用不会绕过它们被转发.
+	 *
+	 * @param player to withdraw from
+	 * 要取款的玩家
+	 * @param worldName name of the world, null for the global account
+	 * 世界名, null表示全局账户
+	 * @param amount Amount to withdraw
+	 * 要取出的金额
+	 * @param result receives the outcome
+	 * 接收结果
+	 * @return true if the withdrawal succeeded
+	 * 如果取款成功则返回真
+	 */
+	protected final boolean withdrawInto(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		EconomyResponse response = worldName == null ? withdrawPlayer(player, amount) : withdrawPlayer(player, worldName, amount);
+		return result.set(response).transactionSuccess();
+	}
+
+	/**
+	 * Deposits through {@link #depositPlayer(OfflinePlayer, double)} or
+	 * {@link #depositPlayer(OfflinePlayer, String, double)} and copies the response into a holder, see
+	 * {@link #withdrawInto(OfflinePlayer, String, double, EconomyResponseHolder)}.
+	 * 通过{@link #depositPlayer(OfflinePlayer, double)}或{@link #depositPlayer(OfflinePlayer, String, double)}存款, 并将回报复制到holder中,
+	 * 参见{@link #withdrawInto(OfflinePlayer, String, double, EconomyResponseHolder)}.
+	 *
+	 * @param player to deposit to
+	 * 要存款的玩家
+	 * @param worldName name of the world, null for the global account
+	 * 世界名, null表示全局账户
+	 * @param amount Amount to deposit
+	 * 要存入的金额
+	 * @param result receives the outcome
+	 * 接收结果
+	 * @return true if the deposit succeeded
+	 * 如果存款成功则返回真
+	 */
+	protected final boolean depositInto(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		EconomyResponse response = worldName == null ? depositPlayer(player, amount) : depositPlayer(player, worldName, amount);
+		return result.set(response).transactionSuccess();
+	}
+
+	/**
+	 * Naive default: reads the balance of every known player and sorts them. Providers that keep an index
+	 * should override this, or be wrapped in a {@link LeaderboardEconomy}.
+	 * 简单的默认实现: 读取所有已知玩家的余额并排序. 维护了索引的经济插件应覆盖此方法, 或使用{@link LeaderboardEconomy}包装.
+	 */
+	@Override
+	public List<BalanceEntry> getTopBalances(int count) {
+		return scanLeaderboard().top(count);
+	}
+
+	/**
+	 * Naive default: reads the balance of every known player and sorts them.
+	 * 简单的默认实现: 读取所有已知玩家的余额并排序.
+	 */
+	@Override
+	public int getBalanceRank(OfflinePlayer player) {
+		return scanLeaderboard().rankOf(player.getUniqueId());
+	}
+
+	private BalanceLeaderboard scanLeaderboard() {
+		BalanceLeaderboard leaderboard = new BalanceLeaderboard();
+		for (OfflinePlayer player : Bukkit.getOfflinePlayers()) {
+			if (hasAccount(player)) {
+				leaderboard.update(player.getUniqueId(), getBalance(player));
+			}
+		}
+		return leaderboard;
+	}
+
+	@Override
+	public boolean checkBankOwner(String name, OfflinePlayer player) {
+		return hasBankSupport() && isBankOwner(name, player).transactionSuccess();
+	}
+
+	@Override
+	public boolean checkBankMember(String name, OfflinePlayer player) {
+		return hasBankSupport() && isBankMember(name, player).transactionSuccess();
+	}
+
+	/**
+	 * Default: checks every bank of {@link #getBanks()}. Providers should answer from a {@link BankIndex}.
+	 * 默认实现: 检查{@link #getBanks()}中的每个银行. 经济插件应使用{@link BankIndex}回答.
+	 */
+	@Override
+	public List<String> getBanksOwnedBy(OfflinePlayer player) {
+		List<String> banks = new ArrayList<String>();
+		if (hasBankSupport()) {
+			for (String name : getBanks()) {
+				if (checkBankOwner(name, player)) {
+					banks.add(name);
+				}
+			}
+		}
+		return banks;
+	}
+
+	/**
+	 * Default: checks every bank of {@link #getBanks()}. Providers should answer from a {@link BankIndex}.
+	 * 默认实现: 检查{@link #getBanks()}中的每个银行. 经济插件应使用{@link BankIndex}回答.
+	 */
+	@Override
+	public List<String> getBanksWithMember(OfflinePlayer player) {
+		List<String> banks = new ArrayList<String>();
+		if (hasBankSupport()) {
+			for (String name : getBanks()) {
+				if (checkBankMember(name, player)) {
+					banks.add(name);
+				}
+			}
+		}
+		return banks;
+	}
+
+	/**
+	 * Default: sorts and filters the full list of {@link #getBanks()}. Providers with a sorted index of
+	 * banks should override this.
+	 * 默认实现: 对{@link #getBanks()}的完整列表进行排序和过滤. 拥有银行有序索引的经济插件应覆盖此方法.
+	 */
+	@Override
+	public BankPage getBanks(String prefix, String cursor, int limit) {
+		if (!hasBankSupport()) {
+			return BankPage.empty();
+		}
+		return BankPage.of(new TreeSet<String>(getBanks()), prefix, cursor, limit);
+	}
+
+	@Override
+	public List<OfflinePlayer> createPlayerAccounts(Collection<? extends OfflinePlayer> players, String worldName) {
+		List<OfflinePlayer> created = new ArrayList<OfflinePlayer>();
+		for (OfflinePlayer player : players) {
+			if (worldName == null) {
+				if (!hasAccount(player) && createPlayerAccount(player)) {
+					created.add(player);
+				}
+			} else if (!hasAccount(player, worldName) && createPlayerAccount(player, worldName)) {
+				created.add(player);
+			}
+		}
+		return created;
+	}
+
+	/**
+	 * Default: {@link #transformEachBalance(List, BalanceTransform, BalanceFilter, String, MassUpdateListener)}
+	 * over every offline player. Providers should override this to run a {@link LinearBalanceTransform} in their backend.
+	 * 默认实现: 对所有离线玩家调用{@link #transformEachBalance(List, BalanceTransform, BalanceFilter, String, MassUpdateListener)}.
+	 * 经济插件应覆盖此方法, 在后端执行{@link LinearBalanceTransform}.
+	 */
+	@Override
+	public MassUpdateResult transformBalances(BalanceTransform transform, BalanceFilter filter, String worldName, MassUpdateListener listener) {
+		return transformEachBalance(Arrays.asList(Bukkit.getOfflinePlayers()), transform, filter, worldName, listener);
+	}
+
+	/**
+	 * Gets the number of threads {@link #transformEachBalance(List, BalanceTransform, BalanceFilter, String, MassUpdateListener)}
+	 * uses. Default: 1, the accounts are transformed on the calling thread. Providers whose account methods are
+	 * thread-safe may override this to spread the work.
+	 * 获取{@link #transformEachBalance(List, BalanceTransform, BalanceFilter, String, MassUpdateListener)}使用的线程数.
+	 * 默认实现: 1, 在调用线程上变换账户. 账户方法线程安全的经济插件可以覆盖此方法以分摊工作.
+	 *
+	 * @return number of threads
+	 * 线程数
+	 */
+	protected int getMassUpdateParallelism() {
+		return 1;
+	}
+
+	/**
+	 * Transforms the accounts of the given players one by one through {@link #hasAccount(OfflinePlayer)},
+	 * {@link #getBalance(OfflinePlayer)}, {@link #depositPlayer(OfflinePlayer, double)} and
+	 * {@link #withdrawPlayer(OfflinePlayer, double)} (or their world variants), in chunks spread over
+	 * {@link #getMassUpdateParallelism()} threads. Progress is reported after each chunk.
+	 * 通过账户检查, 余额查询和存取款方法(或其指定世界的版本)逐个变换给定玩家的账户, 分批分配到{@link #getMassUpdateParallelism()}个线程中. 每批处理完后报告进度.
+	 *
+	 * @param players candidates
+	 * 候选玩家
+	 * @param transform computes the new balances
+	 * 计算新余额
+	 * @param filter selects the accounts to transform, null for all accounts
+	 * 选择需要变换的账户, 为null时变换所有账户
+	 * @param worldName name of the world, null for the global accounts
+	 * 世界名称, 全局账户为null
+	 * @param listener receives progress, may be null
+	 * 接收进度, 可以为null
+	 * @return counts of matched, changed and failed accounts
+	 * 匹配, 改变和失败的账户数
+	 */
+	protected MassUpdateResult transformEachBalance(List<? extends OfflinePlayer> players, BalanceTransform transform, BalanceFilter filter, String worldName, MassUpdateListener listener) {
+		int total = players.size();
+		AtomicInteger processed = new AtomicInteger();
+		List<MassUpdateChunk> chunks = new ArrayList<MassUpdateChunk>();
+		for (int from = 0; from < total; from += MASS_UPDATE_CHUNK_SIZE) {
+			List<? extends OfflinePlayer> chunk = players.subList(from, Math.min(total, from + MASS_UPDATE_CHUNK_SIZE));
+			chunks.add(new MassUpdateChunk(chunk, transform, filter, worldName, listener, processed, total));
+		}
+		List<MassUpdateResult> results = new ArrayList<MassUpdateResult>(chunks.size());
+		int threads = Math.min(getMassUpdateParallelism(), chunks.size());
+		if (threads <= 1) {
+			for (MassUpdateChunk chunk : chunks) {
+				results.add(chunk.call());
+			}
+		} else {
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			try {
+				for (Future<MassUpdateResult> future : executor.invokeAll(chunks)) {
+					results.add(future.get());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while transforming balances", e);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IllegalStateException(cause);
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+		int matched = 0;
+		int changed = 0;
+		int failed = 0;
+		double delta = 0;
+		for (MassUpdateResult result : results) {
+			matched += result.getMatched();
+			changed += result.getChanged();
+			failed += result.getFailed();
+			delta += result.getTotalDelta();
+		}
+		return new MassUpdateResult(matched, changed, failed, delta);
+	}
+
+	private final class MassUpdateChunk implements Callable<MassUpdateResult> {
+
+		private final List<? extends OfflinePlayer> players;
+		private final BalanceTransform transform;
+		private final BalanceFilter filter;
+		private final String world;
+		private final MassUpdateListener listener;
+		private final AtomicInteger processed;
+		private final int total;
+
+		MassUpdateChunk(List<? extends OfflinePlayer> players, BalanceTransform transform, BalanceFilter filter, String world, MassUpdateListener listener, AtomicInteger processed, int total) {
+			this.players = players;
+			this.transform = transform;
+			this.filter = filter;
+			this.world = world;
+			this.listener = listener;
+			this.processed = processed;
+			this.total = total;
+		}
+
+		@Override
+		public MassUpdateResult call() {
+			int matched = 0;
+			int changed = 0;
+			int failed = 0;
+			double delta = 0;
+			for (OfflinePlayer player : players) {
+				if (!(world == null ? hasAccount(player) : hasAccount(player, world))) {
+					continue;
+				}
+				double balance = world == null ? getBalance(player) : getBalance(player, world);
+				if (filter != null && !filter.accept(player, balance)) {
+					continue;
+				}
+				matched++;
+				double target = transform.apply(player, balance);
+				if (Double.isNaN(target) || Double.isInfinite(target)) {
+					failed++;
+					continue;
+				}
+				double change = target - balance;
+				if (change == 0) {
+					continue;
+				}
+				EconomyResponse response;
+				if (change > 0) {
+					response = world == null ? depositPlayer(player, change) : depositPlayer(player, world, change);
+				} else {
+					response = world == null ? withdrawPlayer(player, -change) : withdrawPlayer(player, world, -change);
+				}
+				if (response != null && response.transactionSuccess()) {
+					changed++;
+					delta += change;
+				} else {
+					failed++;
+				}
+			}
+			int done = processed.addAndGet(players.size());
+			if (listener != null) {
+				listener.onProgress(done, total);
+			}
+			return new MassUpdateResult(matched, changed, failed, delta);
+		}
+	}
+
+	/**
+	 * Default: records the hold in an in-memory {@link FundHoldTable}, which the {@link OfflinePlayer} has and
+	 * withdraw methods of this class honor. The balance is read and the hold placed under the lock of the
+	 * account, which those withdraw methods also take, so a withdrawal can never spend a held amount. Holds do
+	 * not survive a restart and are not seen by the deprecated name methods.
+	 * 默认实现: 将预留记录在内存中的{@link FundHoldTable}, 此类的{@link OfflinePlayer}金额检查和取款方法会遵守它.
+	 * 余额的读取和预留都在账户的锁下进行, 这些取款方法也会获取该锁, 因此取款永远不会用掉预留的金额.
+	 * 预留在重启后不会保留, 已弃用的玩家名方法也看不到预留.
+	 */
+	@Override
+	public FundHold holdFunds(OfflinePlayer player, String worldName, double amount, long duration, TimeUnit unit) {
+		synchronized (fundHolds.lock(player.getUniqueId(), worldName)) {
+			if (!(worldName == null ? hasAccount(player) : hasAccount(player, worldName))) {
+				return null;
+			}
+			double balance = worldName == null ? getBalance(player) : getBalance(player, worldName);
+			return fundHolds.hold(player, worldName, amount, balance, unit.toMillis(duration));
+		}
+	}
+
+	@Override
+	public EconomyResponse captureHold(FundHold hold) {
+		OfflinePlayer player = hold.getPlayer();
+		String world = hold.getWorldName();
+		// Under the lock of the account, so that no other withdrawal spends the amount between release and capture
+		synchronized (fundHolds.lock(player.getUniqueId(), world)) {
+			if (!fundHolds.release(hold)) {
+				return EconomyResponse.failure(ErrorCode.HOLD_NOT_FOUND);
+			}
+			EconomyResponse response = world == null ? withdrawPlayer(player, hold.getAmount()) : withdrawPlayer(player, world, hold.getAmount());
+			if (response == null || !response.transactionSuccess()) {
+				fundHolds.restore(hold);
+			}
+			return response;
+		}
+	}
+
+	@Override
+	public boolean releaseHold(FundHold hold) {
+		return fundHolds.release(hold);
+	}
+
+	@Override
+	public double getHeldBalance(OfflinePlayer player, String worldName) {
+		return fundHolds.getHeld(player.getUniqueId(), worldName);
+	}
+
+	/**
+	 * Default: uses the bits of the balance as its version.
+	 * 默认实现: 使用余额的二进制位作为版本.
+	 */
+	@Override
+	public VersionedBalance getVersionedBalance(OfflinePlayer player, String worldName) {
+		if (!(worldName == null ? hasAccount(player) : hasAccount(player, worldName))) {
+			return null;
+		}
+		double balance = worldName == null ? getBalance(player) : getBalance(player, worldName);
+		return new VersionedBalance(balance, balanceVersion(balance));
+	}
+
+	/**
+	 * Default: compares the bits of the current balance and deposits or withdraws the difference. This is only
+	 * atomic against other calls of this method on this object; providers shared between servers must
+	 * override it with a conditional update in their backend.
+	 * 默认实现: 比较当前余额的二进制位, 然后存入或取出差额. 这只对此对象上此方法的其他调用是原子的;
+	 * 多个服务器共享的经济插件必须覆盖此方法, 在后端使用条件更新.
+	 */
+	@Override
+	public EconomyResponse compareAndSetBalance(OfflinePlayer player, String worldName, long expectedVersion, double newBalance) {
+		if (Double.isNaN(newBalance) || Double.isInfinite(newBalance)) {
+			return EconomyResponse.failure(ErrorCode.INVALID_AMOUNT);
+		}
+		synchronized (compareAndSetLock) {
+			if (!(worldName == null ? hasAccount(player) : hasAccount(player, worldName))) {
+				return EconomyResponse.failure(ErrorCode.ACCOUNT_NOT_FOUND);
+			}
+			double balance = worldName == null ? getBalance(player) : getBalance(player, worldName);
+			if (balanceVersion(balance) != expectedVersion) {
+				return EconomyResponse.failure(0, balance, ErrorCode.VERSION_CONFLICT);
+			}
+			double change = newBalance - balance;
+			if (change > 0) {
+				return worldName == null ? depositPlayer(player, change) : depositPlayer(player, worldName, change);
+			}
+			if (change < 0) {
+				return worldName == null ? withdrawPlayer(player, -change) : withdrawPlayer(player, worldName, -change);
+			}
+			return EconomyResponse.success(0, balance);
+		}
+	}
+
+	/**
+	 * Default: a single currency built from {@link #currencyNamePlural()}, {@link #fractionalDigits()},
+	 * {@link #currencyNameSingular()} and {@link #currencyNamePlural()}, created on first use.
+	 * 默认实现: 根据{@link #currencyNamePlural()}, {@link #fractionalDigits()}, {@link #currencyNameSingular()}和{@link #currencyNamePlural()}创建的单一货币, 首次使用时创建.
+	 */
+	@Override
+	public Currency getDefaultCurrency() {
+		Currency currency = defaultCurrency;
+		if (currency == null) {
+			// Only the first use locks, so that every caller gets the same handle.
+			synchronized (this) {
+				currency = defaultCurrency;
+				if (currency == null) {
+					currency = new Currency(0, currencyNamePlural(), fractionalDigits(), currencyNameSingular(), currencyNamePlural());
+					defaultCurrency = currency;
+				}
+			}
+		}
+		return currency;
+	}
+
+	@Override
+	public Currency getCurrency(String name) {
+		Currency currency = getDefaultCurrency();
+		return currency.getName() != null && currency.getName().equalsIgnoreCase(name) ? currency : null;
+	}
+
+	@Override
+	public List<Currency> getCurrencies() {
+		return Collections.singletonList(getDefaultCurrency());
+	}
+
+	/**
+	 * Default: the default currency is read through {@link #getBalance(OfflinePlayer, String)}; any other
+	 * handle is unknown. Economies returning more currencies from {@link #getCurrencies()} must override the
+	 * methods taking a {@link Currency}.
+	 * 默认实现: 默认货币通过{@link #getBalance(OfflinePlayer, String)}读取; 其他句柄都是未知的.
+	 * 从{@link #getCurrencies()}返回更多货币的经济实现必须覆盖接受{@link Currency}的方法.
+	 */
+	@Override
+	public double getBalance(OfflinePlayer player, String worldName, Currency currency) {
+		checkDefaultCurrency(currency);
+		return worldName == null ? getBalance(player) : getBalance(player, worldName);
+	}
+
+	@Override
+	public double[] getBalances(OfflinePlayer player, String worldName) {
+		List<Currency> currencies = getCurrencies();
+		double[] balances = new double[currencies.size()];
+		for (Currency currency : currencies) {
+			balances[currency.getId()] = getBalance(player, worldName, currency);
+		}
+		return balances;
+	}
+
+	@Override
+	public boolean has(OfflinePlayer player, String worldName, Currency currency, double amount) {
+		checkDefaultCurrency(currency);
+		return worldName == null ? has(player, amount) : has(player, worldName, amount);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, Currency currency, double amount) {
+		checkDefaultCurrency(currency);
+		return worldName == null ? withdrawPlayer(player, amount) : withdrawPlayer(player, worldName, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, Currency currency, double amount) {
+		checkDefaultCurrency(currency);
+		return worldName == null ? depositPlayer(player, amount) : depositPlayer(player, worldName, amount);
+	}
+
+	/**
+	 * Rejects a handle that is not the default currency of this Economy
+	 * 拒绝不是此经济实现默认货币的句柄
+	 *
+	 * @param currency handle to check
+	 * 要检查的句柄
+	 * @throws IllegalArgumentException if the handle is not {@link #getDefaultCurrency()}
+	 * 如果句柄不是{@link #getDefaultCurrency()}
+	 */
+	protected void checkDefaultCurrency(Currency currency) {
+		if (currency != getDefaultCurrency()) {
+			throw new IllegalArgumentException("Unknown currency " + currency + " for " + getName());
+		}
+	}
+
+	private static long balanceVersion(double balance) {
+		// Adding zero turns -0.0 into 0.0, so that equal balances have equal versions.
+		return Double.doubleToLongBits(balance + 0.0);
+	}
 }
@@ -0,0 +1,359 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.UUID;
+
+import net.milkbowl.vault.economy.EconomyResponse.ErrorCode;
+
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Base class for economies that key accounts by UUID. Providers implement the UUID methods; the
+ * {@link OfflinePlayer} methods call them with {@link OfflinePlayer#getUniqueId()} and never look up the
+ * player name, and the deprecated name methods resolve the name through a {@link PlayerNameIndex}.
+ * 以UUID作为账户键的经济实现的基类. 经济插件实现UUID方法; {@link OfflinePlayer}方法使用{@link OfflinePlayer#getUniqueId()}调用它们,
+ * 从不查询玩家名, 已弃用的玩家名方法通过{@link PlayerNameIndex}解析名称.
+ *
+ * A world name of null stands for the global account. The {@link OfflinePlayer} and name methods leave amounts
+ * held through {@link #holdFunds(OfflinePlayer, String, double, long, java.util.concurrent.TimeUnit)} unspendable;
+ * the UUID methods see the whole balance.
+ * 世界名为null表示全局账户. {@link OfflinePlayer}和玩家名方法不会使用通过{@link #holdFunds(OfflinePlayer, String, double, long, java.util.concurrent.TimeUnit)}预留的金额;
+ * UUID方法看到的是全部余额.
+ */
+@SuppressWarnings("deprecation")
+public abstract class AbstractUUIDEconomy extends AbstractEconomy {
+
+	private final PlayerNameIndex nameIndex;
+
+	protected AbstractUUIDEconomy() {
+		this(new PlayerNameIndex());
+	}
+
+	/**
+	 * Constructor for AbstractUUIDEconomy
+	 * {@link AbstractUUIDEconomy}的构造函数
+	 *
+	 * @param nameIndex index used to resolve player names
+	 * 用于解析玩家名的索引
+	 */
+	protected AbstractUUIDEconomy(PlayerNameIndex nameIndex) {
+		this.nameIndex = nameIndex;
+	}
+
+	/**
+	 * Gets the index used to resolve player names. Register it as a listener to learn names on join.
+	 * 获取用于解析玩家名的索引. 将其注册为监听器即可在玩家加入时记录名称.
+	 *
+	 * @return name index
+	 * 名称索引
+	 */
+	public PlayerNameIndex getNameIndex() {
+		return nameIndex;
+	}
+
+	/**
+	 * Checks if the player has an account
+	 * 检测玩家是否有账户
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @param worldName world-specific account, null for the global account
+	 * 世界的名称, 全局账户为null
+	 * @return if the player has an account
+	 * 如果玩家有账户则返回真
+	 */
+	public abstract boolean hasAccount(UUID playerId, String worldName);
+
+	/**
+	 * Gets balance of a player
+	 * 获取玩家的余额
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @param worldName world-specific account, null for the global account
+	 * 世界的名称, 全局账户为null
+	 * @return Amount currently held in players account
+	 * 玩家账户目前的金额数目
+	 */
+	public abstract double getBalance(UUID playerId, String worldName);
+
+	/**
+	 * Checks if the player account has the amount - DO NOT USE NEGATIVE AMOUNTS
+	 * 检测玩家账户里是否有这个数值的金钱 - 请勿使用负数
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @param worldName world-specific account, null for the global account
+	 * 世界的名称, 全局账户为null
+	 * @param amount to check for
+	 * 检测的金额
+	 * @return True if the player has <b>amount</b>
+	 * 如果玩家有这个数值的金钱则为真
+	 */
+	public boolean has(UUID playerId, String worldName, double amount) {
+		return getBalance(playerId, worldName) >= amount;
+	}
+
+	/**
+	 * Withdraw an amount from a player - DO NOT USE NEGATIVE AMOUNTS
+	 * 从玩家账户中提取金额 - 不要使用负数
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @param worldName world-specific account, null for the global account
+	 * 世界的名称, 全局账户为null
+	 * @param amount Amount to withdraw
+	 * 要提取的金额
+	 * @return Detailed response of transaction
+	 * 交易详情
+	 */
+	public abstract EconomyResponse withdrawPlayer(UUID playerId, String worldName, double amount);
+
+	/**
+	 * Deposit an amount to a player - DO NOT USE NEGATIVE AMOUNTS
+	 * 给玩家账户存入金额 - 不要使用负数
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @param worldName world-specific account, null for the global account
+	 * 世界的名称, 全局账户为null
+	 * @param amount Amount to deposit
+	 * 存入金额
+	 * @return Detailed response of transaction
+	 * 交易详情
+	 */
+	public abstract EconomyResponse depositPlayer(UUID playerId, String worldName, double amount);
+
+	/**
+	 * Attempts to create a player account
+	 * 尝试创建玩家账户
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @param worldName world-specific account, null for the global account
+	 * 世界的名称, 全局账户为null
+	 * @return if the account creation was successful
+	 * 是否成功创建
+	 */
+	public abstract boolean createPlayerAccount(UUID playerId, String worldName);
+
+	/**
+	 * Creates a bank account with the specified name and the player as the owner
+	 * 以指定名称创建一个银行账户并设置玩家为所有者
+	 *
+	 * @param name of account
+	 * 账户名
+	 * @param ownerId UUID of the owner
+	 * 所有者的UUID
+	 * @return EconomyResponse Object
+	 * EconomyResponse对象
+	 */
+	public abstract EconomyResponse createBank(String name, UUID ownerId);
+
+	/**
+	 * Check if a player is the owner of a bank account
+	 * 检查玩家是否为银行账户的所有者
+	 *
+	 * @param name of the account
+	 * 账户名
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @return EconomyResponse Object
+	 * EconomyResponse对象
+	 */
+	public abstract EconomyResponse isBankOwner(String name, UUID playerId);
+
+	/**
+	 * Check if the player is a member of the bank account
+	 * 检查玩家是否是银行账户的成员
+	 *
+	 * @param name of the account
+	 * 账户名
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @return EconomyResponse Object
+	 * EconomyResponse对象
+	 */
+	public abstract EconomyResponse isBankMember(String name, UUID playerId);
+
+	@Override
+	public boolean hasAccount(OfflinePlayer player) {
+		return hasAccount(player.getUniqueId(), null);
+	}
+
+	@Override
+	public boolean hasAccount(OfflinePlayer player, String worldName) {
+		return hasAccount(player.getUniqueId(), worldName);
+	}
+
+	@Override
+	public boolean hasAccount(String playerName) {
+		return hasAccount(nameIndex.resolve(playerName), null);
+	}
+
+	@Override
+	public boolean hasAccount(String playerName, String worldName) {
+		return hasAccount(nameIndex.resolve(playerName), worldName);
+	}
+
+	@Override
+	public double getBalance(OfflinePlayer player) {
+		return getBalance(player.getUniqueId(), null);
+	}
+
+	@Override
+	public double getBalance(OfflinePlayer player, String world) {
+		return getBalance(player.getUniqueId(), world);
+	}
+
+	@Override
+	public double getBalance(String playerName) {
+		return getBalance(nameIndex.resolve(playerName), null);
+	}
+
+	@Override
+	public double getBalance(String playerName, String world) {
+		return getBalance(nameIndex.resolve(playerName), world);
+	}
+
+	@Override
+	public boolean has(OfflinePlayer player, double amount) {
+		return spendable(player.getUniqueId(), null, amount);
+	}
+
+	@Override
+	public boolean has(OfflinePlayer player, String worldName, double amount) {
+		return spendable(player.getUniqueId(), worldName, amount);
+	}
+
+	@Override
+	public boolean has(String playerName, double amount) {
+		return spendable(nameIndex.resolve(playerName), null, amount);
+	}
+
+	@Override
+	public boolean has(String playerName, String worldName, double amount) {
+		return spendable(nameIndex.resolve(playerName), worldName, amount);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+		return withdrawSpendable(player.getUniqueId(), null, amount);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+		return withdrawSpendable(player.getUniqueId(), worldName, amount);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(String playerName, double amount) {
+		return withdrawSpendable(nameIndex.resolve(playerName), null, amount);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(String playerName, String worldName, double amount) {
+		return withdrawSpendable(nameIndex.resolve(playerName), worldName, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+		return depositPlayer(player.getUniqueId(), null, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+		return depositPlayer(player.getUniqueId(), worldName, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(String playerName, double amount) {
+		return depositPlayer(nameIndex.resolve(playerName), null, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(String playerName, String worldName, double amount) {
+		return depositPlayer(nameIndex.resolve(playerName), worldName, amount);
+	}
+
+	@Override
+	public boolean createPlayerAccount(OfflinePlayer player) {
+		return createPlayerAccount(player.getUniqueId(), null);
+	}
+
+	@Override
+	public boolean createPlayerAccount(OfflinePlayer player, String worldName) {
+		return createPlayerAccount(player.getUniqueId(), worldName);
+	}
+
+	@Override
+	public boolean createPlayerAccount(String playerName) {
+		return createPlayerAccount(nameIndex.resolve(playerName), null);
+	}
+
+	@Override
+	public boolean createPlayerAccount(String playerName, String worldName) {
+		return createPlayerAccount(nameIndex.resolve(playerName), worldName);
+	}
+
+	@Override
+	public EconomyResponse createBank(String name, OfflinePlayer player) {
+		return createBank(name, player.getUniqueId());
+	}
+
+	@Override
+	public EconomyResponse createBank(String name, String player) {
+		return createBank(name, nameIndex.resolve(player));
+	}
+
+	@Override
+	public EconomyResponse isBankOwner(String name, OfflinePlayer player) {
+		return isBankOwner(name, player.getUniqueId());
+	}
+
+	@Override
+	public EconomyResponse isBankOwner(String name, String playerName) {
+		return isBankOwner(name, nameIndex.resolve(playerName));
+	}
+
+	@Override
+	public EconomyResponse isBankMember(String name, OfflinePlayer player) {
+		return isBankMember(name, player.getUniqueId());
+	}
+
+	@Override
+	public EconomyResponse isBankMember(String name, String playerName) {
+		return isBankMember(name, nameIndex.resolve(playerName));
+	}
+
+	// Amounts held through holdFunds are not spendable.
+	private boolean spendable(UUID playerId, String worldName, double amount) {
+		return has(playerId, worldName, amount + getFundHolds().getHeld(playerId, worldName));
+	}
+
+	// Under the lock of the account, so that no hold is placed between the check and the withdrawal.
+	private EconomyResponse withdrawSpendable(UUID playerId, String worldName, double amount) {
+		FundHoldTable holds = getFundHolds();
+		synchronized (holds.lock(playerId, worldName)) {
+			double held = holds.getHeld(playerId, worldName);
+			if (held > 0 && amount > 0 && !has(playerId, worldName, amount + held)) {
+				return EconomyResponse.failure(amount, getBalance(playerId, worldName), ErrorCode.INSUFFICIENT_FUNDS);
+			}
+			return withdrawPlayer(playerId, worldName, amount);
+		}
+	}
+}
@@ -0,0 +1,250 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Decorator that answers {@link #hasAccount(OfflinePlayer)} with "no" locally when a {@link UUIDBloomFilter}
+ * of known account holders proves the player has none. Positive answers of the filter are confirmed by the
+ * wrapped Economy.
+ * 当已知账户持有者的{@link UUIDBloomFilter}证明玩家没有账户时, 在本地以"否"回答{@link #hasAccount(OfflinePlayer)}的装饰器.
+ * 过滤器的肯定回答会交给被包装的经济实现确认.
+ *
+ * The filter only answers once it is primed with every existing account holder, through
+ * {@link #prime(Iterable)} or {@link #seed(Iterable)} followed by {@link #markPrimed()}; until then every
+ * call goes to the wrapped Economy. Account creations and successful mutations keep it current, including
+ * those made through the deprecated name methods, which are resolved with a {@link PlayerNameIndex}.
+ * 过滤器只有在通过{@link #prime(Iterable)}或{@link #seed(Iterable)}加{@link #markPrimed()}载入所有现有账户持有者后才会回答;
+ * 在此之前所有调用都交给被包装的经济实现. 创建账户和成功的操作会保持过滤器最新, 包括通过已弃用的玩家名方法进行的操作, 其名称由{@link PlayerNameIndex}解析.
+ */
+@SuppressWarnings("deprecation")
+public class AccountFilterEconomy extends ForwardingEconomy {
+
+	private final UUIDBloomFilter filter;
+	private final PlayerNameIndex nameIndex;
+	private volatile boolean primed;
+	private final AtomicLong lookups = new AtomicLong();
+	private final AtomicLong localNegatives = new AtomicLong();
+	private final AtomicLong falsePositives = new AtomicLong();
+
+	/**
+	 * Constructor for AccountFilterEconomy
+	 * {@link AccountFilterEconomy}的构造函数
+	 *
+	 * @param delegate Economy to filter
+	 * 要过滤的经济实现
+	 * @param expectedAccounts number of accounts the filter is sized for
+	 * 过滤器预计容纳的账户数
+	 * @param falsePositiveRate wanted false positive probability at that size
+	 * 在该数量下期望的误判概率
+	 * @param nameIndex index used to resolve player names
+	 * 用于解析玩家名的索引
+	 */
+	public AccountFilterEconomy(Economy delegate, int expectedAccounts, double falsePositiveRate, PlayerNameIndex nameIndex) {
+		super(delegate);
+		this.filter = new UUIDBloomFilter(expectedAccounts, falsePositiveRate);
+		this.nameIndex = nameIndex;
+	}
+
+	/**
+	 * Adds account holders to the filter without marking it primed
+	 * 将账户持有者加入过滤器, 不标记为已载入
+	 *
+	 * @param playerIds UUIDs of players that have an account
+	 * 拥有账户的玩家的UUID
+	 */
+	public void seed(Iterable<UUID> playerIds) {
+		for (UUID id : playerIds) {
+			filter.put(id);
+		}
+	}
+
+	/**
+	 * Asks the wrapped Economy which of the given players have an account, adds them to the filter and
+	 * marks it primed. Pass every player known to the server, off the main thread.
+	 * 询问被包装的经济实现哪些给定的玩家拥有账户, 将其加入过滤器并标记为已载入. 应在主线程之外传入服务器已知的所有玩家.
+	 *
+	 * @param players candidates, typically all offline players
+	 * 候选玩家, 一般为所有离线玩家
+	 */
+	public void prime(Iterable<? extends OfflinePlayer> players) {
+		for (OfflinePlayer player : players) {
+			if (delegate.hasAccount(player)) {
+				filter.put(player.getUniqueId());
+			}
+		}
+		markPrimed();
+	}
+
+	/**
+	 * Declares that every existing account holder was added, so negative answers can be served locally
+	 * 声明所有现有账户持有者都已添加, 此后否定回答可以在本地提供
+	 */
+	public void markPrimed() {
+		primed = true;
+	}
+
+	/**
+	 * Gets the number of account checks made through this decorator
+	 * 获取经过此装饰器的账户检查次数
+	 *
+	 * @return number of lookups
+	 * 查询次数
+	 */
+	public long getLookups() {
+		return lookups.get();
+	}
+
+	/**
+	 * Gets the number of account checks answered locally
+	 * 获取在本地回答的账户检查次数
+	 *
+	 * @return number of local negatives
+	 * 本地否定回答次数
+	 */
+	public long getLocalNegatives() {
+		return localNegatives.get();
+	}
+
+	/**
+	 * Gets the number of checks the filter passed on that the wrapped Economy answered with "no"
+	 * 获取过滤器放行但被包装的经济实现回答"否"的检查次数
+	 *
+	 * @return number of false positives
+	 * 误判次数
+	 */
+	public long getFalsePositives() {
+		return falsePositives.get();
+	}
+
+	/**
+	 * Gets the share of account checks answered locally
+	 * 获取在本地回答的账户检查所占比例
+	 *
+	 * @return hit rate between 0 and 1
+	 * 0到1之间的命中率
+	 */
+	public double getHitRate() {
+		long total = lookups.get();
+		return total == 0 ? 0 : (double) localNegatives.get() / total;
+	}
+
+	@Override
+	public boolean hasAccount(OfflinePlayer player) {
+		UUID id = player.getUniqueId();
+		if (definitelyAbsent(id)) {
+			return false;
+		}
+		return learn(id, delegate.hasAccount(player));
+	}
+
+	@Override
+	public boolean hasAccount(OfflinePlayer player, String worldName) {
+		UUID id = player.getUniqueId();
+		if (definitelyAbsent(id)) {
+			return false;
+		}
+		return learn(id, delegate.hasAccount(player, worldName));
+	}
+
+	@Override
+	public boolean createPlayerAccount(OfflinePlayer player) {
+		// Added first, so that a concurrent check never misses an account that is being created.
+		filter.put(player.getUniqueId());
+		return delegate.createPlayerAccount(player);
+	}
+
+	@Override
+	public boolean createPlayerAccount(OfflinePlayer player, String worldName) {
+		filter.put(player.getUniqueId());
+		return delegate.createPlayerAccount(player, worldName);
+	}
+
+	@Override
+	public boolean createPlayerAccount(String playerName) {
+		filter.put(nameIndex.resolve(playerName));
+		return delegate.createPlayerAccount(playerName);
+	}
+
+	@Override
+	public boolean createPlayerAccount(String playerName, String worldName) {
+		filter.put(nameIndex.resolve(playerName));
+		return delegate.createPlayerAccount(playerName, worldName);
+	}
+
+	// Providers that create accounts on the first deposit would otherwise be invisible to the filter.
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+		filter.put(player.getUniqueId());
+		return delegate.depositPlayer(player, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+		filter.put(player.getUniqueId());
+		return delegate.depositPlayer(player, worldName, amount);
+	}
+
+	@Override
+	public boolean depositPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		filter.put(player.getUniqueId());
+		return delegate.depositPlayer(player, worldName, amount, result);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(String playerName, double amount) {
+		filter.put(nameIndex.resolve(playerName));
+		return delegate.depositPlayer(playerName, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(String playerName, String worldName, double amount) {
+		filter.put(nameIndex.resolve(playerName));
+		return delegate.depositPlayer(playerName, worldName, amount);
+	}
+
+	@Override
+	public List<OfflinePlayer> createPlayerAccounts(Collection<? extends OfflinePlayer> players, String worldName) {
+		for (OfflinePlayer player : players) {
+			filter.put(player.getUniqueId());
+		}
+		return delegate.createPlayerAccounts(players, worldName);
+	}
+
+	private boolean definitelyAbsent(UUID id) {
+		lookups.incrementAndGet();
+		if (primed && !filter.mightContain(id)) {
+			localNegatives.incrementAndGet();
+			return true;
+		}
+		return false;
+	}
+
+	private boolean learn(UUID id, boolean hasAccount) {
+		if (hasAccount) {
+			filter.put(id);
+		} else if (primed) {
+			falsePositives.incrementAndGet();
+		}
+		return hasAccount;
+	}
+}
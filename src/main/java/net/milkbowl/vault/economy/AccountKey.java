@@ -0,0 +1,75 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.UUID;
+
+/**
+ * Identifies a player account: the player's UUID and a world name, null for the global account
+ * 标识一个玩家账户: 玩家的UUID和世界名, 全局账户的世界名为null
+ */
+public final class AccountKey {
+
+	private final UUID playerId;
+	private final String worldName;
+
+	/**
+	 * Constructor for AccountKey
+	 * {@link AccountKey}的构造函数
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @param worldName world-specific account, null for the global account
+	 * 世界的名称, 全局账户为null
+	 */
+	public AccountKey(UUID playerId, String worldName) {
+		if (playerId == null) {
+			throw new IllegalArgumentException("playerId cannot be null");
+		}
+		this.playerId = playerId;
+		this.worldName = worldName;
+	}
+
+	public UUID getPlayerId() {
+		return playerId;
+	}
+
+	public String getWorldName() {
+		return worldName;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof AccountKey)) {
+			return false;
+		}
+		AccountKey other = (AccountKey) obj;
+		return playerId.equals(other.playerId) && (worldName == null ? other.worldName == null : worldName.equals(other.worldName));
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * playerId.hashCode() + (worldName == null ? 0 : worldName.hashCode());
+	}
+
+	@Override
+	public String toString() {
+		return worldName == null ? playerId.toString() : playerId + "@" + worldName;
+	}
+}
@@ -0,0 +1,131 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.UUID;
+
+/**
+ * The coalesced change of one account's balance during a tick
+ * 一个账户的余额在一刻内合并后的变化
+ */
+public final class BalanceChange {
+
+	/**
+	 * Enum for what changed a balance
+	 * 枚举.表示余额变化的原因
+	 */
+	public static enum Cause {
+		DEPOSIT,
+		WITHDRAW,
+		/**
+		 * Several changes with different causes were coalesced
+		 * 合并了多个原因不同的变化
+		 */
+		MIXED
+	}
+
+	private final UUID playerId;
+	private final String worldName;
+	private final int currencyId;
+	private final double oldBalance;
+	private final double newBalance;
+	private final Cause cause;
+	private final int changes;
+
+	/**
+	 * Constructor for BalanceChange
+	 * {@link BalanceChange}的构造函数
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @param worldName world-specific account, null for the global account
+	 * 世界的名称, 全局账户为null
+	 * @param oldBalance balance before the first change
+	 * 第一次变化前的余额
+	 * @param newBalance balance after the last change
+	 * 最后一次变化后的余额
+	 * @param cause what changed the balance
+	 * 余额变化的原因
+	 * @param changes number of coalesced changes
+	 * 合并的变化次数
+	 */
+	public BalanceChange(UUID playerId, String worldName, double oldBalance, double newBalance, Cause cause, int changes) {
+		this(playerId, worldName, 0, oldBalance, newBalance, cause, changes);
+	}
+
+	/**
+	 * Constructor for BalanceChange in a given currency
+	 * 指定货币的{@link BalanceChange}的构造函数
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @param worldName world-specific account, null for the global account
+	 * 世界的名称, 全局账户为null
+	 * @param currencyId {@link Currency#getId()} of the currency, 0 for the default currency
+	 * 货币的{@link Currency#getId()}, 默认货币为0
+	 * @param oldBalance balance before the first change
+	 * 第一次变化前的余额
+	 * @param newBalance balance after the last change
+	 * 最后一次变化后的余额
+	 * @param cause what changed the balance
+	 * 余额变化的原因
+	 * @param changes number of coalesced changes
+	 * 合并的变化次数
+	 */
+	public BalanceChange(UUID playerId, String worldName, int currencyId, double oldBalance, double newBalance, Cause cause, int changes) {
+		this.playerId = playerId;
+		this.worldName = worldName;
+		this.currencyId = currencyId;
+		this.oldBalance = oldBalance;
+		this.newBalance = newBalance;
+		this.cause = cause;
+		this.changes = changes;
+	}
+
+	public UUID getPlayerId() {
+		return playerId;
+	}
+
+	public String getWorldName() {
+		return worldName;
+	}
+
+	public int getCurrencyId() {
+		return currencyId;
+	}
+
+	public double getOldBalance() {
+		return oldBalance;
+	}
+
+	public double getNewBalance() {
+		return newBalance;
+	}
+
+	public Cause getCause() {
+		return cause;
+	}
+
+	public int getChanges() {
+		return changes;
+	}
+
+	@Override
+	public String toString() {
+		return "BalanceChange{playerId=" + playerId + ", world=" + worldName + ", currency=" + currencyId + ", old=" + oldBalance + ", new=" + newBalance
+				+ ", cause=" + cause + ", changes=" + changes + "}";
+	}
+}
@@ -0,0 +1,63 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.UUID;
+
+/**
+ * A line of a balance leaderboard
+ * 余额排行榜中的一行
+ */
+public final class BalanceEntry {
+
+	private final int rank;
+	private final UUID playerId;
+	private final double balance;
+
+	/**
+	 * Constructor for BalanceEntry
+	 * {@link BalanceEntry}的构造函数
+	 *
+	 * @param rank position on the leaderboard, starting at 1
+	 * 在排行榜中的位置, 从1开始
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @param balance balance of the player
+	 * 玩家的余额
+	 */
+	public BalanceEntry(int rank, UUID playerId, double balance) {
+		this.rank = rank;
+		this.playerId = playerId;
+		this.balance = balance;
+	}
+
+	public int getRank() {
+		return rank;
+	}
+
+	public UUID getPlayerId() {
+		return playerId;
+	}
+
+	public double getBalance() {
+		return balance;
+	}
+
+	@Override
+	public String toString() {
+		return "BalanceEntry{rank=" + rank + ", playerId=" + playerId + ", balance=" + balance + "}";
+	}
+}
@@ -0,0 +1,39 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Selects the accounts a {@link BalanceTransform} is applied to. Implementations may be called from several
+ * threads at once.
+ * 选择要应用{@link BalanceTransform}的账户. 实现可能会被多个线程同时调用.
+ */
+public interface BalanceFilter {
+
+	/**
+	 * Checks if an account is to be transformed
+	 * 检查一个账户是否需要变换
+	 *
+	 * @param player owner of the account
+	 * 账户的所有者
+	 * @param balance current balance
+	 * 当前余额
+	 * @return true to transform the account
+	 * 如果需要变换该账户则返回真
+	 */
+	public boolean accept(OfflinePlayer player, double balance);
+}
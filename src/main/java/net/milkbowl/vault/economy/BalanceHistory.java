@@ -0,0 +1,315 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded per-account history of (time, balance) samples. Every account keeps its newest samples in a raw ring
+ * buffer; samples pushed out of it are folded into coarser rings holding one sample per time bucket, the last
+ * balance seen in that bucket. Samples are stored in primitive arrays and read without boxing through
+ * {@link #getSamples(AccountKey, long, long, long[], double[])}.
+ * 有上限的每账户(时间, 余额)样本历史. 每个账户在一个原始环形缓冲区中保存最新的样本; 被挤出的样本会合并到更粗粒度的环中,
+ * 每个时间段只保留一个样本, 即该时间段内最后的余额. 样本存储在基本类型数组中, 通过{@link #getSamples(AccountKey, long, long, long[], double[])}读取时不会装箱.
+ *
+ * All rings are allocated when an account is first recorded, so every account costs the same fixed amount of
+ * memory. Once the memory budget is reached, the history of the least recently recorded or queried account is
+ * dropped. Thread-safe.
+ * 所有环都在账户第一次被记录时分配, 因此每个账户占用固定大小的内存. 达到内存预算后, 最久未被记录或查询的账户的历史会被丢弃. 线程安全.
+ */
+public class BalanceHistory {
+
+	// Rough size of a Series with its arrays and map entry, besides the samples themselves.
+	private static final int ACCOUNT_OVERHEAD = 160;
+	private static final int TIER_OVERHEAD = 48;
+
+	private final Object lock = new Object();
+	private final int samplesPerTier;
+	private final long[] bucketMillis;
+	private final long budgetBytes;
+	private final int maxAccounts;
+	private final Map<AccountKey, Series> accounts;
+
+	/**
+	 * Constructor for BalanceHistory
+	 * {@link BalanceHistory}的构造函数
+	 *
+	 * @param samplesPerTier number of samples kept in every ring
+	 * 每个环中保留的样本数
+	 * @param bucketMillis bucket width in milliseconds of every downsampled ring, increasing
+	 * 每个降采样环的时间段宽度(毫秒), 递增
+	 * @param budgetBytes approximate memory the history may use
+	 * 历史可使用的大致内存
+	 */
+	public BalanceHistory(int samplesPerTier, long[] bucketMillis, long budgetBytes) {
+		if (samplesPerTier <= 0) {
+			throw new IllegalArgumentException("samplesPerTier must be positive");
+		}
+		for (int i = 0; i < bucketMillis.length; i++) {
+			if (bucketMillis[i] <= 0 || (i > 0 && bucketMillis[i] <= bucketMillis[i - 1])) {
+				throw new IllegalArgumentException("bucketMillis must be positive and increasing");
+			}
+		}
+		this.samplesPerTier = samplesPerTier;
+		this.bucketMillis = bucketMillis.clone();
+		this.budgetBytes = budgetBytes;
+		long perAccount = getBytesPerAccount();
+		if (budgetBytes < perAccount) {
+			throw new IllegalArgumentException("budgetBytes is too small for a single account");
+		}
+		this.maxAccounts = (int) Math.min(Integer.MAX_VALUE, budgetBytes / perAccount);
+		this.accounts = new LinkedHashMap<AccountKey, Series>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<AccountKey, Series> eldest) {
+				return size() > maxAccounts;
+			}
+		};
+	}
+
+	/**
+	 * Gets the approximate memory used by the history of one account
+	 * 获取一个账户的历史所占用的大致内存
+	 *
+	 * @return size in bytes
+	 * 字节数
+	 */
+	public long getBytesPerAccount() {
+		int tiers = bucketMillis.length + 1;
+		return ACCOUNT_OVERHEAD + tiers * (TIER_OVERHEAD + samplesPerTier * 16L);
+	}
+
+	/**
+	 * Gets the memory budget given at construction
+	 * 获取构造时给定的内存预算
+	 *
+	 * @return budget in bytes
+	 * 字节数
+	 */
+	public long getBudgetBytes() {
+		return budgetBytes;
+	}
+
+	/**
+	 * Gets the number of accounts that fit in the budget
+	 * 获取预算内可容纳的账户数
+	 *
+	 * @return maximum number of accounts
+	 * 最大账户数
+	 */
+	public int getMaxAccounts() {
+		return maxAccounts;
+	}
+
+	/**
+	 * Gets the number of accounts with a history
+	 * 获取拥有历史的账户数
+	 *
+	 * @return number of accounts
+	 * 账户数
+	 */
+	public int size() {
+		synchronized (lock) {
+			return accounts.size();
+		}
+	}
+
+	/**
+	 * Gets the accounts with a history, from least to most recently used
+	 * 获取拥有历史的账户, 按从最久未使用到最近使用排列
+	 *
+	 * @return copy of the account keys
+	 * 账户键的副本
+	 */
+	public List<AccountKey> getAccounts() {
+		synchronized (lock) {
+			return new ArrayList<AccountKey>(accounts.keySet());
+		}
+	}
+
+	/**
+	 * Records a balance. A time before the newest sample of the account is moved up to it.
+	 * 记录一个余额. 早于该账户最新样本的时间会被调整为最新样本的时间.
+	 *
+	 * @param key account
+	 * 账户
+	 * @param timeMillis time of the sample
+	 * 样本时间
+	 * @param balance balance at that time
+	 * 该时间的余额
+	 */
+	public void record(AccountKey key, long timeMillis, double balance) {
+		synchronized (lock) {
+			Series series = accounts.get(key);
+			if (series == null) {
+				series = new Series(bucketMillis.length + 1, samplesPerTier);
+				accounts.put(key, series);
+			}
+			series.add(0, Math.max(timeMillis, series.newest), balance);
+		}
+	}
+
+	/**
+	 * Drops the history of an account
+	 * 丢弃一个账户的历史
+	 *
+	 * @param key account
+	 * 账户
+	 */
+	public void remove(AccountKey key) {
+		synchronized (lock) {
+			accounts.remove(key);
+		}
+	}
+
+	/**
+	 * Drops every history
+	 * 丢弃所有历史
+	 */
+	public void clear() {
+		synchronized (lock) {
+			accounts.clear();
+		}
+	}
+
+	/**
+	 * Gets the number of samples kept for an account, to size the arrays passed to
+	 * {@link #getSamples(AccountKey, long, long, long[], double[])}
+	 * 获取一个账户保留的样本数, 用于确定传给{@link #getSamples(AccountKey, long, long, long[], double[])}的数组大小
+	 *
+	 * @param key account
+	 * 账户
+	 * @return number of samples, 0 if there is no history
+	 * 样本数, 如果没有历史则为0
+	 */
+	public int getSampleCount(AccountKey key) {
+		synchronized (lock) {
+			Series series = accounts.get(key);
+			if (series == null) {
+				return 0;
+			}
+			int count = 0;
+			for (int size : series.size) {
+				count += size;
+			}
+			return count;
+		}
+	}
+
+	/**
+	 * Copies the samples of an account within a time range, oldest first. Downsampled samples carry the start
+	 * time of their bucket.
+	 * 按从旧到新的顺序复制一个账户在时间范围内的样本. 降采样的样本使用其时间段的起始时间.
+	 *
+	 * @param key account
+	 * 账户
+	 * @param fromMillis first time included
+	 * 包含的最早时间
+	 * @param toMillis last time included
+	 * 包含的最晚时间
+	 * @param times receives the sample times
+	 * 接收样本时间
+	 * @param balances receives the sample balances, at least as long as <b>times</b>
+	 * 接收样本余额, 长度不小于<b>times</b>
+	 * @return number of samples copied, at most the length of <b>times</b>
+	 * 复制的样本数, 不超过<b>times</b>的长度
+	 */
+	public int getSamples(AccountKey key, long fromMillis, long toMillis, long[] times, double[] balances) {
+		if (balances.length < times.length) {
+			throw new IllegalArgumentException("balances is shorter than times");
+		}
+		synchronized (lock) {
+			Series series = accounts.get(key);
+			if (series == null) {
+				return 0;
+			}
+			int count = 0;
+			// Coarser rings only hold samples older than those of finer rings.
+			for (int tier = series.size.length - 1; tier >= 0; tier--) {
+				long[] tierTimes = series.times[tier];
+				double[] tierValues = series.values[tier];
+				for (int i = 0; i < series.size[tier]; i++) {
+					int slot = (series.start[tier] + i) % samplesPerTier;
+					long time = tierTimes[slot];
+					if (time > toMillis) {
+						return count;
+					}
+					if (time >= fromMillis) {
+						if (count == times.length) {
+							return count;
+						}
+						times[count] = time;
+						balances[count] = tierValues[slot];
+						count++;
+					}
+				}
+			}
+			return count;
+		}
+	}
+
+	private final class Series {
+		final long[][] times;
+		final double[][] values;
+		final int[] start;
+		final int[] size;
+		long newest = Long.MIN_VALUE;
+
+		Series(int tiers, int capacity) {
+			times = new long[tiers][capacity];
+			values = new double[tiers][capacity];
+			start = new int[tiers];
+			size = new int[tiers];
+		}
+
+		void add(int tier, long time, double value) {
+			long[] tierTimes = times[tier];
+			double[] tierValues = values[tier];
+			int capacity = tierTimes.length;
+			if (tier == 0) {
+				newest = time;
+			} else {
+				long width = bucketMillis[tier - 1];
+				time = time - (time % width + width) % width;
+				if (size[tier] > 0) {
+					int last = (start[tier] + size[tier] - 1) % capacity;
+					if (tierTimes[last] == time) {
+						tierValues[last] = value;
+						return;
+					}
+				}
+			}
+			if (size[tier] == capacity) {
+				int oldest = start[tier];
+				long evictedTime = tierTimes[oldest];
+				double evictedValue = tierValues[oldest];
+				start[tier] = (oldest + 1) % capacity;
+				size[tier]--;
+				if (tier + 1 < times.length) {
+					add(tier + 1, evictedTime, evictedValue);
+				}
+			}
+			int slot = (start[tier] + size[tier]) % capacity;
+			tierTimes[slot] = time;
+			tierValues[slot] = value;
+			size[tier]++;
+		}
+	}
+}
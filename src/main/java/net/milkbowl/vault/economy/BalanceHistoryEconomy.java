@@ -0,0 +1,153 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Opt-in decorator that records the {@link EconomyResponse#balance} of every successful withdrawal and deposit
+ * made through it into a {@link BalanceHistory}, for charting balance trends without storing every transaction.
+ * 可选的装饰器, 将经过它的每次成功的存取款的{@link EconomyResponse#balance}记录到{@link BalanceHistory}中,
+ * 用于绘制余额走势而无需保存每笔交易.
+ *
+ * Samples are kept per account, null being the world of the global account. Mutations made through the
+ * deprecated name methods are not recorded.
+ * 样本按账户保存, 全局账户的世界为null. 通过已弃用的玩家名方法进行的操作不会被记录.
+ */
+public class BalanceHistoryEconomy extends ForwardingEconomy {
+
+	private final BalanceHistory history;
+
+	/**
+	 * Constructor for BalanceHistoryEconomy
+	 * {@link BalanceHistoryEconomy}的构造函数
+	 *
+	 * @param delegate Economy to record
+	 * 要记录的经济实现
+	 * @param history where samples are stored
+	 * 保存样本的位置
+	 */
+	public BalanceHistoryEconomy(Economy delegate, BalanceHistory history) {
+		super(delegate);
+		this.history = history;
+	}
+
+	/**
+	 * Gets the underlying history
+	 * 获取底层的历史
+	 *
+	 * @return history
+	 * 历史
+	 */
+	public BalanceHistory getHistory() {
+		return history;
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+		return record(player, null, delegate.withdrawPlayer(player, amount));
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+		return record(player, worldName, delegate.withdrawPlayer(player, worldName, amount));
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+		return record(player, null, delegate.depositPlayer(player, amount));
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+		return record(player, worldName, delegate.depositPlayer(player, worldName, amount));
+	}
+
+	@Override
+	public boolean withdrawPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		return withdrawInto(player, worldName, amount, result);
+	}
+
+	@Override
+	public boolean depositPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		return depositInto(player, worldName, amount, result);
+	}
+
+	@Override
+	public boolean createPlayerAccount(OfflinePlayer player) {
+		boolean created = delegate.createPlayerAccount(player);
+		if (created) {
+			sample(player, null);
+		}
+		return created;
+	}
+
+	@Override
+	public boolean createPlayerAccount(OfflinePlayer player, String worldName) {
+		boolean created = delegate.createPlayerAccount(player, worldName);
+		if (created) {
+			sample(player, worldName);
+		}
+		return created;
+	}
+
+	@Override
+	public List<OfflinePlayer> createPlayerAccounts(Collection<? extends OfflinePlayer> players, String worldName) {
+		List<OfflinePlayer> created = delegate.createPlayerAccounts(players, worldName);
+		for (OfflinePlayer player : created) {
+			sample(player, worldName);
+		}
+		return created;
+	}
+
+	// The provider may run the transform in its backend, so every account with a history is read again.
+	@Override
+	public MassUpdateResult transformBalances(BalanceTransform transform, BalanceFilter filter, String worldName, MassUpdateListener listener) {
+		MassUpdateResult result = delegate.transformBalances(transform, filter, worldName, listener);
+		for (AccountKey key : history.getAccounts()) {
+			if (worldName == null ? key.getWorldName() == null : worldName.equals(key.getWorldName())) {
+				sample(Bukkit.getOfflinePlayer(key.getPlayerId()), key.getWorldName());
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public EconomyResponse captureHold(FundHold hold) {
+		return record(hold.getPlayer(), hold.getWorldName(), delegate.captureHold(hold));
+	}
+
+	@Override
+	public EconomyResponse compareAndSetBalance(OfflinePlayer player, String worldName, long expectedVersion, double newBalance) {
+		return record(player, worldName, delegate.compareAndSetBalance(player, worldName, expectedVersion, newBalance));
+	}
+
+	private void sample(OfflinePlayer player, String worldName) {
+		double balance = worldName == null ? delegate.getBalance(player) : delegate.getBalance(player, worldName);
+		history.record(new AccountKey(player.getUniqueId(), worldName), System.currentTimeMillis(), balance);
+	}
+
+	private EconomyResponse record(OfflinePlayer player, String worldName, EconomyResponse response) {
+		if (response != null && response.transactionSuccess()) {
+			history.record(new AccountKey(player.getUniqueId(), worldName), System.currentTimeMillis(), response.balance);
+		}
+		return response;
+	}
+}
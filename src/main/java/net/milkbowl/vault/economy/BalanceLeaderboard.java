@@ -0,0 +1,278 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Balances ordered from richest to poorest, kept in an indexable skip list. Updating a balance, finding the
+ * rank of a player and jumping to any rank take logarithmic time; reading K entries from there is O(K).
+ * Players with the same balance are ordered by UUID. All methods are thread-safe.
+ * 按余额从高到低排序的索引跳表. 更新余额, 查询玩家排名和跳转到任意名次都是对数时间; 从该位置读取K条记录为O(K).
+ * 余额相同的玩家按UUID排序. 所有方法都是线程安全的.
+ */
+public class BalanceLeaderboard {
+
+	private static final int MAX_LEVEL = 32;
+
+	private final Node head = new Node(null, 0, MAX_LEVEL);
+	private final Map<UUID, Node> nodes = new HashMap<UUID, Node>();
+	private final Random random = new Random();
+	private int level = 1;
+
+	/**
+	 * Sets the balance of a player, adding the player if needed
+	 * 设置玩家的余额, 必要时添加该玩家
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @param balance new balance
+	 * 新的余额
+	 */
+	public synchronized void update(UUID playerId, double balance) {
+		Node node = nodes.remove(playerId);
+		if (node != null) {
+			if (Double.compare(node.balance, balance) == 0) {
+				nodes.put(playerId, node);
+				return;
+			}
+			unlink(node);
+		}
+		nodes.put(playerId, insert(playerId, balance));
+	}
+
+	/**
+	 * Removes a player from the leaderboard
+	 * 从排行榜中移除玩家
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @return true if the player was on the leaderboard
+	 * 如果玩家在排行榜中则返回真
+	 */
+	public synchronized boolean remove(UUID playerId) {
+		Node node = nodes.remove(playerId);
+		if (node == null) {
+			return false;
+		}
+		unlink(node);
+		return true;
+	}
+
+	/**
+	 * Removes every player
+	 * 移除所有玩家
+	 */
+	public synchronized void clear() {
+		nodes.clear();
+		for (int i = 0; i < MAX_LEVEL; i++) {
+			head.next[i] = null;
+			head.span[i] = 0;
+		}
+		level = 1;
+	}
+
+	/**
+	 * Gets the number of players on the leaderboard
+	 * 获取排行榜中的玩家数
+	 *
+	 * @return number of players
+	 * 玩家数
+	 */
+	public synchronized int size() {
+		return nodes.size();
+	}
+
+	/**
+	 * Checks if a player is on the leaderboard
+	 * 检查玩家是否在排行榜中
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @return true if the player is tracked
+	 * 如果玩家被记录则返回真
+	 */
+	public synchronized boolean contains(UUID playerId) {
+		return nodes.containsKey(playerId);
+	}
+
+	/**
+	 * Gets the rank of a player
+	 * 获取玩家的排名
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @return rank starting at 1, or 0 if the player is not on the leaderboard
+	 * 从1开始的排名, 如果玩家不在排行榜中则为0
+	 */
+	public synchronized int rankOf(UUID playerId) {
+		Node target = nodes.get(playerId);
+		if (target == null) {
+			return 0;
+		}
+		int rank = 0;
+		Node x = head;
+		for (int i = level - 1; i >= 0; i--) {
+			while (x.next[i] != null && !before(target, x.next[i])) {
+				rank += x.span[i];
+				x = x.next[i];
+			}
+			if (x == target) {
+				return rank;
+			}
+		}
+		return rank;
+	}
+
+	/**
+	 * Gets the richest players
+	 * 获取最富有的玩家
+	 *
+	 * @param count maximum number of entries
+	 * 最多返回的条目数
+	 * @return entries ordered by rank
+	 * 按排名排序的条目
+	 */
+	public List<BalanceEntry> top(int count) {
+		return page(1, count);
+	}
+
+	/**
+	 * Gets a slice of the leaderboard
+	 * 获取排行榜的一段
+	 *
+	 * @param fromRank first rank to return, starting at 1
+	 * 返回的第一个名次, 从1开始
+	 * @param count maximum number of entries
+	 * 最多返回的条目数
+	 * @return entries ordered by rank
+	 * 按排名排序的条目
+	 */
+	public synchronized List<BalanceEntry> page(int fromRank, int count) {
+		if (fromRank < 1 || count <= 0 || fromRank > nodes.size()) {
+			return Collections.emptyList();
+		}
+		List<BalanceEntry> entries = new ArrayList<BalanceEntry>(Math.min(count, nodes.size() - fromRank + 1));
+		Node x = nodeAt(fromRank);
+		for (int rank = fromRank; x != null && entries.size() < count; rank++, x = x.next[0]) {
+			entries.add(new BalanceEntry(rank, x.playerId, x.balance));
+		}
+		return entries;
+	}
+
+	private Node nodeAt(int rank) {
+		int traversed = 0;
+		Node x = head;
+		for (int i = level - 1; i >= 0; i--) {
+			while (x.next[i] != null && traversed + x.span[i] <= rank) {
+				traversed += x.span[i];
+				x = x.next[i];
+			}
+			if (traversed == rank) {
+				return x;
+			}
+		}
+		return null;
+	}
+
+	// Callers must remove the player from the node map first.
+	private Node insert(UUID playerId, double balance) {
+		Node[] update = new Node[MAX_LEVEL];
+		int[] rank = new int[MAX_LEVEL];
+		Node node = new Node(playerId, balance, randomLevel());
+		Node x = head;
+		for (int i = level - 1; i >= 0; i--) {
+			rank[i] = i == level - 1 ? 0 : rank[i + 1];
+			while (x.next[i] != null && before(x.next[i], node)) {
+				rank[i] += x.span[i];
+				x = x.next[i];
+			}
+			update[i] = x;
+		}
+		int size = nodes.size();
+		int height = node.next.length;
+		if (height > level) {
+			for (int i = level; i < height; i++) {
+				rank[i] = 0;
+				update[i] = head;
+				head.span[i] = size;
+			}
+			level = height;
+		}
+		for (int i = 0; i < height; i++) {
+			node.next[i] = update[i].next[i];
+			update[i].next[i] = node;
+			node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+			update[i].span[i] = rank[0] - rank[i] + 1;
+		}
+		for (int i = height; i < level; i++) {
+			update[i].span[i]++;
+		}
+		return node;
+	}
+
+	private void unlink(Node node) {
+		Node x = head;
+		for (int i = level - 1; i >= 0; i--) {
+			while (x.next[i] != null && before(x.next[i], node)) {
+				x = x.next[i];
+			}
+			if (x.next[i] == node) {
+				x.span[i] += node.span[i] - 1;
+				x.next[i] = node.next[i];
+			} else {
+				x.span[i]--;
+			}
+		}
+		while (level > 1 && head.next[level - 1] == null) {
+			level--;
+		}
+	}
+
+	private int randomLevel() {
+		int height = 1;
+		while (height < MAX_LEVEL && random.nextInt(4) == 0) {
+			height++;
+		}
+		return height;
+	}
+
+	// Richer first, then by UUID.
+	private static boolean before(Node a, Node b) {
+		int c = Double.compare(b.balance, a.balance);
+		return c < 0 || (c == 0 && a.playerId.compareTo(b.playerId) < 0);
+	}
+
+	private static final class Node {
+		final UUID playerId;
+		final double balance;
+		final Node[] next;
+		final int[] span;
+
+		Node(UUID playerId, double balance, int height) {
+			this.playerId = playerId;
+			this.balance = balance;
+			this.next = new Node[height];
+			this.span = new int[height];
+		}
+	}
+}
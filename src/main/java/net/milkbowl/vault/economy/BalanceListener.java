@@ -0,0 +1,32 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+/**
+ * Receives balance changes from a {@link NotifyingEconomy}
+ * 接收来自{@link NotifyingEconomy}的余额变化
+ */
+public interface BalanceListener {
+
+	/**
+	 * Called once per changed account and tick, after the changes were made
+	 * 每个发生变化的账户每刻调用一次, 在变化发生之后
+	 *
+	 * @param change coalesced change of one account
+	 * 一个账户合并后的变化
+	 */
+	public void onBalanceChange(BalanceChange change);
+}
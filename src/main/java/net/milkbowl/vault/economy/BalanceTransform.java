@@ -0,0 +1,44 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Computes the new balance of an account during {@link Economy#transformBalances(BalanceTransform, BalanceFilter, String, MassUpdateListener)}.
+ * Implementations may be called from several threads at once.
+ * 在{@link Economy#transformBalances(BalanceTransform, BalanceFilter, String, MassUpdateListener)}中计算账户的新余额.
+ * 实现可能会被多个线程同时调用.
+ *
+ * Providers can run a {@link LinearBalanceTransform} as a single statement in their backend; any other
+ * transform is applied account by account.
+ * 经济插件可以在后端用一条语句执行{@link LinearBalanceTransform}; 其他变换会逐个账户应用.
+ */
+public interface BalanceTransform {
+
+	/**
+	 * Computes the new balance of an account
+	 * 计算账户的新余额
+	 *
+	 * @param player owner of the account
+	 * 账户的所有者
+	 * @param balance current balance
+	 * 当前余额
+	 * @return new balance, or <b>balance</b> to leave the account unchanged
+	 * 新余额, 返回<b>balance</b>则不改变账户
+	 */
+	public double apply(OfflinePlayer player, double balance);
+}
@@ -0,0 +1,246 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Ownership and membership index of banks for providers to keep next to their bank storage. Owners count
+ * as members of their banks. The boolean checks allocate nothing. All methods are thread-safe.
+ * 银行所有权与成员关系的索引, 供经济插件与其银行存储一起维护. 所有者也被视为其银行的成员. 布尔检查不分配对象. 所有方法都是线程安全的.
+ */
+public class BankIndex {
+
+	private final Map<String, UUID> owners = new HashMap<String, UUID>();
+	private final Map<String, Set<UUID>> members = new HashMap<String, Set<UUID>>();
+	private final Map<UUID, Set<String>> ownedBy = new HashMap<UUID, Set<String>>();
+	private final Map<UUID, Set<String>> memberOf = new HashMap<UUID, Set<String>>();
+
+	/**
+	 * Adds a bank, replacing any bank with the same name
+	 * 添加一个银行, 替换同名的银行
+	 *
+	 * @param name of the bank
+	 * 银行名
+	 * @param ownerId UUID of the owner
+	 * 所有者的UUID
+	 */
+	public synchronized void addBank(String name, UUID ownerId) {
+		removeBank(name);
+		owners.put(name, ownerId);
+		members.put(name, new HashSet<UUID>());
+		link(ownedBy, ownerId, name);
+	}
+
+	/**
+	 * Removes a bank and all of its members
+	 * 移除一个银行及其所有成员
+	 *
+	 * @param name of the bank
+	 * 银行名
+	 * @return true if the bank was indexed
+	 * 如果银行已被索引则返回真
+	 */
+	public synchronized boolean removeBank(String name) {
+		UUID owner = owners.remove(name);
+		if (owner == null) {
+			return false;
+		}
+		unlink(ownedBy, owner, name);
+		for (UUID member : members.remove(name)) {
+			unlink(memberOf, member, name);
+		}
+		return true;
+	}
+
+	/**
+	 * Adds a member to a bank
+	 * 向银行添加成员
+	 *
+	 * @param name of the bank
+	 * 银行名
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @return false if the bank is not indexed
+	 * 如果银行未被索引则返回假
+	 */
+	public synchronized boolean addMember(String name, UUID playerId) {
+		Set<UUID> set = members.get(name);
+		if (set == null) {
+			return false;
+		}
+		if (set.add(playerId)) {
+			link(memberOf, playerId, name);
+		}
+		return true;
+	}
+
+	/**
+	 * Removes a member from a bank
+	 * 从银行移除成员
+	 *
+	 * @param name of the bank
+	 * 银行名
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @return true if the player was a member
+	 * 如果玩家是成员则返回真
+	 */
+	public synchronized boolean removeMember(String name, UUID playerId) {
+		Set<UUID> set = members.get(name);
+		if (set == null || !set.remove(playerId)) {
+			return false;
+		}
+		unlink(memberOf, playerId, name);
+		return true;
+	}
+
+	/**
+	 * Checks if a bank is indexed
+	 * 检查银行是否已被索引
+	 *
+	 * @param name of the bank
+	 * 银行名
+	 * @return true if the bank exists
+	 * 如果银行存在则返回真
+	 */
+	public synchronized boolean hasBank(String name) {
+		return owners.containsKey(name);
+	}
+
+	/**
+	 * Gets the owner of a bank
+	 * 获取银行的所有者
+	 *
+	 * @param name of the bank
+	 * 银行名
+	 * @return UUID of the owner, or null if the bank is not indexed
+	 * 所有者的UUID, 如果银行未被索引则为null
+	 */
+	public synchronized UUID getOwner(String name) {
+		return owners.get(name);
+	}
+
+	/**
+	 * Checks if a player owns a bank
+	 * 检查玩家是否拥有某个银行
+	 *
+	 * @param name of the bank
+	 * 银行名
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @return true if the player is the owner
+	 * 如果玩家是所有者则返回真
+	 */
+	public synchronized boolean isOwner(String name, UUID playerId) {
+		return playerId.equals(owners.get(name));
+	}
+
+	/**
+	 * Checks if a player is the owner or a member of a bank
+	 * 检查玩家是否是某个银行的所有者或成员
+	 *
+	 * @param name of the bank
+	 * 银行名
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @return true if the player is the owner or a member
+	 * 如果玩家是所有者或成员则返回真
+	 */
+	public synchronized boolean isMember(String name, UUID playerId) {
+		if (playerId.equals(owners.get(name))) {
+			return true;
+		}
+		Set<UUID> set = members.get(name);
+		return set != null && set.contains(playerId);
+	}
+
+	/**
+	 * Gets the members of a bank, not including the owner
+	 * 获取银行的成员, 不包括所有者
+	 *
+	 * @param name of the bank
+	 * 银行名
+	 * @return UUIDs of the members
+	 * 成员的UUID
+	 */
+	public synchronized List<UUID> getMembers(String name) {
+		Set<UUID> set = members.get(name);
+		return set == null ? Collections.<UUID>emptyList() : new ArrayList<UUID>(set);
+	}
+
+	/**
+	 * Gets the banks owned by a player
+	 * 获取玩家拥有的银行
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @return names of the banks
+	 * 银行名
+	 */
+	public synchronized List<String> getBanksOwnedBy(UUID playerId) {
+		Set<String> owned = ownedBy.get(playerId);
+		return owned == null ? Collections.<String>emptyList() : new ArrayList<String>(owned);
+	}
+
+	/**
+	 * Gets the banks a player owns or is a member of
+	 * 获取玩家拥有或作为成员的银行
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @return names of the banks
+	 * 银行名
+	 */
+	public synchronized List<String> getBanksWithMember(UUID playerId) {
+		Set<String> owned = ownedBy.get(playerId);
+		Set<String> joined = memberOf.get(playerId);
+		if (owned == null && joined == null) {
+			return Collections.emptyList();
+		}
+		Set<String> banks = new HashSet<String>();
+		if (owned != null) {
+			banks.addAll(owned);
+		}
+		if (joined != null) {
+			banks.addAll(joined);
+		}
+		return new ArrayList<String>(banks);
+	}
+
+	private static void link(Map<UUID, Set<String>> index, UUID playerId, String name) {
+		Set<String> banks = index.get(playerId);
+		if (banks == null) {
+			banks = new HashSet<String>(4);
+			index.put(playerId, banks);
+		}
+		banks.add(name);
+	}
+
+	private static void unlink(Map<UUID, Set<String>> index, UUID playerId, String name) {
+		Set<String> banks = index.get(playerId);
+		if (banks != null && banks.remove(name) && banks.isEmpty()) {
+			index.remove(playerId);
+		}
+	}
+}
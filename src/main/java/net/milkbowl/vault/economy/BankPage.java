@@ -0,0 +1,131 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+
+/**
+ * One page of bank names returned by {@link Economy#getBanks(String, String, int)}. Names are in natural
+ * String order; pass {@link #getNextCursor()} to the next call to continue after the last name of this page.
+ * {@link Economy#getBanks(String, String, int)}返回的一页银行名. 名称按字符串自然顺序排列; 将{@link #getNextCursor()}传给下一次调用即可从本页最后一个名称之后继续.
+ */
+public final class BankPage {
+
+	private static final BankPage EMPTY = new BankPage(Collections.<String>emptyList(), null);
+
+	private final List<String> names;
+	private final String nextCursor;
+
+	/**
+	 * Constructor for BankPage
+	 * {@link BankPage}的构造函数
+	 *
+	 * @param names bank names of this page, in natural order
+	 * 本页的银行名, 按自然顺序排列
+	 * @param nextCursor cursor of the next page, or null if this is the last page
+	 * 下一页的游标, 如果这是最后一页则为null
+	 */
+	public BankPage(List<String> names, String nextCursor) {
+		this.names = Collections.unmodifiableList(names);
+		this.nextCursor = nextCursor;
+	}
+
+	/**
+	 * Gets the empty last page
+	 * 获取空的最后一页
+	 *
+	 * @return empty page
+	 * 空页
+	 */
+	public static BankPage empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Cuts a page out of a sorted set of bank names
+	 * 从有序的银行名集合中截取一页
+	 *
+	 * @param sorted all bank names in natural order
+	 * 按自然顺序排列的所有银行名
+	 * @param prefix only names starting with this are returned, null or empty for all names
+	 * 只返回以此开头的名称, 为null或空时返回所有名称
+	 * @param cursor the page starts after this name, null for the first page
+	 * 本页从此名称之后开始, 第一页为null
+	 * @param limit maximum number of names
+	 * 最多返回的名称数
+	 * @return page of names
+	 * 名称页
+	 */
+	public static BankPage of(NavigableSet<String> sorted, String prefix, String cursor, int limit) {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("limit must be positive");
+		}
+		String start = cursor;
+		boolean inclusive = false;
+		if (prefix != null && prefix.length() > 0 && (start == null || start.compareTo(prefix) < 0)) {
+			start = prefix;
+			inclusive = true;
+		}
+		NavigableSet<String> tail = start == null ? sorted : sorted.tailSet(start, inclusive);
+		List<String> names = new ArrayList<String>(Math.min(limit, 64));
+		for (String name : tail) {
+			if (prefix != null && !name.startsWith(prefix)) {
+				break;
+			}
+			if (names.size() == limit) {
+				return new BankPage(names, names.get(limit - 1));
+			}
+			names.add(name);
+		}
+		return names.isEmpty() ? EMPTY : new BankPage(names, null);
+	}
+
+	/**
+	 * Gets the bank names of this page
+	 * 获取本页的银行名
+	 *
+	 * @return unmodifiable list of names
+	 * 不可修改的名称列表
+	 */
+	public List<String> getNames() {
+		return names;
+	}
+
+	/**
+	 * Gets the cursor to pass for the next page
+	 * 获取下一页要传入的游标
+	 *
+	 * @return cursor, or null if this is the last page
+	 * 游标, 如果这是最后一页则为null
+	 */
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	/**
+	 * Checks if more pages follow
+	 * 检查是否还有后续页
+	 *
+	 * @return true if there is a next page
+	 * 如果有下一页则返回真
+	 */
+	public boolean hasMore() {
+		return nextCursor != null;
+	}
+}
@@ -0,0 +1,399 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Read-through cache in front of any {@link Economy}. {@link #getBalance(OfflinePlayer)},
+ * {@link #has(OfflinePlayer, double)} and {@link #hasAccount(OfflinePlayer)} are served from a bounded
+ * cache whose entries expire after a fixed time, and successful withdrawals and deposits update the
+ * cached balance from {@link EconomyResponse#balance}.
+ * 任意{@link Economy}前的读穿透缓存. 余额, 金额检查和账户检查都由一个有上限且定时过期的缓存提供,
+ * 成功的存取款会使用{@link EconomyResponse#balance}更新缓存的余额.
+ *
+ * Calls using the deprecated player name methods are not cached; name based withdrawals, deposits and
+ * account creations clear the whole cache since the affected UUID is unknown.
+ * 使用已弃用的玩家名方法的调用不会被缓存; 基于玩家名的存取款和创建账户会清空整个缓存, 因为无法得知受影响的UUID.
+ */
+@SuppressWarnings("deprecation")
+public class CachingEconomy extends ForwardingEconomy {
+
+	private final Object lock = new Object();
+	private final long ttlNanos;
+	private final Map<UUID, CachedAccount> accounts;
+
+	/**
+	 * Constructor for CachingEconomy
+	 * {@link CachingEconomy}的构造函数
+	 *
+	 * @param delegate Economy to cache
+	 * 要缓存的经济实现
+	 * @param maxEntries maximum number of players kept in the cache
+	 * 缓存中保留的最大玩家数
+	 * @param ttl how long a cached value stays valid
+	 * 缓存值的有效时间
+	 * @param unit unit of <b>ttl</b>
+	 * <b>ttl</b>的时间单位
+	 */
+	public CachingEconomy(Economy delegate, final int maxEntries, long ttl, TimeUnit unit) {
+		super(delegate);
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("maxEntries must be positive");
+		}
+		if (ttl <= 0) {
+			throw new IllegalArgumentException("ttl must be positive");
+		}
+		this.ttlNanos = unit.toNanos(ttl);
+		this.accounts = new LinkedHashMap<UUID, CachedAccount>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<UUID, CachedAccount> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Drops every cached value of the given player
+	 * 清除指定玩家的所有缓存值
+	 *
+	 * @param player to invalidate
+	 * 要清除的玩家
+	 */
+	public void invalidate(OfflinePlayer player) {
+		invalidate(player.getUniqueId());
+	}
+
+	/**
+	 * Drops every cached value of the player with the given UUID
+	 * 清除指定UUID的玩家的所有缓存值
+	 *
+	 * @param playerId UUID of the player to invalidate
+	 * 要清除的玩家的UUID
+	 */
+	public void invalidate(UUID playerId) {
+		synchronized (lock) {
+			accounts.remove(playerId);
+		}
+	}
+
+	/**
+	 * Drops every cached value
+	 * 清空缓存
+	 */
+	public void invalidateAll() {
+		synchronized (lock) {
+			accounts.clear();
+		}
+	}
+
+	/**
+	 * Called after a mutation made through this cache changed the accounts of a player. Does nothing by
+	 * default; subclasses override it to tell other caches of the same Economy.
+	 * 在通过此缓存进行的操作改变了玩家的账户后调用. 默认不做任何事; 子类可以覆盖它以通知同一经济实现的其他缓存.
+	 *
+	 * @param playerId UUID of the player, or null if the affected players are unknown
+	 * 玩家的UUID, 如果无法得知受影响的玩家则为null
+	 */
+	protected void onLocalChange(UUID playerId) {
+	}
+
+	@Override
+	public boolean hasAccount(OfflinePlayer player) {
+		return cachedHasAccount(player, null, false);
+	}
+
+	@Override
+	public boolean hasAccount(OfflinePlayer player, String worldName) {
+		return cachedHasAccount(player, worldName, true);
+	}
+
+	@Override
+	public double getBalance(OfflinePlayer player) {
+		return cachedBalance(player, null, false);
+	}
+
+	@Override
+	public double getBalance(OfflinePlayer player, String world) {
+		return cachedBalance(player, world, true);
+	}
+
+	@Override
+	public boolean has(OfflinePlayer player, double amount) {
+		return cachedBalance(player, null, false) - delegate.getHeldBalance(player, null) >= amount;
+	}
+
+	@Override
+	public boolean has(OfflinePlayer player, String worldName, double amount) {
+		return cachedBalance(player, worldName, true) - delegate.getHeldBalance(player, worldName) >= amount;
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+		return update(player, null, delegate.withdrawPlayer(player, amount));
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+		return update(player, worldName, delegate.withdrawPlayer(player, worldName, amount));
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+		return update(player, null, delegate.depositPlayer(player, amount));
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+		return update(player, worldName, delegate.depositPlayer(player, worldName, amount));
+	}
+
+	@Override
+	public boolean withdrawPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		return withdrawInto(player, worldName, amount, result);
+	}
+
+	@Override
+	public boolean depositPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		return depositInto(player, worldName, amount, result);
+	}
+
+	@Override
+	public boolean createPlayerAccount(OfflinePlayer player) {
+		boolean created = delegate.createPlayerAccount(player);
+		invalidate(player);
+		if (created) {
+			onLocalChange(player.getUniqueId());
+		}
+		return created;
+	}
+
+	@Override
+	public boolean createPlayerAccount(OfflinePlayer player, String worldName) {
+		boolean created = delegate.createPlayerAccount(player, worldName);
+		invalidate(player);
+		if (created) {
+			onLocalChange(player.getUniqueId());
+		}
+		return created;
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(String playerName, double amount) {
+		EconomyResponse response = delegate.withdrawPlayer(playerName, amount);
+		invalidateAll();
+		onLocalChange(null);
+		return response;
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(String playerName, String worldName, double amount) {
+		EconomyResponse response = delegate.withdrawPlayer(playerName, worldName, amount);
+		invalidateAll();
+		onLocalChange(null);
+		return response;
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(String playerName, double amount) {
+		EconomyResponse response = delegate.depositPlayer(playerName, amount);
+		invalidateAll();
+		onLocalChange(null);
+		return response;
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(String playerName, String worldName, double amount) {
+		EconomyResponse response = delegate.depositPlayer(playerName, worldName, amount);
+		invalidateAll();
+		onLocalChange(null);
+		return response;
+	}
+
+	@Override
+	public boolean createPlayerAccount(String playerName) {
+		boolean created = delegate.createPlayerAccount(playerName);
+		invalidateAll();
+		onLocalChange(null);
+		return created;
+	}
+
+	@Override
+	public boolean createPlayerAccount(String playerName, String worldName) {
+		boolean created = delegate.createPlayerAccount(playerName, worldName);
+		invalidateAll();
+		onLocalChange(null);
+		return created;
+	}
+
+	@Override
+	public List<OfflinePlayer> createPlayerAccounts(Collection<? extends OfflinePlayer> players, String worldName) {
+		List<OfflinePlayer> created = delegate.createPlayerAccounts(players, worldName);
+		for (OfflinePlayer player : players) {
+			invalidate(player);
+		}
+		for (OfflinePlayer player : created) {
+			onLocalChange(player.getUniqueId());
+		}
+		return created;
+	}
+
+	@Override
+	public MassUpdateResult transformBalances(BalanceTransform transform, BalanceFilter filter, String worldName, MassUpdateListener listener) {
+		MassUpdateResult result = delegate.transformBalances(transform, filter, worldName, listener);
+		invalidateAll();
+		onLocalChange(null);
+		return result;
+	}
+
+	@Override
+	public EconomyResponse captureHold(FundHold hold) {
+		return update(hold.getPlayer(), hold.getWorldName(), delegate.captureHold(hold));
+	}
+
+	@Override
+	public EconomyResponse compareAndSetBalance(OfflinePlayer player, String worldName, long expectedVersion, double newBalance) {
+		return update(player, worldName, delegate.compareAndSetBalance(player, worldName, expectedVersion, newBalance));
+	}
+
+	private double cachedBalance(OfflinePlayer player, String world, boolean perWorld) {
+		UUID id = player.getUniqueId();
+		CachedAccount account;
+		long seen;
+		synchronized (lock) {
+			Slot slot = slot(id, world, false);
+			if (slot != null && slot.balanceDeadline - System.nanoTime() > 0) {
+				return slot.balance;
+			}
+			account = account(id);
+			seen = account.stamp;
+		}
+		double balance = perWorld ? delegate.getBalance(player, world) : delegate.getBalance(player);
+		synchronized (lock) {
+			if (isUnchanged(id, account, seen)) {
+				Slot slot = slot(id, world, true);
+				slot.balance = balance;
+				slot.balanceDeadline = System.nanoTime() + ttlNanos;
+			}
+		}
+		return balance;
+	}
+
+	private boolean cachedHasAccount(OfflinePlayer player, String world, boolean perWorld) {
+		UUID id = player.getUniqueId();
+		CachedAccount account;
+		long seen;
+		synchronized (lock) {
+			Slot slot = slot(id, world, false);
+			if (slot != null && slot.accountDeadline - System.nanoTime() > 0) {
+				return slot.hasAccount;
+			}
+			account = account(id);
+			seen = account.stamp;
+		}
+		boolean hasAccount = perWorld ? delegate.hasAccount(player, world) : delegate.hasAccount(player);
+		synchronized (lock) {
+			if (isUnchanged(id, account, seen)) {
+				Slot slot = slot(id, world, true);
+				slot.hasAccount = hasAccount;
+				slot.accountDeadline = System.nanoTime() + ttlNanos;
+			}
+		}
+		return hasAccount;
+	}
+
+	private EconomyResponse update(OfflinePlayer player, String world, EconomyResponse response) {
+		UUID id = player.getUniqueId();
+		synchronized (lock) {
+			if (response == null || !response.transactionSuccess()) {
+				accounts.remove(id);
+				return response;
+			}
+			// Providers without per-world accounts apply a world mutation to the global balance,
+			// so every other cached view of this player is dropped.
+			CachedAccount account = accounts.get(id);
+			if (account != null) {
+				account.stamp++;
+				account.worlds.clear();
+			}
+			Slot slot = slot(id, world, true);
+			long deadline = System.nanoTime() + ttlNanos;
+			slot.balance = response.balance;
+			slot.balanceDeadline = deadline;
+			slot.hasAccount = true;
+			slot.accountDeadline = deadline;
+		}
+		onLocalChange(id);
+		return response;
+	}
+
+	// Callers must hold the lock.
+	private CachedAccount account(UUID id) {
+		CachedAccount account = accounts.get(id);
+		if (account == null) {
+			account = new CachedAccount();
+			accounts.put(id, account);
+		}
+		return account;
+	}
+
+	// A read only stores what it fetched if the account was neither written, invalidated nor evicted meanwhile.
+	// Callers must hold the lock.
+	private boolean isUnchanged(UUID id, CachedAccount account, long seen) {
+		return accounts.get(id) == account && account.stamp == seen;
+	}
+
+	// Callers must hold the lock.
+	private Slot slot(UUID id, String world, boolean create) {
+		CachedAccount account = create ? account(id) : accounts.get(id);
+		if (account == null) {
+			return null;
+		}
+		Slot slot = account.worlds.get(world);
+		if (slot == null && create) {
+			slot = new Slot();
+			long now = System.nanoTime();
+			slot.balanceDeadline = now;
+			slot.accountDeadline = now;
+			account.worlds.put(world, slot);
+		}
+		return slot;
+	}
+
+	private static final class CachedAccount {
+		// Bumped by every write to the player; invalidations replace the whole entry.
+		long stamp;
+		// Keyed by world name, null for the global account.
+		final Map<String, Slot> worlds = new HashMap<String, Slot>(4);
+	}
+
+	private static final class Slot {
+		double balance;
+		long balanceDeadline;
+		boolean hasAccount;
+		long accountDeadline;
+	}
+}
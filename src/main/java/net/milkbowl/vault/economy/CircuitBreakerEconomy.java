@@ -0,0 +1,793 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.milkbowl.vault.economy.EconomyResponse.ErrorCode;
+
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Decorator that protects the caller, typically the main thread, from a stalled {@link Economy}. Every call runs
+ * on an executor and is abandoned after a deadline; after a number of consecutive timeouts or errors the circuit
+ * opens and calls fail immediately, until a single trial call after a cool-down succeeds.
+ * 保护调用者(一般是主线程)免受停滞的{@link Economy}影响的装饰器. 每次调用都在执行器上运行, 超过期限后会被放弃;
+ * 连续多次超时或出错后断路器打开, 调用会立即失败, 直到冷却后的一次试探调用成功.
+ *
+ * Failed mutations come back as {@link EconomyResponse.ResponseType#FAILURE} with {@link ErrorCode#TIMEOUT},
+ * {@link ErrorCode#CIRCUIT_OPEN} or {@link ErrorCode#OTHER}. Failed reads are answered by
+ * {@link #fallbackBalance(OfflinePlayer, String)} and {@link #fallbackHasAccount(OfflinePlayer, String)}, which
+ * default to the last balance seen for the account; failed mutations of an account report that balance too.
+ * The account, hold, versioned balance, bank and deprecated name methods are guarded, as are bulk account
+ * creation and mass updates; the currency and metadata methods go straight to the wrapped Economy.
+ * 失败的操作会以{@link EconomyResponse.ResponseType#FAILURE}返回, 错误代码为{@link ErrorCode#TIMEOUT}, {@link ErrorCode#CIRCUIT_OPEN}或{@link ErrorCode#OTHER}.
+ * 失败的读取由{@link #fallbackBalance(OfflinePlayer, String)}和{@link #fallbackHasAccount(OfflinePlayer, String)}回答, 默认使用该账户最后一次看到的余额;
+ * 账户的失败操作也会报告该余额. 账户, 预留, 版本化余额, 银行和已弃用的玩家名方法受到保护, 批量创建账户和批量更新也是如此;
+ * 货币和元数据方法直接交给被包装的经济实现.
+ *
+ * Mass updates may take longer than any single call, so {@link #transformBalances(BalanceTransform, BalanceFilter, String, MassUpdateListener)}
+ * runs on the calling thread without the deadline; it fails at once while the circuit is open and its outcome
+ * counts towards the circuit.
+ * 批量更新可能比任何单次调用耗时更长, 因此{@link #transformBalances(BalanceTransform, BalanceFilter, String, MassUpdateListener)}
+ * 在调用线程上运行且没有期限; 断路器打开时它会立即失败, 其结果会计入断路器.
+ *
+ * A timed out call is interrupted but may still complete later, so a timed out mutation may have been applied.
+ * The executor should have enough threads for the calls that can be stuck at once.
+ * 超时的调用会被中断, 但之后仍可能完成, 因此超时的操作可能已经生效. 执行器应有足够的线程容纳同时卡住的调用.
+ */
+public class CircuitBreakerEconomy extends ForwardingEconomy {
+
+	/**
+	 * States of the circuit
+	 * 断路器的状态
+	 */
+	public static enum State {
+		/**
+		 * Calls go to the wrapped Economy
+		 * 调用交给被包装的经济实现
+		 */
+		CLOSED,
+		/**
+		 * Calls fail immediately
+		 * 调用立即失败
+		 */
+		OPEN,
+		/**
+		 * One trial call is running, others fail immediately
+		 * 一次试探调用正在运行, 其他调用立即失败
+		 */
+		HALF_OPEN
+	}
+
+	private static final Logger log = Logger.getLogger("Minecraft");
+	private static final int MAX_LAST_KNOWN = 10000;
+
+	private final ExecutorService executor;
+	private final long timeoutNanos;
+	private final int failureThreshold;
+	private final long openNanos;
+	private final Map<AccountKey, Double> lastKnown = new LinkedHashMap<AccountKey, Double>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<AccountKey, Double> eldest) {
+			return size() > MAX_LAST_KNOWN;
+		}
+	};
+	private State state = State.CLOSED;
+	private int consecutiveFailures;
+	private long openedAt;
+
+	/**
+	 * Constructor for CircuitBreakerEconomy
+	 * {@link CircuitBreakerEconomy}的构造函数
+	 *
+	 * @param delegate Economy to protect
+	 * 要保护的经济实现
+	 * @param executor runs the calls, owned by the caller
+	 * 运行调用的执行器, 由调用者管理
+	 * @param timeoutMillis deadline of every call
+	 * 每次调用的期限
+	 * @param failureThreshold consecutive timeouts or errors that open the circuit
+	 * 打开断路器的连续超时或错误次数
+	 * @param openMillis how long the circuit stays open before a trial call
+	 * 断路器在试探调用前保持打开的时间
+	 */
+	public CircuitBreakerEconomy(Economy delegate, ExecutorService executor, long timeoutMillis, int failureThreshold, long openMillis) {
+		super(delegate);
+		if (timeoutMillis <= 0 || openMillis <= 0) {
+			throw new IllegalArgumentException("timeoutMillis and openMillis must be positive");
+		}
+		if (failureThreshold <= 0) {
+			throw new IllegalArgumentException("failureThreshold must be positive");
+		}
+		this.executor = executor;
+		this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		this.failureThreshold = failureThreshold;
+		this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+	}
+
+	/**
+	 * Gets the state of the circuit
+	 * 获取断路器的状态
+	 *
+	 * @return state
+	 * 状态
+	 */
+	public synchronized State getState() {
+		if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+			return State.HALF_OPEN;
+		}
+		return state;
+	}
+
+	/**
+	 * Answers a balance read that failed. Defaults to the last balance seen for the account, or 0.
+	 * 回答失败的余额读取. 默认使用该账户最后一次看到的余额, 或者0.
+	 *
+	 * @param player owner of the account
+	 * 账户的所有者
+	 * @param worldName name of the world, null for the global account
+	 * 世界名, null表示全局账户
+	 * @return balance to report
+	 * 要报告的余额
+	 */
+	protected double fallbackBalance(OfflinePlayer player, String worldName) {
+		Double balance = lastKnown(player, worldName);
+		return balance != null ? balance : 0;
+	}
+
+	/**
+	 * Answers an account check that failed. Defaults to true if a balance of the account was seen.
+	 * 回答失败的账户检查. 如果看到过该账户的余额则默认为真.
+	 *
+	 * @param player owner of the account
+	 * 账户的所有者
+	 * @param worldName name of the world, null for the global account
+	 * 世界名, null表示全局账户
+	 * @return whether to report an account
+	 * 是否报告存在账户
+	 */
+	protected boolean fallbackHasAccount(OfflinePlayer player, String worldName) {
+		return lastKnown(player, worldName) != null;
+	}
+
+	@Override
+	public boolean hasAccount(final OfflinePlayer player) {
+		try {
+			return call(new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					return delegate.hasAccount(player);
+				}
+			});
+		} catch (Unavailable e) {
+			return fallbackHasAccount(player, null);
+		}
+	}
+
+	@Override
+	public boolean hasAccount(final OfflinePlayer player, final String worldName) {
+		try {
+			return call(new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					return delegate.hasAccount(player, worldName);
+				}
+			});
+		} catch (Unavailable e) {
+			return fallbackHasAccount(player, worldName);
+		}
+	}
+
+	@Override
+	public double getBalance(OfflinePlayer player) {
+		return balance(player, null);
+	}
+
+	@Override
+	public double getBalance(OfflinePlayer player, String world) {
+		return balance(player, world);
+	}
+
+	@Override
+	public boolean has(final OfflinePlayer player, final double amount) {
+		try {
+			return call(new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					return delegate.has(player, amount);
+				}
+			});
+		} catch (Unavailable e) {
+			return fallbackBalance(player, null) >= amount;
+		}
+	}
+
+	@Override
+	public boolean has(final OfflinePlayer player, final String worldName, final double amount) {
+		try {
+			return call(new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					return delegate.has(player, worldName, amount);
+				}
+			});
+		} catch (Unavailable e) {
+			return fallbackBalance(player, worldName) >= amount;
+		}
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(final OfflinePlayer player, final double amount) {
+		return remember(player, null, amount, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.withdrawPlayer(player, amount);
+			}
+		});
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(final OfflinePlayer player, final String worldName, final double amount) {
+		return remember(player, worldName, amount, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.withdrawPlayer(player, worldName, amount);
+			}
+		});
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(final OfflinePlayer player, final double amount) {
+		return remember(player, null, amount, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.depositPlayer(player, amount);
+			}
+		});
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(final OfflinePlayer player, final String worldName, final double amount) {
+		return remember(player, worldName, amount, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.depositPlayer(player, worldName, amount);
+			}
+		});
+	}
+
+	@Override
+	public boolean withdrawPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		return withdrawInto(player, worldName, amount, result);
+	}
+
+	@Override
+	public boolean depositPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		return depositInto(player, worldName, amount, result);
+	}
+
+	@Override
+	public boolean createPlayerAccount(final OfflinePlayer player) {
+		try {
+			return call(new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					return delegate.createPlayerAccount(player);
+				}
+			});
+		} catch (Unavailable e) {
+			return false;
+		}
+	}
+
+	@Override
+	public boolean createPlayerAccount(final OfflinePlayer player, final String worldName) {
+		try {
+			return call(new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					return delegate.createPlayerAccount(player, worldName);
+				}
+			});
+		} catch (Unavailable e) {
+			return false;
+		}
+	}
+
+	@Override
+	public EconomyResponse createBank(final String name, final OfflinePlayer player) {
+		return respond(0, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.createBank(name, player);
+			}
+		});
+	}
+
+	@Override
+	public EconomyResponse deleteBank(final String name) {
+		return respond(0, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.deleteBank(name);
+			}
+		});
+	}
+
+	@Override
+	public EconomyResponse bankBalance(final String name) {
+		return respond(0, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.bankBalance(name);
+			}
+		});
+	}
+
+	@Override
+	public EconomyResponse bankHas(final String name, final double amount) {
+		return respond(amount, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.bankHas(name, amount);
+			}
+		});
+	}
+
+	@Override
+	public EconomyResponse bankWithdraw(final String name, final double amount) {
+		return respond(amount, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.bankWithdraw(name, amount);
+			}
+		});
+	}
+
+	@Override
+	public EconomyResponse bankDeposit(final String name, final double amount) {
+		return respond(amount, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.bankDeposit(name, amount);
+			}
+		});
+	}
+
+	@Override
+	public EconomyResponse isBankOwner(final String name, final OfflinePlayer player) {
+		return respond(0, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.isBankOwner(name, player);
+			}
+		});
+	}
+
+	@Override
+	public EconomyResponse isBankMember(final String name, final OfflinePlayer player) {
+		return respond(0, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.isBankMember(name, player);
+			}
+		});
+	}
+
+	@Override
+	public List<OfflinePlayer> createPlayerAccounts(final Collection<? extends OfflinePlayer> players, final String worldName) {
+		return guard(new Callable<List<OfflinePlayer>>() {
+			@Override
+			public List<OfflinePlayer> call() {
+				return delegate.createPlayerAccounts(players, worldName);
+			}
+		}, new ArrayList<OfflinePlayer>());
+	}
+
+	/**
+	 * Runs on the calling thread without the deadline. While the circuit is open no account is matched.
+	 * 在调用线程上运行, 没有期限. 断路器打开时不会匹配任何账户.
+	 */
+	@Override
+	public MassUpdateResult transformBalances(BalanceTransform transform, BalanceFilter filter, String worldName, MassUpdateListener listener) {
+		if (!acquire()) {
+			return new MassUpdateResult(0, 0, 0, 0);
+		}
+		MassUpdateResult result;
+		try {
+			result = delegate.transformBalances(transform, filter, worldName, listener);
+		} catch (RuntimeException e) {
+			recordFailure();
+			throw e;
+		}
+		recordSuccess();
+		return result;
+	}
+
+	/**
+	 * Returns null, as for an account without enough funds, if the wrapped Economy is unavailable.
+	 * 如果被包装的经济实现不可用, 则像资金不足的账户一样返回null.
+	 */
+	@Override
+	public FundHold holdFunds(final OfflinePlayer player, final String worldName, final double amount, final long duration, final TimeUnit unit) {
+		return guard(new Callable<FundHold>() {
+			@Override
+			public FundHold call() {
+				return delegate.holdFunds(player, worldName, amount, duration, unit);
+			}
+		}, null);
+	}
+
+	@Override
+	public EconomyResponse captureHold(final FundHold hold) {
+		return remember(hold.getPlayer(), hold.getWorldName(), hold.getAmount(), new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.captureHold(hold);
+			}
+		});
+	}
+
+	@Override
+	public boolean releaseHold(final FundHold hold) {
+		return guard(new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return delegate.releaseHold(hold);
+			}
+		}, false);
+	}
+
+	@Override
+	public double getHeldBalance(final OfflinePlayer player, final String worldName) {
+		return guard(new Callable<Double>() {
+			@Override
+			public Double call() {
+				return delegate.getHeldBalance(player, worldName);
+			}
+		}, 0.0);
+	}
+
+	/**
+	 * Returns null, as for a missing account, if the wrapped Economy is unavailable.
+	 * 如果被包装的经济实现不可用, 则像账户不存在一样返回null.
+	 */
+	@Override
+	public VersionedBalance getVersionedBalance(final OfflinePlayer player, final String worldName) {
+		return guard(new Callable<VersionedBalance>() {
+			@Override
+			public VersionedBalance call() {
+				return delegate.getVersionedBalance(player, worldName);
+			}
+		}, null);
+	}
+
+	@Override
+	public EconomyResponse compareAndSetBalance(final OfflinePlayer player, final String worldName, final long expectedVersion, final double newBalance) {
+		return remember(player, worldName, 0, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.compareAndSetBalance(player, worldName, expectedVersion, newBalance);
+			}
+		});
+	}
+
+	// The deprecated name methods have no last known balance to fall back on.
+
+	@Override
+	public boolean hasAccount(final String playerName) {
+		return guard(new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return delegate.hasAccount(playerName);
+			}
+		}, false);
+	}
+
+	@Override
+	public boolean hasAccount(final String playerName, final String worldName) {
+		return guard(new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return delegate.hasAccount(playerName, worldName);
+			}
+		}, false);
+	}
+
+	@Override
+	public double getBalance(final String playerName) {
+		return guard(new Callable<Double>() {
+			@Override
+			public Double call() {
+				return delegate.getBalance(playerName);
+			}
+		}, 0.0);
+	}
+
+	@Override
+	public double getBalance(final String playerName, final String world) {
+		return guard(new Callable<Double>() {
+			@Override
+			public Double call() {
+				return delegate.getBalance(playerName, world);
+			}
+		}, 0.0);
+	}
+
+	@Override
+	public boolean has(final String playerName, final double amount) {
+		return guard(new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return delegate.has(playerName, amount);
+			}
+		}, false);
+	}
+
+	@Override
+	public boolean has(final String playerName, final String worldName, final double amount) {
+		return guard(new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return delegate.has(playerName, worldName, amount);
+			}
+		}, false);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(final String playerName, final double amount) {
+		return respond(amount, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.withdrawPlayer(playerName, amount);
+			}
+		});
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(final String playerName, final String worldName, final double amount) {
+		return respond(amount, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.withdrawPlayer(playerName, worldName, amount);
+			}
+		});
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(final String playerName, final double amount) {
+		return respond(amount, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.depositPlayer(playerName, amount);
+			}
+		});
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(final String playerName, final String worldName, final double amount) {
+		return respond(amount, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.depositPlayer(playerName, worldName, amount);
+			}
+		});
+	}
+
+	@Override
+	public boolean createPlayerAccount(final String playerName) {
+		return guard(new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return delegate.createPlayerAccount(playerName);
+			}
+		}, false);
+	}
+
+	@Override
+	public boolean createPlayerAccount(final String playerName, final String worldName) {
+		return guard(new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return delegate.createPlayerAccount(playerName, worldName);
+			}
+		}, false);
+	}
+
+	@Override
+	public EconomyResponse createBank(final String name, final String player) {
+		return respond(0, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.createBank(name, player);
+			}
+		});
+	}
+
+	@Override
+	public EconomyResponse isBankOwner(final String name, final String playerName) {
+		return respond(0, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.isBankOwner(name, playerName);
+			}
+		});
+	}
+
+	@Override
+	public EconomyResponse isBankMember(final String name, final String playerName) {
+		return respond(0, new Callable<EconomyResponse>() {
+			@Override
+			public EconomyResponse call() {
+				return delegate.isBankMember(name, playerName);
+			}
+		});
+	}
+
+	private double balance(final OfflinePlayer player, final String worldName) {
+		try {
+			double balance = call(new Callable<Double>() {
+				@Override
+				public Double call() {
+					return worldName == null ? delegate.getBalance(player) : delegate.getBalance(player, worldName);
+				}
+			});
+			setLastKnown(player, worldName, balance);
+			return balance;
+		} catch (Unavailable e) {
+			return fallbackBalance(player, worldName);
+		}
+	}
+
+	private EconomyResponse remember(OfflinePlayer player, String worldName, double amount, Callable<EconomyResponse> task) {
+		EconomyResponse response;
+		try {
+			response = call(task);
+		} catch (Unavailable e) {
+			return EconomyResponse.failure(amount, fallbackBalance(player, worldName), e.code);
+		}
+		if (response != null && response.transactionSuccess()) {
+			setLastKnown(player, worldName, response.balance);
+		}
+		return response;
+	}
+
+	private EconomyResponse respond(double amount, Callable<EconomyResponse> task) {
+		try {
+			return call(task);
+		} catch (Unavailable e) {
+			return EconomyResponse.failure(amount, 0, e.code);
+		}
+	}
+
+	private <T> T guard(Callable<T> task, T fallback) {
+		try {
+			return call(task);
+		} catch (Unavailable e) {
+			return fallback;
+		}
+	}
+
+	private Double lastKnown(OfflinePlayer player, String worldName) {
+		synchronized (lastKnown) {
+			return lastKnown.get(new AccountKey(player.getUniqueId(), worldName));
+		}
+	}
+
+	private void setLastKnown(OfflinePlayer player, String worldName, double balance) {
+		synchronized (lastKnown) {
+			lastKnown.put(new AccountKey(player.getUniqueId(), worldName), balance);
+		}
+	}
+
+	private <T> T call(Callable<T> task) throws Unavailable {
+		if (!acquire()) {
+			throw new Unavailable(ErrorCode.CIRCUIT_OPEN);
+		}
+		Future<T> future;
+		try {
+			future = executor.submit(task);
+		} catch (RejectedExecutionException e) {
+			recordFailure();
+			throw new Unavailable(ErrorCode.CIRCUIT_OPEN);
+		}
+		try {
+			T result = future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+			recordSuccess();
+			return result;
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			recordFailure();
+			throw new Unavailable(ErrorCode.TIMEOUT);
+		} catch (ExecutionException e) {
+			recordFailure();
+			log.log(Level.WARNING, "[Vault] Economy call failed", e.getCause());
+			throw new Unavailable(ErrorCode.OTHER);
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			recordFailure();
+			throw new Unavailable(ErrorCode.TIMEOUT);
+		}
+	}
+
+	// Lets a call through when closed, or as the single trial once the cool-down has passed.
+	private synchronized boolean acquire() {
+		switch (state) {
+		case CLOSED:
+			return true;
+		case OPEN:
+			if (System.nanoTime() - openedAt >= openNanos) {
+				state = State.HALF_OPEN;
+				return true;
+			}
+			return false;
+		default:
+			return false;
+		}
+	}
+
+	private synchronized void recordSuccess() {
+		if (state != State.CLOSED) {
+			log.info("[Vault] Economy " + delegate.getName() + " recovered, closing circuit");
+		}
+		state = State.CLOSED;
+		consecutiveFailures = 0;
+	}
+
+	private synchronized void recordFailure() {
+		consecutiveFailures++;
+		if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+			if (state == State.CLOSED) {
+				log.warning("[Vault] Economy " + delegate.getName() + " failed " + consecutiveFailures + " times in a row, opening circuit");
+			}
+			state = State.OPEN;
+			openedAt = System.nanoTime();
+		}
+	}
+
+	// Control flow only, so no stack trace is filled in.
+	private static final class Unavailable extends Exception {
+		private static final long serialVersionUID = 1L;
+
+		final ErrorCode code;
+
+		Unavailable(ErrorCode code) {
+			this.code = code;
+		}
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+	}
+}
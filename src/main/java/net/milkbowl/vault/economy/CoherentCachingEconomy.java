@@ -0,0 +1,143 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link CachingEconomy} that keeps the caches of several servers sharing one Economy coherent. Accounts changed
+ * through this cache are collected and published as one {@link InvalidationNotice} per run, and notices of other
+ * servers evict the named players from this cache.
+ * 使共享一个经济实现的多个服务器的缓存保持一致的{@link CachingEconomy}. 通过此缓存变更的账户会被收集, 每次运行发布一个{@link InvalidationNotice},
+ * 其他服务器的通知会将其中的玩家从此缓存中清除.
+ *
+ * Schedule this object as a repeating task every tick, so that one notice carries all changes of a tick, and
+ * call {@link #close()} when the plugin is disabled. Mutations made directly on the shared Economy, bypassing
+ * every cache, are only seen once cached values expire.
+ * 将此对象调度为每tick运行的重复任务, 使一个通知包含一个tick内的所有变更, 并在插件被禁用时调用{@link #close()}.
+ * 绕过所有缓存直接在共享经济实现上进行的操作只有在缓存值过期后才会被看到.
+ */
+public class CoherentCachingEconomy extends CachingEconomy implements Runnable, InvalidationListener {
+
+	private static final Logger log = Logger.getLogger("Minecraft");
+
+	private final InvalidationTransport transport;
+	private final String serverId;
+	private final Object pendingLock = new Object();
+	private Set<UUID> pending = new LinkedHashSet<UUID>();
+	private boolean pendingAll;
+
+	/**
+	 * Constructor for CoherentCachingEconomy; subscribes to the transport
+	 * {@link CoherentCachingEconomy}的构造函数; 会订阅传输层
+	 *
+	 * @param delegate shared Economy to cache
+	 * 要缓存的共享经济实现
+	 * @param maxEntries maximum number of players kept in the cache
+	 * 缓存中保留的最大玩家数
+	 * @param ttl how long a cached value stays valid
+	 * 缓存值的有效时间
+	 * @param unit unit of <b>ttl</b>
+	 * <b>ttl</b>的时间单位
+	 * @param transport bus shared with the other servers
+	 * 与其他服务器共享的总线
+	 * @param serverId id of this server, unique among the servers on the transport
+	 * 此服务器的id, 在传输层上的服务器中唯一
+	 */
+	public CoherentCachingEconomy(Economy delegate, int maxEntries, long ttl, TimeUnit unit, InvalidationTransport transport, String serverId) {
+		super(delegate, maxEntries, ttl, unit);
+		this.transport = transport;
+		this.serverId = serverId;
+		transport.subscribe(this);
+	}
+
+	/**
+	 * Gets the id of this server
+	 * 获取此服务器的id
+	 *
+	 * @return server id
+	 * 服务器id
+	 */
+	public String getServerId() {
+		return serverId;
+	}
+
+	/**
+	 * Publishes the changes collected since the last run. Scheduling this object as a repeating task every tick
+	 * batches notices per tick.
+	 * 发布自上次运行以来收集的变更. 将此对象调度为每tick运行的重复任务即可按tick批量发送通知.
+	 */
+	@Override
+	public void run() {
+		Set<UUID> changed;
+		boolean all;
+		synchronized (pendingLock) {
+			if (pending.isEmpty() && !pendingAll) {
+				return;
+			}
+			changed = pending;
+			all = pendingAll;
+			pending = new LinkedHashSet<UUID>();
+			pendingAll = false;
+		}
+		try {
+			transport.publish(new InvalidationNotice(serverId, changed, all));
+		} catch (RuntimeException e) {
+			// Other servers fall back to cache expiry for these players.
+			log.log(Level.WARNING, "[Vault] Failed to publish economy cache invalidations", e);
+		}
+	}
+
+	/**
+	 * Publishes the pending changes and unsubscribes from the transport
+	 * 发布待处理的变更并取消订阅传输层
+	 */
+	public void close() {
+		run();
+		transport.unsubscribe(this);
+	}
+
+	@Override
+	public void onNotice(InvalidationNotice notice) {
+		if (serverId.equals(notice.getServerId())) {
+			return;
+		}
+		if (notice.isAll()) {
+			invalidateAll();
+			return;
+		}
+		for (UUID playerId : notice.getPlayerIds()) {
+			invalidate(playerId);
+		}
+	}
+
+	@Override
+	protected void onLocalChange(UUID playerId) {
+		synchronized (pendingLock) {
+			if (playerId == null) {
+				pendingAll = true;
+				pending.clear();
+			} else if (!pendingAll) {
+				pending.add(playerId);
+			}
+		}
+	}
+}
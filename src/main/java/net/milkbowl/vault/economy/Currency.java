@@ -0,0 +1,93 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+/**
+ * Handle of one currency of a {@link MultiCurrencyEconomy}. Plugins resolve a currency once with
+ * {@link MultiCurrencyEconomy#getCurrency(String)} and pass the handle to every call. Every Economy creates one
+ * handle per currency, so handles are compared by identity, and their ids count up from 0 so they can index
+ * arrays such as the one returned by {@link MultiCurrencyEconomy#getBalances(org.bukkit.OfflinePlayer, String)}.
+ * {@link MultiCurrencyEconomy}中一种货币的句柄. 插件通过{@link MultiCurrencyEconomy#getCurrency(String)}解析一次货币, 之后每次调用都传入该句柄.
+ * 每个经济实现为每种货币只创建一个句柄, 因此句柄按引用比较, 其id从0开始递增, 可以作为数组下标,
+ * 例如{@link MultiCurrencyEconomy#getBalances(org.bukkit.OfflinePlayer, String)}返回的数组.
+ */
+public final class Currency {
+
+	private final int id;
+	private final String name;
+	private final CurrencyFormatter formatter;
+
+	/**
+	 * Constructor for Currency, for Economy implementations
+	 * {@link Currency}的构造函数, 供经济实现使用
+	 *
+	 * @param id index of the currency within its Economy, starting at 0 for the default currency
+	 * 货币在其经济实现中的下标, 默认货币为0
+	 * @param name name used to look the currency up
+	 * 用于查找货币的名称
+	 * @param fractionalDigits number of digits after the decimal point
+	 * 小数点后的位数
+	 * @param singular singular name of the unit
+	 * 货币单位的单数名称
+	 * @param plural plural name of the unit
+	 * 货币单位的复数名称
+	 */
+	public Currency(int id, String name, int fractionalDigits, String singular, String plural) {
+		if (id < 0) {
+			throw new IllegalArgumentException("id cannot be negative");
+		}
+		this.id = id;
+		this.name = name;
+		this.formatter = new CurrencyFormatter(fractionalDigits, singular, plural);
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the formatter of this currency
+	 * 获取此货币的格式化器
+	 *
+	 * @return currency formatter
+	 * 货币格式化器
+	 */
+	public CurrencyFormatter getFormatter() {
+		return formatter;
+	}
+
+	/**
+	 * Formats an amount of this currency
+	 * 格式化此货币的金额
+	 *
+	 * @param amount to format
+	 * 要格式化的金额
+	 * @return human readable string
+	 * 易读的字符串
+	 */
+	public String format(double amount) {
+		return formatter.format(amount);
+	}
+
+	@Override
+	public String toString() {
+		return "Currency{id=" + id + ", name=" + name + "}";
+	}
+}
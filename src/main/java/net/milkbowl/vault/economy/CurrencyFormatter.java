@@ -0,0 +1,164 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Formats amounts as "1,234.56 Dollars". The number of digits and the currency names are fixed when the
+ * formatter is created, so formatting does no parsing and, with {@link #format(double, StringBuilder)},
+ * allocates nothing. Instances are immutable and thread-safe.
+ * 将金额格式化为"1,234.56 Dollars"的形式. 位数和货币名称在创建时确定, 所以格式化时不需要解析,
+ * 使用{@link #format(double, StringBuilder)}时也不会分配对象. 实例不可变且线程安全.
+ */
+public final class CurrencyFormatter {
+
+	private final int digits;
+	private final long scale;
+	private final String singular;
+	private final String plural;
+
+	/**
+	 * Constructor for CurrencyFormatter
+	 * {@link CurrencyFormatter}的构造函数
+	 *
+	 * @param fractionalDigits digits after the decimal point, -1 for {@link MinorUnits#DEFAULT_DIGITS}
+	 * 小数点后的位数, -1表示使用{@link MinorUnits#DEFAULT_DIGITS}
+	 * @param singular currency name appended to an amount of exactly one, may be empty
+	 * 金额恰好为1时附加的货币名称, 可以为空
+	 * @param plural currency name appended to any other amount, may be empty
+	 * 其他金额附加的货币名称, 可以为空
+	 */
+	public CurrencyFormatter(int fractionalDigits, String singular, String plural) {
+		this.digits = MinorUnits.digits(fractionalDigits);
+		this.scale = MinorUnits.scale(digits);
+		this.singular = singular == null ? "" : singular;
+		this.plural = plural == null ? "" : plural;
+	}
+
+	/**
+	 * Creates a formatter from the digits and currency names of an economy
+	 * 根据经济实现的位数和货币名称创建格式化器
+	 *
+	 * @param economy to read the settings from
+	 * 读取设置的经济实现
+	 * @return new formatter
+	 * 新的格式化器
+	 */
+	public static CurrencyFormatter forEconomy(Economy economy) {
+		return new CurrencyFormatter(economy.fractionalDigits(), economy.currencyNameSingular(), economy.currencyNamePlural());
+	}
+
+	/**
+	 * Format amount into a human readable String
+	 * 将金额转换为人类可读的字符串
+	 *
+	 * @param amount to format
+	 * 要转换格式的数值
+	 * @return Human readable string describing amount
+	 * 人类可读的用来描述这个数值的字符串
+	 */
+	public String format(double amount) {
+		return format(amount, new StringBuilder(24)).toString();
+	}
+
+	/**
+	 * Appends the human readable form of an amount to a StringBuilder
+	 * 将金额的人类可读形式追加到StringBuilder
+	 *
+	 * @param amount to format
+	 * 要转换格式的数值
+	 * @param out StringBuilder to append to
+	 * 要追加到的StringBuilder
+	 * @return <b>out</b>
+	 */
+	public StringBuilder format(double amount, StringBuilder out) {
+		if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+			out.append(amount);
+			return appendName(out, false);
+		}
+		long minor;
+		try {
+			minor = MinorUnits.toMinor(amount, digits);
+		} catch (ArithmeticException e) {
+			return formatLarge(amount, out);
+		}
+		if (minor == Long.MIN_VALUE) {
+			return formatLarge(amount, out);
+		}
+		if (minor < 0) {
+			out.append('-');
+			minor = -minor;
+		}
+		appendGrouped(out, minor / scale);
+		if (digits > 0) {
+			out.append('.');
+			long fraction = minor % scale;
+			for (long unit = scale / 10; unit > 0; unit /= 10) {
+				out.append((char) ('0' + fraction / unit % 10));
+			}
+		}
+		return appendName(out, minor == scale);
+	}
+
+	private StringBuilder appendName(StringBuilder out, boolean one) {
+		String name = one ? singular : plural;
+		if (name.length() > 0) {
+			out.append(' ').append(name);
+		}
+		return out;
+	}
+
+	private static void appendGrouped(StringBuilder out, long value) {
+		long unit = 1;
+		int length = 1;
+		while (unit <= value / 10) {
+			unit *= 10;
+			length++;
+		}
+		for (; unit > 0; unit /= 10) {
+			out.append((char) ('0' + value / unit % 10));
+			length--;
+			if (length > 0 && length % 3 == 0) {
+				out.append(',');
+			}
+		}
+	}
+
+	// Amounts beyond the range of a long in minor units are rare enough to format through BigDecimal.
+	private StringBuilder formatLarge(double amount, StringBuilder out) {
+		String plain = new BigDecimal(amount).setScale(digits, RoundingMode.HALF_UP).toPlainString();
+		int start = 0;
+		if (plain.charAt(0) == '-') {
+			out.append('-');
+			start = 1;
+		}
+		int point = plain.indexOf('.');
+		int end = point < 0 ? plain.length() : point;
+		for (int i = start; i < end; i++) {
+			out.append(plain.charAt(i));
+			int remaining = end - i - 1;
+			if (remaining > 0 && remaining % 3 == 0) {
+				out.append(',');
+			}
+		}
+		if (point >= 0) {
+			out.append(plain, point, plain.length());
+		}
+		return appendName(out, false);
+	}
+}
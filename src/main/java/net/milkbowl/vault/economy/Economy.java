@@ -16,7 +16,9 @@
 
 package net.milkbowl.vault.economy;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.bukkit.OfflinePlayer;
 
@@ -556,4 +558,417 @@ public interface Economy {
 	 * 是否创建成功
 	 */
 	public boolean createPlayerAccount(OfflinePlayer player, String worldName);
+
+	/**
+	 * Gets balance of a player in minor units (for example cents), see {@link MinorUnits}.
+	 * The number of minor unit digits is derived from {@link #fractionalDigits()}.
+	 * 以最小单位(例如"分")获取玩家的余额, 参见{@link MinorUnits}. 最小单位的位数由{@link #fractionalDigits()}决定.
+	 * 
+	 * @param player
+	 *            of the player
+	 *            获取账户余额的玩家
+	 * @return Amount currently held in players account in minor units
+	 * 玩家账户目前以最小单位表示的金额
+	 */
+	public long getBalanceMinor(OfflinePlayer player);
+
+	/**
+	 * Gets balance of a player on the specified world in minor units. IMPLEMENTATION SPECIFIC
+	 * - if an economy plugin does not support this the global balance will be returned.
+	 * 以最小单位获取玩家在指定世界的余额. 特别地 - 如果经济插件不支持多世界多账户这个功能的话，则会返回全体世界的余额数。
+	 * 
+	 * @param player
+	 *            to check
+	 *            要检查的玩家
+	 * @param world
+	 *            name of the world
+	 *            世界的名称
+	 * @return Amount currently held in players account in minor units
+	 * 玩家账户目前以最小单位表示的金额
+	 */
+	public long getBalanceMinor(OfflinePlayer player, String world);
+
+	/**
+	 * Checks if the player account has the amount in minor units - DO NOT USE NEGATIVE AMOUNTS
+	 * 检测玩家账户里是否有这个以最小单位表示的金额 - 请勿使用负数
+	 * 
+	 * @param player
+	 *            to check 检测的玩家
+	 * @param amount
+	 *            to check for in minor units 以最小单位表示的检测金额
+	 * @return True if <b>player</b> has <b>amount</b>, False else wise
+	 * 			为真则<b>玩家</b>有某个<b>数值</b>的金钱，为假则相反
+	 */
+	public boolean hasMinor(OfflinePlayer player, long amount);
+
+	/**
+	 * Checks if the player account has the amount in minor units in a given world - DO NOT USE
+	 * NEGATIVE AMOUNTS
+	 * 检测玩家在指定世界的账户里是否有这个以最小单位表示的金额 - 请勿使用负数
+	 * 
+	 * @param player
+	 *            to check
+	 *            要检查的玩家
+	 * @param worldName
+	 *            to check with
+	 *            检测的账户所在的世界名称
+	 * @param amount
+	 *            to check for in minor units
+	 *            以最小单位表示的检测金额
+	 * @return True if <b>player</b> has <b>amount</b>, False else wise
+	 * 			为真则<b>玩家</b>有某个<b>数值</b>的金钱，为假则相反
+	 */
+	public boolean hasMinor(OfflinePlayer player, String worldName, long amount);
+
+	/**
+	 * Withdraw an amount in minor units from a player - DO NOT USE NEGATIVE AMOUNTS
+	 * 从玩家账户中提取以最小单位表示的金额 - 不要使用负数
+	 * 
+	 * @param player
+	 *            to withdraw from
+	 *            要被提取金钱的玩家
+	 * @param amount
+	 *            Amount to withdraw in minor units
+	 *            以最小单位表示的提取金额
+	 * @return Detailed response of transaction
+	 * 交易详情
+	 */
+	public EconomyResponse withdrawPlayerMinor(OfflinePlayer player, long amount);
+
+	/**
+	 * Withdraw an amount in minor units from a player on a given world - DO NOT USE NEGATIVE AMOUNTS
+	 * 从玩家在指定世界的账户中提取以最小单位表示的金额 - 不要使用负数
+	 * 
+	 * @param player
+	 *            to withdraw from
+	 *            要被提取金钱的玩家
+	 * @param worldName
+	 *            name of the world
+	 *            世界名称
+	 * @param amount
+	 *            Amount to withdraw in minor units
+	 *            以最小单位表示的提取金额
+	 * @return Detailed response of transaction
+	 * 交易详情
+	 */
+	public EconomyResponse withdrawPlayerMinor(OfflinePlayer player, String worldName, long amount);
+
+	/**
+	 * Deposit an amount in minor units to a player - DO NOT USE NEGATIVE AMOUNTS
+	 * 给玩家账户存入以最小单位表示的金额 - 不要使用负数
+	 * 
+	 * @param player
+	 *            to deposit to
+	 *            被存款人
+	 * @param amount
+	 *            Amount to deposit in minor units
+	 *            以最小单位表示的存入金额
+	 * @return Detailed response of transaction
+	 * 交易详情
+	 */
+	public EconomyResponse depositPlayerMinor(OfflinePlayer player, long amount);
+
+	/**
+	 * Deposit an amount in minor units to a player on a given world - DO NOT USE NEGATIVE AMOUNTS
+	 * 给玩家在指定世界的账户存入以最小单位表示的金额 - 不要使用负数
+	 * 
+	 * @param player
+	 *            to deposit to
+	 *            被存款人
+	 * @param worldName
+	 *            name of the world
+	 *            世界名称
+	 * @param amount
+	 *            Amount to deposit in minor units
+	 *            以最小单位表示的存入金额
+	 * @return Detailed response of transaction
+	 * 交易详情
+	 */
+	public EconomyResponse depositPlayerMinor(OfflinePlayer player, String worldName, long amount);
+
+	/**
+	 * Withdraw an amount from a player and store the outcome in a reusable holder instead of returning a new
+	 * {@link EconomyResponse} - DO NOT USE NEGATIVE AMOUNTS
+	 * 从玩家账户中提取金额, 并将结果保存在可重用的holder中而不是返回新的{@link EconomyResponse} - 不要使用负数
+	 * 
+	 * @param player
+	 *            to withdraw from
+	 *            要被提取金钱的玩家
+	 * @param worldName
+	 *            name of the world, null for the global account
+	 *            世界名称, 全局账户为null
+	 * @param amount
+	 *            Amount to withdraw
+	 *            要提取的金额
+	 * @param result
+	 *            holder receiving the outcome
+	 *            接收结果的holder
+	 * @return true if the transaction was successful
+	 * 交易是否成功
+	 */
+	public boolean withdrawPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result);
+
+	/**
+	 * Deposit an amount to a player and store the outcome in a reusable holder instead of returning a new
+	 * {@link EconomyResponse} - DO NOT USE NEGATIVE AMOUNTS
+	 * 给玩家账户存入金额, 并将结果保存在可重用的holder中而不是返回新的{@link EconomyResponse} - 不要使用负数
+	 * 
+	 * @param player
+	 *            to deposit to
+	 *            被存款人
+	 * @param worldName
+	 *            name of the world, null for the global account
+	 *            世界名称, 全局账户为null
+	 * @param amount
+	 *            Amount to deposit
+	 *            存入金额
+	 * @param result
+	 *            holder receiving the outcome
+	 *            接收结果的holder
+	 * @return true if the transaction was successful
+	 * 交易是否成功
+	 */
+	public boolean depositPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result);
+
+	/**
+	 * Gets the players with the highest global balances, richest first
+	 * 获取全局余额最高的玩家, 最富有的排在最前
+	 * 
+	 * @param count
+	 *            maximum number of entries
+	 *            最多返回的条目数
+	 * @return entries ordered by rank
+	 * 按排名排序的条目
+	 */
+	public List<BalanceEntry> getTopBalances(int count);
+
+	/**
+	 * Gets the position of a player when all global balances are ordered from richest to poorest
+	 * 获取玩家在全部全局余额从高到低排序后的名次
+	 * 
+	 * @param player
+	 *            to check
+	 *            要检查的玩家
+	 * @return rank starting at 1, or 0 if the player has no account
+	 * 从1开始的排名, 如果玩家没有账户则为0
+	 */
+	public int getBalanceRank(OfflinePlayer player);
+
+	/**
+	 * Check if a player is the owner of a bank account, without building an {@link EconomyResponse}
+	 * 检查玩家是否为银行账户的所有者, 不创建{@link EconomyResponse}
+	 * 
+	 * @param name
+	 *            of the account
+	 *            账户名
+	 * @param player
+	 *            to check for ownership
+	 *            要被检查的玩家
+	 * @return true if the player owns the bank
+	 * 如果玩家拥有该银行则返回真
+	 */
+	public boolean checkBankOwner(String name, OfflinePlayer player);
+
+	/**
+	 * Check if the player is a member of the bank account, without building an {@link EconomyResponse}
+	 * 检查玩家是否是银行账户的成员, 不创建{@link EconomyResponse}
+	 * 
+	 * @param name
+	 *            of the account
+	 *            账户名
+	 * @param player
+	 *            to check membership
+	 *            要被检查的玩家
+	 * @return true if the player is a member of the bank
+	 * 如果玩家是该银行的成员则返回真
+	 */
+	public boolean checkBankMember(String name, OfflinePlayer player);
+
+	/**
+	 * Gets the banks owned by a player
+	 * 获取玩家拥有的银行
+	 * 
+	 * @param player
+	 *            owner to look up
+	 *            要查询的所有者
+	 * @return the List of Banks
+	 * 银行列表
+	 */
+	public List<String> getBanksOwnedBy(OfflinePlayer player);
+
+	/**
+	 * Gets the banks a player is a member of
+	 * 获取玩家作为成员的银行
+	 * 
+	 * @param player
+	 *            member to look up
+	 *            要查询的成员
+	 * @return the List of Banks
+	 * 银行列表
+	 */
+	public List<String> getBanksWithMember(OfflinePlayer player);
+
+	/**
+	 * Gets one page of bank names in natural order, so that callers never need the whole list.
+	 * {@link #getBanks()} returns every page at once.
+	 * 按自然顺序获取一页银行名, 调用者无需获取整个列表. {@link #getBanks()}会一次返回所有页.
+	 * 
+	 * @param prefix
+	 *            only names starting with this are returned, null for all names
+	 *            只返回以此开头的名称, 为null时返回所有名称
+	 * @param cursor
+	 *            {@link BankPage#getNextCursor()} of the previous page, null for the first page
+	 *            上一页的{@link BankPage#getNextCursor()}, 第一页为null
+	 * @param limit
+	 *            maximum number of names
+	 *            最多返回的名称数
+	 * @return page of bank names
+	 * 银行名页
+	 */
+	public BankPage getBanks(String prefix, String cursor, int limit);
+
+	/**
+	 * Creates accounts for every given player that does not have one yet, for example for a wave of logins
+	 * after a restart. Providers can do this as a single multi-row insert.
+	 * 为所有尚无账户的给定玩家创建账户, 例如重启后大量玩家同时登录时. 经济插件可以用一次多行插入完成.
+	 * 
+	 * @param players
+	 *            to create accounts for
+	 *            要创建账户的玩家
+	 * @param worldName
+	 *            name of the world, null for the global account
+	 *            世界名称, 全局账户为null
+	 * @return the players whose account was created
+	 * 成功创建账户的玩家
+	 */
+	public List<OfflinePlayer> createPlayerAccounts(Collection<? extends OfflinePlayer> players, String worldName);
+
+	/**
+	 * Applies a transform to every account, or to those accepted by a filter, for example to pay daily
+	 * interest or collect a wealth tax. Providers can run a {@link LinearBalanceTransform} as a single backend
+	 * statement; otherwise accounts are processed in chunks. This can take a long time and must not be called
+	 * on the main thread.
+	 * 对所有账户或通过过滤器的账户应用变换, 例如发放每日利息或征收财富税. 经济插件可以在后端用一条语句执行{@link LinearBalanceTransform};
+	 * 否则会分批处理账户. 这可能需要很长时间, 不应在主线程中调用.
+	 * 
+	 * @param transform
+	 *            computes the new balances
+	 *            计算新余额
+	 * @param filter
+	 *            selects the accounts to transform, null for all accounts
+	 *            选择需要变换的账户, 为null时变换所有账户
+	 * @param worldName
+	 *            name of the world, null for the global accounts
+	 *            世界名称, 全局账户为null
+	 * @param listener
+	 *            receives progress, may be null
+	 *            接收进度, 可以为null
+	 * @return counts of matched, changed and failed accounts
+	 * 匹配, 改变和失败的账户数
+	 */
+	public MassUpdateResult transformBalances(BalanceTransform transform, BalanceFilter filter, String worldName, MassUpdateListener listener);
+
+	/**
+	 * Reserves funds for an escrow such as an auction bid. The held amount stays in the account but
+	 * {@link #has(OfflinePlayer, String, double)} and withdrawals only see the rest, until the hold is
+	 * captured, released or expires.
+	 * 为拍卖出价等托管预留资金. 预留的金额仍在账户中, 但在预留被扣款, 释放或过期之前, 金额检查和取款只能看到剩余部分.
+	 * 
+	 * @param player
+	 *            owner of the account
+	 *            账户的所有者
+	 * @param worldName
+	 *            name of the world, null for the global account
+	 *            世界名称, 全局账户为null
+	 * @param amount
+	 *            Amount to hold, must be positive
+	 *            要预留的金额, 必须为正数
+	 * @param duration
+	 *            how long the hold lasts
+	 *            预留的持续时间
+	 * @param unit
+	 *            unit of <b>duration</b>
+	 *            <b>duration</b>的时间单位
+	 * @return the hold, or null if the player has no account or not enough spendable funds
+	 * 预留, 如果玩家没有账户或可用资金不足则为null
+	 */
+	public FundHold holdFunds(OfflinePlayer player, String worldName, double amount, long duration, TimeUnit unit);
+
+	/**
+	 * Withdraws the held amount and ends the hold
+	 * 取出预留的金额并结束预留
+	 * 
+	 * @param hold
+	 *            returned by {@link #holdFunds(OfflinePlayer, String, double, long, TimeUnit)}
+	 *            由{@link #holdFunds(OfflinePlayer, String, double, long, TimeUnit)}返回的预留
+	 * @return Detailed response of transaction, failing with {@link EconomyResponse.ErrorCode#HOLD_NOT_FOUND} if the hold was already ended or expired
+	 * 交易的详细响应, 如果预留已结束或已过期则以{@link EconomyResponse.ErrorCode#HOLD_NOT_FOUND}失败
+	 */
+	public EconomyResponse captureHold(FundHold hold);
+
+	/**
+	 * Ends a hold without moving any money
+	 * 结束预留而不转移任何资金
+	 * 
+	 * @param hold
+	 *            returned by {@link #holdFunds(OfflinePlayer, String, double, long, TimeUnit)}
+	 *            由{@link #holdFunds(OfflinePlayer, String, double, long, TimeUnit)}返回的预留
+	 * @return true if the hold was still active
+	 * 如果预留仍然有效则返回真
+	 */
+	public boolean releaseHold(FundHold hold);
+
+	/**
+	 * Gets the sum of the active holds on an account
+	 * 获取一个账户上有效预留的总额
+	 * 
+	 * @param player
+	 *            owner of the account
+	 *            账户的所有者
+	 * @param worldName
+	 *            name of the world, null for the global account
+	 *            世界名称, 全局账户为null
+	 * @return held amount
+	 * 预留的金额
+	 */
+	public double getHeldBalance(OfflinePlayer player, String worldName);
+
+	/**
+	 * Reads a balance together with its version, for optimistic updates through
+	 * {@link #compareAndSetBalance(OfflinePlayer, String, long, double)}. Callers read, compute the new balance
+	 * and retry from the read when the write reports {@link EconomyResponse.ErrorCode#VERSION_CONFLICT}.
+	 * 读取余额及其版本, 用于通过{@link #compareAndSetBalance(OfflinePlayer, String, long, double)}进行乐观更新.
+	 * 调用者读取余额, 计算新余额, 当写入报告{@link EconomyResponse.ErrorCode#VERSION_CONFLICT}时从读取开始重试.
+	 * 
+	 * @param player
+	 *            owner of the account
+	 *            账户的所有者
+	 * @param worldName
+	 *            name of the world, null for the global account
+	 *            世界名称, 全局账户为null
+	 * @return balance and version, or null if the player has no account
+	 * 余额和版本, 如果玩家没有账户则为null
+	 */
+	public VersionedBalance getVersionedBalance(OfflinePlayer player, String worldName);
+
+	/**
+	 * Sets a balance if its version is still the given one
+	 * 如果余额的版本仍是给定的版本, 则设置余额
+	 * 
+	 * @param player
+	 *            owner of the account
+	 *            账户的所有者
+	 * @param worldName
+	 *            name of the world, null for the global account
+	 *            世界名称, 全局账户为null
+	 * @param expectedVersion
+	 *            {@link VersionedBalance#getVersion()} of the balance the update was computed from
+	 *            计算更新所依据的余额的{@link VersionedBalance#getVersion()}
+	 * @param newBalance
+	 *            balance to set
+	 *            要设置的余额
+	 * @return Detailed response of transaction, failing with {@link EconomyResponse.ErrorCode#VERSION_CONFLICT} if the balance was changed in between
+	 * 交易的详细响应, 如果余额在此期间被修改则以{@link EconomyResponse.ErrorCode#VERSION_CONFLICT}失败
+	 */
+	public EconomyResponse compareAndSetBalance(OfflinePlayer player, String worldName, long expectedVersion, double newBalance);
 }
@@ -0,0 +1,529 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import net.milkbowl.vault.economy.EconomyResponse.ErrorCode;
+
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Copies accounts and banks from one {@link Economy} to another. The calling thread reads the source in
+ * batches into a bounded queue, and writer threads drain it into the destination, so reads and writes overlap
+ * and memory stays bounded. Progress is saved to a checkpoint file after every batch, and a migration that was
+ * interrupted resumes after the last saved player. Finally every balance is read again from both economies
+ * and compared.
+ * 将账户和银行从一个{@link Economy}复制到另一个. 调用线程分批读取源并放入有界队列, 写入线程将其写入目标,
+ * 因此读写可以重叠且内存占用有上限. 每批完成后进度会保存到检查点文件, 中断的迁移会从最后保存的玩家之后继续.
+ * 最后会从两个经济实现中重新读取并比较所有余额.
+ *
+ * Copying sets the destination balance instead of adding to it, so copying an account twice is harmless. The
+ * destination is called from several threads and must be thread-safe, or the migration must use one writer.
+ * Bank members cannot be copied, since {@link Economy} has no method to add them. Run migrations off the main
+ * thread; the checkpoint file is deleted once a run completes without failures or mismatches.
+ * 复制会设置目标余额而不是累加, 因此重复复制一个账户没有影响. 目标会被多个线程调用, 必须是线程安全的, 否则迁移只能使用一个写入线程.
+ * 银行成员无法被复制, 因为{@link Economy}没有添加成员的方法. 应在主线程之外运行迁移; 当一次运行没有失败或不一致而完成时检查点文件会被删除.
+ */
+public class EconomyMigration {
+
+	private static final Logger log = Logger.getLogger("Minecraft");
+	private static final String LAST_PLAYER = "lastPlayer";
+	private static final String ACCOUNTS_DONE = "accountsDone";
+	private static final String ACCOUNTS_COPIED = "accountsCopied";
+	private static final String ACCOUNTS_FAILED = "accountsFailed";
+	private static final String LAST_BANK = "lastBank";
+	private static final Batch END = new Batch(-1);
+	private static final long OFFER_MILLIS = 100;
+	private static final Comparator<OfflinePlayer> BY_UUID = new Comparator<OfflinePlayer>() {
+		@Override
+		public int compare(OfflinePlayer a, OfflinePlayer b) {
+			return a.getUniqueId().compareTo(b.getUniqueId());
+		}
+	};
+
+	private final Economy source;
+	private final Economy destination;
+	private final File checkpointFile;
+	private final int batchSize;
+	private final int writers;
+	private final int digits;
+
+	/**
+	 * Constructor for EconomyMigration
+	 * {@link EconomyMigration}的构造函数
+	 *
+	 * @param source Economy to copy from
+	 * 复制的来源经济实现
+	 * @param destination Economy to copy to
+	 * 复制的目标经济实现
+	 * @param checkpointFile where progress is saved
+	 * 保存进度的文件
+	 * @param batchSize number of players per batch
+	 * 每批的玩家数
+	 * @param writers number of writer threads
+	 * 写入线程数
+	 */
+	public EconomyMigration(Economy source, Economy destination, File checkpointFile, int batchSize, int writers) {
+		if (batchSize <= 0 || writers <= 0) {
+			throw new IllegalArgumentException("batchSize and writers must be positive");
+		}
+		this.source = source;
+		this.destination = destination;
+		this.checkpointFile = checkpointFile;
+		this.batchSize = batchSize;
+		this.writers = writers;
+		this.digits = MinorUnits.digits(destination);
+	}
+
+	/**
+	 * Runs or resumes the migration
+	 * 运行或继续迁移
+	 *
+	 * @param players whose accounts are copied, typically all offline players
+	 * 需要复制账户的玩家, 一般为所有离线玩家
+	 * @param worlds worlds whose accounts are copied, containing null for the global accounts
+	 * 需要复制账户的世界, 包含null表示全局账户
+	 * @param listener receives the number of players copied, may be null
+	 * 接收已复制的玩家数, 可以为null
+	 * @return counts and checksums
+	 * 数量和校验和
+	 * @throws IOException if the checkpoint cannot be read or written
+	 * 如果无法读取或写入检查点
+	 * @throws InterruptedException if the thread was interrupted; the checkpoint allows resuming
+	 * 如果线程被中断; 可以通过检查点继续
+	 */
+	public MigrationResult migrate(Collection<? extends OfflinePlayer> players, Collection<String> worlds, MassUpdateListener listener)
+			throws IOException, InterruptedException {
+		List<OfflinePlayer> sorted = new ArrayList<OfflinePlayer>(players);
+		Collections.sort(sorted, BY_UUID);
+		Properties checkpoint = loadCheckpoint();
+		if (!Boolean.parseBoolean(checkpoint.getProperty(ACCOUNTS_DONE))) {
+			copyAccounts(sorted, worlds, checkpoint, listener);
+			checkpoint.setProperty(ACCOUNTS_DONE, "true");
+			saveCheckpoint(checkpoint);
+		}
+		// Counted over every run of this migration, so a resumed run reports the accounts copied before it.
+		int accounts = Integer.parseInt(checkpoint.getProperty(ACCOUNTS_COPIED, "0"));
+		int failedAccounts = Integer.parseInt(checkpoint.getProperty(ACCOUNTS_FAILED, "0"));
+		int[] bankCounts = new int[2];
+		if (source.hasBankSupport() && destination.hasBankSupport()) {
+			copyBanks(sorted, checkpoint, bankCounts);
+		}
+		MigrationResult result = verify(sorted, worlds, accounts, failedAccounts, bankCounts[0], bankCounts[1]);
+		if (result.isVerified() && result.getFailedAccounts() == 0 && result.getFailedBanks() == 0) {
+			checkpointFile.delete();
+		}
+		return result;
+	}
+
+	private void copyAccounts(List<OfflinePlayer> sorted, Collection<String> worlds, Properties checkpoint, MassUpdateListener listener)
+			throws IOException, InterruptedException {
+		int start = 0;
+		String last = checkpoint.getProperty(LAST_PLAYER);
+		if (last != null) {
+			UUID lastId = UUID.fromString(last);
+			while (start < sorted.size() && sorted.get(start).getUniqueId().compareTo(lastId) <= 0) {
+				start++;
+			}
+		}
+		BlockingQueue<Batch> queue = new ArrayBlockingQueue<Batch>(writers * 2);
+		Watermark watermark = new Watermark(checkpoint, start, sorted.size(), listener);
+		ExecutorService pool = Executors.newFixedThreadPool(writers);
+		boolean finished = false;
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			for (int i = 0; i < writers; i++) {
+				futures.add(pool.submit(new Writer(queue, watermark)));
+			}
+			long sequence = 0;
+			Batch batch = new Batch(sequence++);
+			for (int i = start; i < sorted.size(); i++) {
+				OfflinePlayer player = sorted.get(i);
+				for (String world : worlds) {
+					if (hasAccount(source, player, world)) {
+						batch.add(player, world, balance(source, player, world));
+					}
+				}
+				batch.lastPlayer = player.getUniqueId();
+				batch.players++;
+				if (batch.players == batchSize) {
+					enqueue(queue, batch, futures);
+					batch = new Batch(sequence++);
+				}
+			}
+			if (batch.players > 0) {
+				enqueue(queue, batch, futures);
+			}
+			for (int i = 0; i < writers; i++) {
+				enqueue(queue, END, futures);
+			}
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+			finished = true;
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		} finally {
+			if (finished) {
+				pool.shutdown();
+			} else {
+				pool.shutdownNow();
+			}
+		}
+	}
+
+	// Waits for room in the queue, but gives up once a writer died, since nobody may be left to drain it.
+	private static void enqueue(BlockingQueue<Batch> queue, Batch batch, List<Future<Void>> writers) throws InterruptedException, ExecutionException {
+		while (!queue.offer(batch, OFFER_MILLIS, TimeUnit.MILLISECONDS)) {
+			for (Future<Void> writer : writers) {
+				if (writer.isDone()) {
+					writer.get();
+					throw new IllegalStateException("Migration writer stopped before the end of the accounts");
+				}
+			}
+		}
+	}
+
+	private void copyBanks(List<OfflinePlayer> sorted, Properties checkpoint, int[] counts) throws IOException {
+		// Economy cannot list the owner of a bank, so owners are found through the players.
+		Map<String, OfflinePlayer> owners = new HashMap<String, OfflinePlayer>();
+		for (OfflinePlayer player : sorted) {
+			for (String name : source.getBanksOwnedBy(player)) {
+				owners.put(name, player);
+			}
+		}
+		String cursor = checkpoint.getProperty(LAST_BANK);
+		do {
+			BankPage page = source.getBanks(null, cursor, batchSize);
+			for (String name : page.getNames()) {
+				if (copyBank(name, owners.get(name))) {
+					counts[0]++;
+				} else {
+					counts[1]++;
+				}
+			}
+			if (!page.getNames().isEmpty()) {
+				checkpoint.setProperty(LAST_BANK, page.getNames().get(page.getNames().size() - 1));
+				saveCheckpoint(checkpoint);
+			}
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+	}
+
+	private boolean copyBank(String name, OfflinePlayer owner) {
+		if (owner == null) {
+			log.warning("[Vault] Cannot migrate bank " + name + ": owner not found");
+			return false;
+		}
+		EconomyResponse created = destination.createBank(name, owner);
+		if (!created.transactionSuccess() && created.errorCode != ErrorCode.BANK_EXISTS && !destination.bankBalance(name).transactionSuccess()) {
+			log.warning("[Vault] Cannot migrate bank " + name + ": " + created.errorMessage);
+			return false;
+		}
+		EconomyResponse from = source.bankBalance(name);
+		EconomyResponse to = destination.bankBalance(name);
+		if (!from.transactionSuccess() || !to.transactionSuccess()) {
+			return false;
+		}
+		double change = from.balance - to.balance;
+		if (change == 0) {
+			return true;
+		}
+		EconomyResponse response = change > 0 ? destination.bankDeposit(name, change) : destination.bankWithdraw(name, -change);
+		return response.transactionSuccess();
+	}
+
+	private MigrationResult verify(List<OfflinePlayer> sorted, final Collection<String> worlds, int accounts, int failedAccounts, int banks,
+			int failedBanks) throws InterruptedException {
+		long[] sums = new long[3];
+		int chunk = Math.max(1, (sorted.size() + writers - 1) / writers);
+		ExecutorService pool = Executors.newFixedThreadPool(writers);
+		try {
+			List<Callable<long[]>> tasks = new ArrayList<Callable<long[]>>();
+			for (int from = 0; from < sorted.size(); from += chunk) {
+				final List<OfflinePlayer> slice = sorted.subList(from, Math.min(sorted.size(), from + chunk));
+				tasks.add(new Callable<long[]>() {
+					@Override
+					public long[] call() {
+						long[] partial = new long[3];
+						for (OfflinePlayer player : slice) {
+							for (String world : worlds) {
+								if (hasAccount(source, player, world)) {
+									long expected = MinorUnits.toMinor(balance(source, player, world), digits);
+									long actual = hasAccount(destination, player, world) ? MinorUnits.toMinor(balance(destination, player, world), digits) : Long.MIN_VALUE;
+									tally(partial, player.getUniqueId().hashCode() * 31L + (world == null ? 0 : world.hashCode()), expected, actual);
+								}
+							}
+						}
+						return partial;
+					}
+				});
+			}
+			for (Future<long[]> future : pool.invokeAll(tasks)) {
+				long[] partial = future.get();
+				sums[0] += partial[0];
+				sums[1] += partial[1];
+				sums[2] += partial[2];
+			}
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IllegalStateException(cause);
+		} finally {
+			pool.shutdownNow();
+		}
+		if (source.hasBankSupport() && destination.hasBankSupport()) {
+			String cursor = null;
+			do {
+				BankPage page = source.getBanks(null, cursor, batchSize);
+				for (String name : page.getNames()) {
+					EconomyResponse to = destination.bankBalance(name);
+					long expected = MinorUnits.toMinor(source.bankBalance(name).balance, digits);
+					long actual = to.transactionSuccess() ? MinorUnits.toMinor(to.balance, digits) : Long.MIN_VALUE;
+					tally(sums, name.hashCode(), expected, actual);
+				}
+				cursor = page.getNextCursor();
+			} while (cursor != null);
+		}
+		return new MigrationResult(accounts, failedAccounts, banks, failedBanks, sums[0], sums[1], (int) sums[2]);
+	}
+
+	// Order-independent checksums: the sum of a hash of every (account, balance) pair.
+	private static void tally(long[] sums, long account, long expected, long actual) {
+		sums[0] += mix(account ^ mix(expected));
+		sums[1] += mix(account ^ mix(actual));
+		if (expected != actual) {
+			sums[2]++;
+		}
+	}
+
+	private boolean copyAccount(OfflinePlayer player, String world, double balance) {
+		if (!hasAccount(destination, player, world)) {
+			boolean created = world == null ? destination.createPlayerAccount(player) : destination.createPlayerAccount(player, world);
+			if (!created && !hasAccount(destination, player, world)) {
+				return false;
+			}
+		}
+		double change = balance - balance(destination, player, world);
+		if (change == 0) {
+			return true;
+		}
+		EconomyResponse response;
+		if (change > 0) {
+			response = world == null ? destination.depositPlayer(player, change) : destination.depositPlayer(player, world, change);
+		} else {
+			response = world == null ? destination.withdrawPlayer(player, -change) : destination.withdrawPlayer(player, world, -change);
+		}
+		return response != null && response.transactionSuccess();
+	}
+
+	private Properties loadCheckpoint() throws IOException {
+		Properties properties = new Properties();
+		if (checkpointFile.isFile()) {
+			InputStream in = new FileInputStream(checkpointFile);
+			try {
+				properties.load(in);
+			} finally {
+				in.close();
+			}
+		}
+		return properties;
+	}
+
+	private void saveCheckpoint(Properties properties) throws IOException {
+		File temp = new File(checkpointFile.getPath() + ".tmp");
+		OutputStream out = new FileOutputStream(temp);
+		try {
+			properties.store(out, "Vault economy migration checkpoint");
+		} finally {
+			out.close();
+		}
+		if (!temp.renameTo(checkpointFile) && (!checkpointFile.delete() || !temp.renameTo(checkpointFile))) {
+			throw new IOException("Cannot replace " + checkpointFile);
+		}
+	}
+
+	private static boolean hasAccount(Economy economy, OfflinePlayer player, String world) {
+		return world == null ? economy.hasAccount(player) : economy.hasAccount(player, world);
+	}
+
+	private static double balance(Economy economy, OfflinePlayer player, String world) {
+		return world == null ? economy.getBalance(player) : economy.getBalance(player, world);
+	}
+
+	// MurmurHash3 finalizer.
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	// Saves the checkpoint once every batch up to a point is written, since writers finish out of order.
+	private final class Watermark {
+		private final Properties checkpoint;
+		private final TreeMap<Long, Batch> finished = new TreeMap<Long, Batch>();
+		private final MassUpdateListener listener;
+		private final int total;
+		private long next;
+		private int players;
+		private int copied;
+		private int failed;
+
+		Watermark(Properties checkpoint, int players, int total, MassUpdateListener listener) {
+			this.checkpoint = checkpoint;
+			this.players = players;
+			this.total = total;
+			this.listener = listener;
+			this.copied = Integer.parseInt(checkpoint.getProperty(ACCOUNTS_COPIED, "0"));
+			this.failed = Integer.parseInt(checkpoint.getProperty(ACCOUNTS_FAILED, "0"));
+		}
+
+		synchronized void finished(Batch batch) throws IOException {
+			finished.put(batch.sequence, batch);
+			Batch last = null;
+			Batch done;
+			while ((done = finished.remove(next)) != null) {
+				next++;
+				players += done.players;
+				copied += done.copied;
+				failed += done.failed;
+				last = done;
+			}
+			if (last != null) {
+				checkpoint.setProperty(LAST_PLAYER, last.lastPlayer.toString());
+				checkpoint.setProperty(ACCOUNTS_COPIED, Integer.toString(copied));
+				checkpoint.setProperty(ACCOUNTS_FAILED, Integer.toString(failed));
+				saveCheckpoint(checkpoint);
+				if (listener != null) {
+					listener.onProgress(players, total);
+				}
+			}
+		}
+	}
+
+	private final class Writer implements Callable<Void> {
+		private final BlockingQueue<Batch> queue;
+		private final Watermark watermark;
+
+		Writer(BlockingQueue<Batch> queue, Watermark watermark) {
+			this.queue = queue;
+			this.watermark = watermark;
+		}
+
+		@Override
+		public Void call() throws IOException, InterruptedException {
+			while (true) {
+				Batch batch = queue.take();
+				if (batch == END) {
+					return null;
+				}
+				for (int i = 0; i < batch.size(); i++) {
+					OfflinePlayer player = batch.accountAt(i);
+					String world = batch.worlds.get(i);
+					boolean ok;
+					try {
+						ok = copyAccount(player, world, batch.balances[i]);
+					} catch (RuntimeException e) {
+						ok = false;
+					}
+					if (ok) {
+						batch.copied++;
+					} else {
+						batch.failed++;
+						log.warning("[Vault] Failed to migrate account of " + player.getUniqueId() + (world == null ? "" : " in " + world));
+					}
+				}
+				watermark.finished(batch);
+			}
+		}
+	}
+
+	private static final class Batch {
+		final long sequence;
+		final List<OfflinePlayer> accounts = new ArrayList<OfflinePlayer>();
+		final List<String> worlds = new ArrayList<String>();
+		double[] balances = new double[16];
+		UUID lastPlayer;
+		int players;
+		// Accounts of the batch, counted by the writer that copied it.
+		int copied;
+		int failed;
+
+		Batch(long sequence) {
+			this.sequence = sequence;
+		}
+
+		void add(OfflinePlayer player, String world, double balance) {
+			int i = accounts.size();
+			if (i == balances.length) {
+				double[] grown = new double[i * 2];
+				System.arraycopy(balances, 0, grown, 0, i);
+				balances = grown;
+			}
+			accounts.add(player);
+			worlds.add(world);
+			balances[i] = balance;
+		}
+
+		int size() {
+			return accounts.size();
+		}
+
+		OfflinePlayer accountAt(int i) {
+			return accounts.get(i);
+		}
+	}
+}
@@ -45,6 +45,58 @@ public class EconomyResponse {
         }
     }
 
+    /**
+     * Enum of stock outcomes, so that common failures do not need a message string.
+     * 枚举.表示常见的结果, 使常见的失败不需要错误信息字符串
+     */
+    public static enum ErrorCode {
+        NONE(null),
+        NOT_IMPLEMENTED("Not implemented"),
+        INSUFFICIENT_FUNDS("Insufficient funds"),
+        ACCOUNT_NOT_FOUND("Account not found"),
+        BANK_NOT_FOUND("Bank not found"),
+        BANK_EXISTS("Bank already exists"),
+        INVALID_AMOUNT("Invalid amount"),
+        HOLD_NOT_FOUND("Hold not found or expired"),
+        VERSION_CONFLICT("Balance was changed concurrently"),
+        TIMEOUT("Economy did not answer in time"),
+        CIRCUIT_OPEN("Economy is temporarily unavailable"),
+        /**
+         * Any other failure, described by {@link EconomyResponse#errorMessage}
+         * 其他失败, 由{@link EconomyResponse#errorMessage}描述
+         */
+        OTHER(null);
+
+        private final String message;
+
+        ErrorCode(String message) {
+            this.message = message;
+        }
+
+        /**
+         * Gets the stock message of this code
+         * 获取此代码的默认信息
+         * @return message, or null for {@link #NONE} and {@link #OTHER}
+         * 信息, {@link #NONE}和{@link #OTHER}为null
+         */
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    private static final EconomyResponse[] FAILURES;
+    private static final EconomyResponse NOT_IMPLEMENTED;
+
+    static {
+        ErrorCode[] codes = ErrorCode.values();
+        FAILURES = new EconomyResponse[codes.length];
+        for (ErrorCode code : codes) {
+            FAILURES[code.ordinal()] = new EconomyResponse(0, 0, ResponseType.FAILURE, code, code.getMessage());
+        }
+        NOT_IMPLEMENTED = new EconomyResponse(0, 0, ResponseType.NOT_IMPLEMENTED, ErrorCode.NOT_IMPLEMENTED,
+                ErrorCode.NOT_IMPLEMENTED.getMessage());
+    }
+
     /**
      * Amount modified by calling method
      * 调用方法传递的金额
@@ -66,6 +118,12 @@ public class EconomyResponse {
      * 如果变量的"类型"为{@link ResponseType.FAILURE}的错误信息
      */
     public final String errorMessage;
+    /**
+     * Stock outcome of the call, {@link ErrorCode#NONE} on success and {@link ErrorCode#OTHER} when only
+     * 'errorMessage' describes the failure
+     * 调用的结果代码, 成功时为{@link ErrorCode#NONE}, 只有'errorMessage'描述失败时为{@link ErrorCode#OTHER}
+     */
+    public final ErrorCode errorCode;
 
     /**
      * Constructor for EconomyResponse
@@ -85,6 +143,78 @@ public class EconomyResponse {
         this.balance = balance;
         this.type = type;
         this.errorMessage = errorMessage;
+        if (type == ResponseType.SUCCESS) {
+            this.errorCode = ErrorCode.NONE;
+        } else if (type == ResponseType.NOT_IMPLEMENTED && errorMessage == null) {
+            this.errorCode = ErrorCode.NOT_IMPLEMENTED;
+        } else {
+            this.errorCode = ErrorCode.OTHER;
+        }
+    }
+
+    private EconomyResponse(double amount, double balance, ResponseType type, ErrorCode errorCode, String errorMessage) {
+        this.amount = amount;
+        this.balance = balance;
+        this.type = type;
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Creates a successful response
+     * 创建一个成功的回报
+     *
+     * @param amount Amount modified during operation
+     * 操作中修改的金额
+     * @param balance New balance of account
+     * 新的账户余额
+     * @return EconomyResponse Object
+     * EconomyResponse对象
+     */
+    public static EconomyResponse success(double amount, double balance) {
+        return new EconomyResponse(amount, balance, ResponseType.SUCCESS, ErrorCode.NONE, null);
+    }
+
+    /**
+     * Creates a failed response carrying a stock error code; the error message is the code's constant message
+     * 创建一个带有错误代码的失败回报; 错误信息为该代码的常量信息
+     *
+     * @param amount Amount requested by the operation
+     * 操作请求的金额
+     * @param balance Current balance of account
+     * 当前的账户余额
+     * @param errorCode reason of the failure
+     * 失败原因
+     * @return EconomyResponse Object
+     * EconomyResponse对象
+     */
+    public static EconomyResponse failure(double amount, double balance, ErrorCode errorCode) {
+        return new EconomyResponse(amount, balance, ResponseType.FAILURE, errorCode, errorCode.getMessage());
+    }
+
+    /**
+     * Gets the shared failed response for an error code, with amount and balance set to 0.
+     * Responses are immutable, so the same instance is returned on every call.
+     * 获取某个错误代码共享的失败回报, 金额和余额均为0. 回报是不可变的, 所以每次调用都返回同一个实例.
+     *
+     * @param errorCode reason of the failure
+     * 失败原因
+     * @return shared EconomyResponse Object
+     * 共享的EconomyResponse对象
+     */
+    public static EconomyResponse failure(ErrorCode errorCode) {
+        return FAILURES[errorCode.ordinal()];
+    }
+
+    /**
+     * Gets the shared {@link ResponseType#NOT_IMPLEMENTED} response
+     * 获取共享的{@link ResponseType#NOT_IMPLEMENTED}回报
+     *
+     * @return shared EconomyResponse Object
+     * 共享的EconomyResponse对象
+     */
+    public static EconomyResponse notImplemented() {
+        return NOT_IMPLEMENTED;
     }
 
     /**
@@ -0,0 +1,137 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import net.milkbowl.vault.economy.EconomyResponse.ErrorCode;
+import net.milkbowl.vault.economy.EconomyResponse.ResponseType;
+
+/**
+ * Mutable, reusable counterpart of {@link EconomyResponse}. A caller running many transactions in a loop
+ * passes the same holder to every call instead of receiving a new response each time.
+ * Not thread-safe; use one holder per thread.
+ * {@link EconomyResponse}的可变, 可重用版本. 在循环中执行大量交易的调用者可以在每次调用时传入同一个holder, 而不是每次接收新的回报.
+ * 非线程安全; 每个线程使用一个holder.
+ */
+public final class EconomyResponseHolder {
+
+    private double amount;
+    private double balance;
+    private ResponseType type = ResponseType.NOT_IMPLEMENTED;
+    private ErrorCode errorCode = ErrorCode.NOT_IMPLEMENTED;
+    private String errorMessage = ErrorCode.NOT_IMPLEMENTED.getMessage();
+
+    /**
+     * Stores the outcome of a call
+     * 保存调用的结果
+     *
+     * @param amount Amount modified during operation
+     * 操作中修改的金额
+     * @param balance New balance of account
+     * 新的账户余额
+     * @param type Success or failure type of the operation
+     * 操作成功或者失败
+     * @param errorCode reason of a failure, {@link ErrorCode#NONE} on success
+     * 失败原因, 成功时为{@link ErrorCode#NONE}
+     * @return this holder
+     * 此holder
+     */
+    public EconomyResponseHolder set(double amount, double balance, ResponseType type, ErrorCode errorCode) {
+        this.amount = amount;
+        this.balance = balance;
+        this.type = type;
+        this.errorCode = errorCode;
+        this.errorMessage = errorCode.getMessage();
+        return this;
+    }
+
+    /**
+     * Copies the outcome of a response
+     * 复制一个回报的结果
+     *
+     * @param response to copy
+     * 要复制的回报
+     * @return this holder
+     * 此holder
+     */
+    public EconomyResponseHolder set(EconomyResponse response) {
+        this.amount = response.amount;
+        this.balance = response.balance;
+        this.type = response.type;
+        this.errorCode = response.errorCode;
+        this.errorMessage = response.errorMessage;
+        return this;
+    }
+
+    /**
+     * Amount modified by calling method
+     * 调用方法传递的金额
+     * @return amount
+     * 金额
+     */
+    public double getAmount() {
+        return amount;
+    }
+
+    /**
+     * New balance of account
+     * 新的账户余额
+     * @return balance
+     * 余额
+     */
+    public double getBalance() {
+        return balance;
+    }
+
+    /**
+     * Success or failure of call
+     * 调用是否成功
+     * @return response type
+     * 回报类型
+     */
+    public ResponseType getType() {
+        return type;
+    }
+
+    /**
+     * Stock outcome of the call
+     * 调用的结果代码
+     * @return error code
+     * 错误代码
+     */
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+    /**
+     * Error message if the type is not {@link ResponseType#SUCCESS}
+     * 如果类型不是{@link ResponseType#SUCCESS}时的错误信息
+     * @return error message, commonly null
+     * 错误信息, 一般为null
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * Checks if an operation was successful
+     * 检查操作是否成功
+     * @return Value
+     * 是否成功
+     */
+    public boolean transactionSuccess() {
+        return type == ResponseType.SUCCESS;
+    }
+}
@@ -0,0 +1,438 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Point-in-time copy of the accounts, per-world balances and banks of an economy, with a compact binary file
+ * format. Balances are stored in minor units. A snapshot is taken quickly (see {@link MemoryEconomy#snapshot()}),
+ * written to disk from an asynchronous task and restored with one bulk read, so that startup does not read
+ * accounts one by one.
+ * 经济实现的账户, 各世界余额和银行的某一时刻的副本, 带有紧凑的二进制文件格式. 余额以最小单位存储.
+ * 快照可以快速获取(见{@link MemoryEconomy#snapshot()}), 在异步任务中写入磁盘, 并通过一次批量读取恢复, 因此启动时无需逐个读取账户.
+ *
+ * The file starts with a magic number and a format version and ends with a CRC32 of everything before it. It
+ * is written to a temporary file that replaces the target only when complete.
+ * 文件以魔数和格式版本开头, 以之前所有内容的CRC32结尾. 文件先写入临时文件, 完成后才替换目标文件.
+ */
+public final class EconomySnapshot {
+
+	private static final int MAGIC = 0x564C5453;
+	private static final int VERSION = 1;
+
+	private final int fractionalDigits;
+	private final List<String> worlds = new ArrayList<String>();
+	private final Map<String, Integer> worldIndex = new HashMap<String, Integer>();
+	// Two longs per account for the UUID; a world index of -1 stands for the global account.
+	private long[] playerIds;
+	private int[] accountWorlds;
+	private long[] balances;
+	private int accountCount;
+	private final List<Bank> banks = new ArrayList<Bank>();
+
+	/**
+	 * Constructor for EconomySnapshot
+	 * {@link EconomySnapshot}的构造函数
+	 *
+	 * @param fractionalDigits minor unit digits of the balances
+	 * 余额的最小单位小数位数
+	 * @param expectedAccounts number of accounts to reserve space for
+	 * 预留空间的账户数
+	 */
+	public EconomySnapshot(int fractionalDigits, int expectedAccounts) {
+		this.fractionalDigits = fractionalDigits;
+		int capacity = Math.max(16, expectedAccounts);
+		this.playerIds = new long[capacity * 2];
+		this.accountWorlds = new int[capacity];
+		this.balances = new long[capacity];
+	}
+
+	/**
+	 * Adds an account
+	 * 添加一个账户
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @param worldName name of the world, null for the global account
+	 * 世界名称, 全局账户为null
+	 * @param balanceMinor balance in minor units
+	 * 以最小单位表示的余额
+	 */
+	public void addAccount(UUID playerId, String worldName, long balanceMinor) {
+		if (accountCount == balances.length) {
+			int capacity = accountCount * 2;
+			playerIds = Arrays.copyOf(playerIds, capacity * 2);
+			accountWorlds = Arrays.copyOf(accountWorlds, capacity);
+			balances = Arrays.copyOf(balances, capacity);
+		}
+		playerIds[accountCount * 2] = playerId.getMostSignificantBits();
+		playerIds[accountCount * 2 + 1] = playerId.getLeastSignificantBits();
+		accountWorlds[accountCount] = worldIndex(worldName);
+		balances[accountCount] = balanceMinor;
+		accountCount++;
+	}
+
+	/**
+	 * Adds a bank
+	 * 添加一个银行
+	 *
+	 * @param name of the bank
+	 * 银行名
+	 * @param ownerId UUID of the owner
+	 * 所有者的UUID
+	 * @param balanceMinor balance in minor units
+	 * 以最小单位表示的余额
+	 * @param members UUIDs of the members, without the owner
+	 * 成员的UUID, 不包括所有者
+	 */
+	public void addBank(String name, UUID ownerId, long balanceMinor, Collection<UUID> members) {
+		banks.add(new Bank(name, ownerId, balanceMinor, members.toArray(new UUID[members.size()])));
+	}
+
+	/**
+	 * Gets the minor unit digits of the balances
+	 * 获取余额的最小单位小数位数
+	 *
+	 * @return number of fractional digits
+	 * 小数位数
+	 */
+	public int getFractionalDigits() {
+		return fractionalDigits;
+	}
+
+	/**
+	 * Gets the number of player accounts
+	 * 获取玩家账户数
+	 *
+	 * @return number of accounts
+	 * 账户数
+	 */
+	public int getAccountCount() {
+		return accountCount;
+	}
+
+	/**
+	 * Gets the owner of an account
+	 * 获取账户的所有者
+	 *
+	 * @param account index of the account, from 0 to {@link #getAccountCount()} - 1
+	 * 账户的索引, 从0到{@link #getAccountCount()} - 1
+	 * @return UUID of the player
+	 * 玩家的UUID
+	 */
+	public UUID getPlayerId(int account) {
+		checkAccount(account);
+		return new UUID(playerIds[account * 2], playerIds[account * 2 + 1]);
+	}
+
+	/**
+	 * Gets the world of an account
+	 * 获取账户所属的世界
+	 *
+	 * @param account index of the account, from 0 to {@link #getAccountCount()} - 1
+	 * 账户的索引, 从0到{@link #getAccountCount()} - 1
+	 * @return name of the world, null for the global account
+	 * 世界名称, 全局账户为null
+	 */
+	public String getWorldName(int account) {
+		checkAccount(account);
+		int world = accountWorlds[account];
+		return world < 0 ? null : worlds.get(world);
+	}
+
+	/**
+	 * Gets the balance of an account
+	 * 获取账户的余额
+	 *
+	 * @param account index of the account, from 0 to {@link #getAccountCount()} - 1
+	 * 账户的索引, 从0到{@link #getAccountCount()} - 1
+	 * @return balance in minor units
+	 * 以最小单位表示的余额
+	 */
+	public long getBalanceMinor(int account) {
+		checkAccount(account);
+		return balances[account];
+	}
+
+	/**
+	 * Gets the number of banks
+	 * 获取银行数
+	 *
+	 * @return number of banks
+	 * 银行数
+	 */
+	public int getBankCount() {
+		return banks.size();
+	}
+
+	/**
+	 * Gets the name of a bank
+	 * 获取银行名
+	 *
+	 * @param bank index of the bank, from 0 to {@link #getBankCount()} - 1
+	 * 银行的索引, 从0到{@link #getBankCount()} - 1
+	 * @return name of the bank
+	 * 银行名
+	 */
+	public String getBankName(int bank) {
+		return banks.get(bank).name;
+	}
+
+	/**
+	 * Gets the owner of a bank
+	 * 获取银行的所有者
+	 *
+	 * @param bank index of the bank, from 0 to {@link #getBankCount()} - 1
+	 * 银行的索引, 从0到{@link #getBankCount()} - 1
+	 * @return UUID of the owner
+	 * 所有者的UUID
+	 */
+	public UUID getBankOwner(int bank) {
+		return banks.get(bank).owner;
+	}
+
+	/**
+	 * Gets the balance of a bank
+	 * 获取银行的余额
+	 *
+	 * @param bank index of the bank, from 0 to {@link #getBankCount()} - 1
+	 * 银行的索引, 从0到{@link #getBankCount()} - 1
+	 * @return balance in minor units
+	 * 以最小单位表示的余额
+	 */
+	public long getBankBalanceMinor(int bank) {
+		return banks.get(bank).balance;
+	}
+
+	/**
+	 * Gets the members of a bank
+	 * 获取银行的成员
+	 *
+	 * @param bank index of the bank, from 0 to {@link #getBankCount()} - 1
+	 * 银行的索引, 从0到{@link #getBankCount()} - 1
+	 * @return unmodifiable list of the UUIDs of the members, without the owner
+	 * 成员UUID的不可修改列表, 不包括所有者
+	 */
+	public List<UUID> getBankMembers(int bank) {
+		return Collections.unmodifiableList(Arrays.asList(banks.get(bank).members));
+	}
+
+	/**
+	 * Writes the snapshot to a file, replacing it only once the new file is complete and synced. Call this from
+	 * an asynchronous task. The replacement is an atomic rename except on platforms that cannot rename over an
+	 * existing file, such as Windows, where the old file is deleted first.
+	 * 将快照写入文件, 只有在新文件完整并同步到磁盘后才替换原文件. 应在异步任务中调用. 替换通过原子重命名完成,
+	 * 但在无法覆盖已有文件的平台(例如Windows)上会先删除原文件, 此时替换不是原子的.
+	 *
+	 * @param file to write
+	 * 要写入的文件
+	 * @throws IOException if the file cannot be written
+	 * 如果无法写入文件
+	 */
+	public void write(File file) throws IOException {
+		File temp = new File(file.getPath() + ".tmp");
+		boolean written = false;
+		try {
+			writeTo(temp);
+			written = true;
+		} finally {
+			if (!written) {
+				temp.delete();
+			}
+		}
+		if (!temp.renameTo(file)) {
+			// Windows does not replace an existing file on rename. Deleting first is not atomic: a crash in between
+			// leaves no snapshot at the target, only the complete .tmp file.
+			if (!file.delete()) {
+				temp.delete();
+				throw new IOException("Cannot replace " + file);
+			}
+			if (!temp.renameTo(file)) {
+				throw new IOException("Cannot rename " + temp + " to " + file + ", the snapshot is left in " + temp);
+			}
+		}
+	}
+
+	private void writeTo(File temp) throws IOException {
+		FileOutputStream stream = new FileOutputStream(temp);
+		try {
+			BufferedOutputStream buffered = new BufferedOutputStream(stream, 1 << 16);
+			CheckedOutputStream checked = new CheckedOutputStream(buffered, new CRC32());
+			DataOutputStream out = new DataOutputStream(checked);
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			out.writeByte(fractionalDigits);
+			out.writeInt(worlds.size());
+			for (String world : worlds) {
+				out.writeUTF(world);
+			}
+			out.writeInt(accountCount);
+			for (int i = 0; i < accountCount; i++) {
+				out.writeLong(playerIds[i * 2]);
+				out.writeLong(playerIds[i * 2 + 1]);
+				out.writeInt(accountWorlds[i]);
+				out.writeLong(balances[i]);
+			}
+			out.writeInt(banks.size());
+			for (Bank bank : banks) {
+				out.writeUTF(bank.name);
+				out.writeLong(bank.owner.getMostSignificantBits());
+				out.writeLong(bank.owner.getLeastSignificantBits());
+				out.writeLong(bank.balance);
+				out.writeInt(bank.members.length);
+				for (UUID member : bank.members) {
+					out.writeLong(member.getMostSignificantBits());
+					out.writeLong(member.getLeastSignificantBits());
+				}
+			}
+			out.flush();
+			new DataOutputStream(buffered).writeLong(checked.getChecksum().getValue());
+			buffered.flush();
+			stream.getFD().sync();
+		} finally {
+			stream.close();
+		}
+	}
+
+	/**
+	 * Reads a snapshot file in one bulk read and checks its checksum
+	 * 通过一次批量读取读入快照文件并校验其校验和
+	 *
+	 * @param file to read
+	 * 要读取的文件
+	 * @return the snapshot
+	 * 快照
+	 * @throws IOException if the file cannot be read, is not a snapshot or is corrupt
+	 * 如果无法读取文件, 文件不是快照或已损坏
+	 */
+	public static EconomySnapshot read(File file) throws IOException {
+		byte[] data;
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			long length = raf.length();
+			if (length > Integer.MAX_VALUE) {
+				throw new IOException("Snapshot " + file + " is too large");
+			}
+			data = new byte[(int) length];
+			raf.readFully(data);
+		} finally {
+			raf.close();
+		}
+		int body = data.length - 8;
+		if (body < 11) {
+			throw new IOException("Snapshot " + file + " is truncated");
+		}
+		CRC32 crc = new CRC32();
+		crc.update(data, 0, body);
+		if (crc.getValue() != ByteBuffer.wrap(data, body, 8).getLong()) {
+			throw new IOException("Snapshot " + file + " is corrupt");
+		}
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 0, body));
+		if (in.readInt() != MAGIC) {
+			throw new IOException(file + " is not an economy snapshot");
+		}
+		int version = in.readUnsignedShort();
+		if (version != VERSION) {
+			throw new IOException("Unsupported snapshot version " + version + " in " + file);
+		}
+		int digits = in.readUnsignedByte();
+		int worldCount = in.readInt();
+		String[] worldNames = new String[worldCount];
+		for (int i = 0; i < worldCount; i++) {
+			worldNames[i] = in.readUTF();
+		}
+		int accounts = in.readInt();
+		EconomySnapshot snapshot = new EconomySnapshot(digits, accounts);
+		for (String world : worldNames) {
+			snapshot.worldIndex(world);
+		}
+		for (int i = 0; i < accounts; i++) {
+			snapshot.playerIds[i * 2] = in.readLong();
+			snapshot.playerIds[i * 2 + 1] = in.readLong();
+			int world = in.readInt();
+			if (world < -1 || world >= worldCount) {
+				throw new IOException("Snapshot " + file + " has an invalid world index");
+			}
+			snapshot.accountWorlds[i] = world;
+			snapshot.balances[i] = in.readLong();
+		}
+		snapshot.accountCount = accounts;
+		int bankCount = in.readInt();
+		for (int i = 0; i < bankCount; i++) {
+			String name = in.readUTF();
+			UUID owner = new UUID(in.readLong(), in.readLong());
+			long balance = in.readLong();
+			UUID[] members = new UUID[in.readInt()];
+			for (int m = 0; m < members.length; m++) {
+				members[m] = new UUID(in.readLong(), in.readLong());
+			}
+			snapshot.banks.add(new Bank(name, owner, balance, members));
+		}
+		return snapshot;
+	}
+
+	private int worldIndex(String worldName) {
+		if (worldName == null) {
+			return -1;
+		}
+		Integer index = worldIndex.get(worldName);
+		if (index == null) {
+			index = worlds.size();
+			worlds.add(worldName);
+			worldIndex.put(worldName, index);
+		}
+		return index;
+	}
+
+	private void checkAccount(int account) {
+		if (account < 0 || account >= accountCount) {
+			throw new IndexOutOfBoundsException("Account " + account + " of " + accountCount);
+		}
+	}
+
+	private static final class Bank {
+		final String name;
+		final UUID owner;
+		final long balance;
+		final UUID[] members;
+
+		Bank(String name, UUID owner, long balance, UUID[] members) {
+			this.name = name;
+			this.owner = owner;
+			this.balance = balance;
+			this.members = members;
+		}
+	}
+}
@@ -0,0 +1,439 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.OfflinePlayer;
+
+/**
+ * An {@link Economy} that forwards every call to another Economy. Decorators extend this
+ * class and override only the methods they need to intercept.
+ * 将所有调用转发给另一个{@link Economy}的经济实现. 装饰器继承此类并只覆盖需要拦截的方法.
+ *
+ * The core player, bank and account methods are forwarded, as are queries a provider answers from its own
+ * index (such as the leaderboard) and bulk operations it can run natively. Convenience methods that {@link AbstractEconomy} derives from the core
+ * methods (such as the minor unit methods) are bridged through this object, so a decorator sees every call
+ * in its overrides of the core methods.
+ * 核心的玩家, 银行和账户方法, 经济插件通过自身索引回答的查询(例如排行榜)以及可以原生执行的批量操作会被转发.
+ * {@link AbstractEconomy}基于核心方法派生的便捷方法(例如最小单位方法)会经过此对象, 因此装饰器覆盖的核心方法能看到所有调用.
+ *
+ * The {@link EconomyResponseHolder} overloads are forwarded as well, so that an allocation-free implementation
+ * of the wrapped Economy is reached. Decorators that intercept withdrawals or deposits must override them with
+ * {@link #withdrawInto(OfflinePlayer, String, double, EconomyResponseHolder)} and
+ * {@link #depositInto(OfflinePlayer, String, double, EconomyResponseHolder)}.
+ * {@link EconomyResponseHolder}重载方法同样会被转发, 以便使用被包装的经济实现的无分配实现. 拦截存取款的装饰器必须使用
+ * {@link #withdrawInto(OfflinePlayer, String, double, EconomyResponseHolder)}和{@link #depositInto(OfflinePlayer, String, double, EconomyResponseHolder)}覆盖它们.
+ */
+@SuppressWarnings("deprecation")
+public abstract class ForwardingEconomy extends AbstractEconomy {
+
+	protected final Economy delegate;
+
+	/**
+	 * Constructor for ForwardingEconomy
+	 * {@link ForwardingEconomy}的构造函数
+	 *
+	 * @param delegate Economy that receives the forwarded calls
+	 * 接收转发调用的经济实现
+	 */
+	protected ForwardingEconomy(Economy delegate) {
+		if (delegate == null) {
+			throw new IllegalArgumentException("delegate cannot be null");
+		}
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Gets the Economy this decorator forwards to
+	 * 获取此装饰器转发到的经济实现
+	 *
+	 * @return the wrapped Economy
+	 * 被包装的经济实现
+	 */
+	public Economy getDelegate() {
+		return delegate;
+	}
+
+	/**
+	 * Uses the parallelism of the wrapped Economy when it is an {@link AbstractEconomy}, else a single thread.
+	 * 当被包装的经济实现是{@link AbstractEconomy}时使用其并行度, 否则使用单个线程.
+	 */
+	@Override
+	protected int getMassUpdateParallelism() {
+		return delegate instanceof AbstractEconomy ? ((AbstractEconomy) delegate).getMassUpdateParallelism() : 1;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return delegate.isEnabled();
+	}
+
+	@Override
+	public String getName() {
+		return delegate.getName();
+	}
+
+	@Override
+	public boolean hasBankSupport() {
+		return delegate.hasBankSupport();
+	}
+
+	@Override
+	public int fractionalDigits() {
+		return delegate.fractionalDigits();
+	}
+
+	@Override
+	public String format(double amount) {
+		return delegate.format(amount);
+	}
+
+	@Override
+	public String currencyNamePlural() {
+		return delegate.currencyNamePlural();
+	}
+
+	@Override
+	public String currencyNameSingular() {
+		return delegate.currencyNameSingular();
+	}
+
+	@Override
+	public boolean hasAccount(String playerName) {
+		return delegate.hasAccount(playerName);
+	}
+
+	@Override
+	public boolean hasAccount(OfflinePlayer player) {
+		return delegate.hasAccount(player);
+	}
+
+	@Override
+	public boolean hasAccount(String playerName, String worldName) {
+		return delegate.hasAccount(playerName, worldName);
+	}
+
+	@Override
+	public boolean hasAccount(OfflinePlayer player, String worldName) {
+		return delegate.hasAccount(player, worldName);
+	}
+
+	@Override
+	public double getBalance(String playerName) {
+		return delegate.getBalance(playerName);
+	}
+
+	@Override
+	public double getBalance(OfflinePlayer player) {
+		return delegate.getBalance(player);
+	}
+
+	@Override
+	public double getBalance(String playerName, String world) {
+		return delegate.getBalance(playerName, world);
+	}
+
+	@Override
+	public double getBalance(OfflinePlayer player, String world) {
+		return delegate.getBalance(player, world);
+	}
+
+	@Override
+	public boolean has(String playerName, double amount) {
+		return delegate.has(playerName, amount);
+	}
+
+	@Override
+	public boolean has(OfflinePlayer player, double amount) {
+		return delegate.has(player, amount);
+	}
+
+	@Override
+	public boolean has(String playerName, String worldName, double amount) {
+		return delegate.has(playerName, worldName, amount);
+	}
+
+	@Override
+	public boolean has(OfflinePlayer player, String worldName, double amount) {
+		return delegate.has(player, worldName, amount);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(String playerName, double amount) {
+		return delegate.withdrawPlayer(playerName, amount);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+		return delegate.withdrawPlayer(player, amount);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(String playerName, String worldName, double amount) {
+		return delegate.withdrawPlayer(playerName, worldName, amount);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+		return delegate.withdrawPlayer(player, worldName, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(String playerName, double amount) {
+		return delegate.depositPlayer(playerName, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+		return delegate.depositPlayer(player, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(String playerName, String worldName, double amount) {
+		return delegate.depositPlayer(playerName, worldName, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+		return delegate.depositPlayer(player, worldName, amount);
+	}
+
+	@Override
+	public EconomyResponse createBank(String name, String player) {
+		return delegate.createBank(name, player);
+	}
+
+	@Override
+	public EconomyResponse createBank(String name, OfflinePlayer player) {
+		return delegate.createBank(name, player);
+	}
+
+	@Override
+	public EconomyResponse deleteBank(String name) {
+		return delegate.deleteBank(name);
+	}
+
+	@Override
+	public EconomyResponse bankBalance(String name) {
+		return delegate.bankBalance(name);
+	}
+
+	@Override
+	public EconomyResponse bankHas(String name, double amount) {
+		return delegate.bankHas(name, amount);
+	}
+
+	@Override
+	public EconomyResponse bankWithdraw(String name, double amount) {
+		return delegate.bankWithdraw(name, amount);
+	}
+
+	@Override
+	public EconomyResponse bankDeposit(String name, double amount) {
+		return delegate.bankDeposit(name, amount);
+	}
+
+	@Override
+	public EconomyResponse isBankOwner(String name, String playerName) {
+		return delegate.isBankOwner(name, playerName);
+	}
+
+	@Override
+	public EconomyResponse isBankOwner(String name, OfflinePlayer player) {
+		return delegate.isBankOwner(name, player);
+	}
+
+	@Override
+	public EconomyResponse isBankMember(String name, String playerName) {
+		return delegate.isBankMember(name, playerName);
+	}
+
+	@Override
+	public EconomyResponse isBankMember(String name, OfflinePlayer player) {
+		return delegate.isBankMember(name, player);
+	}
+
+	@Override
+	public List<String> getBanks() {
+		return delegate.getBanks();
+	}
+
+	@Override
+	public boolean createPlayerAccount(String playerName) {
+		return delegate.createPlayerAccount(playerName);
+	}
+
+	@Override
+	public boolean createPlayerAccount(OfflinePlayer player) {
+		return delegate.createPlayerAccount(player);
+	}
+
+	@Override
+	public boolean createPlayerAccount(String playerName, String worldName) {
+		return delegate.createPlayerAccount(playerName, worldName);
+	}
+
+	@Override
+	public boolean createPlayerAccount(OfflinePlayer player, String worldName) {
+		return delegate.createPlayerAccount(player, worldName);
+	}
+
+	@Override
+	public List<BalanceEntry> getTopBalances(int count) {
+		return delegate.getTopBalances(count);
+	}
+
+	@Override
+	public int getBalanceRank(OfflinePlayer player) {
+		return delegate.getBalanceRank(player);
+	}
+
+	@Override
+	public boolean checkBankOwner(String name, OfflinePlayer player) {
+		return delegate.checkBankOwner(name, player);
+	}
+
+	@Override
+	public boolean checkBankMember(String name, OfflinePlayer player) {
+		return delegate.checkBankMember(name, player);
+	}
+
+	@Override
+	public List<String> getBanksOwnedBy(OfflinePlayer player) {
+		return delegate.getBanksOwnedBy(player);
+	}
+
+	@Override
+	public List<String> getBanksWithMember(OfflinePlayer player) {
+		return delegate.getBanksWithMember(player);
+	}
+
+	@Override
+	public BankPage getBanks(String prefix, String cursor, int limit) {
+		return delegate.getBanks(prefix, cursor, limit);
+	}
+
+	@Override
+	public List<OfflinePlayer> createPlayerAccounts(Collection<? extends OfflinePlayer> players, String worldName) {
+		return delegate.createPlayerAccounts(players, worldName);
+	}
+
+	@Override
+	public MassUpdateResult transformBalances(BalanceTransform transform, BalanceFilter filter, String worldName, MassUpdateListener listener) {
+		return delegate.transformBalances(transform, filter, worldName, listener);
+	}
+
+	@Override
+	public FundHold holdFunds(OfflinePlayer player, String worldName, double amount, long duration, TimeUnit unit) {
+		return delegate.holdFunds(player, worldName, amount, duration, unit);
+	}
+
+	@Override
+	public EconomyResponse captureHold(FundHold hold) {
+		return delegate.captureHold(hold);
+	}
+
+	@Override
+	public boolean releaseHold(FundHold hold) {
+		return delegate.releaseHold(hold);
+	}
+
+	@Override
+	public double getHeldBalance(OfflinePlayer player, String worldName) {
+		return delegate.getHeldBalance(player, worldName);
+	}
+
+	@Override
+	public VersionedBalance getVersionedBalance(OfflinePlayer player, String worldName) {
+		return delegate.getVersionedBalance(player, worldName);
+	}
+
+	@Override
+	public EconomyResponse compareAndSetBalance(OfflinePlayer player, String worldName, long expectedVersion, double newBalance) {
+		return delegate.compareAndSetBalance(player, worldName, expectedVersion, newBalance);
+	}
+
+	@Override
+	public boolean withdrawPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		return delegate.withdrawPlayer(player, worldName, amount, result);
+	}
+
+	@Override
+	public boolean depositPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		return delegate.depositPlayer(player, worldName, amount, result);
+	}
+
+	@Override
+	public Currency getDefaultCurrency() {
+		return delegate instanceof MultiCurrencyEconomy ? ((MultiCurrencyEconomy) delegate).getDefaultCurrency() : super.getDefaultCurrency();
+	}
+
+	@Override
+	public Currency getCurrency(String name) {
+		return delegate instanceof MultiCurrencyEconomy ? ((MultiCurrencyEconomy) delegate).getCurrency(name) : super.getCurrency(name);
+	}
+
+	@Override
+	public List<Currency> getCurrencies() {
+		return delegate instanceof MultiCurrencyEconomy ? ((MultiCurrencyEconomy) delegate).getCurrencies() : super.getCurrencies();
+	}
+
+	// The default currency is bridged through the core methods, so that decorators see it; others are forwarded.
+	@Override
+	public double getBalance(OfflinePlayer player, String worldName, Currency currency) {
+		if (currency == getDefaultCurrency() || !(delegate instanceof MultiCurrencyEconomy)) {
+			return super.getBalance(player, worldName, currency);
+		}
+		return ((MultiCurrencyEconomy) delegate).getBalance(player, worldName, currency);
+	}
+
+	@Override
+	public double[] getBalances(OfflinePlayer player, String worldName) {
+		if (!(delegate instanceof MultiCurrencyEconomy)) {
+			return super.getBalances(player, worldName);
+		}
+		double[] balances = ((MultiCurrencyEconomy) delegate).getBalances(player, worldName);
+		balances[0] = super.getBalance(player, worldName, getDefaultCurrency());
+		return balances;
+	}
+
+	@Override
+	public boolean has(OfflinePlayer player, String worldName, Currency currency, double amount) {
+		if (currency == getDefaultCurrency() || !(delegate instanceof MultiCurrencyEconomy)) {
+			return super.has(player, worldName, currency, amount);
+		}
+		return ((MultiCurrencyEconomy) delegate).has(player, worldName, currency, amount);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, Currency currency, double amount) {
+		if (currency == getDefaultCurrency() || !(delegate instanceof MultiCurrencyEconomy)) {
+			return super.withdrawPlayer(player, worldName, currency, amount);
+		}
+		return ((MultiCurrencyEconomy) delegate).withdrawPlayer(player, worldName, currency, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, Currency currency, double amount) {
+		if (currency == getDefaultCurrency() || !(delegate instanceof MultiCurrencyEconomy)) {
+			return super.depositPlayer(player, worldName, currency, amount);
+		}
+		return ((MultiCurrencyEconomy) delegate).depositPlayer(player, worldName, currency, amount);
+	}
+}
@@ -0,0 +1,102 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import org.bukkit.OfflinePlayer;
+
+/**
+ * A reservation of funds made by {@link Economy#holdFunds(OfflinePlayer, String, double, long, java.util.concurrent.TimeUnit)}.
+ * The held amount stays in the account but cannot be spent until the hold is captured, released or expires.
+ * 由{@link Economy#holdFunds(OfflinePlayer, String, double, long, java.util.concurrent.TimeUnit)}创建的资金预留.
+ * 预留的金额仍在账户中, 但在预留被扣款, 释放或过期之前无法使用.
+ */
+public final class FundHold {
+
+	private final long id;
+	private final OfflinePlayer player;
+	private final String worldName;
+	private final double amount;
+	private final long expiresAt;
+
+	/**
+	 * Constructor for FundHold
+	 * {@link FundHold}的构造函数
+	 *
+	 * @param id identifier, unique within the Economy that issued the hold
+	 * 标识符, 在创建预留的经济实现中唯一
+	 * @param player owner of the account
+	 * 账户的所有者
+	 * @param worldName name of the world, null for the global account
+	 * 世界名称, 全局账户为null
+	 * @param amount held amount
+	 * 预留的金额
+	 * @param expiresAt time the hold expires, in milliseconds since the epoch
+	 * 预留过期的时间, 以自纪元以来的毫秒数表示
+	 */
+	public FundHold(long id, OfflinePlayer player, String worldName, double amount, long expiresAt) {
+		this.id = id;
+		this.player = player;
+		this.worldName = worldName;
+		this.amount = amount;
+		this.expiresAt = expiresAt;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public OfflinePlayer getPlayer() {
+		return player;
+	}
+
+	public String getWorldName() {
+		return worldName;
+	}
+
+	public double getAmount() {
+		return amount;
+	}
+
+	public long getExpiresAt() {
+		return expiresAt;
+	}
+
+	/**
+	 * Checks if the hold has expired
+	 * 检查预留是否已过期
+	 *
+	 * @return true if the expiry time has passed
+	 * 如果已超过过期时间则返回真
+	 */
+	public boolean isExpired() {
+		return System.currentTimeMillis() >= expiresAt;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof FundHold && ((FundHold) o).id == id;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (id ^ (id >>> 32));
+	}
+
+	@Override
+	public String toString() {
+		return "FundHold{id=" + id + ", playerId=" + player.getUniqueId() + ", world=" + worldName + ", amount=" + amount + ", expiresAt=" + expiresAt + "}";
+	}
+}
@@ -0,0 +1,325 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bukkit.OfflinePlayer;
+
+/**
+ * In-memory table of the {@link FundHold}s of an economy, used by {@link AbstractEconomy}. Expired holds are
+ * dropped when their account is next looked at, and by a sweep of the whole table once the earliest of them
+ * has expired, so that abandoned holds do not keep lookups off their lock-free path. Thread-safe; the holds are
+ * split into segments by account, so lookups of different accounts rarely wait for each other.
+ * 经济实现的{@link FundHold}的内存表, 由{@link AbstractEconomy}使用. 过期的预留会在下次查看其账户时被丢弃,
+ * 并且在最早的预留过期后由一次全表清理丢弃, 以免被遗弃的预留使查询无法走无锁路径. 线程安全; 预留按账户分为多个段,
+ * 因此不同账户的查询很少相互等待.
+ *
+ * The table only records holds. Checking a hold against the balance and changing the balance are atomic only
+ * if both happen under {@link #lock(UUID, String)}, as the hold and withdraw methods of {@link AbstractEconomy}
+ * do.
+ * 此表只记录预留. 只有当根据余额检查预留和修改余额都在{@link #lock(UUID, String)}下进行时(如{@link AbstractEconomy}的预留和取款方法),
+ * 两者才是原子的.
+ */
+public class FundHoldTable {
+
+	private static final int STRIPES = 64;
+
+	private final Object[] locks = new Object[STRIPES];
+	// Holds of the accounts of a stripe, each guarded by its own monitor, which is never held while taking another lock.
+	private final Segment[] segments = new Segment[STRIPES];
+	private final AtomicLong nextId = new AtomicLong();
+	// Expiry of the earliest hold added since the last sweep; the table is swept once it has passed.
+	private final AtomicLong nextSweep = new AtomicLong(Long.MAX_VALUE);
+	// Lets lookups skip the segments while no hold exists, which is the common case.
+	private final AtomicInteger size = new AtomicInteger();
+
+	public FundHoldTable() {
+		for (int i = 0; i < STRIPES; i++) {
+			locks[i] = new Object();
+			segments[i] = new Segment();
+		}
+	}
+
+	/**
+	 * Gets the lock of an account. Holds are placed under it, and withdrawals that must leave the held amount
+	 * untouched check it and change the balance under it. Accounts may share a lock.
+	 * 获取账户的锁. 预留在此锁下进行, 必须保留预留金额的取款也应在此锁下检查预留并修改余额. 多个账户可能共享同一个锁.
+	 *
+	 * @param playerId UUID of the owner
+	 * 所有者的UUID
+	 * @param worldName name of the world, null for the global account
+	 * 世界名称, 全局账户为null
+	 * @return lock of the account
+	 * 账户的锁
+	 */
+	public Object lock(UUID playerId, String worldName) {
+		return locks[stripe(playerId, worldName)];
+	}
+
+	/**
+	 * Reserves an amount if the balance minus the amounts already held covers it
+	 * 如果余额减去已预留的金额足够, 则预留该金额
+	 *
+	 * @param player owner of the account
+	 * 账户的所有者
+	 * @param worldName name of the world, null for the global account
+	 * 世界名称, 全局账户为null
+	 * @param amount to hold, must be positive
+	 * 要预留的金额, 必须为正数
+	 * @param balance current balance of the account
+	 * 账户的当前余额
+	 * @param durationMillis how long the hold lasts
+	 * 预留的持续时间
+	 * @return the hold, or null if the spendable balance is too low
+	 * 预留, 如果可用余额不足则为null
+	 */
+	public FundHold hold(OfflinePlayer player, String worldName, double amount, double balance, long durationMillis) {
+		if (!(amount > 0)) {
+			throw new IllegalArgumentException("amount must be positive");
+		}
+		sweep();
+		AccountKey key = new AccountKey(player.getUniqueId(), worldName);
+		Segment segment = segments[stripe(player.getUniqueId(), worldName)];
+		FundHold hold;
+		synchronized (segment) {
+			if (balance - segment.held(key) < amount) {
+				return null;
+			}
+			hold = new FundHold(nextId.incrementAndGet(), player, worldName, amount, System.currentTimeMillis() + durationMillis);
+			segment.add(key, hold);
+		}
+		expiring(hold.getExpiresAt());
+		return hold;
+	}
+
+	/**
+	 * Removes a hold
+	 * 移除一个预留
+	 *
+	 * @param hold to remove
+	 * 要移除的预留
+	 * @return true if the hold was active, false if it was unknown, already removed or expired
+	 * 如果预留仍有效则返回真, 如果未知, 已被移除或已过期则返回假
+	 */
+	public boolean release(FundHold hold) {
+		UUID playerId = hold.getPlayer().getUniqueId();
+		AccountKey key = new AccountKey(playerId, hold.getWorldName());
+		Segment segment = segments[stripe(playerId, hold.getWorldName())];
+		synchronized (segment) {
+			List<FundHold> list = segment.holds.get(key);
+			if (list == null || !list.remove(hold)) {
+				return false;
+			}
+			size.decrementAndGet();
+			if (list.isEmpty()) {
+				segment.holds.remove(key);
+			}
+		}
+		return !hold.isExpired();
+	}
+
+	/**
+	 * Puts back a hold that was released, unless it has expired in the meantime
+	 * 放回一个已释放的预留, 除非它在此期间已过期
+	 *
+	 * @param hold to put back
+	 * 要放回的预留
+	 */
+	public void restore(FundHold hold) {
+		if (hold.isExpired()) {
+			return;
+		}
+		UUID playerId = hold.getPlayer().getUniqueId();
+		Segment segment = segments[stripe(playerId, hold.getWorldName())];
+		synchronized (segment) {
+			segment.add(new AccountKey(playerId, hold.getWorldName()), hold);
+		}
+		expiring(hold.getExpiresAt());
+	}
+
+	/**
+	 * Removes every hold
+	 * 移除所有预留
+	 */
+	public void clear() {
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				for (List<FundHold> list : segment.holds.values()) {
+					size.addAndGet(-list.size());
+				}
+				segment.holds.clear();
+			}
+		}
+	}
+
+	/**
+	 * Gets the sum of the active holds on an account
+	 * 获取一个账户上有效预留的总额
+	 *
+	 * @param playerId UUID of the owner
+	 * 所有者的UUID
+	 * @param worldName name of the world, null for the global account
+	 * 世界名称, 全局账户为null
+	 * @return held amount
+	 * 预留的金额
+	 */
+	public double getHeld(UUID playerId, String worldName) {
+		if (size.get() == 0) {
+			return 0;
+		}
+		sweep();
+		Segment segment = segments[stripe(playerId, worldName)];
+		synchronized (segment) {
+			return segment.held(new AccountKey(playerId, worldName));
+		}
+	}
+
+	/**
+	 * Gets the number of holds in the table, including expired holds that were not dropped yet
+	 * 获取表中的预留数, 包括尚未被丢弃的过期预留
+	 *
+	 * @return number of holds
+	 * 预留数
+	 */
+	public int getHoldCount() {
+		return size.get();
+	}
+
+	/**
+	 * Gets the active holds on an account
+	 * 获取一个账户上的有效预留
+	 *
+	 * @param playerId UUID of the owner
+	 * 所有者的UUID
+	 * @param worldName name of the world, null for the global account
+	 * 世界名称, 全局账户为null
+	 * @return copy of the holds
+	 * 预留的副本
+	 */
+	public List<FundHold> getHolds(UUID playerId, String worldName) {
+		AccountKey key = new AccountKey(playerId, worldName);
+		Segment segment = segments[stripe(playerId, worldName)];
+		synchronized (segment) {
+			segment.held(key);
+			List<FundHold> list = segment.holds.get(key);
+			return list == null ? new ArrayList<FundHold>() : new ArrayList<FundHold>(list);
+		}
+	}
+
+	// Drops the expired holds of every account once one of them may have expired; only one thread sweeps at a time.
+	private void sweep() {
+		long due = nextSweep.get();
+		if (System.currentTimeMillis() < due || !nextSweep.compareAndSet(due, Long.MAX_VALUE)) {
+			return;
+		}
+		long earliest = Long.MAX_VALUE;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				earliest = Math.min(earliest, segment.sweep());
+			}
+		}
+		expiring(earliest);
+	}
+
+	// Brings the next sweep forward to the given expiry if it is earlier.
+	private void expiring(long expiresAt) {
+		long due;
+		do {
+			due = nextSweep.get();
+			if (expiresAt >= due) {
+				return;
+			}
+		} while (!nextSweep.compareAndSet(due, expiresAt));
+	}
+
+	private static int stripe(UUID playerId, String worldName) {
+		// Same hash as AccountKey, without creating one
+		int h = 31 * playerId.hashCode() + (worldName == null ? 0 : worldName.hashCode());
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		return h & (STRIPES - 1);
+	}
+
+	// Callers must hold the monitor of the segment.
+	private final class Segment {
+		final Map<AccountKey, List<FundHold>> holds = new HashMap<AccountKey, List<FundHold>>();
+
+		// Drops the expired holds of the account.
+		double held(AccountKey key) {
+			List<FundHold> list = holds.get(key);
+			if (list == null) {
+				return 0;
+			}
+			double total = 0;
+			Iterator<FundHold> it = list.iterator();
+			while (it.hasNext()) {
+				FundHold hold = it.next();
+				if (hold.isExpired()) {
+					it.remove();
+					size.decrementAndGet();
+				} else {
+					total += hold.getAmount();
+				}
+			}
+			if (list.isEmpty()) {
+				holds.remove(key);
+			}
+			return total;
+		}
+
+		// Drops the expired holds of every account and returns the earliest expiry of the others.
+		long sweep() {
+			long earliest = Long.MAX_VALUE;
+			Iterator<List<FundHold>> lists = holds.values().iterator();
+			while (lists.hasNext()) {
+				List<FundHold> list = lists.next();
+				Iterator<FundHold> it = list.iterator();
+				while (it.hasNext()) {
+					FundHold hold = it.next();
+					if (hold.isExpired()) {
+						it.remove();
+						size.decrementAndGet();
+					} else {
+						earliest = Math.min(earliest, hold.getExpiresAt());
+					}
+				}
+				if (list.isEmpty()) {
+					lists.remove();
+				}
+			}
+			return earliest;
+		}
+
+		void add(AccountKey key, FundHold hold) {
+			List<FundHold> list = holds.get(key);
+			if (list == null) {
+				list = new ArrayList<FundHold>(2);
+				holds.put(key, list);
+			}
+			list.add(hold);
+			size.incrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,33 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+/**
+ * Receives the {@link InvalidationNotice}s delivered by an {@link InvalidationTransport}
+ * 接收{@link InvalidationTransport}投递的{@link InvalidationNotice}
+ */
+public interface InvalidationListener {
+
+	/**
+	 * Called for every notice published on the transport, including those of this server. May be called
+	 * from any thread.
+	 * 传输层上发布的每个通知都会调用此方法, 包括本服务器发布的. 可能在任意线程中调用.
+	 *
+	 * @param notice received notice
+	 * 收到的通知
+	 */
+	public void onNotice(InvalidationNotice notice);
+}
@@ -0,0 +1,143 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Batch of account changes one server announces to the others through an {@link InvalidationTransport}
+ * 一个服务器通过{@link InvalidationTransport}向其他服务器宣布的一批账户变更
+ */
+public final class InvalidationNotice {
+
+	private final String serverId;
+	private final List<UUID> playerIds;
+	private final boolean all;
+
+	/**
+	 * Constructor for InvalidationNotice
+	 * {@link InvalidationNotice}的构造函数
+	 *
+	 * @param serverId id of the server that made the changes
+	 * 做出变更的服务器的id
+	 * @param playerIds UUIDs of the players whose accounts changed
+	 * 账户发生变更的玩家的UUID
+	 * @param all true if accounts of unknown players changed as well
+	 * 如果未知玩家的账户也发生了变更则为真
+	 */
+	public InvalidationNotice(String serverId, Collection<UUID> playerIds, boolean all) {
+		this.serverId = serverId;
+		this.playerIds = Collections.unmodifiableList(new ArrayList<UUID>(playerIds));
+		this.all = all;
+	}
+
+	/**
+	 * Reads a notice written by {@link #toBytes()}
+	 * 读取由{@link #toBytes()}写出的变更通知
+	 *
+	 * @param bytes encoded notice
+	 * 编码后的通知
+	 * @return notice
+	 * 变更通知
+	 * @throws IOException if the bytes are not a notice
+	 * 如果字节不是变更通知
+	 */
+	public static InvalidationNotice fromBytes(byte[] bytes) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+		String serverId = in.readUTF();
+		boolean all = in.readBoolean();
+		int count = in.readInt();
+		if (count < 0 || count > (bytes.length - 1) / 16) {
+			throw new IOException("Invalid player count " + count);
+		}
+		List<UUID> playerIds = new ArrayList<UUID>(count);
+		for (int i = 0; i < count; i++) {
+			playerIds.add(new UUID(in.readLong(), in.readLong()));
+		}
+		return new InvalidationNotice(serverId, playerIds, all);
+	}
+
+	/**
+	 * Encodes this notice for transports that carry bytes
+	 * 为传输字节的传输层编码此通知
+	 *
+	 * @return encoded notice
+	 * 编码后的通知
+	 */
+	public byte[] toBytes() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + serverId.length() + playerIds.size() * 16);
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeUTF(serverId);
+			out.writeBoolean(all);
+			out.writeInt(playerIds.size());
+			for (UUID id : playerIds) {
+				out.writeLong(id.getMostSignificantBits());
+				out.writeLong(id.getLeastSignificantBits());
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Gets the server that made the changes
+	 * 获取做出变更的服务器
+	 *
+	 * @return id of the server
+	 * 服务器的id
+	 */
+	public String getServerId() {
+		return serverId;
+	}
+
+	/**
+	 * Gets the players whose accounts changed
+	 * 获取账户发生变更的玩家
+	 *
+	 * @return unmodifiable list of UUIDs
+	 * UUID的不可修改列表
+	 */
+	public List<UUID> getPlayerIds() {
+		return playerIds;
+	}
+
+	/**
+	 * Checks if accounts of players not listed changed as well, so that every cached account is stale
+	 * 检查未列出的玩家的账户是否也发生了变更, 此时所有缓存的账户都已过时
+	 *
+	 * @return true if every account must be invalidated
+	 * 如果必须使所有账户失效则返回真
+	 */
+	public boolean isAll() {
+		return all;
+	}
+
+	@Override
+	public String toString() {
+		return "InvalidationNotice{serverId=" + serverId + ", players=" + playerIds.size() + ", all=" + all + "}";
+	}
+}
@@ -0,0 +1,55 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+/**
+ * Message bus that carries {@link InvalidationNotice}s between the servers sharing one {@link Economy}.
+ * Implementations wrap whatever the network already runs, such as Redis pub/sub or plugin messaging, and may
+ * use {@link InvalidationNotice#toBytes()} to encode notices. Delivery may be asynchronous and at most once;
+ * cache expiry bounds the staleness of a lost notice.
+ * 在共享一个{@link Economy}的服务器之间传递{@link InvalidationNotice}的消息总线. 实现可以包装网络中已有的组件,
+ * 例如Redis发布/订阅或插件消息, 并可使用{@link InvalidationNotice#toBytes()}编码通知. 投递可以是异步且至多一次的;
+ * 缓存过期时间限制了丢失通知造成的数据陈旧.
+ */
+public interface InvalidationTransport {
+
+	/**
+	 * Sends a notice to every subscriber on every server
+	 * 将通知发送给所有服务器上的所有订阅者
+	 *
+	 * @param notice to send
+	 * 要发送的通知
+	 */
+	public void publish(InvalidationNotice notice);
+
+	/**
+	 * Starts delivering notices to a listener
+	 * 开始向监听器投递通知
+	 *
+	 * @param listener to add
+	 * 要添加的监听器
+	 */
+	public void subscribe(InvalidationListener listener);
+
+	/**
+	 * Stops delivering notices to a listener
+	 * 停止向监听器投递通知
+	 *
+	 * @param listener to remove
+	 * 要移除的监听器
+	 */
+	public void unsubscribe(InvalidationListener listener);
+}
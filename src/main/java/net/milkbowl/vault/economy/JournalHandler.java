@@ -0,0 +1,32 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+/**
+ * Receives the records read by {@link TransactionJournal#scan(java.io.File, long, JournalHandler)}
+ * 接收{@link TransactionJournal#scan(java.io.File, long, JournalHandler)}读取的记录
+ */
+public interface JournalHandler {
+
+	/**
+	 * Called for each record, in sequence order
+	 * 按序号顺序对每条记录调用
+	 *
+	 * @param record read from the journal
+	 * 从日志中读取的记录
+	 */
+	public void onRecord(JournalRecord record);
+}
@@ -0,0 +1,192 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.UUID;
+
+/**
+ * One record of a {@link TransactionJournal}
+ * {@link TransactionJournal}中的一条记录
+ */
+public final class JournalRecord {
+
+	/**
+	 * Enum for the operation a record describes
+	 * 枚举.表示记录所描述的操作
+	 */
+	public static enum Type {
+		/**
+		 * Deposit to a player account; the name is the world
+		 * 向玩家账户存款; 名称为世界名
+		 */
+		DEPOSIT(1),
+		/**
+		 * Withdrawal from a player account; the name is the world
+		 * 从玩家账户取款; 名称为世界名
+		 */
+		WITHDRAW(2),
+		/**
+		 * Balance set by compare-and-set; the amount is the size of the change
+		 * 通过比较并设置设定的余额; 金额为变化的大小
+		 */
+		SET(3),
+		/**
+		 * Creation of a player account; the name is the world
+		 * 创建玩家账户; 名称为世界名
+		 */
+		ACCOUNT_CREATE(4),
+		/**
+		 * Creation of a bank; the player is the owner
+		 * 创建银行; 玩家为所有者
+		 */
+		BANK_CREATE(5),
+		BANK_DELETE(6),
+		BANK_DEPOSIT(7),
+		BANK_WITHDRAW(8),
+		/**
+		 * {@link LinearBalanceTransform} applied to all accounts of the named world; the amount is the factor
+		 * and the balance the offset
+		 * 对指定世界的所有账户应用的{@link LinearBalanceTransform}; 金额为系数, 余额为偏移量
+		 */
+		TRANSFORM(9);
+
+		private static final Type[] BY_CODE = new Type[16];
+
+		static {
+			for (Type type : values()) {
+				BY_CODE[type.code] = type;
+			}
+		}
+
+		private final byte code;
+
+		Type(int code) {
+			this.code = (byte) code;
+		}
+
+		/**
+		 * Gets the byte stored in the journal for this type
+		 * 获取日志中存储的此类型的字节
+		 *
+		 * @return type code
+		 * 类型代码
+		 */
+		public byte getCode() {
+			return code;
+		}
+
+		/**
+		 * Gets the type stored as the given byte
+		 * 获取以给定字节存储的类型
+		 *
+		 * @param code type code
+		 * 类型代码
+		 * @return type, or null if the code is unknown
+		 * 类型, 如果代码未知则为null
+		 */
+		public static Type fromCode(byte code) {
+			return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+		}
+	}
+
+	private final long sequence;
+	private final long timestamp;
+	private final Type type;
+	private final UUID playerId;
+	private final String name;
+	private final boolean nameTruncated;
+	private final int currencyId;
+	private final double amount;
+	private final double balance;
+
+	/**
+	 * Constructor for JournalRecord
+	 * {@link JournalRecord}的构造函数
+	 *
+	 * @param sequence position in the journal, starting at 1
+	 * 在日志中的位置, 从1开始
+	 * @param timestamp time of the operation, in milliseconds since the epoch
+	 * 操作的时间, 以自纪元以来的毫秒数表示
+	 * @param type operation
+	 * 操作
+	 * @param playerId UUID of the player, null for bank operations without a player
+	 * 玩家的UUID, 不涉及玩家的银行操作为null
+	 * @param name world name of player operations or bank name of bank operations, null for the global account
+	 * 玩家操作的世界名或银行操作的银行名, 全局账户为null
+	 * @param nameTruncated true if the name was longer than {@link TransactionJournal#MAX_NAME_BYTES} and was cut
+	 * 如果名称超过{@link TransactionJournal#MAX_NAME_BYTES}而被截断则为真
+	 * @param currencyId {@link Currency#getId()} of the currency of player deposits and withdrawals, 0 for the default currency
+	 * 玩家存取款所用货币的{@link Currency#getId()}, 默认货币为0
+	 * @param amount amount of the operation
+	 * 操作的金额
+	 * @param balance balance after the operation
+	 * 操作后的余额
+	 */
+	public JournalRecord(long sequence, long timestamp, Type type, UUID playerId, String name, boolean nameTruncated, int currencyId, double amount,
+			double balance) {
+		this.sequence = sequence;
+		this.timestamp = timestamp;
+		this.type = type;
+		this.playerId = playerId;
+		this.name = name;
+		this.nameTruncated = nameTruncated;
+		this.currencyId = currencyId;
+		this.amount = amount;
+		this.balance = balance;
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public UUID getPlayerId() {
+		return playerId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public boolean isNameTruncated() {
+		return nameTruncated;
+	}
+
+	public int getCurrencyId() {
+		return currencyId;
+	}
+
+	public double getAmount() {
+		return amount;
+	}
+
+	public double getBalance() {
+		return balance;
+	}
+
+	@Override
+	public String toString() {
+		return "JournalRecord{sequence=" + sequence + ", timestamp=" + timestamp + ", type=" + type + ", playerId=" + playerId
+				+ ", name=" + name + ", currency=" + currencyId + ", amount=" + amount + ", balance=" + balance + "}";
+	}
+}
@@ -0,0 +1,511 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.milkbowl.vault.economy.EconomyResponse.ResponseType;
+import net.milkbowl.vault.economy.JournalRecord.Type;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Decorator that appends every successful mutation made through it to a {@link TransactionJournal}, for audits
+ * and crash recovery. Records are appended after the wrapped Economy applied the operation and carry the
+ * resulting balance; {@link MemoryEconomy#replay(java.io.File, long)} rebuilds an in-memory economy from them.
+ * 将经过它的每次成功操作追加到{@link TransactionJournal}的装饰器, 用于审计和崩溃恢复. 记录在被包装的经济实现执行操作之后追加,
+ * 并带有操作后的余额; {@link MemoryEconomy#replay(java.io.File, long)}可以据此重建内存经济.
+ *
+ * Mutations and their records are ordered against unfiltered mass transforms, see
+ * {@link #transformBalances(BalanceTransform, BalanceFilter, String, MassUpdateListener)}.
+ * 操作及其记录与无过滤器的批量变换之间是有序的, 参见{@link #transformBalances(BalanceTransform, BalanceFilter, String, MassUpdateListener)}.
+ *
+ * Each mutation and its append are made under a lock striped by account or bank, so the records of one
+ * account are in the order the wrapped Economy applied them and replay ends on the latest balance.
+ * 每次操作及其追加都在按账户或银行分段的锁下进行, 因此同一账户的记录顺序与被包装的经济实现执行它们的顺序一致, 重放会以最新的余额结束.
+ *
+ * Players of the deprecated name methods are resolved with a {@link PlayerNameIndex}. A failed append is logged
+ * and does not fail the operation, which has already been applied. Mutations of worlds or banks whose name is
+ * longer than {@link TransactionJournal#MAX_NAME_BYTES} are refused, since their records could not be replayed.
+ * 已弃用的玩家名方法的玩家通过{@link PlayerNameIndex}解析. 追加失败会被记录到日志, 但不会使已经执行的操作失败.
+ * 名称超过{@link TransactionJournal#MAX_NAME_BYTES}的世界或银行的操作会被拒绝, 因为它们的记录无法重放.
+ *
+ * Withdrawals and deposits of other currencies are forwarded and journaled with the {@link Currency#getId()} of
+ * their currency; replay applies them to the currency with that id.
+ * 其他货币的存取款会被转发, 并带着其货币的{@link Currency#getId()}被记录; 重放时会应用到具有该编号的货币上.
+ */
+@SuppressWarnings("deprecation")
+public class JournalingEconomy extends ForwardingEconomy {
+
+	private static final Logger log = Logger.getLogger("Minecraft");
+	private static final int STRIPES = 64;
+
+	private final TransactionJournal journal;
+	private final PlayerNameIndex nameIndex;
+	// Mutations hold the read lock from the call to the append, a mass transform holds the write lock
+	private final ReadWriteLock barrier = new ReentrantReadWriteLock();
+	// A mutation and its append happen under the stripe of the account or bank, so records of one account are in call order
+	private final Object[] stripes = new Object[STRIPES];
+
+	/**
+	 * Constructor for JournalingEconomy
+	 * {@link JournalingEconomy}的构造函数
+	 *
+	 * @param delegate Economy to journal
+	 * 要记录的经济实现
+	 * @param journal receives the records
+	 * 接收记录的日志
+	 * @param nameIndex index used to resolve player names
+	 * 用于解析玩家名的索引
+	 */
+	public JournalingEconomy(Economy delegate, TransactionJournal journal, PlayerNameIndex nameIndex) {
+		super(delegate);
+		this.journal = journal;
+		this.nameIndex = nameIndex;
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new Object();
+		}
+	}
+
+	/**
+	 * Gets the journal the records are appended to
+	 * 获取追加记录的日志
+	 *
+	 * @return journal
+	 * 日志
+	 */
+	public TransactionJournal getJournal() {
+		return journal;
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+		UUID playerId = player.getUniqueId();
+		barrier.readLock().lock();
+		try {
+			synchronized (stripe(playerId, null)) {
+				return record(Type.WITHDRAW, playerId, null, delegate.withdrawPlayer(player, amount));
+			}
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+		if (!TransactionJournal.fitsName(worldName)) {
+			return nameTooLong(amount, worldName);
+		}
+		UUID playerId = player.getUniqueId();
+		barrier.readLock().lock();
+		try {
+			synchronized (stripe(playerId, worldName)) {
+				return record(Type.WITHDRAW, playerId, worldName, delegate.withdrawPlayer(player, worldName, amount));
+			}
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(String playerName, double amount) {
+		UUID playerId = nameIndex.resolve(playerName);
+		barrier.readLock().lock();
+		try {
+			synchronized (stripe(playerId, null)) {
+				return record(Type.WITHDRAW, playerId, null, delegate.withdrawPlayer(playerName, amount));
+			}
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(String playerName, String worldName, double amount) {
+		if (!TransactionJournal.fitsName(worldName)) {
+			return nameTooLong(amount, worldName);
+		}
+		UUID playerId = nameIndex.resolve(playerName);
+		barrier.readLock().lock();
+		try {
+			synchronized (stripe(playerId, worldName)) {
+				return record(Type.WITHDRAW, playerId, worldName, delegate.withdrawPlayer(playerName, worldName, amount));
+			}
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+		UUID playerId = player.getUniqueId();
+		barrier.readLock().lock();
+		try {
+			synchronized (stripe(playerId, null)) {
+				return record(Type.DEPOSIT, playerId, null, delegate.depositPlayer(player, amount));
+			}
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+		if (!TransactionJournal.fitsName(worldName)) {
+			return nameTooLong(amount, worldName);
+		}
+		UUID playerId = player.getUniqueId();
+		barrier.readLock().lock();
+		try {
+			synchronized (stripe(playerId, worldName)) {
+				return record(Type.DEPOSIT, playerId, worldName, delegate.depositPlayer(player, worldName, amount));
+			}
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(String playerName, double amount) {
+		UUID playerId = nameIndex.resolve(playerName);
+		barrier.readLock().lock();
+		try {
+			synchronized (stripe(playerId, null)) {
+				return record(Type.DEPOSIT, playerId, null, delegate.depositPlayer(playerName, amount));
+			}
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(String playerName, String worldName, double amount) {
+		if (!TransactionJournal.fitsName(worldName)) {
+			return nameTooLong(amount, worldName);
+		}
+		UUID playerId = nameIndex.resolve(playerName);
+		barrier.readLock().lock();
+		try {
+			synchronized (stripe(playerId, worldName)) {
+				return record(Type.DEPOSIT, playerId, worldName, delegate.depositPlayer(playerName, worldName, amount));
+			}
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean withdrawPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		return withdrawInto(player, worldName, amount, result);
+	}
+
+	@Override
+	public boolean depositPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		return depositInto(player, worldName, amount, result);
+	}
+
+	// Creation records need no ordering against the balance records of the account, replay creates accounts only if missing.
+	@Override
+	public boolean createPlayerAccount(OfflinePlayer player) {
+		barrier.readLock().lock();
+		try {
+			return recordCreate(player.getUniqueId(), null, delegate.createPlayerAccount(player));
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean createPlayerAccount(OfflinePlayer player, String worldName) {
+		if (!TransactionJournal.fitsName(worldName)) {
+			return false;
+		}
+		barrier.readLock().lock();
+		try {
+			return recordCreate(player.getUniqueId(), worldName, delegate.createPlayerAccount(player, worldName));
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean createPlayerAccount(String playerName) {
+		barrier.readLock().lock();
+		try {
+			return recordCreate(nameIndex.resolve(playerName), null, delegate.createPlayerAccount(playerName));
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean createPlayerAccount(String playerName, String worldName) {
+		if (!TransactionJournal.fitsName(worldName)) {
+			return false;
+		}
+		barrier.readLock().lock();
+		try {
+			return recordCreate(nameIndex.resolve(playerName), worldName, delegate.createPlayerAccount(playerName, worldName));
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<OfflinePlayer> createPlayerAccounts(Collection<? extends OfflinePlayer> players, String worldName) {
+		if (!TransactionJournal.fitsName(worldName)) {
+			return Collections.emptyList();
+		}
+		barrier.readLock().lock();
+		try {
+			List<OfflinePlayer> created = delegate.createPlayerAccounts(players, worldName);
+			for (OfflinePlayer player : created) {
+				recordCreate(player.getUniqueId(), worldName, true);
+			}
+			return created;
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public EconomyResponse createBank(String name, OfflinePlayer player) {
+		if (!TransactionJournal.fitsName(name)) {
+			return nameTooLong(0, name);
+		}
+		barrier.readLock().lock();
+		try {
+			synchronized (stripe(name)) {
+				return record(Type.BANK_CREATE, player.getUniqueId(), name, delegate.createBank(name, player));
+			}
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public EconomyResponse createBank(String name, String player) {
+		if (!TransactionJournal.fitsName(name)) {
+			return nameTooLong(0, name);
+		}
+		barrier.readLock().lock();
+		try {
+			synchronized (stripe(name)) {
+				return record(Type.BANK_CREATE, nameIndex.resolve(player), name, delegate.createBank(name, player));
+			}
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public EconomyResponse deleteBank(String name) {
+		if (!TransactionJournal.fitsName(name)) {
+			return nameTooLong(0, name);
+		}
+		barrier.readLock().lock();
+		try {
+			synchronized (stripe(name)) {
+				return record(Type.BANK_DELETE, null, name, delegate.deleteBank(name));
+			}
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public EconomyResponse bankWithdraw(String name, double amount) {
+		if (!TransactionJournal.fitsName(name)) {
+			return nameTooLong(amount, name);
+		}
+		barrier.readLock().lock();
+		try {
+			synchronized (stripe(name)) {
+				return record(Type.BANK_WITHDRAW, null, name, delegate.bankWithdraw(name, amount));
+			}
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public EconomyResponse bankDeposit(String name, double amount) {
+		if (!TransactionJournal.fitsName(name)) {
+			return nameTooLong(amount, name);
+		}
+		barrier.readLock().lock();
+		try {
+			synchronized (stripe(name)) {
+				return record(Type.BANK_DEPOSIT, null, name, delegate.bankDeposit(name, amount));
+			}
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public EconomyResponse captureHold(FundHold hold) {
+		if (!TransactionJournal.fitsName(hold.getWorldName())) {
+			return nameTooLong(hold.getAmount(), hold.getWorldName());
+		}
+		UUID playerId = hold.getPlayer().getUniqueId();
+		barrier.readLock().lock();
+		try {
+			synchronized (stripe(playerId, hold.getWorldName())) {
+				return record(Type.WITHDRAW, playerId, hold.getWorldName(), delegate.captureHold(hold));
+			}
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public EconomyResponse compareAndSetBalance(OfflinePlayer player, String worldName, long expectedVersion, double newBalance) {
+		if (!TransactionJournal.fitsName(worldName)) {
+			return nameTooLong(0, worldName);
+		}
+		UUID playerId = player.getUniqueId();
+		barrier.readLock().lock();
+		try {
+			synchronized (stripe(playerId, worldName)) {
+				return record(Type.SET, playerId, worldName, delegate.compareAndSetBalance(player, worldName, expectedVersion, newBalance));
+			}
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, Currency currency, double amount) {
+		if (currency == getDefaultCurrency()) {
+			return super.withdrawPlayer(player, worldName, currency, amount);
+		}
+		if (!TransactionJournal.fitsName(worldName)) {
+			return nameTooLong(amount, worldName);
+		}
+		UUID playerId = player.getUniqueId();
+		barrier.readLock().lock();
+		try {
+			synchronized (stripe(playerId, worldName)) {
+				return record(Type.WITHDRAW, playerId, worldName, currency.getId(), super.withdrawPlayer(player, worldName, currency, amount));
+			}
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, Currency currency, double amount) {
+		if (currency == getDefaultCurrency()) {
+			return super.depositPlayer(player, worldName, currency, amount);
+		}
+		if (!TransactionJournal.fitsName(worldName)) {
+			return nameTooLong(amount, worldName);
+		}
+		UUID playerId = player.getUniqueId();
+		barrier.readLock().lock();
+		try {
+			synchronized (stripe(playerId, worldName)) {
+				return record(Type.DEPOSIT, playerId, worldName, currency.getId(), super.depositPlayer(player, worldName, currency, amount));
+			}
+		} finally {
+			barrier.readLock().unlock();
+		}
+	}
+
+	/**
+	 * An unfiltered {@link LinearBalanceTransform} is journaled as one record and then forwarded; any other
+	 * transform is applied account by account through this decorator. The record is appended before the transform
+	 * runs and mutations through this decorator wait until it has finished, so no record carrying a transformed
+	 * balance can precede it in the journal and replay never applies the transform twice.
+	 * 没有过滤器的{@link LinearBalanceTransform}会先记录为一条记录再转发; 其他变换会经过此装饰器逐个账户应用.
+	 * 记录在变换执行之前追加, 且经过此装饰器的操作会等待变换完成, 因此日志中不会有带变换后余额的记录排在它之前, 重放时变换不会被应用两次.
+	 */
+	@Override
+	public MassUpdateResult transformBalances(BalanceTransform transform, BalanceFilter filter, String worldName, MassUpdateListener listener) {
+		if (filter == null && transform instanceof LinearBalanceTransform) {
+			LinearBalanceTransform linear = (LinearBalanceTransform) transform;
+			barrier.writeLock().lock();
+			try {
+				append(Type.TRANSFORM, null, worldName, linear.getFactor(), linear.getOffset());
+				return delegate.transformBalances(transform, null, worldName, listener);
+			} finally {
+				barrier.writeLock().unlock();
+			}
+		}
+		return transformEachBalance(Arrays.asList(Bukkit.getOfflinePlayers()), transform, filter, worldName, listener);
+	}
+
+	private Object stripe(UUID playerId, String worldName) {
+		return stripes[spread(new AccountKey(playerId, worldName).hashCode())];
+	}
+
+	private Object stripe(String bankName) {
+		// Offset so that a bank does not share the stripe of a world named alike
+		return stripes[spread(bankName.hashCode() + 0x61c88647)];
+	}
+
+	private static int spread(int h) {
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		return h & (STRIPES - 1);
+	}
+
+	private static EconomyResponse nameTooLong(double amount, String name) {
+		return new EconomyResponse(amount, 0, ResponseType.FAILURE, "Name is too long to be journaled: " + name);
+	}
+
+	private EconomyResponse record(Type type, UUID playerId, String name, EconomyResponse response) {
+		return record(type, playerId, name, 0, response);
+	}
+
+	private EconomyResponse record(Type type, UUID playerId, String name, int currencyId, EconomyResponse response) {
+		if (response != null && response.transactionSuccess()) {
+			append(type, playerId, name, currencyId, response.amount, response.balance);
+		}
+		return response;
+	}
+
+	private boolean recordCreate(UUID playerId, String worldName, boolean created) {
+		if (created) {
+			append(Type.ACCOUNT_CREATE, playerId, worldName, 0, 0);
+		}
+		return created;
+	}
+
+	private void append(Type type, UUID playerId, String name, double amount, double balance) {
+		append(type, playerId, name, 0, amount, balance);
+	}
+
+	private void append(Type type, UUID playerId, String name, int currencyId, double amount, double balance) {
+		try {
+			journal.append(type, playerId, name, currencyId, amount, balance);
+		} catch (IOException e) {
+			log.log(Level.SEVERE, "[Vault] Failed to journal " + type + " of " + amount + " for " + (playerId != null ? playerId : name), e);
+		}
+	}
+}
@@ -0,0 +1,207 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Opt-in decorator that answers {@link #getTopBalances(int)} and {@link #getBalanceRank(OfflinePlayer)}
+ * from a {@link BalanceLeaderboard} fed by the {@link EconomyResponse#balance} of every successful global
+ * withdrawal and deposit made through it.
+ * 可选的装饰器, 使用{@link BalanceLeaderboard}回答排行榜查询, 排行榜由经过它的每次成功的全局存取款的{@link EconomyResponse#balance}更新.
+ *
+ * Players are added when they are first seen or through {@link #track(OfflinePlayer)}; plugins seed the
+ * leaderboard at startup, off the main thread. A world-specific mutation re-reads the global balance, since
+ * providers without per-world accounts apply it there. Mutations made through the deprecated name methods
+ * are not seen until the player is tracked again.
+ * 玩家在第一次出现时或通过{@link #track(OfflinePlayer)}加入排行榜; 插件应在启动时于主线程之外初始化排行榜.
+ * 指定世界的操作会重新读取全局余额, 因为不支持多世界账户的经济插件会将其应用到全局余额. 通过已弃用的玩家名方法进行的操作在再次记录该玩家之前不会被看到.
+ */
+public class LeaderboardEconomy extends ForwardingEconomy {
+
+	private final BalanceLeaderboard leaderboard = new BalanceLeaderboard();
+
+	/**
+	 * Constructor for LeaderboardEconomy
+	 * {@link LeaderboardEconomy}的构造函数
+	 *
+	 * @param delegate Economy to index
+	 * 要索引的经济实现
+	 */
+	public LeaderboardEconomy(Economy delegate) {
+		super(delegate);
+	}
+
+	/**
+	 * Gets the underlying leaderboard
+	 * 获取底层的排行榜
+	 *
+	 * @return leaderboard
+	 * 排行榜
+	 */
+	public BalanceLeaderboard getLeaderboard() {
+		return leaderboard;
+	}
+
+	/**
+	 * Reads the global balance of a player into the leaderboard, or removes the player if there is no account
+	 * 将玩家的全局余额读入排行榜, 如果玩家没有账户则将其移除
+	 *
+	 * @param player to track
+	 * 要记录的玩家
+	 */
+	public void track(OfflinePlayer player) {
+		if (delegate.hasAccount(player)) {
+			leaderboard.update(player.getUniqueId(), delegate.getBalance(player));
+		} else {
+			leaderboard.remove(player.getUniqueId());
+		}
+	}
+
+	/**
+	 * Tracks every given player, typically all offline players at startup
+	 * 记录所有给定的玩家, 一般是启动时的所有离线玩家
+	 *
+	 * @param players to track
+	 * 要记录的玩家
+	 */
+	public void seed(Iterable<? extends OfflinePlayer> players) {
+		for (OfflinePlayer player : players) {
+			track(player);
+		}
+	}
+
+	/**
+	 * Reads the global balance of every player on the leaderboard again
+	 * 重新读取排行榜上所有玩家的全局余额
+	 */
+	public void refresh() {
+		for (BalanceEntry entry : leaderboard.page(1, leaderboard.size())) {
+			track(Bukkit.getOfflinePlayer(entry.getPlayerId()));
+		}
+	}
+
+	@Override
+	public List<BalanceEntry> getTopBalances(int count) {
+		return leaderboard.top(count);
+	}
+
+	@Override
+	public int getBalanceRank(OfflinePlayer player) {
+		return leaderboard.rankOf(player.getUniqueId());
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+		return record(player, delegate.withdrawPlayer(player, amount));
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+		EconomyResponse response = delegate.withdrawPlayer(player, worldName, amount);
+		if (response != null && response.transactionSuccess()) {
+			track(player);
+		}
+		return response;
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+		return record(player, delegate.depositPlayer(player, amount));
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+		EconomyResponse response = delegate.depositPlayer(player, worldName, amount);
+		if (response != null && response.transactionSuccess()) {
+			track(player);
+		}
+		return response;
+	}
+
+	@Override
+	public boolean withdrawPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		return withdrawInto(player, worldName, amount, result);
+	}
+
+	@Override
+	public boolean depositPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		return depositInto(player, worldName, amount, result);
+	}
+
+	@Override
+	public boolean createPlayerAccount(OfflinePlayer player) {
+		boolean created = delegate.createPlayerAccount(player);
+		if (created) {
+			track(player);
+		}
+		return created;
+	}
+
+	@Override
+	public List<OfflinePlayer> createPlayerAccounts(Collection<? extends OfflinePlayer> players, String worldName) {
+		List<OfflinePlayer> created = delegate.createPlayerAccounts(players, worldName);
+		if (worldName == null) {
+			for (OfflinePlayer player : created) {
+				track(player);
+			}
+		}
+		return created;
+	}
+
+	// The provider may run the transform in its backend, so every tracked player is read again.
+	@Override
+	public MassUpdateResult transformBalances(BalanceTransform transform, BalanceFilter filter, String worldName, MassUpdateListener listener) {
+		MassUpdateResult result = delegate.transformBalances(transform, filter, worldName, listener);
+		refresh();
+		return result;
+	}
+
+	@Override
+	public EconomyResponse captureHold(FundHold hold) {
+		EconomyResponse response = delegate.captureHold(hold);
+		if (hold.getWorldName() == null) {
+			return record(hold.getPlayer(), response);
+		}
+		if (response != null && response.transactionSuccess()) {
+			track(hold.getPlayer());
+		}
+		return response;
+	}
+
+	@Override
+	public EconomyResponse compareAndSetBalance(OfflinePlayer player, String worldName, long expectedVersion, double newBalance) {
+		EconomyResponse response = delegate.compareAndSetBalance(player, worldName, expectedVersion, newBalance);
+		if (worldName == null) {
+			return record(player, response);
+		}
+		if (response != null && response.transactionSuccess()) {
+			track(player);
+		}
+		return response;
+	}
+
+	private EconomyResponse record(OfflinePlayer player, EconomyResponse response) {
+		if (response != null && response.transactionSuccess()) {
+			leaderboard.update(player.getUniqueId(), response.balance);
+		}
+		return response;
+	}
+}
@@ -0,0 +1,103 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Transform of the form <code>balance * factor + offset</code>, which covers interest, wealth taxes, flat fees
+ * and resets. Providers recognize it and run it as a single statement in their backend.
+ * 形如<code>balance * factor + offset</code>的变换, 涵盖利息, 财富税, 固定费用和重置. 经济插件可以识别它并在后端用一条语句执行.
+ */
+public final class LinearBalanceTransform implements BalanceTransform {
+
+	private final double factor;
+	private final double offset;
+
+	/**
+	 * Constructor for LinearBalanceTransform
+	 * {@link LinearBalanceTransform}的构造函数
+	 *
+	 * @param factor the balance is multiplied by
+	 * 余额所乘的系数
+	 * @param offset added after the multiplication
+	 * 乘法之后加上的值
+	 */
+	public LinearBalanceTransform(double factor, double offset) {
+		if (Double.isNaN(factor) || Double.isInfinite(factor) || Double.isNaN(offset) || Double.isInfinite(offset)) {
+			throw new IllegalArgumentException("factor and offset must be finite");
+		}
+		this.factor = factor;
+		this.offset = offset;
+	}
+
+	/**
+	 * Creates a transform that pays interest
+	 * 创建支付利息的变换
+	 *
+	 * @param rate interest rate, 0.01 for 1%
+	 * 利率, 0.01表示1%
+	 * @return transform
+	 * 变换
+	 */
+	public static LinearBalanceTransform interest(double rate) {
+		return new LinearBalanceTransform(1 + rate, 0);
+	}
+
+	/**
+	 * Creates a transform that takes a share of the balance
+	 * 创建扣除余额一定比例的变换
+	 *
+	 * @param rate tax rate, 0.01 for 1%
+	 * 税率, 0.01表示1%
+	 * @return transform
+	 * 变换
+	 */
+	public static LinearBalanceTransform tax(double rate) {
+		return new LinearBalanceTransform(1 - rate, 0);
+	}
+
+	/**
+	 * Creates a transform that sets every balance to the same amount
+	 * 创建将所有余额设为同一金额的变换
+	 *
+	 * @param balance new balance
+	 * 新余额
+	 * @return transform
+	 * 变换
+	 */
+	public static LinearBalanceTransform reset(double balance) {
+		return new LinearBalanceTransform(0, balance);
+	}
+
+	public double getFactor() {
+		return factor;
+	}
+
+	public double getOffset() {
+		return offset;
+	}
+
+	@Override
+	public double apply(OfflinePlayer player, double balance) {
+		return balance * factor + offset;
+	}
+
+	@Override
+	public String toString() {
+		return "LinearBalanceTransform{factor=" + factor + ", offset=" + offset + "}";
+	}
+}
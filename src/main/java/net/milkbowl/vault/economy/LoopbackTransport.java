@@ -0,0 +1,46 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * {@link InvalidationTransport} that delivers notices synchronously to the listeners of this process, for
+ * tests and for several caches in one server
+ * 在本进程内同步向监听器投递通知的{@link InvalidationTransport}, 用于测试和同一服务器中的多个缓存
+ */
+public class LoopbackTransport implements InvalidationTransport {
+
+	private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<InvalidationListener>();
+
+	@Override
+	public void publish(InvalidationNotice notice) {
+		for (InvalidationListener listener : listeners) {
+			listener.onNotice(notice);
+		}
+	}
+
+	@Override
+	public void subscribe(InvalidationListener listener) {
+		listeners.add(listener);
+	}
+
+	@Override
+	public void unsubscribe(InvalidationListener listener) {
+		listeners.remove(listener);
+	}
+}
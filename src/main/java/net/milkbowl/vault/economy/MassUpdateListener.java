@@ -0,0 +1,36 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+/**
+ * Receives the progress of {@link Economy#transformBalances(BalanceTransform, BalanceFilter, String, MassUpdateListener)}
+ * and of an {@link EconomyMigration}. It may be called from worker threads.
+ * 接收{@link Economy#transformBalances(BalanceTransform, BalanceFilter, String, MassUpdateListener)}和{@link EconomyMigration}的进度.
+ * 可能会在工作线程中调用.
+ */
+public interface MassUpdateListener {
+
+	/**
+	 * Called after each processed chunk of accounts
+	 * 每处理完一批账户后调用
+	 *
+	 * @param processed number of accounts examined so far
+	 * 目前已检查的账户数
+	 * @param total number of accounts to examine, or -1 if the provider does not know it
+	 * 需要检查的账户总数, 如果经济插件无法得知则为-1
+	 */
+	public void onProgress(int processed, int total);
+}
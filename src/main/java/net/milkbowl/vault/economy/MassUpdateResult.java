@@ -0,0 +1,69 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+/**
+ * Outcome of {@link Economy#transformBalances(BalanceTransform, BalanceFilter, String, MassUpdateListener)}
+ * {@link Economy#transformBalances(BalanceTransform, BalanceFilter, String, MassUpdateListener)}的结果
+ */
+public final class MassUpdateResult {
+
+	private final int matched;
+	private final int changed;
+	private final int failed;
+	private final double totalDelta;
+
+	/**
+	 * Constructor for MassUpdateResult
+	 * {@link MassUpdateResult}的构造函数
+	 *
+	 * @param matched number of accounts accepted by the filter
+	 * 通过过滤器的账户数
+	 * @param changed number of accounts whose balance was changed
+	 * 余额被改变的账户数
+	 * @param failed number of accounts the provider refused to change
+	 * 经济插件拒绝改变的账户数
+	 * @param totalDelta sum of all balance changes
+	 * 所有余额变化之和
+	 */
+	public MassUpdateResult(int matched, int changed, int failed, double totalDelta) {
+		this.matched = matched;
+		this.changed = changed;
+		this.failed = failed;
+		this.totalDelta = totalDelta;
+	}
+
+	public int getMatched() {
+		return matched;
+	}
+
+	public int getChanged() {
+		return changed;
+	}
+
+	public int getFailed() {
+		return failed;
+	}
+
+	public double getTotalDelta() {
+		return totalDelta;
+	}
+
+	@Override
+	public String toString() {
+		return "MassUpdateResult{matched=" + matched + ", changed=" + changed + ", failed=" + failed + ", totalDelta=" + totalDelta + "}";
+	}
+}
@@ -0,0 +1,884 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import net.milkbowl.vault.economy.EconomyResponse.ErrorCode;
+import net.milkbowl.vault.economy.EconomyResponse.ResponseType;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Economy that keeps every account in memory, for tests and for servers without a database. Each player and
+ * bank account is an {@link AtomicLong} of minor units in a concurrent map, so operations on different
+ * accounts never contend and operations on the same account never lock. Nothing is persisted.
+ * 将所有账户保存在内存中的经济实现, 用于测试和没有数据库的服务器. 每个玩家和银行账户都是并发映射中一个以最小单位计的{@link AtomicLong},
+ * 因此不同账户上的操作互不竞争, 同一账户上的操作也不会加锁. 不进行任何持久化.
+ *
+ * Balances cannot become negative, and withdrawals and deposits fail for players without an account.
+ * 余额不能为负数, 没有账户的玩家的存取款会失败.
+ *
+ * More currencies can be added with {@link #addCurrency(String, int, String, String)}. Every account holds a
+ * balance in each of them, kept in a map of its own.
+ * 可以通过{@link #addCurrency(String, int, String, String)}添加更多货币. 每个账户在每种货币中都有一个余额, 保存在该货币自己的映射中.
+ */
+public class MemoryEconomy extends AbstractUUIDEconomy {
+
+	private static final Logger log = Logger.getLogger("Minecraft");
+	private static final int PROGRESS_INTERVAL = 256;
+
+	private final String name;
+	private final int fractionalDigits;
+	private final String currencyNameSingular;
+	private final String currencyNamePlural;
+	private final ConcurrentMap<AccountKey, AtomicLong> accounts = new ConcurrentHashMap<AccountKey, AtomicLong>();
+	private final ConcurrentNavigableMap<String, AtomicLong> banks = new ConcurrentSkipListMap<String, AtomicLong>();
+	private final BankIndex bankIndex = new BankIndex();
+	// Currencies added after the default one; the currency with id i is at index i - 1.
+	private final List<CurrencyAccounts> otherCurrencies = new CopyOnWriteArrayList<CurrencyAccounts>();
+
+	/**
+	 * Constructor for MemoryEconomy
+	 * {@link MemoryEconomy}的构造函数
+	 *
+	 * @param name name of the economy
+	 * 经济实现的名称
+	 * @param fractionalDigits number of digits after the decimal point kept
+	 * 保留的小数位数
+	 * @param currencyNameSingular name of the currency in singular form
+	 * 货币的单数形式名称
+	 * @param currencyNamePlural name of the currency in plural form
+	 * 货币的复数形式名称
+	 */
+	public MemoryEconomy(String name, int fractionalDigits, String currencyNameSingular, String currencyNamePlural) {
+		this(name, fractionalDigits, currencyNameSingular, currencyNamePlural, new PlayerNameIndex());
+	}
+
+	/**
+	 * Constructor for MemoryEconomy
+	 * {@link MemoryEconomy}的构造函数
+	 *
+	 * @param name name of the economy
+	 * 经济实现的名称
+	 * @param fractionalDigits number of digits after the decimal point kept
+	 * 保留的小数位数
+	 * @param currencyNameSingular name of the currency in singular form
+	 * 货币的单数形式名称
+	 * @param currencyNamePlural name of the currency in plural form
+	 * 货币的复数形式名称
+	 * @param nameIndex index used to resolve player names
+	 * 用于解析玩家名的索引
+	 */
+	public MemoryEconomy(String name, int fractionalDigits, String currencyNameSingular, String currencyNamePlural, PlayerNameIndex nameIndex) {
+		super(nameIndex);
+		if (fractionalDigits < 0 || fractionalDigits > MinorUnits.MAX_DIGITS) {
+			throw new IllegalArgumentException("fractionalDigits must be between 0 and " + MinorUnits.MAX_DIGITS);
+		}
+		this.name = name;
+		this.fractionalDigits = fractionalDigits;
+		this.currencyNameSingular = currencyNameSingular;
+		this.currencyNamePlural = currencyNamePlural;
+	}
+
+	/**
+	 * Removes every player and bank account and every fund hold
+	 * 移除所有玩家和银行账户以及所有预留资金
+	 */
+	public void clear() {
+		accounts.clear();
+		getFundHolds().clear();
+		for (CurrencyAccounts other : otherCurrencies) {
+			other.balances.clear();
+		}
+		for (String bank : banks.keySet()) {
+			deleteBank(bank);
+		}
+	}
+
+	/**
+	 * Copies every account and bank into a snapshot. The copy is not atomic: operations that run meanwhile may
+	 * or may not be included. Write it to disk from an asynchronous task with {@link EconomySnapshot#write(File)}.
+	 * 将所有账户和银行复制到快照中. 复制不是原子的: 期间进行的操作可能被包含也可能不被包含.
+	 * 应在异步任务中使用{@link EconomySnapshot#write(File)}将其写入磁盘.
+	 *
+	 * @return snapshot of this economy
+	 * 此经济实现的快照
+	 */
+	public EconomySnapshot snapshot() {
+		EconomySnapshot snapshot = new EconomySnapshot(fractionalDigits, accounts.size());
+		for (Map.Entry<AccountKey, AtomicLong> e : accounts.entrySet()) {
+			snapshot.addAccount(e.getKey().getPlayerId(), e.getKey().getWorldName(), e.getValue().get());
+		}
+		for (Map.Entry<String, AtomicLong> e : banks.entrySet()) {
+			UUID owner = bankIndex.getOwner(e.getKey());
+			if (owner != null) {
+				snapshot.addBank(e.getKey(), owner, e.getValue().get(), bankIndex.getMembers(e.getKey()));
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Replaces every account and bank with the contents of a snapshot
+	 * 用快照的内容替换所有账户和银行
+	 *
+	 * @param snapshot to restore, with the same fractional digits as this economy
+	 * 要恢复的快照, 小数位数须与此经济实现相同
+	 */
+	public void restore(EconomySnapshot snapshot) {
+		if (snapshot.getFractionalDigits() != fractionalDigits) {
+			throw new IllegalArgumentException("Snapshot has " + snapshot.getFractionalDigits() + " fractional digits, expected " + fractionalDigits);
+		}
+		clear();
+		for (int i = 0; i < snapshot.getAccountCount(); i++) {
+			accounts.put(new AccountKey(snapshot.getPlayerId(i), snapshot.getWorldName(i)), new AtomicLong(snapshot.getBalanceMinor(i)));
+		}
+		for (int i = 0; i < snapshot.getBankCount(); i++) {
+			String bank = snapshot.getBankName(i);
+			banks.put(bank, new AtomicLong(snapshot.getBankBalanceMinor(i)));
+			bankIndex.addBank(bank, snapshot.getBankOwner(i));
+			for (UUID member : snapshot.getBankMembers(i)) {
+				bankIndex.addMember(bank, member);
+			}
+		}
+	}
+
+	/**
+	 * Applies the records of a {@link TransactionJournal} written by a {@link JournalingEconomy}, for example
+	 * to recover after a crash. Balance records carry the resulting balance and can be applied twice; transform
+	 * records cannot, so replay from the record after the last one applied.
+	 * 应用由{@link JournalingEconomy}写入的{@link TransactionJournal}中的记录, 例如在崩溃后恢复. 余额记录带有操作后的余额, 可以重复应用;
+	 * 变换记录则不能, 因此应从上次应用的最后一条记录之后开始重放.
+	 *
+	 * @param directory holds the journal segments
+	 * 存放日志分段的目录
+	 * @param fromSequence first record to apply
+	 * 要应用的第一条记录
+	 * @return sequence of the last valid record, 0 if there is none
+	 * 最后一条有效记录的序号, 没有记录时为0
+	 * @throws IOException if the journal cannot be read
+	 * 如果无法读取日志
+	 */
+	public long replay(File directory, long fromSequence) throws IOException {
+		return TransactionJournal.scan(directory, fromSequence, new JournalHandler() {
+			@Override
+			public void onRecord(JournalRecord record) {
+				apply(record);
+			}
+		});
+	}
+
+	/**
+	 * Adds a member to a bank
+	 * 向银行添加成员
+	 *
+	 * @param name of the bank
+	 * 银行名
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @return false if the bank does not exist
+	 * 如果银行不存在则返回假
+	 */
+	public boolean addBankMember(String name, UUID playerId) {
+		return bankIndex.addMember(name, playerId);
+	}
+
+	/**
+	 * Removes a member from a bank
+	 * 从银行移除成员
+	 *
+	 * @param name of the bank
+	 * 银行名
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @return true if the player was a member
+	 * 如果玩家曾是成员则返回真
+	 */
+	public boolean removeBankMember(String name, UUID playerId) {
+		return bankIndex.removeMember(name, playerId);
+	}
+
+	/**
+	 * Adds a currency to this economy. Every account starts with a balance of 0 in it. Snapshots only cover the
+	 * default currency. Journal replay finds currencies by {@link Currency#getId()}, so add them in the same order
+	 * before replaying.
+	 * 向此经济实现添加一种货币. 每个账户在该货币中的初始余额为0. 快照只包含默认货币. 日志重放按{@link Currency#getId()}查找货币,
+	 * 因此重放前应按相同的顺序添加货币.
+	 *
+	 * @param name used to look the currency up, unique ignoring case
+	 * 用于查找货币的名称, 忽略大小写时唯一
+	 * @param fractionalDigits number of digits after the decimal point kept
+	 * 保留的小数位数
+	 * @param singular name of the currency in singular form
+	 * 货币的单数形式名称
+	 * @param plural name of the currency in plural form
+	 * 货币的复数形式名称
+	 * @return handle of the new currency
+	 * 新货币的句柄
+	 */
+	public synchronized Currency addCurrency(String name, int fractionalDigits, String singular, String plural) {
+		if (fractionalDigits < 0 || fractionalDigits > MinorUnits.MAX_DIGITS) {
+			throw new IllegalArgumentException("fractionalDigits must be between 0 and " + MinorUnits.MAX_DIGITS);
+		}
+		if (name == null || getCurrency(name) != null) {
+			throw new IllegalArgumentException("Currency " + name + " already exists");
+		}
+		Currency currency = new Currency(otherCurrencies.size() + 1, name, fractionalDigits, singular, plural);
+		otherCurrencies.add(new CurrencyAccounts(currency, fractionalDigits));
+		return currency;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return true;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public boolean hasBankSupport() {
+		return true;
+	}
+
+	@Override
+	public int fractionalDigits() {
+		return fractionalDigits;
+	}
+
+	@Override
+	public String currencyNamePlural() {
+		return currencyNamePlural;
+	}
+
+	@Override
+	public String currencyNameSingular() {
+		return currencyNameSingular;
+	}
+
+	@Override
+	public boolean hasAccount(UUID playerId, String worldName) {
+		return accounts.containsKey(new AccountKey(playerId, worldName));
+	}
+
+	@Override
+	public double getBalance(UUID playerId, String worldName) {
+		AtomicLong account = accounts.get(new AccountKey(playerId, worldName));
+		return account == null ? 0 : toMajor(account.get());
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(UUID playerId, String worldName, double amount) {
+		AtomicLong account = accounts.get(new AccountKey(playerId, worldName));
+		if (account == null) {
+			return EconomyResponse.failure(amount, 0, ErrorCode.ACCOUNT_NOT_FOUND);
+		}
+		return withdraw(account, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(UUID playerId, String worldName, double amount) {
+		AtomicLong account = accounts.get(new AccountKey(playerId, worldName));
+		if (account == null) {
+			return EconomyResponse.failure(amount, 0, ErrorCode.ACCOUNT_NOT_FOUND);
+		}
+		return deposit(account, amount);
+	}
+
+	/**
+	 * Withdraws without allocating a response; only the map key is created. Accounts with fund holds take
+	 * the regular path. Runs under the lock of the account in the hold table, so no hold is placed meanwhile.
+	 * 不分配回报对象的取款, 只创建映射的键. 有预留资金的账户使用常规路径. 在预留表中该账户的锁下进行, 因此期间不会产生新的预留.
+	 */
+	@Override
+	public boolean withdrawPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		UUID playerId = player.getUniqueId();
+		FundHoldTable holds = getFundHolds();
+		synchronized (holds.lock(playerId, worldName)) {
+			if (holds.getHeld(playerId, worldName) > 0) {
+				return withdrawInto(player, worldName, amount, result);
+			}
+			return withdrawUnheld(playerId, worldName, amount, result);
+		}
+	}
+
+	private boolean withdrawUnheld(UUID playerId, String worldName, double amount, EconomyResponseHolder result) {
+		AtomicLong account = accounts.get(new AccountKey(playerId, worldName));
+		if (account == null) {
+			result.set(amount, 0, ResponseType.FAILURE, ErrorCode.ACCOUNT_NOT_FOUND);
+			return false;
+		}
+		long minor = toMinor(amount);
+		if (minor < 0) {
+			result.set(amount, toMajor(account.get()), ResponseType.FAILURE, ErrorCode.INVALID_AMOUNT);
+			return false;
+		}
+		long balance = withdrawMinor(account, minor);
+		if (balance < 0) {
+			result.set(amount, toMajor(-1 - balance), ResponseType.FAILURE, ErrorCode.INSUFFICIENT_FUNDS);
+			return false;
+		}
+		result.set(amount, toMajor(balance), ResponseType.SUCCESS, ErrorCode.NONE);
+		return true;
+	}
+
+	/**
+	 * Deposits without allocating a response; only the map key is created.
+	 * 不分配回报对象的存款, 只创建映射的键.
+	 */
+	@Override
+	public boolean depositPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		AtomicLong account = accounts.get(new AccountKey(player.getUniqueId(), worldName));
+		if (account == null) {
+			result.set(amount, 0, ResponseType.FAILURE, ErrorCode.ACCOUNT_NOT_FOUND);
+			return false;
+		}
+		long minor = toMinor(amount);
+		if (minor < 0) {
+			result.set(amount, toMajor(account.get()), ResponseType.FAILURE, ErrorCode.INVALID_AMOUNT);
+			return false;
+		}
+		long balance = depositMinor(account, minor);
+		if (balance < 0) {
+			result.set(amount, toMajor(-1 - balance), ResponseType.FAILURE, ErrorCode.INVALID_AMOUNT);
+			return false;
+		}
+		result.set(amount, toMajor(balance), ResponseType.SUCCESS, ErrorCode.NONE);
+		return true;
+	}
+
+	@Override
+	public boolean createPlayerAccount(UUID playerId, String worldName) {
+		return accounts.putIfAbsent(new AccountKey(playerId, worldName), new AtomicLong()) == null;
+	}
+
+	@Override
+	public long getBalanceMinor(OfflinePlayer player) {
+		return getBalanceMinor(player, null);
+	}
+
+	@Override
+	public long getBalanceMinor(OfflinePlayer player, String world) {
+		AtomicLong account = accounts.get(new AccountKey(player.getUniqueId(), world));
+		return account == null ? 0 : account.get();
+	}
+
+	@Override
+	public List<BalanceEntry> getTopBalances(int count) {
+		return leaderboard().top(count);
+	}
+
+	@Override
+	public int getBalanceRank(OfflinePlayer player) {
+		return leaderboard().rankOf(player.getUniqueId());
+	}
+
+	/**
+	 * Uses the minor units of the balance as its version.
+	 * 使用以最小单位表示的余额作为版本.
+	 */
+	@Override
+	public VersionedBalance getVersionedBalance(OfflinePlayer player, String worldName) {
+		AtomicLong account = accounts.get(new AccountKey(player.getUniqueId(), worldName));
+		if (account == null) {
+			return null;
+		}
+		long minor = account.get();
+		return new VersionedBalance(toMajor(minor), minor);
+	}
+
+	@Override
+	public EconomyResponse compareAndSetBalance(OfflinePlayer player, String worldName, long expectedVersion, double newBalance) {
+		AtomicLong account = accounts.get(new AccountKey(player.getUniqueId(), worldName));
+		if (account == null) {
+			return EconomyResponse.failure(ErrorCode.ACCOUNT_NOT_FOUND);
+		}
+		long minor = toMinor(newBalance);
+		if (minor < 0) {
+			return EconomyResponse.failure(ErrorCode.INVALID_AMOUNT);
+		}
+		if (minor < expectedVersion && newBalance < getHeldBalance(player, worldName)) {
+			return EconomyResponse.failure(toMajor(expectedVersion - minor), toMajor(account.get()), ErrorCode.INSUFFICIENT_FUNDS);
+		}
+		if (!account.compareAndSet(expectedVersion, minor)) {
+			return EconomyResponse.failure(0, toMajor(account.get()), ErrorCode.VERSION_CONFLICT);
+		}
+		return EconomyResponse.success(toMajor(Math.abs(minor - expectedVersion)), toMajor(minor));
+	}
+
+	/**
+	 * Transforms the accounts in a single pass over the map. The player is only looked up when the filter or a
+	 * transform other than {@link LinearBalanceTransform} needs it.
+	 * 在对映射的一次遍历中变换账户. 只有当过滤器或{@link LinearBalanceTransform}以外的变换需要时才会查询玩家.
+	 */
+	@Override
+	public MassUpdateResult transformBalances(BalanceTransform transform, BalanceFilter filter, String worldName, MassUpdateListener listener) {
+		boolean needsPlayer = filter != null || !(transform instanceof LinearBalanceTransform);
+		int total = accounts.size();
+		int processed = 0;
+		int matched = 0;
+		int changed = 0;
+		int failed = 0;
+		long delta = 0;
+		for (Map.Entry<AccountKey, AtomicLong> e : accounts.entrySet()) {
+			AccountKey key = e.getKey();
+			if (worldName == null ? key.getWorldName() == null : worldName.equals(key.getWorldName())) {
+				OfflinePlayer player = needsPlayer ? resolvePlayer(key.getPlayerId()) : null;
+				AtomicLong account = e.getValue();
+				while (true) {
+					long current = account.get();
+					double balance = toMajor(current);
+					if (filter != null && !filter.accept(player, balance)) {
+						break;
+					}
+					long target = toMinor(transform.apply(player, balance));
+					if (target < 0) {
+						matched++;
+						failed++;
+						break;
+					}
+					if (account.compareAndSet(current, target)) {
+						matched++;
+						if (target != current) {
+							changed++;
+							delta += target - current;
+						}
+						break;
+					}
+				}
+			}
+			if (listener != null && ++processed % PROGRESS_INTERVAL == 0) {
+				listener.onProgress(processed, Math.max(total, processed));
+			}
+		}
+		if (listener != null && processed % PROGRESS_INTERVAL != 0) {
+			listener.onProgress(processed, Math.max(total, processed));
+		}
+		return new MassUpdateResult(matched, changed, failed, toMajor(delta));
+	}
+
+	/**
+	 * The account methods are lock-free, so decorators transforming account by account may use every processor.
+	 * 账户方法是无锁的, 因此逐个账户变换的装饰器可以使用所有处理器.
+	 */
+	@Override
+	protected int getMassUpdateParallelism() {
+		return Runtime.getRuntime().availableProcessors();
+	}
+
+	@Override
+	public EconomyResponse createBank(String name, UUID ownerId) {
+		if (banks.putIfAbsent(name, new AtomicLong()) != null) {
+			return EconomyResponse.failure(ErrorCode.BANK_EXISTS);
+		}
+		bankIndex.addBank(name, ownerId);
+		return EconomyResponse.success(0, 0);
+	}
+
+	@Override
+	public EconomyResponse isBankOwner(String name, UUID playerId) {
+		AtomicLong bank = banks.get(name);
+		if (bank == null) {
+			return EconomyResponse.failure(ErrorCode.BANK_NOT_FOUND);
+		}
+		if (bankIndex.isOwner(name, playerId)) {
+			return EconomyResponse.success(0, toMajor(bank.get()));
+		}
+		return new EconomyResponse(0, toMajor(bank.get()), ResponseType.FAILURE, "Not the owner of " + name);
+	}
+
+	@Override
+	public EconomyResponse isBankMember(String name, UUID playerId) {
+		AtomicLong bank = banks.get(name);
+		if (bank == null) {
+			return EconomyResponse.failure(ErrorCode.BANK_NOT_FOUND);
+		}
+		if (bankIndex.isMember(name, playerId)) {
+			return EconomyResponse.success(0, toMajor(bank.get()));
+		}
+		return new EconomyResponse(0, toMajor(bank.get()), ResponseType.FAILURE, "Not a member of " + name);
+	}
+
+	@Override
+	public EconomyResponse deleteBank(String name) {
+		AtomicLong bank = banks.remove(name);
+		if (bank == null) {
+			return EconomyResponse.failure(ErrorCode.BANK_NOT_FOUND);
+		}
+		bankIndex.removeBank(name);
+		return EconomyResponse.success(0, toMajor(bank.get()));
+	}
+
+	@Override
+	public EconomyResponse bankBalance(String name) {
+		AtomicLong bank = banks.get(name);
+		if (bank == null) {
+			return EconomyResponse.failure(ErrorCode.BANK_NOT_FOUND);
+		}
+		return EconomyResponse.success(0, toMajor(bank.get()));
+	}
+
+	@Override
+	public EconomyResponse bankHas(String name, double amount) {
+		AtomicLong bank = banks.get(name);
+		if (bank == null) {
+			return EconomyResponse.failure(ErrorCode.BANK_NOT_FOUND);
+		}
+		double balance = toMajor(bank.get());
+		if (balance < amount) {
+			return EconomyResponse.failure(amount, balance, ErrorCode.INSUFFICIENT_FUNDS);
+		}
+		return EconomyResponse.success(amount, balance);
+	}
+
+	@Override
+	public EconomyResponse bankWithdraw(String name, double amount) {
+		AtomicLong bank = banks.get(name);
+		if (bank == null) {
+			return EconomyResponse.failure(ErrorCode.BANK_NOT_FOUND);
+		}
+		return withdraw(bank, amount);
+	}
+
+	@Override
+	public EconomyResponse bankDeposit(String name, double amount) {
+		AtomicLong bank = banks.get(name);
+		if (bank == null) {
+			return EconomyResponse.failure(ErrorCode.BANK_NOT_FOUND);
+		}
+		return deposit(bank, amount);
+	}
+
+	@Override
+	public boolean checkBankOwner(String name, OfflinePlayer player) {
+		return bankIndex.isOwner(name, player.getUniqueId());
+	}
+
+	@Override
+	public boolean checkBankMember(String name, OfflinePlayer player) {
+		return bankIndex.isMember(name, player.getUniqueId());
+	}
+
+	@Override
+	public List<String> getBanksOwnedBy(OfflinePlayer player) {
+		return bankIndex.getBanksOwnedBy(player.getUniqueId());
+	}
+
+	@Override
+	public List<String> getBanksWithMember(OfflinePlayer player) {
+		return bankIndex.getBanksWithMember(player.getUniqueId());
+	}
+
+	@Override
+	public List<String> getBanks() {
+		return new ArrayList<String>(banks.keySet());
+	}
+
+	@Override
+	public BankPage getBanks(String prefix, String cursor, int limit) {
+		return BankPage.of(banks.keySet(), prefix, cursor, limit);
+	}
+
+	@Override
+	public Currency getCurrency(String name) {
+		Currency currency = super.getCurrency(name);
+		if (currency != null) {
+			return currency;
+		}
+		for (CurrencyAccounts other : otherCurrencies) {
+			if (other.currency.getName().equalsIgnoreCase(name)) {
+				return other.currency;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public List<Currency> getCurrencies() {
+		if (otherCurrencies.isEmpty()) {
+			return super.getCurrencies();
+		}
+		List<Currency> currencies = new ArrayList<Currency>(otherCurrencies.size() + 1);
+		currencies.add(getDefaultCurrency());
+		for (CurrencyAccounts other : otherCurrencies) {
+			currencies.add(other.currency);
+		}
+		return Collections.unmodifiableList(currencies);
+	}
+
+	@Override
+	public double getBalance(OfflinePlayer player, String worldName, Currency currency) {
+		if (currency == getDefaultCurrency()) {
+			return getBalance(player.getUniqueId(), worldName);
+		}
+		CurrencyAccounts other = otherCurrency(currency);
+		AtomicLong balance = other.balances.get(new AccountKey(player.getUniqueId(), worldName));
+		return balance == null ? 0 : toMajor(balance.get(), other.fractionalDigits);
+	}
+
+	@Override
+	public double[] getBalances(OfflinePlayer player, String worldName) {
+		AccountKey key = new AccountKey(player.getUniqueId(), worldName);
+		double[] balances = new double[otherCurrencies.size() + 1];
+		AtomicLong account = accounts.get(key);
+		balances[0] = account == null ? 0 : toMajor(account.get());
+		for (int i = 1; i < balances.length; i++) {
+			CurrencyAccounts other = otherCurrencies.get(i - 1);
+			AtomicLong balance = other.balances.get(key);
+			balances[i] = balance == null ? 0 : toMajor(balance.get(), other.fractionalDigits);
+		}
+		return balances;
+	}
+
+	@Override
+	public boolean has(OfflinePlayer player, String worldName, Currency currency, double amount) {
+		if (currency == getDefaultCurrency()) {
+			return super.has(player, worldName, currency, amount);
+		}
+		return getBalance(player, worldName, currency) >= amount;
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, Currency currency, double amount) {
+		if (currency == getDefaultCurrency()) {
+			return super.withdrawPlayer(player, worldName, currency, amount);
+		}
+		CurrencyAccounts other = otherCurrency(currency);
+		AtomicLong balance = otherBalance(other, new AccountKey(player.getUniqueId(), worldName));
+		if (balance == null) {
+			return EconomyResponse.failure(amount, 0, ErrorCode.ACCOUNT_NOT_FOUND);
+		}
+		return withdraw(balance, amount, other.fractionalDigits);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, Currency currency, double amount) {
+		if (currency == getDefaultCurrency()) {
+			return super.depositPlayer(player, worldName, currency, amount);
+		}
+		CurrencyAccounts other = otherCurrency(currency);
+		AtomicLong balance = otherBalance(other, new AccountKey(player.getUniqueId(), worldName));
+		if (balance == null) {
+			return EconomyResponse.failure(amount, 0, ErrorCode.ACCOUNT_NOT_FOUND);
+		}
+		return deposit(balance, amount, other.fractionalDigits);
+	}
+
+	/**
+	 * Looks up the player a mass update needs to pass to a filter or transform
+	 * 查询批量更新需要传给过滤器或变换的玩家
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @return the player
+	 * 玩家
+	 */
+	protected OfflinePlayer resolvePlayer(UUID playerId) {
+		return Bukkit.getOfflinePlayer(playerId);
+	}
+
+	private void apply(JournalRecord record) {
+		String name = record.getName();
+		if (record.isNameTruncated()) {
+			log.warning("[Vault] Skipping journal record with a truncated name: " + record);
+			return;
+		}
+		switch (record.getType()) {
+		case ACCOUNT_CREATE:
+			createPlayerAccount(record.getPlayerId(), name);
+			break;
+		case DEPOSIT:
+		case WITHDRAW:
+		case SET:
+			AccountKey key = new AccountKey(record.getPlayerId(), name);
+			accounts.putIfAbsent(key, new AtomicLong());
+			if (record.getCurrencyId() == 0) {
+				accounts.get(key).set(toMinor(record.getBalance()));
+				break;
+			}
+			int index = record.getCurrencyId() - 1;
+			if (index < 0 || index >= otherCurrencies.size()) {
+				log.warning("[Vault] Skipping journal record of unknown currency: " + record);
+				break;
+			}
+			CurrencyAccounts other = otherCurrencies.get(index);
+			otherBalance(other, key).set(toMinor(record.getBalance(), other.fractionalDigits));
+			break;
+		case BANK_CREATE:
+			if (banks.putIfAbsent(name, new AtomicLong()) == null) {
+				bankIndex.addBank(name, record.getPlayerId());
+			}
+			break;
+		case BANK_DELETE:
+			deleteBank(name);
+			break;
+		case BANK_DEPOSIT:
+		case BANK_WITHDRAW:
+			AtomicLong bank = banks.get(name);
+			if (bank != null) {
+				bank.set(toMinor(record.getBalance()));
+			}
+			break;
+		case TRANSFORM:
+			transformBalances(new LinearBalanceTransform(record.getAmount(), record.getBalance()), null, name, null);
+			break;
+		}
+	}
+
+	private EconomyResponse withdraw(AtomicLong account, double amount) {
+		return withdraw(account, amount, fractionalDigits);
+	}
+
+	private EconomyResponse withdraw(AtomicLong account, double amount, int digits) {
+		long minor = toMinor(amount, digits);
+		if (minor < 0) {
+			return EconomyResponse.failure(amount, toMajor(account.get(), digits), ErrorCode.INVALID_AMOUNT);
+		}
+		long balance = withdrawMinor(account, minor);
+		if (balance < 0) {
+			return EconomyResponse.failure(amount, toMajor(-1 - balance, digits), ErrorCode.INSUFFICIENT_FUNDS);
+		}
+		return EconomyResponse.success(amount, toMajor(balance, digits));
+	}
+
+	private EconomyResponse deposit(AtomicLong account, double amount) {
+		return deposit(account, amount, fractionalDigits);
+	}
+
+	private EconomyResponse deposit(AtomicLong account, double amount, int digits) {
+		long minor = toMinor(amount, digits);
+		if (minor < 0) {
+			return EconomyResponse.failure(amount, toMajor(account.get(), digits), ErrorCode.INVALID_AMOUNT);
+		}
+		long balance = depositMinor(account, minor);
+		if (balance < 0) {
+			return EconomyResponse.failure(amount, toMajor(-1 - balance, digits), ErrorCode.INVALID_AMOUNT);
+		}
+		return EconomyResponse.success(amount, toMajor(balance, digits));
+	}
+
+	// Returns the new balance, or -1 - balance if the account holds less than minor.
+	private static long withdrawMinor(AtomicLong account, long minor) {
+		while (true) {
+			long current = account.get();
+			if (current < minor) {
+				return -1 - current;
+			}
+			if (account.compareAndSet(current, current - minor)) {
+				return current - minor;
+			}
+		}
+	}
+
+	// Returns the new balance, or -1 - balance if the deposit would overflow.
+	private static long depositMinor(AtomicLong account, long minor) {
+		while (true) {
+			long current = account.get();
+			if (current > Long.MAX_VALUE - minor) {
+				return -1 - current;
+			}
+			if (account.compareAndSet(current, current + minor)) {
+				return current + minor;
+			}
+		}
+	}
+
+	private CurrencyAccounts otherCurrency(Currency currency) {
+		int index = currency.getId() - 1;
+		if (index < 0 || index >= otherCurrencies.size() || otherCurrencies.get(index).currency != currency) {
+			throw new IllegalArgumentException("Unknown currency " + currency + " for " + name);
+		}
+		return otherCurrencies.get(index);
+	}
+
+	// Returns null if the player has no account; the balance in the currency is created on first use.
+	private AtomicLong otherBalance(CurrencyAccounts other, AccountKey key) {
+		if (!accounts.containsKey(key)) {
+			return null;
+		}
+		AtomicLong balance = other.balances.get(key);
+		if (balance == null) {
+			AtomicLong created = new AtomicLong();
+			balance = other.balances.putIfAbsent(key, created);
+			if (balance == null) {
+				balance = created;
+			}
+		}
+		return balance;
+	}
+
+	private BalanceLeaderboard leaderboard() {
+		BalanceLeaderboard leaderboard = new BalanceLeaderboard();
+		for (Map.Entry<AccountKey, AtomicLong> e : accounts.entrySet()) {
+			if (e.getKey().getWorldName() == null) {
+				leaderboard.update(e.getKey().getPlayerId(), toMajor(e.getValue().get()));
+			}
+		}
+		return leaderboard;
+	}
+
+	private long toMinor(double amount) {
+		return toMinor(amount, fractionalDigits);
+	}
+
+	// Returns -1 for negative amounts and for amounts that cannot be represented.
+	private static long toMinor(double amount, int digits) {
+		if (!(amount >= 0)) {
+			return -1;
+		}
+		try {
+			return MinorUnits.toMinor(amount, digits);
+		} catch (ArithmeticException e) {
+			return -1;
+		}
+	}
+
+	private double toMajor(long minor) {
+		return toMajor(minor, fractionalDigits);
+	}
+
+	private static double toMajor(long minor, int digits) {
+		return MinorUnits.toMajor(minor, digits);
+	}
+
+	private static final class CurrencyAccounts {
+		private final Currency currency;
+		private final int fractionalDigits;
+		private final ConcurrentMap<AccountKey, AtomicLong> balances = new ConcurrentHashMap<AccountKey, AtomicLong>();
+
+		private CurrencyAccounts(Currency currency, int fractionalDigits) {
+			this.currency = currency;
+			this.fractionalDigits = fractionalDigits;
+		}
+	}
+}
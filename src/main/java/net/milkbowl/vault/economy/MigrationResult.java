@@ -0,0 +1,105 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+/**
+ * Outcome of an {@link EconomyMigration}
+ * {@link EconomyMigration}的结果
+ */
+public final class MigrationResult {
+
+	private final int accounts;
+	private final int failedAccounts;
+	private final int banks;
+	private final int failedBanks;
+	private final long sourceChecksum;
+	private final long destinationChecksum;
+	private final int mismatches;
+
+	/**
+	 * Constructor for MigrationResult
+	 * {@link MigrationResult}的构造函数
+	 *
+	 * @param accounts number of accounts copied in this run
+	 * 本次运行复制的账户数
+	 * @param failedAccounts number of accounts that could not be copied
+	 * 无法复制的账户数
+	 * @param banks number of banks copied in this run
+	 * 本次运行复制的银行数
+	 * @param failedBanks number of banks that could not be copied
+	 * 无法复制的银行数
+	 * @param sourceChecksum checksum of all balances in the source
+	 * 源中所有余额的校验和
+	 * @param destinationChecksum checksum of the same balances in the destination
+	 * 目标中相同余额的校验和
+	 * @param mismatches number of accounts and banks whose balances differ
+	 * 余额不一致的账户和银行数
+	 */
+	public MigrationResult(int accounts, int failedAccounts, int banks, int failedBanks, long sourceChecksum, long destinationChecksum, int mismatches) {
+		this.accounts = accounts;
+		this.failedAccounts = failedAccounts;
+		this.banks = banks;
+		this.failedBanks = failedBanks;
+		this.sourceChecksum = sourceChecksum;
+		this.destinationChecksum = destinationChecksum;
+		this.mismatches = mismatches;
+	}
+
+	public int getAccounts() {
+		return accounts;
+	}
+
+	public int getFailedAccounts() {
+		return failedAccounts;
+	}
+
+	public int getBanks() {
+		return banks;
+	}
+
+	public int getFailedBanks() {
+		return failedBanks;
+	}
+
+	public long getSourceChecksum() {
+		return sourceChecksum;
+	}
+
+	public long getDestinationChecksum() {
+		return destinationChecksum;
+	}
+
+	public int getMismatches() {
+		return mismatches;
+	}
+
+	/**
+	 * Checks if every balance of the source was found in the destination
+	 * 检查源中的每个余额是否都出现在目标中
+	 *
+	 * @return true if the checksums match and no balance differs
+	 * 如果校验和一致且没有余额不同则返回真
+	 */
+	public boolean isVerified() {
+		return mismatches == 0 && sourceChecksum == destinationChecksum;
+	}
+
+	@Override
+	public String toString() {
+		return "MigrationResult{accounts=" + accounts + ", failedAccounts=" + failedAccounts + ", banks=" + banks + ", failedBanks=" + failedBanks
+				+ ", sourceChecksum=" + sourceChecksum + ", destinationChecksum=" + destinationChecksum + ", mismatches=" + mismatches + "}";
+	}
+}
@@ -0,0 +1,140 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversion between amounts as double and fixed-point amounts counted in minor units (cents for a
+ * currency with two fractional digits). The scale is derived from {@link Economy#fractionalDigits()}.
+ * 在double金额和以最小单位计数的定点金额(对于两位小数的货币即"分")之间进行转换. 小数位数由{@link Economy#fractionalDigits()}决定.
+ */
+public final class MinorUnits {
+
+	/**
+	 * Number of digits used when the economy does not round (fractionalDigits() returns -1)
+	 * 当经济插件不进行四舍五入(fractionalDigits()返回-1)时使用的小数位数
+	 */
+	public static final int DEFAULT_DIGITS = 2;
+	/**
+	 * Largest supported number of digits
+	 * 支持的最大小数位数
+	 */
+	public static final int MAX_DIGITS = 18;
+
+	private static final long[] POWERS = new long[MAX_DIGITS + 1];
+	// Above this magnitude a scaled double no longer has enough fraction bits to be rounded directly.
+	private static final double FAST_PATH_LIMIT = 1e15;
+
+	static {
+		long power = 1;
+		for (int i = 0; i <= MAX_DIGITS; i++) {
+			POWERS[i] = power;
+			power *= 10;
+		}
+	}
+
+	private MinorUnits() {
+	}
+
+	/**
+	 * Gets the number of minor unit digits for a value returned by {@link Economy#fractionalDigits()}
+	 * 获取{@link Economy#fractionalDigits()}返回值所对应的最小单位小数位数
+	 *
+	 * @param fractionalDigits digits kept by the economy, -1 if it does not round
+	 * 经济插件保留的小数位数, 不进行四舍五入时为-1
+	 * @return digits between 0 and {@link #MAX_DIGITS}
+	 * 0到{@link #MAX_DIGITS}之间的位数
+	 */
+	public static int digits(int fractionalDigits) {
+		if (fractionalDigits < 0) {
+			return DEFAULT_DIGITS;
+		}
+		return Math.min(fractionalDigits, MAX_DIGITS);
+	}
+
+	/**
+	 * Gets the number of minor unit digits of an economy
+	 * 获取经济实现的最小单位小数位数
+	 *
+	 * @param economy to check
+	 * 要检查的经济实现
+	 * @return digits between 0 and {@link #MAX_DIGITS}
+	 * 0到{@link #MAX_DIGITS}之间的位数
+	 */
+	public static int digits(Economy economy) {
+		return digits(economy.fractionalDigits());
+	}
+
+	/**
+	 * Gets the number of minor units in one major unit
+	 * 获取一个主单位包含的最小单位数
+	 *
+	 * @param digits number of minor unit digits
+	 * 最小单位小数位数
+	 * @return 10 to the power of <b>digits</b>
+	 * 10的<b>digits</b>次方
+	 */
+	public static long scale(int digits) {
+		return POWERS[digits];
+	}
+
+	/**
+	 * Converts an amount to minor units, rounding half away from zero
+	 * 将金额转换为最小单位, 四舍五入
+	 *
+	 * @param amount to convert
+	 * 要转换的金额
+	 * @param digits number of minor unit digits
+	 * 最小单位小数位数
+	 * @return amount in minor units
+	 * 以最小单位表示的金额
+	 * @throws ArithmeticException if the amount does not fit in a long
+	 * 如果金额超出long的范围
+	 */
+	public static long toMinor(double amount, int digits) {
+		if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+			throw new ArithmeticException("Cannot convert " + amount + " to minor units");
+		}
+		double scaled = amount * POWERS[digits];
+		if (Math.abs(scaled) < FAST_PATH_LIMIT) {
+			double floor = Math.floor(scaled);
+			double fraction = scaled - floor;
+			// Values close to a half are decided on their decimal representation below,
+			// so that 0.285 becomes 29 cents and not 28.
+			if (Math.abs(fraction - 0.5) > 1e-6) {
+				return (long) (fraction < 0.5 ? floor : floor + 1);
+			}
+		}
+		return BigDecimal.valueOf(amount).setScale(digits, RoundingMode.HALF_UP).movePointRight(digits).longValueExact();
+	}
+
+	/**
+	 * Converts an amount in minor units back to a double
+	 * 将以最小单位表示的金额转换回double
+	 *
+	 * @param minor amount in minor units
+	 * 以最小单位表示的金额
+	 * @param digits number of minor unit digits
+	 * 最小单位小数位数
+	 * @return amount in major units
+	 * 以主单位表示的金额
+	 */
+	public static double toMajor(long minor, int digits) {
+		return (double) minor / POWERS[digits];
+	}
+}
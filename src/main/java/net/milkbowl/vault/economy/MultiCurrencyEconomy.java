@@ -0,0 +1,150 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.List;
+
+import org.bukkit.OfflinePlayer;
+
+/**
+ * {@link Economy} holding several currencies. The methods of {@link Economy} work on the default currency; the
+ * methods here take a {@link Currency} handle resolved once through {@link #getCurrency(String)}. Every
+ * {@link AbstractEconomy} implements this interface with its single currency as the default.
+ * 拥有多种货币的{@link Economy}. {@link Economy}的方法作用于默认货币; 此接口的方法接受一个通过{@link #getCurrency(String)}解析一次的{@link Currency}句柄.
+ * 每个{@link AbstractEconomy}都以其唯一的货币作为默认货币实现了此接口.
+ *
+ * A handle only works with the Economy that created it; the methods taking one throw an
+ * {@link IllegalArgumentException} for any other handle rather than treat it as an empty balance.
+ * 句柄只能用于创建它的经济实现; 接受句柄的方法对任何其他句柄都会抛出{@link IllegalArgumentException}, 而不是将其视为空余额.
+ */
+public interface MultiCurrencyEconomy extends Economy {
+
+	/**
+	 * Gets the currency used by the methods of {@link Economy}
+	 * 获取{@link Economy}的方法使用的货币
+	 *
+	 * @return default currency, with id 0
+	 * 默认货币, id为0
+	 */
+	public Currency getDefaultCurrency();
+
+	/**
+	 * Looks a currency up by name, ignoring case
+	 * 按名称查找货币, 忽略大小写
+	 *
+	 * @param name of the currency
+	 * 货币名称
+	 * @return currency handle, or null if there is no such currency
+	 * 货币句柄, 如果没有该货币则为null
+	 */
+	public Currency getCurrency(String name);
+
+	/**
+	 * Gets every currency, ordered by id
+	 * 获取所有货币, 按id排序
+	 *
+	 * @return list of currencies, where the currency with id i is at index i
+	 * 货币列表, id为i的货币位于下标i
+	 */
+	public List<Currency> getCurrencies();
+
+	/**
+	 * Gets the balance of a player in a currency
+	 * 获取玩家某种货币的余额
+	 *
+	 * @param player owner of the account
+	 * 账户的所有者
+	 * @param worldName name of the world, null for the global account
+	 * 世界名, null表示全局账户
+	 * @param currency handle of this Economy
+	 * 此经济实现的货币句柄
+	 * @return Amount currently held in players account
+	 * 玩家账户中当前持有的金额
+	 * @throws IllegalArgumentException if the currency is not a handle of this Economy
+	 * 如果货币不是此经济实现的句柄
+	 */
+	public double getBalance(OfflinePlayer player, String worldName, Currency currency);
+
+	/**
+	 * Gets the balances of a player in every currency with a single lookup
+	 * 通过一次查询获取玩家所有货币的余额
+	 *
+	 * @param player owner of the account
+	 * 账户的所有者
+	 * @param worldName name of the world, null for the global account
+	 * 世界名, null表示全局账户
+	 * @return new array of balances indexed by {@link Currency#getId()}
+	 * 按{@link Currency#getId()}索引的新余额数组
+	 */
+	public double[] getBalances(OfflinePlayer player, String worldName);
+
+	/**
+	 * Checks if the player account has the amount of a currency
+	 * 检查玩家账户是否拥有某种货币的指定金额
+	 *
+	 * @param player to check
+	 * 要检查的玩家
+	 * @param worldName name of the world, null for the global account
+	 * 世界名, null表示全局账户
+	 * @param currency handle of this Economy
+	 * 此经济实现的货币句柄
+	 * @param amount to check for
+	 * 要检查的金额
+	 * @return True if <b>player</b> has <b>amount</b>, False else wise
+	 * 如果玩家拥有该金额则返回真, 否则返回假
+	 * @throws IllegalArgumentException if the currency is not a handle of this Economy
+	 * 如果货币不是此经济实现的句柄
+	 */
+	public boolean has(OfflinePlayer player, String worldName, Currency currency, double amount);
+
+	/**
+	 * Withdraw an amount of a currency from a player
+	 * 从玩家账户中取出某种货币的指定金额
+	 *
+	 * @param player to withdraw from
+	 * 要取款的玩家
+	 * @param worldName name of the world, null for the global account
+	 * 世界名, null表示全局账户
+	 * @param currency handle of this Economy
+	 * 此经济实现的货币句柄
+	 * @param amount Amount to withdraw
+	 * 要取出的金额
+	 * @return Detailed response of transaction
+	 * 交易的详细回报
+	 * @throws IllegalArgumentException if the currency is not a handle of this Economy
+	 * 如果货币不是此经济实现的句柄
+	 */
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, Currency currency, double amount);
+
+	/**
+	 * Deposit an amount of a currency to a player
+	 * 向玩家账户存入某种货币的指定金额
+	 *
+	 * @param player to deposit to
+	 * 要存款的玩家
+	 * @param worldName name of the world, null for the global account
+	 * 世界名, null表示全局账户
+	 * @param currency handle of this Economy
+	 * 此经济实现的货币句柄
+	 * @param amount Amount to deposit
+	 * 要存入的金额
+	 * @return Detailed response of transaction
+	 * 交易的详细回报
+	 * @throws IllegalArgumentException if the currency is not a handle of this Economy
+	 * 如果货币不是此经济实现的句柄
+	 */
+	public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, Currency currency, double amount);
+}
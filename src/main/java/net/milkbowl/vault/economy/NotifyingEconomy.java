@@ -0,0 +1,293 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.milkbowl.vault.economy.BalanceChange.Cause;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Decorator that pushes balance changes to {@link BalanceListener}s instead of making them poll
+ * {@link Economy#getBalance(OfflinePlayer)}. Successful withdrawals and deposits are collected and, when
+ * this object runs (schedule it as a task repeating every tick), delivered as one {@link BalanceChange}
+ * per account.
+ * 将余额变化推送给{@link BalanceListener}的装饰器, 使其无需轮询{@link Economy#getBalance(OfflinePlayer)}.
+ * 成功的存取款会被收集, 在此对象运行时(将其调度为每刻重复的任务)以每个账户一个{@link BalanceChange}的形式发送.
+ *
+ * Mutations made through the deprecated name methods are not reported.
+ * 通过已弃用的玩家名方法进行的操作不会被报告.
+ *
+ * Withdrawals and deposits of other currencies are reported separately from the default currency, with the
+ * {@link Currency#getId()} of their currency in {@link BalanceChange#getCurrencyId()}.
+ * 其他货币的存取款与默认货币分开报告, 其货币的{@link Currency#getId()}保存在{@link BalanceChange#getCurrencyId()}中.
+ */
+public class NotifyingEconomy extends ForwardingEconomy implements Runnable {
+
+	private static final Logger log = Logger.getLogger("Minecraft");
+
+	private final List<BalanceListener> globalListeners = new CopyOnWriteArrayList<BalanceListener>();
+	private final ConcurrentMap<UUID, List<BalanceListener>> accountListeners = new ConcurrentHashMap<UUID, List<BalanceListener>>();
+	private Map<PendingKey, Pending> pending = new LinkedHashMap<PendingKey, Pending>();
+
+	/**
+	 * Constructor for NotifyingEconomy
+	 * {@link NotifyingEconomy}的构造函数
+	 *
+	 * @param delegate Economy to observe
+	 * 要观察的经济实现
+	 */
+	public NotifyingEconomy(Economy delegate) {
+		super(delegate);
+	}
+
+	/**
+	 * Registers a listener for the changes of every account
+	 * 注册一个接收所有账户变化的监听器
+	 *
+	 * @param listener to register
+	 * 要注册的监听器
+	 */
+	public void subscribe(BalanceListener listener) {
+		globalListeners.add(listener);
+	}
+
+	/**
+	 * Registers a listener for the changes of one player's accounts
+	 * 注册一个接收某个玩家账户变化的监听器
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @param listener to register
+	 * 要注册的监听器
+	 */
+	public void subscribe(UUID playerId, BalanceListener listener) {
+		List<BalanceListener> listeners = accountListeners.get(playerId);
+		if (listeners == null) {
+			List<BalanceListener> created = new CopyOnWriteArrayList<BalanceListener>();
+			listeners = accountListeners.putIfAbsent(playerId, created);
+			if (listeners == null) {
+				listeners = created;
+			}
+		}
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener registered with {@link #subscribe(BalanceListener)}
+	 * 移除通过{@link #subscribe(BalanceListener)}注册的监听器
+	 *
+	 * @param listener to remove
+	 * 要移除的监听器
+	 */
+	public void unsubscribe(BalanceListener listener) {
+		globalListeners.remove(listener);
+	}
+
+	/**
+	 * Removes a listener registered with {@link #subscribe(UUID, BalanceListener)}
+	 * 移除通过{@link #subscribe(UUID, BalanceListener)}注册的监听器
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @param listener to remove
+	 * 要移除的监听器
+	 */
+	public void unsubscribe(UUID playerId, BalanceListener listener) {
+		List<BalanceListener> listeners = accountListeners.get(playerId);
+		if (listeners != null) {
+			listeners.remove(listener);
+			if (listeners.isEmpty()) {
+				accountListeners.remove(playerId, listeners);
+			}
+		}
+	}
+
+	/**
+	 * Delivers the changes collected since the last run
+	 * 发送自上次运行以来收集的变化
+	 */
+	@Override
+	public void run() {
+		Map<PendingKey, Pending> batch;
+		synchronized (this) {
+			if (pending.isEmpty()) {
+				return;
+			}
+			batch = pending;
+			pending = new LinkedHashMap<PendingKey, Pending>();
+		}
+		for (Map.Entry<PendingKey, Pending> e : batch.entrySet()) {
+			AccountKey key = e.getKey().account;
+			Pending p = e.getValue();
+			BalanceChange change = new BalanceChange(key.getPlayerId(), key.getWorldName(), e.getKey().currencyId, p.oldBalance, p.newBalance,
+					p.cause, p.changes);
+			notify(globalListeners, change);
+			List<BalanceListener> listeners = accountListeners.get(key.getPlayerId());
+			if (listeners != null) {
+				notify(listeners, change);
+			}
+		}
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+		return record(player, null, Cause.WITHDRAW, delegate.withdrawPlayer(player, amount));
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+		return record(player, worldName, Cause.WITHDRAW, delegate.withdrawPlayer(player, worldName, amount));
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+		return record(player, null, Cause.DEPOSIT, delegate.depositPlayer(player, amount));
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+		return record(player, worldName, Cause.DEPOSIT, delegate.depositPlayer(player, worldName, amount));
+	}
+
+	@Override
+	public boolean withdrawPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		return withdrawInto(player, worldName, amount, result);
+	}
+
+	@Override
+	public boolean depositPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		return depositInto(player, worldName, amount, result);
+	}
+
+	@Override
+	public EconomyResponse captureHold(FundHold hold) {
+		return record(hold.getPlayer(), hold.getWorldName(), Cause.WITHDRAW, delegate.captureHold(hold));
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, Currency currency, double amount) {
+		if (currency == getDefaultCurrency()) {
+			return super.withdrawPlayer(player, worldName, currency, amount);
+		}
+		return record(player, worldName, currency.getId(), Cause.WITHDRAW, super.withdrawPlayer(player, worldName, currency, amount));
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, Currency currency, double amount) {
+		if (currency == getDefaultCurrency()) {
+			return super.depositPlayer(player, worldName, currency, amount);
+		}
+		return record(player, worldName, currency.getId(), Cause.DEPOSIT, super.depositPlayer(player, worldName, currency, amount));
+	}
+
+	// The direction of the change is taken from a read made just before the write.
+	@Override
+	public EconomyResponse compareAndSetBalance(OfflinePlayer player, String worldName, long expectedVersion, double newBalance) {
+		double before = worldName == null ? delegate.getBalance(player) : delegate.getBalance(player, worldName);
+		Cause cause = newBalance >= before ? Cause.DEPOSIT : Cause.WITHDRAW;
+		return record(player, worldName, cause, delegate.compareAndSetBalance(player, worldName, expectedVersion, newBalance));
+	}
+
+	// Applied account by account through this decorator, so that listeners see every change.
+	@Override
+	public MassUpdateResult transformBalances(BalanceTransform transform, BalanceFilter filter, String worldName, MassUpdateListener listener) {
+		return transformEachBalance(Arrays.asList(Bukkit.getOfflinePlayers()), transform, filter, worldName, listener);
+	}
+
+	private EconomyResponse record(OfflinePlayer player, String world, Cause cause, EconomyResponse response) {
+		return record(player, world, 0, cause, response);
+	}
+
+	private EconomyResponse record(OfflinePlayer player, String world, int currencyId, Cause cause, EconomyResponse response) {
+		if (response == null || !response.transactionSuccess()) {
+			return response;
+		}
+		double before = cause == Cause.DEPOSIT ? response.balance - response.amount : response.balance + response.amount;
+		PendingKey key = new PendingKey(new AccountKey(player.getUniqueId(), world), currencyId);
+		synchronized (this) {
+			Pending p = pending.get(key);
+			if (p == null) {
+				pending.put(key, new Pending(before, response.balance, cause));
+			} else {
+				p.newBalance = response.balance;
+				p.changes++;
+				if (p.cause != cause) {
+					p.cause = Cause.MIXED;
+				}
+			}
+		}
+		return response;
+	}
+
+	private static void notify(List<BalanceListener> listeners, BalanceChange change) {
+		for (BalanceListener listener : listeners) {
+			try {
+				listener.onBalanceChange(change);
+			} catch (RuntimeException e) {
+				log.log(Level.SEVERE, "[Vault] Balance listener failed for " + change, e);
+			}
+		}
+	}
+
+	private static final class PendingKey {
+		final AccountKey account;
+		final int currencyId;
+
+		PendingKey(AccountKey account, int currencyId) {
+			this.account = account;
+			this.currencyId = currencyId;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof PendingKey)) {
+				return false;
+			}
+			PendingKey other = (PendingKey) obj;
+			return currencyId == other.currencyId && account.equals(other.account);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * account.hashCode() + currencyId;
+		}
+	}
+
+	private static final class Pending {
+		final double oldBalance;
+		double newBalance;
+		Cause cause;
+		int changes = 1;
+
+		Pending(double oldBalance, double newBalance, Cause cause) {
+			this.oldBalance = oldBalance;
+			this.newBalance = newBalance;
+			this.cause = cause;
+		}
+	}
+}
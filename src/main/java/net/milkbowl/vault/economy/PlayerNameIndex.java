@@ -0,0 +1,169 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+
+/**
+ * Case-insensitive index from player names to UUIDs, keeping the most recently used names up to a bound.
+ * Names are learned when players join and otherwise resolved through the server and remembered if the server
+ * knows the player.
+ * 玩家名到UUID的不区分大小写的索引, 在上限内保留最近使用的名称. 玩家加入时会记录名称, 其他情况下通过服务器解析,
+ * 如果服务器认识该玩家则记住结果.
+ *
+ * Register the index as a listener: a name it does not hold is resolved with
+ * {@link Bukkit#getOfflinePlayer(String)}, which may block on a web lookup, so the index must learn the names
+ * of joining players to keep the name methods of the economies using it fast.
+ * 必须将索引注册为监听器: 索引中没有的名称会通过{@link Bukkit#getOfflinePlayer(String)}解析, 这可能会阻塞在网络查询上,
+ * 因此索引必须记录加入的玩家的名称, 以保证使用它的经济实现的玩家名方法足够快.
+ */
+public class PlayerNameIndex implements Listener {
+
+	/**
+	 * Number of names kept by {@link #PlayerNameIndex()}
+	 * {@link #PlayerNameIndex()}保留的名称数
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+	private final Map<String, UUID> ids;
+
+	public PlayerNameIndex() {
+		this(DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * Constructor for PlayerNameIndex
+	 * {@link PlayerNameIndex}的构造函数
+	 *
+	 * @param maxEntries maximum number of names kept, the least recently used are dropped first
+	 * 保留的最大名称数, 最久未使用的名称最先被移除
+	 */
+	public PlayerNameIndex(final int maxEntries) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("maxEntries must be positive");
+		}
+		this.ids = new LinkedHashMap<String, UUID>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, UUID> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Gets the UUID of a player name, asking the server if the name is not indexed. The answer is only
+	 * remembered if the player has been on this server; for other names the server makes up a UUID, which is
+	 * returned but asked for again next time.
+	 * 获取玩家名对应的UUID, 名称未被索引时会询问服务器. 只有当玩家来过此服务器时才会记住结果; 对于其他名称服务器会生成一个UUID,
+	 * 该UUID会被返回, 但下次会重新询问.
+	 *
+	 * @param playerName Player name
+	 * 玩家名
+	 * @return UUID of the player
+	 * 玩家的UUID
+	 */
+	@SuppressWarnings("deprecation")
+	public UUID resolve(String playerName) {
+		String key = playerName.toLowerCase(Locale.ENGLISH);
+		synchronized (ids) {
+			UUID id = ids.get(key);
+			if (id != null) {
+				return id;
+			}
+		}
+		OfflinePlayer player = Bukkit.getOfflinePlayer(playerName);
+		if (player.hasPlayedBefore() || player.isOnline()) {
+			synchronized (ids) {
+				ids.put(key, player.getUniqueId());
+			}
+		}
+		return player.getUniqueId();
+	}
+
+	/**
+	 * Gets the indexed UUID of a player name without asking the server
+	 * 获取玩家名已索引的UUID, 不询问服务器
+	 *
+	 * @param playerName Player name
+	 * 玩家名
+	 * @return UUID of the player, or null if the name is not indexed
+	 * 玩家的UUID, 如果名称未被索引则为null
+	 */
+	public UUID getIfPresent(String playerName) {
+		synchronized (ids) {
+			return ids.get(playerName.toLowerCase(Locale.ENGLISH));
+		}
+	}
+
+	/**
+	 * Records the current name of a player
+	 * 记录玩家当前的名称
+	 *
+	 * @param playerName Player name
+	 * 玩家名
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 */
+	public void remember(String playerName, UUID playerId) {
+		synchronized (ids) {
+			ids.put(playerName.toLowerCase(Locale.ENGLISH), playerId);
+		}
+	}
+
+	/**
+	 * Records the current name of a player
+	 * 记录玩家当前的名称
+	 *
+	 * @param player whose name is known, typically an online player
+	 * 名称已知的玩家, 一般为在线玩家
+	 */
+	public void remember(OfflinePlayer player) {
+		String name = player.getName();
+		if (name != null) {
+			remember(name, player.getUniqueId());
+		}
+	}
+
+	/**
+	 * Removes a name from the index
+	 * 从索引中移除一个名称
+	 *
+	 * @param playerName Player name
+	 * 玩家名
+	 */
+	public void forget(String playerName) {
+		synchronized (ids) {
+			ids.remove(playerName.toLowerCase(Locale.ENGLISH));
+		}
+	}
+
+	@EventHandler(priority = EventPriority.LOWEST)
+	public void onPlayerJoin(PlayerJoinEvent event) {
+		remember(event.getPlayer());
+	}
+}
@@ -0,0 +1,751 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import net.milkbowl.vault.economy.EconomyResponse.ErrorCode;
+
+import org.bukkit.OfflinePlayer;
+
+/**
+ * An {@link Economy} that spreads accounts over several other Economies. Every player is routed to one shard by
+ * consistent hashing of the UUID, and every bank by consistent hashing of its name, so adding a shard only moves
+ * the accounts that the new shard takes over. All shards must use the same currencies: this Economy hands out
+ * the {@link Currency} handles of the first shard and passes each shard its own handle of the same name.
+ * 将账户分布到多个其他{@link Economy}上的经济实现. 每个玩家按UUID的一致性哈希路由到一个分片, 每个银行按名称的一致性哈希路由,
+ * 因此添加分片只会移动新分片接管的账户. 所有分片必须使用相同的货币: 此经济实现提供第一个分片的{@link Currency}句柄,
+ * 并向每个分片传递其自己的同名句柄.
+ *
+ * Shards are placed on the hash ring by their position in the list, so new shards must be appended. The
+ * deprecated name methods are routed through a {@link PlayerNameIndex}. Money moving between two players goes
+ * through {@link #transfer(OfflinePlayer, OfflinePlayer, String, double)}, which undoes the withdrawal if the
+ * deposit fails, since no shard can apply both sides atomically.
+ * 分片按其在列表中的位置放置在哈希环上, 因此新分片必须追加在末尾. 已弃用的玩家名方法通过{@link PlayerNameIndex}路由.
+ * 玩家之间的转账应通过{@link #transfer(OfflinePlayer, OfflinePlayer, String, double)}进行, 存款失败时它会撤销取款,
+ * 因为没有分片能够原子地执行两端的操作.
+ */
+@SuppressWarnings("deprecation")
+public class ShardedEconomy extends AbstractEconomy {
+
+	private static final Logger log = Logger.getLogger("Minecraft");
+	private static final Comparator<BalanceEntry> RICHER_FIRST = new Comparator<BalanceEntry>() {
+		@Override
+		public int compare(BalanceEntry a, BalanceEntry b) {
+			int c = Double.compare(b.getBalance(), a.getBalance());
+			return c != 0 ? c : a.getPlayerId().compareTo(b.getPlayerId());
+		}
+	};
+
+	private final String name;
+	private final Economy[] shards;
+	private final PlayerNameIndex nameIndex;
+	// Sorted ring positions and the shard owning each of them.
+	private final long[] points;
+	private final int[] owners;
+	// Handle of every shard for a currency of the first shard, indexed by shard and resolved on first use.
+	private final ConcurrentMap<Currency, Currency[]> currencyRoutes = new ConcurrentHashMap<Currency, Currency[]>();
+
+	/**
+	 * Constructor for ShardedEconomy
+	 * {@link ShardedEconomy}的构造函数
+	 *
+	 * @param name name of this Economy
+	 * 此经济实现的名称
+	 * @param shards Economies holding the accounts; only append to this list later
+	 * 保存账户的经济实现; 之后只能在此列表末尾追加
+	 * @param virtualNodes ring positions per shard, more spread the accounts more evenly
+	 * 每个分片在环上的位置数, 越多账户分布越均匀
+	 * @param nameIndex index used to route player names
+	 * 用于路由玩家名的索引
+	 */
+	public ShardedEconomy(String name, List<? extends Economy> shards, int virtualNodes, PlayerNameIndex nameIndex) {
+		if (shards.isEmpty()) {
+			throw new IllegalArgumentException("shards cannot be empty");
+		}
+		if (virtualNodes <= 0) {
+			throw new IllegalArgumentException("virtualNodes must be positive");
+		}
+		this.name = name;
+		this.shards = shards.toArray(new Economy[shards.size()]);
+		this.nameIndex = nameIndex;
+		int count = this.shards.length * virtualNodes;
+		long[] sorted = new long[count];
+		for (int shard = 0, i = 0; shard < this.shards.length; shard++) {
+			for (int node = 0; node < virtualNodes; node++) {
+				sorted[i++] = point(shard, node);
+			}
+		}
+		Arrays.sort(sorted);
+		this.points = sorted;
+		this.owners = new int[count];
+		for (int shard = 0; shard < this.shards.length; shard++) {
+			for (int node = 0; node < virtualNodes; node++) {
+				owners[Arrays.binarySearch(sorted, point(shard, node))] = shard;
+			}
+		}
+	}
+
+	/**
+	 * Gets the shards
+	 * 获取所有分片
+	 *
+	 * @return unmodifiable list of shards
+	 * 不可修改的分片列表
+	 */
+	public List<Economy> getShards() {
+		return Collections.unmodifiableList(Arrays.asList(shards));
+	}
+
+	/**
+	 * Gets the shard holding the accounts of a player
+	 * 获取保存玩家账户的分片
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @return shard
+	 * 分片
+	 */
+	public Economy getShard(UUID playerId) {
+		return shards[shardIndex(playerId)];
+	}
+
+	/**
+	 * Gets the shard holding a bank
+	 * 获取保存银行的分片
+	 *
+	 * @param bankName name of the bank
+	 * 银行名
+	 * @return shard
+	 * 分片
+	 */
+	public Economy getBankShard(String bankName) {
+		// FNV-1a, so that names sharing a String.hashCode are still spread.
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < bankName.length(); i++) {
+			h = (h ^ bankName.charAt(i)) * 0x100000001b3L;
+		}
+		return shards[route(mix(h))];
+	}
+
+	/**
+	 * Moves money from one player to another, which may live on different shards. If the deposit fails the
+	 * withdrawal is undone; if that fails too the loss is logged and must be repaired by hand.
+	 * 将钱从一个玩家转给另一个可能位于不同分片的玩家. 如果存款失败则撤销取款; 如果撤销也失败, 损失会被记录到日志, 需要手动修复.
+	 *
+	 * @param from player paying
+	 * 付款的玩家
+	 * @param to player paid
+	 * 收款的玩家
+	 * @param worldName name of the world, null for the global accounts
+	 * 世界名, null表示全局账户
+	 * @param amount amount to move
+	 * 转账金额
+	 * @return the withdrawal response if both sides succeeded, else the failure
+	 * 如果两端都成功则返回取款的回报, 否则返回失败
+	 */
+	public EconomyResponse transfer(OfflinePlayer from, OfflinePlayer to, String worldName, double amount) {
+		Economy payer = getShard(from.getUniqueId());
+		Economy payee = getShard(to.getUniqueId());
+		EconomyResponse withdrawn = worldName == null ? payer.withdrawPlayer(from, amount) : payer.withdrawPlayer(from, worldName, amount);
+		if (withdrawn == null || !withdrawn.transactionSuccess()) {
+			return withdrawn;
+		}
+		EconomyResponse deposited;
+		try {
+			deposited = worldName == null ? payee.depositPlayer(to, amount) : payee.depositPlayer(to, worldName, amount);
+		} catch (RuntimeException e) {
+			log.warning("[Vault] Deposit to " + to.getUniqueId() + " failed: " + e);
+			deposited = null;
+		}
+		if (deposited != null && deposited.transactionSuccess()) {
+			return withdrawn;
+		}
+		EconomyResponse refunded;
+		try {
+			refunded = worldName == null ? payer.depositPlayer(from, amount) : payer.depositPlayer(from, worldName, amount);
+		} catch (RuntimeException e) {
+			log.warning("[Vault] Refund to " + from.getUniqueId() + " failed: " + e);
+			refunded = null;
+		}
+		if (refunded == null || !refunded.transactionSuccess()) {
+			log.severe("[Vault] Transfer of " + amount + " from " + from.getUniqueId() + " to " + to.getUniqueId()
+					+ " failed and could not be refunded");
+			return EconomyResponse.failure(amount, withdrawn.balance, ErrorCode.OTHER);
+		}
+		return deposited != null ? EconomyResponse.failure(amount, refunded.balance, deposited.errorCode)
+				: EconomyResponse.failure(amount, refunded.balance, ErrorCode.OTHER);
+	}
+
+	@Override
+	public boolean isEnabled() {
+		for (Economy shard : shards) {
+			if (!shard.isEnabled()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public boolean hasBankSupport() {
+		for (Economy shard : shards) {
+			if (!shard.hasBankSupport()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int fractionalDigits() {
+		return shards[0].fractionalDigits();
+	}
+
+	@Override
+	public String format(double amount) {
+		return shards[0].format(amount);
+	}
+
+	@Override
+	public String currencyNamePlural() {
+		return shards[0].currencyNamePlural();
+	}
+
+	@Override
+	public String currencyNameSingular() {
+		return shards[0].currencyNameSingular();
+	}
+
+	@Override
+	public boolean hasAccount(String playerName) {
+		return shard(playerName).hasAccount(playerName);
+	}
+
+	@Override
+	public boolean hasAccount(OfflinePlayer player) {
+		return shard(player).hasAccount(player);
+	}
+
+	@Override
+	public boolean hasAccount(String playerName, String worldName) {
+		return shard(playerName).hasAccount(playerName, worldName);
+	}
+
+	@Override
+	public boolean hasAccount(OfflinePlayer player, String worldName) {
+		return shard(player).hasAccount(player, worldName);
+	}
+
+	@Override
+	public double getBalance(String playerName) {
+		return shard(playerName).getBalance(playerName);
+	}
+
+	@Override
+	public double getBalance(OfflinePlayer player) {
+		return shard(player).getBalance(player);
+	}
+
+	@Override
+	public double getBalance(String playerName, String world) {
+		return shard(playerName).getBalance(playerName, world);
+	}
+
+	@Override
+	public double getBalance(OfflinePlayer player, String world) {
+		return shard(player).getBalance(player, world);
+	}
+
+	@Override
+	public boolean has(String playerName, double amount) {
+		return shard(playerName).has(playerName, amount);
+	}
+
+	@Override
+	public boolean has(OfflinePlayer player, double amount) {
+		return shard(player).has(player, amount);
+	}
+
+	@Override
+	public boolean has(String playerName, String worldName, double amount) {
+		return shard(playerName).has(playerName, worldName, amount);
+	}
+
+	@Override
+	public boolean has(OfflinePlayer player, String worldName, double amount) {
+		return shard(player).has(player, worldName, amount);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(String playerName, double amount) {
+		return shard(playerName).withdrawPlayer(playerName, amount);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+		return shard(player).withdrawPlayer(player, amount);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(String playerName, String worldName, double amount) {
+		return shard(playerName).withdrawPlayer(playerName, worldName, amount);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+		return shard(player).withdrawPlayer(player, worldName, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(String playerName, double amount) {
+		return shard(playerName).depositPlayer(playerName, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+		return shard(player).depositPlayer(player, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(String playerName, String worldName, double amount) {
+		return shard(playerName).depositPlayer(playerName, worldName, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+		return shard(player).depositPlayer(player, worldName, amount);
+	}
+
+	@Override
+	public EconomyResponse createBank(String name, String player) {
+		return getBankShard(name).createBank(name, player);
+	}
+
+	@Override
+	public EconomyResponse createBank(String name, OfflinePlayer player) {
+		return getBankShard(name).createBank(name, player);
+	}
+
+	@Override
+	public EconomyResponse deleteBank(String name) {
+		return getBankShard(name).deleteBank(name);
+	}
+
+	@Override
+	public EconomyResponse bankBalance(String name) {
+		return getBankShard(name).bankBalance(name);
+	}
+
+	@Override
+	public EconomyResponse bankHas(String name, double amount) {
+		return getBankShard(name).bankHas(name, amount);
+	}
+
+	@Override
+	public EconomyResponse bankWithdraw(String name, double amount) {
+		return getBankShard(name).bankWithdraw(name, amount);
+	}
+
+	@Override
+	public EconomyResponse bankDeposit(String name, double amount) {
+		return getBankShard(name).bankDeposit(name, amount);
+	}
+
+	@Override
+	public EconomyResponse isBankOwner(String name, String playerName) {
+		return getBankShard(name).isBankOwner(name, playerName);
+	}
+
+	@Override
+	public EconomyResponse isBankOwner(String name, OfflinePlayer player) {
+		return getBankShard(name).isBankOwner(name, player);
+	}
+
+	@Override
+	public EconomyResponse isBankMember(String name, String playerName) {
+		return getBankShard(name).isBankMember(name, playerName);
+	}
+
+	@Override
+	public EconomyResponse isBankMember(String name, OfflinePlayer player) {
+		return getBankShard(name).isBankMember(name, player);
+	}
+
+	@Override
+	public List<String> getBanks() {
+		List<String> banks = new ArrayList<String>();
+		for (Economy shard : shards) {
+			banks.addAll(shard.getBanks());
+		}
+		return banks;
+	}
+
+	@Override
+	public boolean createPlayerAccount(String playerName) {
+		return shard(playerName).createPlayerAccount(playerName);
+	}
+
+	@Override
+	public boolean createPlayerAccount(OfflinePlayer player) {
+		return shard(player).createPlayerAccount(player);
+	}
+
+	@Override
+	public boolean createPlayerAccount(String playerName, String worldName) {
+		return shard(playerName).createPlayerAccount(playerName, worldName);
+	}
+
+	@Override
+	public boolean createPlayerAccount(OfflinePlayer player, String worldName) {
+		return shard(player).createPlayerAccount(player, worldName);
+	}
+
+	// Every shard's own top list is merged; the first count entries overall are among them.
+	@Override
+	public List<BalanceEntry> getTopBalances(int count) {
+		List<BalanceEntry> merged = new ArrayList<BalanceEntry>();
+		for (Economy shard : shards) {
+			merged.addAll(shard.getTopBalances(count));
+		}
+		Collections.sort(merged, RICHER_FIRST);
+		List<BalanceEntry> top = new ArrayList<BalanceEntry>(Math.min(count, merged.size()));
+		for (int i = 0; i < count && i < merged.size(); i++) {
+			BalanceEntry entry = merged.get(i);
+			top.add(new BalanceEntry(i + 1, entry.getPlayerId(), entry.getBalance()));
+		}
+		return top;
+	}
+
+	/**
+	 * Rank within the player's shard, plus the players of the other shards that come first. Each other
+	 * shard is asked for its top list in doubling pages until the player's balance is passed. A call therefore
+	 * reads a small multiple of the player's rank in entries from every shard, and costs O(n) for a player near
+	 * the bottom. Nothing is cached, so callers that rank many players should use {@link #getTopBalances(int)}
+	 * once instead, or wrap this economy in a {@link LeaderboardEconomy}.
+	 * 玩家在其分片内的排名, 加上其他分片中排在前面的玩家数. 对每个其他分片以成倍增长的页读取排行榜, 直到超过该玩家的余额.
+	 * 因此一次调用从每个分片读取的条目数为玩家排名的若干倍, 对排名靠后的玩家开销为O(n). 结果不会被缓存, 需要为许多玩家排名的调用者
+	 * 应改为调用一次{@link #getTopBalances(int)}, 或使用{@link LeaderboardEconomy}包装此经济.
+	 */
+	@Override
+	public int getBalanceRank(OfflinePlayer player) {
+		Economy home = shard(player);
+		int rank = home.getBalanceRank(player);
+		if (rank == 0) {
+			return 0;
+		}
+		BalanceEntry self = new BalanceEntry(rank, player.getUniqueId(), home.getBalance(player));
+		for (Economy shard : shards) {
+			if (shard != home) {
+				rank += countBefore(shard, self);
+			}
+		}
+		return rank;
+	}
+
+	@Override
+	public boolean checkBankOwner(String name, OfflinePlayer player) {
+		return getBankShard(name).checkBankOwner(name, player);
+	}
+
+	@Override
+	public boolean checkBankMember(String name, OfflinePlayer player) {
+		return getBankShard(name).checkBankMember(name, player);
+	}
+
+	@Override
+	public List<String> getBanksOwnedBy(OfflinePlayer player) {
+		List<String> banks = new ArrayList<String>();
+		for (Economy shard : shards) {
+			banks.addAll(shard.getBanksOwnedBy(player));
+		}
+		return banks;
+	}
+
+	@Override
+	public List<String> getBanksWithMember(OfflinePlayer player) {
+		List<String> banks = new ArrayList<String>();
+		for (Economy shard : shards) {
+			banks.addAll(shard.getBanksWithMember(player));
+		}
+		return banks;
+	}
+
+	// Every shard returns its next page after the cursor; the first limit names of their union form the page.
+	@Override
+	public BankPage getBanks(String prefix, String cursor, int limit) {
+		TreeSet<String> merged = new TreeSet<String>();
+		boolean more = false;
+		for (Economy shard : shards) {
+			BankPage page = shard.getBanks(prefix, cursor, limit);
+			merged.addAll(page.getNames());
+			more |= page.hasMore();
+		}
+		BankPage page = BankPage.of(merged, prefix, null, limit);
+		if (more && !page.hasMore() && !page.getNames().isEmpty()) {
+			return new BankPage(page.getNames(), page.getNames().get(page.getNames().size() - 1));
+		}
+		return page;
+	}
+
+	@Override
+	public List<OfflinePlayer> createPlayerAccounts(Collection<? extends OfflinePlayer> players, String worldName) {
+		List<List<OfflinePlayer>> groups = new ArrayList<List<OfflinePlayer>>(shards.length);
+		for (int i = 0; i < shards.length; i++) {
+			groups.add(new ArrayList<OfflinePlayer>());
+		}
+		for (OfflinePlayer player : players) {
+			groups.get(indexOf(shard(player))).add(player);
+		}
+		List<OfflinePlayer> created = new ArrayList<OfflinePlayer>();
+		for (int i = 0; i < shards.length; i++) {
+			if (!groups.get(i).isEmpty()) {
+				created.addAll(shards[i].createPlayerAccounts(groups.get(i), worldName));
+			}
+		}
+		return created;
+	}
+
+	// Shards run one after another; progress is reported as a running count without a total.
+	@Override
+	public MassUpdateResult transformBalances(BalanceTransform transform, BalanceFilter filter, String worldName, final MassUpdateListener listener) {
+		int matched = 0;
+		int changed = 0;
+		int failed = 0;
+		double totalDelta = 0;
+		final int[] done = new int[1];
+		for (Economy shard : shards) {
+			MassUpdateListener shardListener = listener == null ? null : new MassUpdateListener() {
+				@Override
+				public void onProgress(int processed, int total) {
+					listener.onProgress(done[0] + processed, -1);
+				}
+			};
+			MassUpdateResult result = shard.transformBalances(transform, filter, worldName, shardListener);
+			matched += result.getMatched();
+			changed += result.getChanged();
+			failed += result.getFailed();
+			totalDelta += result.getTotalDelta();
+			done[0] += result.getMatched();
+		}
+		return new MassUpdateResult(matched, changed, failed, totalDelta);
+	}
+
+	@Override
+	public FundHold holdFunds(OfflinePlayer player, String worldName, double amount, long duration, TimeUnit unit) {
+		return shard(player).holdFunds(player, worldName, amount, duration, unit);
+	}
+
+	@Override
+	public EconomyResponse captureHold(FundHold hold) {
+		return shard(hold.getPlayer()).captureHold(hold);
+	}
+
+	@Override
+	public boolean releaseHold(FundHold hold) {
+		return shard(hold.getPlayer()).releaseHold(hold);
+	}
+
+	@Override
+	public double getHeldBalance(OfflinePlayer player, String worldName) {
+		return shard(player).getHeldBalance(player, worldName);
+	}
+
+	@Override
+	public VersionedBalance getVersionedBalance(OfflinePlayer player, String worldName) {
+		return shard(player).getVersionedBalance(player, worldName);
+	}
+
+	@Override
+	public EconomyResponse compareAndSetBalance(OfflinePlayer player, String worldName, long expectedVersion, double newBalance) {
+		return shard(player).compareAndSetBalance(player, worldName, expectedVersion, newBalance);
+	}
+
+	@Override
+	public Currency getDefaultCurrency() {
+		return shards[0] instanceof MultiCurrencyEconomy ? ((MultiCurrencyEconomy) shards[0]).getDefaultCurrency() : super.getDefaultCurrency();
+	}
+
+	@Override
+	public Currency getCurrency(String name) {
+		return shards[0] instanceof MultiCurrencyEconomy ? ((MultiCurrencyEconomy) shards[0]).getCurrency(name) : super.getCurrency(name);
+	}
+
+	@Override
+	public List<Currency> getCurrencies() {
+		return shards[0] instanceof MultiCurrencyEconomy ? ((MultiCurrencyEconomy) shards[0]).getCurrencies() : super.getCurrencies();
+	}
+
+	// The default currency goes through the routed core methods; others are passed to the shard with its handle.
+	@Override
+	public double getBalance(OfflinePlayer player, String worldName, Currency currency) {
+		if (currency == getDefaultCurrency()) {
+			return super.getBalance(player, worldName, currency);
+		}
+		int shard = shardIndex(player.getUniqueId());
+		Currency shardCurrency = shardCurrency(shard, currency);
+		return ((MultiCurrencyEconomy) shards[shard]).getBalance(player, worldName, shardCurrency);
+	}
+
+	@Override
+	public double[] getBalances(OfflinePlayer player, String worldName) {
+		List<Currency> currencies = getCurrencies();
+		if (currencies.size() == 1) {
+			return super.getBalances(player, worldName);
+		}
+		int shard = shardIndex(player.getUniqueId());
+		int[] ids = new int[currencies.size()];
+		for (int i = 1; i < ids.length; i++) {
+			ids[i] = shardCurrency(shard, currencies.get(i)).getId();
+		}
+		double[] shardBalances = ((MultiCurrencyEconomy) shards[shard]).getBalances(player, worldName);
+		double[] balances = new double[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			balances[i] = shardBalances[ids[i]];
+		}
+		return balances;
+	}
+
+	@Override
+	public boolean has(OfflinePlayer player, String worldName, Currency currency, double amount) {
+		if (currency == getDefaultCurrency()) {
+			return super.has(player, worldName, currency, amount);
+		}
+		int shard = shardIndex(player.getUniqueId());
+		Currency shardCurrency = shardCurrency(shard, currency);
+		return ((MultiCurrencyEconomy) shards[shard]).has(player, worldName, shardCurrency, amount);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, Currency currency, double amount) {
+		if (currency == getDefaultCurrency()) {
+			return super.withdrawPlayer(player, worldName, currency, amount);
+		}
+		int shard = shardIndex(player.getUniqueId());
+		Currency shardCurrency = shardCurrency(shard, currency);
+		return ((MultiCurrencyEconomy) shards[shard]).withdrawPlayer(player, worldName, shardCurrency, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, Currency currency, double amount) {
+		if (currency == getDefaultCurrency()) {
+			return super.depositPlayer(player, worldName, currency, amount);
+		}
+		int shard = shardIndex(player.getUniqueId());
+		Currency shardCurrency = shardCurrency(shard, currency);
+		return ((MultiCurrencyEconomy) shards[shard]).depositPlayer(player, worldName, shardCurrency, amount);
+	}
+
+	private Economy shard(OfflinePlayer player) {
+		return getShard(player.getUniqueId());
+	}
+
+	private Economy shard(String playerName) {
+		return getShard(nameIndex.resolve(playerName));
+	}
+
+	private int shardIndex(UUID playerId) {
+		return route(mix(playerId.getMostSignificantBits() ^ mix(playerId.getLeastSignificantBits())));
+	}
+
+	// Handle of the same currency in the given shard; throws for handles this Economy did not hand out.
+	private Currency shardCurrency(int shard, Currency currency) {
+		Currency[] route = currencyRoutes.get(currency);
+		if (route == null) {
+			List<Currency> currencies = getCurrencies();
+			int id = currency.getId();
+			if (id >= currencies.size() || currencies.get(id) != currency) {
+				throw new IllegalArgumentException("Unknown currency " + currency + " for " + name);
+			}
+			route = new Currency[shards.length];
+			for (int i = 0; i < shards.length; i++) {
+				route[i] = shards[i] instanceof MultiCurrencyEconomy ? ((MultiCurrencyEconomy) shards[i]).getCurrency(currency.getName()) : null;
+				if (route[i] == null) {
+					throw new IllegalStateException("Shard " + shards[i].getName() + " has no currency " + currency.getName());
+				}
+			}
+			currencyRoutes.putIfAbsent(currency, route);
+		}
+		return route[shard];
+	}
+
+	private int indexOf(Economy shard) {
+		for (int i = 0; i < shards.length; i++) {
+			if (shards[i] == shard) {
+				return i;
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	// First ring position at or after the hash, wrapping around.
+	private int route(long hash) {
+		int i = Arrays.binarySearch(points, hash);
+		if (i < 0) {
+			i = -i - 1;
+			if (i == points.length) {
+				i = 0;
+			}
+		}
+		return owners[i];
+	}
+
+	// Number of players of a shard ranked before the given entry, reading its top list in growing pages.
+	private static int countBefore(Economy shard, BalanceEntry self) {
+		int limit = 16;
+		while (true) {
+			List<BalanceEntry> top = shard.getTopBalances(limit);
+			int before = 0;
+			while (before < top.size() && RICHER_FIRST.compare(top.get(before), self) < 0) {
+				before++;
+			}
+			if (before < top.size() || top.size() < limit) {
+				return before;
+			}
+			limit *= 2;
+		}
+	}
+
+	private static long point(int shard, int node) {
+		return mix(((long) shard << 32 | node) * 0x9e3779b97f4a7c15L);
+	}
+
+	// MurmurHash3 finalizer.
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
@@ -0,0 +1,491 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import net.milkbowl.vault.economy.EconomyResponse.ErrorCode;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Decorator that keeps deposits made during a backend outage. When a deposit fails because the wrapped Economy
+ * is unreachable, it is appended to a local spool file and reported as successful; from then on every deposit
+ * is spooled, so that order is kept, until {@link #run()} has replayed the whole spool in batches.
+ * 在后端故障期间保留存款的装饰器. 当存款因被包装的经济实现无法访问而失败时, 它会被追加到本地的缓冲文件中并报告为成功;
+ * 此后所有存款都会被缓冲以保持顺序, 直到{@link #run()}分批重放完整个缓冲文件.
+ *
+ * Every spooled deposit carries a random idempotency key, which is written to an acknowledgement file once the
+ * deposit is applied, so a restart never replays it again. A crash between applying a deposit and writing its
+ * key may still apply it twice. Withdrawals cannot be spooled, since they need the balance, and fail as usual.
+ * The balance reported for a spooled deposit is the last balance this decorator saw for the account, 0 if
+ * none, plus the deposits still pending for it. It may be stale, so caching decorators must be wrapped by this
+ * one, not around it.
+ * 每笔缓冲的存款都带有一个随机的幂等键, 存款生效后该键会被写入确认文件, 因此重启后不会再次重放. 在存款生效和写入键之间崩溃仍可能导致重复生效.
+ * 取款需要余额, 因此无法缓冲, 会照常失败. 缓冲的存款报告的余额为此装饰器最后看到的该账户余额(没有时为0)加上该账户仍待处理的存款, 因此可能已过时, 缓存类装饰器必须位于此装饰器内部, 而不是外部.
+ *
+ * Only deposits of the default currency are spooled. Deposits of other currencies are forwarded as they are
+ * and fail during an outage.
+ * 只有默认货币的存款会被缓冲. 其他货币的存款会被直接转发, 在故障期间会失败.
+ *
+ * Balances and {@link #has(OfflinePlayer, double)} read through the {@link OfflinePlayer} methods include the
+ * deposits still waiting in the spool. Withdrawals cannot spend them: they go to the wrapped Economy, which
+ * only holds what was replayed, so a withdrawal covered only by spooled deposits fails with
+ * {@link ErrorCode#INSUFFICIENT_FUNDS} until the spool has been replayed.
+ * 通过{@link OfflinePlayer}方法读取的余额和{@link #has(OfflinePlayer, double)}包含仍在缓冲文件中等待的存款. 取款无法使用这些存款:
+ * 取款会发往被包装的经济实现, 而它只持有已重放的金额, 因此只能由缓冲存款覆盖的取款在缓冲文件重放完之前会以{@link ErrorCode#INSUFFICIENT_FUNDS}失败.
+ *
+ * Schedule this object as a repeating asynchronous task and call {@link #close()} when the plugin is disabled.
+ * Written entries survive a crash of the server process; {@link #run()} forces them to disk.
+ * 将此对象调度为异步重复任务, 并在插件被禁用时调用{@link #close()}. 写入的条目在服务器进程崩溃后仍会保留; {@link #run()}会将其强制写入磁盘.
+ */
+public class SpoolingEconomy extends ForwardingEconomy implements Runnable, Closeable {
+
+	private static final Logger log = Logger.getLogger("Minecraft");
+	private static final int MAX_ENTRY_BYTES = 4096;
+
+	private final Object lock = new Object();
+	private final RandomAccessFile spool;
+	private final RandomAccessFile acks;
+	private final int batchSize;
+	private final Set<UUID> acked = new HashSet<UUID>();
+	// Sum of the spooled deposits not applied yet, per account; only changed under the lock.
+	private final ConcurrentMap<AccountKey, PendingDeposits> pendingDeposits = new ConcurrentHashMap<AccountKey, PendingDeposits>();
+	// Last balance the wrapped Economy reported per account, without pending deposits.
+	private final ConcurrentMap<AccountKey, Double> knownBalances = new ConcurrentHashMap<AccountKey, Double>();
+	// Set while a replay runs, so that a second run() never applies the same batch again.
+	private final AtomicBoolean replaying = new AtomicBoolean();
+	private long replayOffset;
+	private int pending;
+	private boolean outage;
+
+	/**
+	 * Constructor for SpoolingEconomy; deposits left in the spool by a previous run are replayed by
+	 * {@link #run()}
+	 * {@link SpoolingEconomy}的构造函数; 上次运行留在缓冲文件中的存款会由{@link #run()}重放
+	 *
+	 * @param delegate Economy the deposits are meant for
+	 * 存款的目标经济实现
+	 * @param spoolFile file holding the deposits; the acknowledgements are kept next to it
+	 * 保存存款的文件; 确认信息保存在其旁边
+	 * @param batchSize number of deposits replayed between two writes of the acknowledgement file to disk
+	 * 两次将确认文件写入磁盘之间重放的存款数
+	 * @throws IOException if the files cannot be opened
+	 * 如果无法打开文件
+	 */
+	public SpoolingEconomy(Economy delegate, File spoolFile, int batchSize) throws IOException {
+		super(delegate);
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("batchSize must be positive");
+		}
+		this.batchSize = batchSize;
+		this.spool = new RandomAccessFile(spoolFile, "rw");
+		this.acks = new RandomAccessFile(new File(spoolFile.getPath() + ".ack"), "rw");
+		long ackCount = acks.length() / 16;
+		for (long i = 0; i < ackCount; i++) {
+			acked.add(new UUID(acks.readLong(), acks.readLong()));
+		}
+		// A torn entry or key at the end, left by a crash, is cut off so that appends stay readable.
+		acks.setLength(ackCount * 16);
+		long offset = 0;
+		Entry entry;
+		while ((entry = read(offset)) != null) {
+			if (!acked.contains(entry.key)) {
+				pending++;
+				addPending(entry.playerId, entry.worldName, entry.amount, 1);
+			}
+			offset = entry.end;
+		}
+		spool.setLength(offset);
+		outage = pending > 0;
+	}
+
+	/**
+	 * Gets the number of spooled deposits not applied yet
+	 * 获取尚未生效的缓冲存款数
+	 *
+	 * @return number of pending deposits
+	 * 待处理的存款数
+	 */
+	public int getPendingCount() {
+		synchronized (lock) {
+			return pending;
+		}
+	}
+
+	/**
+	 * Replays the spooled deposits in order, stopping at the first one the wrapped Economy cannot take yet.
+	 * Scheduling this object as a repeating asynchronous task retries on a timer. Returns at once if another
+	 * thread is already replaying.
+	 * 按顺序重放缓冲的存款, 遇到被包装的经济实现暂时无法接受的存款时停止. 将此对象调度为异步重复任务即可定时重试.
+	 * 如果另一个线程正在重放则立即返回.
+	 */
+	@Override
+	public void run() {
+		if (!replaying.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			replay();
+		} catch (IOException e) {
+			log.log(Level.SEVERE, "[Vault] Failed to replay spooled deposits", e);
+		} finally {
+			replaying.set(false);
+		}
+	}
+
+	/**
+	 * Forces the spool to disk and closes it; deposits not replayed yet are kept for the next start
+	 * 将缓冲文件强制写入磁盘并关闭; 尚未重放的存款会保留到下次启动
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (lock) {
+			spool.getChannel().force(false);
+			acks.getChannel().force(false);
+			spool.close();
+			acks.close();
+		}
+	}
+
+	/**
+	 * Gets the sum of the spooled deposits of an account that were not applied yet
+	 * 获取某个账户尚未生效的缓冲存款总额
+	 *
+	 * @param player owner of the account
+	 * 账户的所有者
+	 * @param worldName name of the world, null for the global account
+	 * 世界名, null表示全局账户
+	 * @return pending amount, 0 if there is none
+	 * 待处理的金额, 没有时为0
+	 */
+	public double getPendingAmount(OfflinePlayer player, String worldName) {
+		if (pendingDeposits.isEmpty()) {
+			return 0;
+		}
+		PendingDeposits deposits = pendingDeposits.get(new AccountKey(player.getUniqueId(), worldName));
+		return deposits == null ? 0 : deposits.amount;
+	}
+
+	@Override
+	public double getBalance(OfflinePlayer player) {
+		double balance = delegate.getBalance(player);
+		knownBalances.put(new AccountKey(player.getUniqueId(), null), balance);
+		return balance + getPendingAmount(player, null);
+	}
+
+	@Override
+	public double getBalance(OfflinePlayer player, String world) {
+		double balance = delegate.getBalance(player, world);
+		knownBalances.put(new AccountKey(player.getUniqueId(), world), balance);
+		return balance + getPendingAmount(player, world);
+	}
+
+	@Override
+	public boolean has(OfflinePlayer player, double amount) {
+		return delegate.has(player, amount - getPendingAmount(player, null));
+	}
+
+	@Override
+	public boolean has(OfflinePlayer player, String worldName, double amount) {
+		return delegate.has(player, worldName, amount - getPendingAmount(player, worldName));
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+		return known(player.getUniqueId(), null, delegate.withdrawPlayer(player, amount));
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+		return known(player.getUniqueId(), worldName, delegate.withdrawPlayer(player, worldName, amount));
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+		return deposit(player, null, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+		return deposit(player, worldName, amount);
+	}
+
+	@Override
+	public boolean depositPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		return depositInto(player, worldName, amount, result);
+	}
+
+	/**
+	 * Checks if a response means the wrapped Economy is unreachable rather than refusing the deposit. Defaults
+	 * to {@link ErrorCode#TIMEOUT} and {@link ErrorCode#CIRCUIT_OPEN}, as reported by
+	 * {@link CircuitBreakerEconomy}.
+	 * 检查回报是否表示被包装的经济实现无法访问, 而不是拒绝了存款. 默认为{@link CircuitBreakerEconomy}报告的{@link ErrorCode#TIMEOUT}和{@link ErrorCode#CIRCUIT_OPEN}.
+	 *
+	 * @param response response of the wrapped Economy, may be null
+	 * 被包装的经济实现的回报, 可能为null
+	 * @return true if the deposit should be spooled
+	 * 如果存款应被缓冲则返回真
+	 */
+	protected boolean isOutage(EconomyResponse response) {
+		return response == null || response.errorCode == ErrorCode.TIMEOUT || response.errorCode == ErrorCode.CIRCUIT_OPEN;
+	}
+
+	/**
+	 * Looks up the player a spooled deposit is replayed for
+	 * 查询重放缓冲存款时对应的玩家
+	 *
+	 * @param playerId UUID of the player
+	 * 玩家的UUID
+	 * @return the player
+	 * 玩家
+	 */
+	protected OfflinePlayer resolvePlayer(UUID playerId) {
+		return Bukkit.getOfflinePlayer(playerId);
+	}
+
+	private EconomyResponse deposit(OfflinePlayer player, String worldName, double amount) {
+		synchronized (lock) {
+			if (outage) {
+				return spool(player, worldName, amount, null);
+			}
+		}
+		EconomyResponse response;
+		try {
+			response = worldName == null ? delegate.depositPlayer(player, amount) : delegate.depositPlayer(player, worldName, amount);
+		} catch (RuntimeException e) {
+			log.log(Level.WARNING, "[Vault] Deposit failed, spooling it", e);
+			response = null;
+		}
+		if (!isOutage(response)) {
+			return known(player.getUniqueId(), worldName, response);
+		}
+		synchronized (lock) {
+			return spool(player, worldName, amount, response);
+		}
+	}
+
+	private EconomyResponse known(UUID playerId, String worldName, EconomyResponse response) {
+		if (response != null && response.transactionSuccess()) {
+			knownBalances.put(new AccountKey(playerId, worldName), response.balance);
+		}
+		return response;
+	}
+
+	// Callers must hold the lock.
+	private EconomyResponse spool(OfflinePlayer player, String worldName, double amount, EconomyResponse failure) {
+		if (!(amount > 0) || Double.isInfinite(amount)) {
+			return EconomyResponse.failure(amount, 0, ErrorCode.INVALID_AMOUNT);
+		}
+		try {
+			append(UUID.randomUUID(), player.getUniqueId(), worldName, amount);
+		} catch (IOException e) {
+			log.log(Level.SEVERE, "[Vault] Failed to spool deposit of " + amount + " for " + player.getUniqueId(), e);
+			return failure != null ? failure : EconomyResponse.failure(amount, 0, ErrorCode.OTHER);
+		}
+		if (!outage) {
+			log.warning("[Vault] Economy " + delegate.getName() + " is unreachable, spooling deposits");
+			outage = true;
+		}
+		pending++;
+		addPending(player.getUniqueId(), worldName, amount, 1);
+		Double known = knownBalances.get(new AccountKey(player.getUniqueId(), worldName));
+		return EconomyResponse.success(amount, (known == null ? 0 : known) + getPendingAmount(player, worldName));
+	}
+
+	private void replay() throws IOException {
+		while (true) {
+			List<Entry> batch = new ArrayList<Entry>(batchSize);
+			synchronized (lock) {
+				spool.getChannel().force(false);
+				long offset = replayOffset;
+				Entry entry;
+				while (batch.size() < batchSize && (entry = read(offset)) != null) {
+					if (!acked.contains(entry.key)) {
+						batch.add(entry);
+					}
+					offset = entry.end;
+				}
+				if (batch.isEmpty()) {
+					if (outage) {
+						log.info("[Vault] Replayed all spooled deposits to " + delegate.getName());
+					}
+					spool.setLength(0);
+					acks.setLength(0);
+					acked.clear();
+					replayOffset = 0;
+					pending = 0;
+					pendingDeposits.clear();
+					outage = false;
+					return;
+				}
+			}
+			try {
+				for (Entry entry : batch) {
+					// Taken out of the pending sum first, so that reads never count the deposit twice.
+					synchronized (lock) {
+						if (acked.contains(entry.key)) {
+							continue;
+						}
+						addPending(entry.playerId, entry.worldName, -entry.amount, -1);
+					}
+					if (!apply(entry)) {
+						synchronized (lock) {
+							addPending(entry.playerId, entry.worldName, entry.amount, 1);
+						}
+						return;
+					}
+					synchronized (lock) {
+						acks.seek(acks.length());
+						acks.writeLong(entry.key.getMostSignificantBits());
+						acks.writeLong(entry.key.getLeastSignificantBits());
+						acked.add(entry.key);
+						replayOffset = entry.end;
+						pending--;
+					}
+				}
+			} finally {
+				synchronized (lock) {
+					acks.getChannel().force(false);
+				}
+			}
+		}
+	}
+
+	// Returns false if the wrapped Economy is still unreachable; deposits it refuses are dropped with a log line.
+	private boolean apply(Entry entry) {
+		OfflinePlayer player = resolvePlayer(entry.playerId);
+		EconomyResponse response;
+		try {
+			response = entry.worldName == null ? delegate.depositPlayer(player, entry.amount)
+					: delegate.depositPlayer(player, entry.worldName, entry.amount);
+		} catch (RuntimeException e) {
+			return false;
+		}
+		if (isOutage(response)) {
+			return false;
+		}
+		known(entry.playerId, entry.worldName, response);
+		if (!response.transactionSuccess()) {
+			log.severe("[Vault] Dropping spooled deposit " + entry.key + " of " + entry.amount + " for " + entry.playerId
+					+ (entry.worldName == null ? "" : " in " + entry.worldName) + ": " + response.errorMessage);
+		}
+		return true;
+	}
+
+	// Callers must hold the lock.
+	private void addPending(UUID playerId, String worldName, double amount, int count) {
+		AccountKey key = new AccountKey(playerId, worldName);
+		PendingDeposits current = pendingDeposits.get(key);
+		if (current == null) {
+			current = new PendingDeposits(0, 0);
+		}
+		if (current.count + count <= 0) {
+			pendingDeposits.remove(key);
+		} else {
+			pendingDeposits.put(key, new PendingDeposits(current.amount + amount, current.count + count));
+		}
+	}
+
+	// Entry: int length, payload, int CRC32 of the payload. Callers must hold the lock.
+	private void append(UUID key, UUID playerId, String worldName, double amount) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeLong(key.getMostSignificantBits());
+		out.writeLong(key.getLeastSignificantBits());
+		out.writeLong(playerId.getMostSignificantBits());
+		out.writeLong(playerId.getLeastSignificantBits());
+		out.writeDouble(amount);
+		out.writeBoolean(worldName != null);
+		if (worldName != null) {
+			out.writeUTF(worldName);
+		}
+		byte[] payload = bytes.toByteArray();
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		ByteArrayOutputStream framed = new ByteArrayOutputStream(payload.length + 8);
+		DataOutputStream frame = new DataOutputStream(framed);
+		frame.writeInt(payload.length);
+		frame.write(payload);
+		frame.writeInt((int) crc.getValue());
+		spool.seek(spool.length());
+		spool.write(framed.toByteArray());
+	}
+
+	// Returns null at the end of the spool or at a torn entry. Callers must hold the lock.
+	private Entry read(long offset) throws IOException {
+		if (offset + 4 > spool.length()) {
+			return null;
+		}
+		spool.seek(offset);
+		int length = spool.readInt();
+		if (length <= 0 || length > MAX_ENTRY_BYTES || offset + 8 + length > spool.length()) {
+			return null;
+		}
+		byte[] payload = new byte[length];
+		spool.readFully(payload);
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		if (spool.readInt() != (int) crc.getValue()) {
+			return null;
+		}
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+		Entry entry = new Entry();
+		entry.key = new UUID(in.readLong(), in.readLong());
+		entry.playerId = new UUID(in.readLong(), in.readLong());
+		entry.amount = in.readDouble();
+		entry.worldName = in.readBoolean() ? in.readUTF() : null;
+		entry.end = offset + 8 + length;
+		return entry;
+	}
+
+	private static final class PendingDeposits {
+		final double amount;
+		final int count;
+
+		PendingDeposits(double amount, int count) {
+			this.amount = amount;
+			this.count = count;
+		}
+	}
+
+	private static final class Entry {
+		UUID key;
+		UUID playerId;
+		String worldName;
+		double amount;
+		long end;
+	}
+}
@@ -0,0 +1,435 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+import net.milkbowl.vault.economy.JournalRecord.Type;
+
+/**
+ * Append-only journal of economy operations. Records have a fixed width of {@link #RECORD_SIZE} bytes and are
+ * written to memory-mapped segment files, so an append is a copy into memory and the log is written
+ * sequentially. A new segment is started when the current one is full.
+ * 只追加的经济操作日志. 记录的宽度固定为{@link #RECORD_SIZE}字节, 写入内存映射的分段文件, 因此追加只是一次内存复制, 日志按顺序写入.
+ * 当前分段写满时会开始新的分段.
+ *
+ * Appended records survive a crash of the server process as soon as they are appended; they are forced to
+ * disk, surviving a crash of the machine, by group commit: once {@code groupCommitSize} records are pending,
+ * when this object runs (schedule it as an asynchronous repeating task) and on {@link #commit()}. Records carry
+ * a CRC32, and a torn record at the end of the log is dropped when the journal is opened again.
+ * 追加的记录在追加后即可在服务器进程崩溃后保留; 通过组提交强制写入磁盘后可在机器崩溃后保留: 待处理记录达到{@code groupCommitSize}条时,
+ * 此对象运行时(将其调度为异步重复任务)以及调用{@link #commit()}时. 记录带有CRC32, 日志末尾写了一半的记录在重新打开日志时会被丢弃.
+ */
+public class TransactionJournal implements Runnable, Closeable {
+
+	/**
+	 * Size of a record in bytes
+	 * 记录的字节数
+	 */
+	public static final int RECORD_SIZE = 128;
+	/**
+	 * Longest name kept in a record, in UTF-8 bytes; longer names are truncated
+	 * 记录中保留的最长名称, 以UTF-8字节计; 更长的名称会被截断
+	 */
+	public static final int MAX_NAME_BYTES = 64;
+
+	// Record layout: sequence, timestamp, type, flags, name length, CRC32, UUID, amount, balance, currency, reserved, name.
+	// Records written before the currency was added hold 0 there, the default currency.
+	private static final int TIMESTAMP_OFFSET = 8;
+	private static final int TYPE_OFFSET = 16;
+	private static final int CRC_OFFSET = 20;
+	private static final int UUID_OFFSET = 24;
+	private static final int AMOUNT_OFFSET = 40;
+	private static final int BALANCE_OFFSET = 48;
+	private static final int CURRENCY_OFFSET = 56;
+	private static final int NAME_OFFSET = 64;
+	private static final int FLAG_TRUNCATED = 1;
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final String PREFIX = "journal-";
+	private static final String SUFFIX = ".log";
+
+	private final File directory;
+	private final int recordsPerSegment;
+	private final int groupCommitSize;
+	private final byte[] scratch = new byte[RECORD_SIZE];
+	private final ByteBuffer record = ByteBuffer.wrap(scratch);
+	private final CRC32 crc = new CRC32();
+	private RandomAccessFile file;
+	private MappedByteBuffer segment;
+	private long nextSequence;
+	private int uncommitted;
+	private boolean closed;
+
+	/**
+	 * Opens the journal in a directory, continuing after the last valid record
+	 * 打开目录中的日志, 从最后一条有效记录之后继续
+	 *
+	 * @param directory holds the segment files, created if missing
+	 * 存放分段文件的目录, 不存在时会被创建
+	 * @param recordsPerSegment number of records per segment file
+	 * 每个分段文件的记录数
+	 * @param groupCommitSize number of pending records that forces a commit
+	 * 触发提交的待处理记录数
+	 * @throws IOException if the directory or a segment cannot be opened
+	 * 如果无法打开目录或分段
+	 */
+	public TransactionJournal(File directory, int recordsPerSegment, int groupCommitSize) throws IOException {
+		if (recordsPerSegment <= 0 || groupCommitSize <= 0) {
+			throw new IllegalArgumentException("recordsPerSegment and groupCommitSize must be positive");
+		}
+		if (recordsPerSegment > Integer.MAX_VALUE / RECORD_SIZE) {
+			throw new IllegalArgumentException("Segments are limited to " + Integer.MAX_VALUE / RECORD_SIZE + " records");
+		}
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Cannot create journal directory " + directory);
+		}
+		this.directory = directory;
+		this.recordsPerSegment = recordsPerSegment;
+		this.groupCommitSize = groupCommitSize;
+		long[] segments = segments(directory);
+		if (segments.length == 0) {
+			open(1);
+			return;
+		}
+		openExisting(segments[segments.length - 1]);
+	}
+
+	/**
+	 * Appends a record
+	 * 追加一条记录
+	 *
+	 * @param type operation
+	 * 操作
+	 * @param playerId UUID of the player, may be null for bank operations
+	 * 玩家的UUID, 银行操作可以为null
+	 * @param name world name of player operations or bank name of bank operations, may be null
+	 * 玩家操作的世界名或银行操作的银行名, 可以为null
+	 * @param amount amount of the operation
+	 * 操作的金额
+	 * @param balance balance after the operation
+	 * 操作后的余额
+	 * @return sequence of the record
+	 * 记录的序号
+	 * @throws IOException if a new segment cannot be created
+	 * 如果无法创建新的分段
+	 */
+	public long append(Type type, UUID playerId, String name, double amount, double balance) throws IOException {
+		return append(type, playerId, name, 0, amount, balance);
+	}
+
+	/**
+	 * Appends a record of a player deposit or withdrawal in a given currency
+	 * 追加一条以指定货币进行的玩家存取款记录
+	 *
+	 * @param type operation
+	 * 操作
+	 * @param playerId UUID of the player, may be null for bank operations
+	 * 玩家的UUID, 银行操作可以为null
+	 * @param name world name of player operations or bank name of bank operations, may be null
+	 * 玩家操作的世界名或银行操作的银行名, 可以为null
+	 * @param currencyId {@link Currency#getId()} of the currency, 0 for the default currency
+	 * 货币的{@link Currency#getId()}, 默认货币为0
+	 * @param amount amount of the operation
+	 * 操作的金额
+	 * @param balance balance after the operation
+	 * 操作后的余额
+	 * @return sequence of the record
+	 * 记录的序号
+	 * @throws IOException if a new segment cannot be created
+	 * 如果无法创建新的分段
+	 */
+	public long append(Type type, UUID playerId, String name, int currencyId, double amount, double balance) throws IOException {
+		long sequence;
+		boolean commit;
+		synchronized (this) {
+			if (closed) {
+				throw new IOException("Journal is closed");
+			}
+			if (!segment.hasRemaining()) {
+				roll();
+			}
+			sequence = nextSequence++;
+			encode(sequence, type, playerId, name, currencyId, amount, balance);
+			segment.put(scratch);
+			commit = ++uncommitted >= groupCommitSize;
+		}
+		if (commit) {
+			commit();
+		}
+		return sequence;
+	}
+
+	/**
+	 * Checks whether a name is kept whole in a record
+	 * 检查名称能否完整保存在记录中
+	 *
+	 * @param name world or bank name, may be null
+	 * 世界名或银行名, 可以为null
+	 * @return true if the name is null or at most {@link #MAX_NAME_BYTES} bytes of UTF-8
+	 * 如果名称为null或不超过{@link #MAX_NAME_BYTES}个UTF-8字节则返回真
+	 */
+	public static boolean fitsName(String name) {
+		return name == null || name.getBytes(UTF8).length <= MAX_NAME_BYTES;
+	}
+
+	/**
+	 * Forces every appended record to disk
+	 * 将所有已追加的记录强制写入磁盘
+	 */
+	public void commit() {
+		MappedByteBuffer pending;
+		synchronized (this) {
+			if (uncommitted == 0 || closed) {
+				return;
+			}
+			pending = segment;
+			uncommitted = 0;
+		}
+		// Outside the lock, so that appends continue while the pages are written.
+		pending.force();
+	}
+
+	/**
+	 * Commits the pending records
+	 * 提交待处理的记录
+	 */
+	@Override
+	public void run() {
+		commit();
+	}
+
+	/**
+	 * Gets the sequence the next record will have
+	 * 获取下一条记录的序号
+	 *
+	 * @return next sequence
+	 * 下一个序号
+	 */
+	public synchronized long getNextSequence() {
+		return nextSequence;
+	}
+
+	/**
+	 * Commits and closes the journal
+	 * 提交并关闭日志
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		segment.force();
+		closed = true;
+		file.close();
+	}
+
+	/**
+	 * Reads the records of a journal directory in sequence order, stopping at the first invalid record
+	 * 按序号顺序读取日志目录中的记录, 在第一条无效记录处停止
+	 *
+	 * @param directory holds the segment files
+	 * 存放分段文件的目录
+	 * @param fromSequence first sequence passed to the handler
+	 * 传给处理器的第一个序号
+	 * @param handler receives the records
+	 * 接收记录的处理器
+	 * @return sequence of the last valid record, 0 if there is none
+	 * 最后一条有效记录的序号, 没有记录时为0
+	 * @throws IOException if a segment cannot be read
+	 * 如果无法读取分段
+	 */
+	public static long scan(File directory, long fromSequence, JournalHandler handler) throws IOException {
+		long[] segments = segments(directory);
+		byte[] bytes = new byte[RECORD_SIZE];
+		CRC32 crc = new CRC32();
+		long last = 0;
+		for (int i = 0; i < segments.length; i++) {
+			if (i + 1 < segments.length && segments[i + 1] <= fromSequence) {
+				continue;
+			}
+			if (last != 0 && segments[i] != last + 1) {
+				break;
+			}
+			RandomAccessFile raf = new RandomAccessFile(segmentFile(directory, segments[i]), "r");
+			try {
+				FileChannel channel = raf.getChannel();
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				long expected = segments[i];
+				while (buffer.remaining() >= RECORD_SIZE) {
+					buffer.get(bytes);
+					JournalRecord record = decode(bytes, crc, expected);
+					if (record == null) {
+						return last;
+					}
+					last = expected++;
+					if (record.getSequence() >= fromSequence) {
+						handler.onRecord(record);
+					}
+				}
+			} finally {
+				raf.close();
+			}
+		}
+		return last;
+	}
+
+	private void openExisting(long first) throws IOException {
+		File f = segmentFile(directory, first);
+		file = new RandomAccessFile(f, "rw");
+		long capacity = file.length() / RECORD_SIZE;
+		if (capacity == 0) {
+			file.close();
+			open(first);
+			return;
+		}
+		segment = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity * RECORD_SIZE);
+		long expected = first;
+		byte[] bytes = new byte[RECORD_SIZE];
+		while (segment.remaining() >= RECORD_SIZE) {
+			int position = segment.position();
+			segment.get(bytes);
+			if (decode(bytes, crc, expected) == null) {
+				segment.position(position);
+				break;
+			}
+			expected++;
+		}
+		// Clear a torn record so that a later scan does not stop in the middle of the log.
+		if (segment.remaining() >= RECORD_SIZE) {
+			int position = segment.position();
+			segment.put(new byte[RECORD_SIZE]);
+			segment.position(position);
+		}
+		nextSequence = expected;
+	}
+
+	private void open(long firstSequence) throws IOException {
+		file = new RandomAccessFile(segmentFile(directory, firstSequence), "rw");
+		long size = (long) recordsPerSegment * RECORD_SIZE;
+		file.setLength(size);
+		segment = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+		nextSequence = firstSequence;
+	}
+
+	// Callers must hold the lock.
+	private void roll() throws IOException {
+		segment.force();
+		uncommitted = 0;
+		file.close();
+		open(nextSequence);
+	}
+
+	// Callers must hold the lock.
+	private void encode(long sequence, Type type, UUID playerId, String name, int currencyId, double amount, double balance) {
+		Arrays.fill(scratch, (byte) 0);
+		record.clear();
+		record.putLong(sequence);
+		record.putLong(System.currentTimeMillis());
+		record.put(type.getCode());
+		int flags = 0;
+		int length = -1;
+		if (name != null) {
+			byte[] encoded = name.getBytes(UTF8);
+			length = encoded.length;
+			if (length > MAX_NAME_BYTES) {
+				length = MAX_NAME_BYTES;
+				// Do not cut a character in half.
+				while (length > 0 && (encoded[length] & 0xC0) == 0x80) {
+					length--;
+				}
+				flags |= FLAG_TRUNCATED;
+			}
+			System.arraycopy(encoded, 0, scratch, NAME_OFFSET, length);
+		}
+		record.put((byte) flags);
+		record.putShort((short) length);
+		record.putInt(0);
+		record.putLong(playerId == null ? 0 : playerId.getMostSignificantBits());
+		record.putLong(playerId == null ? 0 : playerId.getLeastSignificantBits());
+		record.putDouble(amount);
+		record.putDouble(balance);
+		record.putInt(currencyId);
+		crc.reset();
+		crc.update(scratch, 0, RECORD_SIZE);
+		record.putInt(CRC_OFFSET, (int) crc.getValue());
+	}
+
+	// Returns null unless the bytes hold a valid record with the expected sequence.
+	private static JournalRecord decode(byte[] bytes, CRC32 crc, long expected) {
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		if (buffer.getLong(0) != expected) {
+			return null;
+		}
+		int stored = buffer.getInt(CRC_OFFSET);
+		buffer.putInt(CRC_OFFSET, 0);
+		crc.reset();
+		crc.update(bytes, 0, RECORD_SIZE);
+		buffer.putInt(CRC_OFFSET, stored);
+		Type type = Type.fromCode(bytes[TYPE_OFFSET]);
+		if ((int) crc.getValue() != stored || type == null) {
+			return null;
+		}
+		int flags = bytes[TYPE_OFFSET + 1];
+		int length = buffer.getShort(TYPE_OFFSET + 2);
+		long most = buffer.getLong(UUID_OFFSET);
+		long least = buffer.getLong(UUID_OFFSET + 8);
+		UUID playerId = most == 0 && least == 0 ? null : new UUID(most, least);
+		String name = length < 0 ? null : new String(bytes, NAME_OFFSET, length, UTF8);
+		return new JournalRecord(expected, buffer.getLong(TIMESTAMP_OFFSET), type, playerId, name, (flags & FLAG_TRUNCATED) != 0,
+				buffer.getInt(CURRENCY_OFFSET), buffer.getDouble(AMOUNT_OFFSET), buffer.getDouble(BALANCE_OFFSET));
+	}
+
+	private static File segmentFile(File directory, long firstSequence) {
+		return new File(directory, PREFIX + String.format("%020d", firstSequence) + SUFFIX);
+	}
+
+	// First sequences of the segment files, in ascending order.
+	private static long[] segments(File directory) {
+		String[] names = directory.list(new FilenameFilter() {
+			@Override
+			public boolean accept(File dir, String name) {
+				return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+			}
+		});
+		if (names == null) {
+			return new long[0];
+		}
+		long[] firsts = new long[names.length];
+		int count = 0;
+		for (String name : names) {
+			try {
+				firsts[count] = Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+				count++;
+			} catch (NumberFormatException e) {
+				// Not a segment of this journal.
+			}
+		}
+		firsts = Arrays.copyOf(firsts, count);
+		Arrays.sort(firsts);
+		return firsts;
+	}
+}
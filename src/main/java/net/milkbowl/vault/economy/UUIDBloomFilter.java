@@ -0,0 +1,122 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of UUIDs. {@link #mightContain(UUID)} never returns false for a UUID that was added, and
+ * returns true for a UUID that was not added with about the configured probability. Thread-safe and
+ * allocation-free after construction.
+ * UUID的布隆过滤器. 对已添加的UUID, {@link #mightContain(UUID)}永远不会返回假; 对未添加的UUID, 以约等于配置的概率返回真.
+ * 线程安全, 创建后不再分配对象.
+ */
+public class UUIDBloomFilter {
+
+	private final AtomicLongArray bits;
+	private final long bitCount;
+	private final int hashes;
+
+	/**
+	 * Constructor for UUIDBloomFilter
+	 * {@link UUIDBloomFilter}的构造函数
+	 *
+	 * @param expectedInsertions number of UUIDs the filter is sized for
+	 * 过滤器预计容纳的UUID数量
+	 * @param falsePositiveRate wanted false positive probability at that size, between 0 and 1
+	 * 在该数量下期望的误判概率, 介于0和1之间
+	 */
+	public UUIDBloomFilter(int expectedInsertions, double falsePositiveRate) {
+		if (expectedInsertions <= 0) {
+			throw new IllegalArgumentException("expectedInsertions must be positive");
+		}
+		if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+			throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+		}
+		double ln2 = Math.log(2);
+		long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+		int words = (int) Math.min(Integer.MAX_VALUE, (m + 63) / 64);
+		this.bits = new AtomicLongArray(words);
+		this.bitCount = words * 64L;
+		this.hashes = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * ln2));
+	}
+
+	/**
+	 * Adds a UUID
+	 * 添加一个UUID
+	 *
+	 * @param id to add
+	 * 要添加的UUID
+	 */
+	public void put(UUID id) {
+		long h1 = mix(id.getMostSignificantBits());
+		long h2 = mix(id.getLeastSignificantBits() ^ h1) | 1;
+		for (int i = 0; i < hashes; i++) {
+			long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+			int word = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			long current;
+			do {
+				current = bits.get(word);
+				if ((current & mask) != 0) {
+					break;
+				}
+			} while (!bits.compareAndSet(word, current, current | mask));
+		}
+	}
+
+	/**
+	 * Checks if a UUID may have been added
+	 * 检查一个UUID是否可能已被添加
+	 *
+	 * @param id to check
+	 * 要检查的UUID
+	 * @return false if the UUID was definitely never added
+	 * 如果该UUID一定从未被添加过则返回假
+	 */
+	public boolean mightContain(UUID id) {
+		long h1 = mix(id.getMostSignificantBits());
+		long h2 = mix(id.getLeastSignificantBits() ^ h1) | 1;
+		for (int i = 0; i < hashes; i++) {
+			long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+			if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Removes every UUID
+	 * 移除所有UUID
+	 */
+	public void clear() {
+		for (int i = 0; i < bits.length(); i++) {
+			bits.set(i, 0);
+		}
+	}
+
+	// MurmurHash3 finalizer.
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
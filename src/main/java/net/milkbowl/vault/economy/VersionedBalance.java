@@ -0,0 +1,57 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+/**
+ * A balance together with the version it was read at, returned by
+ * {@link Economy#getVersionedBalance(org.bukkit.OfflinePlayer, String)}. Pass the version to
+ * {@link Economy#compareAndSetBalance(org.bukkit.OfflinePlayer, String, long, double)} to update the balance
+ * only if nobody changed it in between.
+ * 余额及其读取时的版本, 由{@link Economy#getVersionedBalance(org.bukkit.OfflinePlayer, String)}返回.
+ * 将版本传给{@link Economy#compareAndSetBalance(org.bukkit.OfflinePlayer, String, long, double)}, 只有在此期间无人修改余额时才会更新.
+ */
+public final class VersionedBalance {
+
+	private final double balance;
+	private final long version;
+
+	/**
+	 * Constructor for VersionedBalance
+	 * {@link VersionedBalance}的构造函数
+	 *
+	 * @param balance balance of the account
+	 * 账户的余额
+	 * @param version opaque version, which changes whenever the balance does
+	 * 不透明的版本号, 每当余额变化时都会改变
+	 */
+	public VersionedBalance(double balance, long version) {
+		this.balance = balance;
+		this.version = version;
+	}
+
+	public double getBalance() {
+		return balance;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	@Override
+	public String toString() {
+		return "VersionedBalance{balance=" + balance + ", version=" + version + "}";
+	}
+}
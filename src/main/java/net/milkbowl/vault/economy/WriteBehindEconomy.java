@@ -0,0 +1,581 @@
+/* This file is part of Vault.
+
+    Vault is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Lesser General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Vault is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Lesser General Public License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with Vault.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.milkbowl.vault.economy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.milkbowl.vault.economy.EconomyResponse.ErrorCode;
+
+import org.bukkit.OfflinePlayer;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Write-behind decorator for any {@link Economy}. Withdrawals and deposits made through the
+ * {@link OfflinePlayer} methods are applied to an in-memory delta per account and answered immediately;
+ * the coalesced deltas are written to the wrapped Economy as a single deposit or withdrawal per account
+ * when {@link #flush()} runs.
+ * 任意{@link Economy}的延迟写入装饰器. 通过{@link OfflinePlayer}方法进行的存取款会先累加到每个账户的内存差额中并立即返回,
+ * 在{@link #flush()}执行时每个账户合并后的差额会以一次存款或取款写入被包装的经济实现.
+ *
+ * A flush happens when the number of buffered mutations reaches the threshold, when this object is run
+ * as a repeating task, when a player quits (once registered as a listener) and whenever {@link #flush()}
+ * is called, which plugins must do when they are disabled. Writes run outside the lock of this object, so
+ * reads and new mutations are not blocked by a slow backend.
+ * 当缓冲的操作数达到阈值, 作为重复任务运行, 玩家退出(注册为监听器后)或调用{@link #flush()}时会进行写入.
+ * 插件在被禁用时必须调用{@link #flush()}. 写入在此对象的锁之外进行, 因此读取和新的操作不会被缓慢的后端阻塞.
+ *
+ * A delta whose write fails is never dropped: it stays buffered and is retried by {@link #run()} with an
+ * exponential backoff, while new mutations keep adding to it, unless the account was deleted meanwhile.
+ * Withdrawals are only buffered when the projected balance covers them; overdrafts are refused. Amounts that
+ * are not finite and positive are refused, and mutations of accounts the wrapped Economy does not have are
+ * passed to it at once so that it answers with its own failure.
+ * 写入失败的差额永远不会被丢弃(除非账户在此期间被删除): 它会保留在缓冲中, 由{@link #run()}以指数退避重试, 新的操作会继续累加到其中.
+ * 只有当预计余额足够时取款才会被缓冲, 透支会被拒绝. 非有限正数的金额会被拒绝, 被包装的经济实现中不存在的账户的操作会立即交给它, 由它返回自己的失败回报.
+ *
+ * Only the default currency is buffered. Withdrawals and deposits of other currencies are written through to
+ * the wrapped Economy at once.
+ * 只有默认货币会被缓冲. 其他货币的存取款会立即直接写入被包装的经济实现.
+ */
+@SuppressWarnings("deprecation")
+public class WriteBehindEconomy extends ForwardingEconomy implements Runnable, Listener {
+
+	private static final Logger log = Logger.getLogger("Minecraft");
+	private static final long MIN_RETRY_MILLIS = 1000;
+	private static final long MAX_RETRY_MILLIS = 60000;
+
+	private final int flushThreshold;
+	private final Map<UUID, PendingPlayer> pending = new LinkedHashMap<UUID, PendingPlayer>();
+	private int pendingMutations;
+	// Buffered mutations of slots that are neither being written nor backing off; these trigger a flush.
+	private int dueMutations;
+	// Bumped whenever a write completes, so that a balance read outside the lock can tell it went stale.
+	private long completedWrites;
+
+	/**
+	 * Constructor for WriteBehindEconomy
+	 * {@link WriteBehindEconomy}的构造函数
+	 *
+	 * @param delegate Economy the deltas are flushed to
+	 * 差额写入的经济实现
+	 * @param flushThreshold number of buffered mutations that triggers a flush
+	 * 触发写入的缓冲操作数
+	 */
+	public WriteBehindEconomy(Economy delegate, int flushThreshold) {
+		super(delegate);
+		if (flushThreshold <= 0) {
+			throw new IllegalArgumentException("flushThreshold must be positive");
+		}
+		this.flushThreshold = flushThreshold;
+	}
+
+	/**
+	 * Writes the pending deltas that are not backing off after a failed write. Scheduling this object as a
+	 * repeating task flushes and retries on a timer.
+	 * 写入所有未处于失败退避中的待处理差额. 将此对象作为重复任务调度即可定时写入和重试.
+	 */
+	@Override
+	public void run() {
+		write(collect(null, false));
+	}
+
+	/**
+	 * Writes every pending delta to the wrapped Economy, including those backing off after a failed write
+	 * 将所有待处理的差额写入被包装的经济实现, 包括写入失败后处于退避中的差额
+	 */
+	public void flush() {
+		write(collect(null, true));
+	}
+
+	/**
+	 * Writes the pending deltas of a single player to the wrapped Economy
+	 * 将单个玩家待处理的差额写入被包装的经济实现
+	 *
+	 * @param player to flush
+	 * 要写入的玩家
+	 */
+	public void flush(OfflinePlayer player) {
+		write(collect(player.getUniqueId(), true));
+	}
+
+	/**
+	 * Gets the number of buffered mutations not yet written
+	 * 获取尚未写入的缓冲操作数
+	 *
+	 * @return number of pending mutations
+	 * 待处理的操作数
+	 */
+	public synchronized int getPendingMutations() {
+		return pendingMutations;
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerQuit(PlayerQuitEvent event) {
+		flush(event.getPlayer());
+	}
+
+	@Override
+	public double getBalance(OfflinePlayer player) {
+		Double balance = bufferedBalance(player, null);
+		return balance != null ? balance : delegate.getBalance(player);
+	}
+
+	@Override
+	public double getBalance(OfflinePlayer player, String world) {
+		Double balance = bufferedBalance(player, world);
+		return balance != null ? balance : delegate.getBalance(player, world);
+	}
+
+	@Override
+	public boolean has(OfflinePlayer player, double amount) {
+		Double balance = bufferedBalance(player, null);
+		return balance != null ? balance - delegate.getHeldBalance(player, null) >= amount : delegate.has(player, amount);
+	}
+
+	@Override
+	public boolean has(OfflinePlayer player, String worldName, double amount) {
+		Double balance = bufferedBalance(player, worldName);
+		return balance != null ? balance - delegate.getHeldBalance(player, worldName) >= amount : delegate.has(player, worldName, amount);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+		if (!(amount > 0) || Double.isInfinite(amount)) {
+			return EconomyResponse.failure(amount, 0, ErrorCode.INVALID_AMOUNT);
+		}
+		return buffer(player, null, -amount);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+		if (!(amount > 0) || Double.isInfinite(amount)) {
+			return EconomyResponse.failure(amount, 0, ErrorCode.INVALID_AMOUNT);
+		}
+		return buffer(player, worldName, -amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+		if (!(amount > 0) || Double.isInfinite(amount)) {
+			return EconomyResponse.failure(amount, 0, ErrorCode.INVALID_AMOUNT);
+		}
+		return buffer(player, null, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+		if (!(amount > 0) || Double.isInfinite(amount)) {
+			return EconomyResponse.failure(amount, 0, ErrorCode.INVALID_AMOUNT);
+		}
+		return buffer(player, worldName, amount);
+	}
+
+	@Override
+	public boolean withdrawPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		return withdrawInto(player, worldName, amount, result);
+	}
+
+	@Override
+	public boolean depositPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+		return depositInto(player, worldName, amount, result);
+	}
+
+	@Override
+	public boolean hasAccount(String playerName) {
+		flushNamed(playerName);
+		return delegate.hasAccount(playerName);
+	}
+
+	@Override
+	public boolean hasAccount(String playerName, String worldName) {
+		flushNamed(playerName);
+		return delegate.hasAccount(playerName, worldName);
+	}
+
+	@Override
+	public double getBalance(String playerName) {
+		flushNamed(playerName);
+		return delegate.getBalance(playerName);
+	}
+
+	@Override
+	public double getBalance(String playerName, String world) {
+		flushNamed(playerName);
+		return delegate.getBalance(playerName, world);
+	}
+
+	@Override
+	public boolean has(String playerName, double amount) {
+		flushNamed(playerName);
+		return delegate.has(playerName, amount);
+	}
+
+	@Override
+	public boolean has(String playerName, String worldName, double amount) {
+		flushNamed(playerName);
+		return delegate.has(playerName, worldName, amount);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(String playerName, double amount) {
+		flushNamed(playerName);
+		return delegate.withdrawPlayer(playerName, amount);
+	}
+
+	@Override
+	public EconomyResponse withdrawPlayer(String playerName, String worldName, double amount) {
+		flushNamed(playerName);
+		return delegate.withdrawPlayer(playerName, worldName, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(String playerName, double amount) {
+		flushNamed(playerName);
+		return delegate.depositPlayer(playerName, amount);
+	}
+
+	@Override
+	public EconomyResponse depositPlayer(String playerName, String worldName, double amount) {
+		flushNamed(playerName);
+		return delegate.depositPlayer(playerName, worldName, amount);
+	}
+
+	// Holds are checked and captured against the written balance.
+	@Override
+	public FundHold holdFunds(OfflinePlayer player, String worldName, double amount, long duration, TimeUnit unit) {
+		flush(player);
+		return delegate.holdFunds(player, worldName, amount, duration, unit);
+	}
+
+	@Override
+	public EconomyResponse captureHold(FundHold hold) {
+		flush(hold.getPlayer());
+		return delegate.captureHold(hold);
+	}
+
+	// Versions refer to the written balance.
+	@Override
+	public VersionedBalance getVersionedBalance(OfflinePlayer player, String worldName) {
+		flush(player);
+		return delegate.getVersionedBalance(player, worldName);
+	}
+
+	@Override
+	public EconomyResponse compareAndSetBalance(OfflinePlayer player, String worldName, long expectedVersion, double newBalance) {
+		flush(player);
+		return delegate.compareAndSetBalance(player, worldName, expectedVersion, newBalance);
+	}
+
+	// Runs on the written balances; the bases of deltas that could not be written are re-read afterwards.
+	@Override
+	public MassUpdateResult transformBalances(BalanceTransform transform, BalanceFilter filter, String worldName, MassUpdateListener listener) {
+		flush();
+		MassUpdateResult result = delegate.transformBalances(transform, filter, worldName, listener);
+		List<PendingPlayer> players;
+		synchronized (this) {
+			players = new ArrayList<PendingPlayer>(pending.values());
+		}
+		for (PendingPlayer entry : players) {
+			List<String> worlds;
+			synchronized (this) {
+				worlds = new ArrayList<String>(entry.worlds.keySet());
+			}
+			for (String world : worlds) {
+				long seen;
+				synchronized (this) {
+					seen = completedWrites;
+				}
+				double base = world == null ? delegate.getBalance(entry.player) : delegate.getBalance(entry.player, world);
+				synchronized (this) {
+					Pending slot = entry.worlds.get(world);
+					if (slot != null && !slot.writing && seen == completedWrites) {
+						slot.base = base;
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private EconomyResponse buffer(OfflinePlayer player, String world, double delta) {
+		UUID id = player.getUniqueId();
+		double held = delta < 0 ? delegate.getHeldBalance(player, world) : 0;
+		boolean flushedOthers = false;
+		EconomyResponse response = null;
+		while (response == null) {
+			long seen;
+			synchronized (this) {
+				PendingPlayer entry = pending.get(id);
+				Pending slot = entry != null ? entry.worlds.get(world) : null;
+				if (slot != null) {
+					response = apply(slot, delta, held);
+					break;
+				}
+				seen = entry != null && !flushedOthers ? -1 : completedWrites;
+			}
+			if (seen < 0) {
+				// A mutation on another view of the same player; keep the views consistent
+				// for providers that share one balance between worlds.
+				flush(player);
+				flushedOthers = true;
+				continue;
+			}
+			// Only checked when a slot is created; an account deleted while it is buffered is found by the write.
+			if (!(world == null ? delegate.hasAccount(player) : delegate.hasAccount(player, world))) {
+				return writeThrough(player, world, delta);
+			}
+			double base = world == null ? delegate.getBalance(player) : delegate.getBalance(player, world);
+			synchronized (this) {
+				if (seen != completedWrites) {
+					continue;
+				}
+				PendingPlayer entry = pending.get(id);
+				if (entry == null) {
+					entry = new PendingPlayer(player);
+					pending.put(id, entry);
+				}
+				Pending slot = entry.worlds.get(world);
+				if (slot == null) {
+					slot = new Pending(base);
+					entry.worlds.put(world, slot);
+				}
+				response = apply(slot, delta, held);
+			}
+		}
+		boolean full;
+		synchronized (this) {
+			full = dueMutations >= flushThreshold;
+		}
+		if (full) {
+			run();
+		}
+		return response;
+	}
+
+	// Callers must hold the lock.
+	private EconomyResponse apply(Pending slot, double delta, double held) {
+		if (delta < 0 && slot.balance() - held < -delta) {
+			return EconomyResponse.failure(-delta, slot.balance(), ErrorCode.INSUFFICIENT_FUNDS);
+		}
+		slot.delta += delta;
+		slot.mutations++;
+		pendingMutations++;
+		if (slot.failures == 0) {
+			dueMutations++;
+		}
+		return EconomyResponse.success(Math.abs(delta), slot.balance());
+	}
+
+	// Returns the buffered balance of the player in the given world, flushing any other buffered view first.
+	private Double bufferedBalance(OfflinePlayer player, String world) {
+		synchronized (this) {
+			PendingPlayer entry = pending.get(player.getUniqueId());
+			if (entry == null) {
+				return null;
+			}
+			Pending slot = entry.worlds.get(world);
+			if (slot != null && entry.worlds.size() == 1) {
+				return slot.balance();
+			}
+		}
+		flush(player);
+		synchronized (this) {
+			PendingPlayer entry = pending.get(player.getUniqueId());
+			Pending slot = entry != null ? entry.worlds.get(world) : null;
+			return slot != null ? slot.balance() : null;
+		}
+	}
+
+	private void flushNamed(String playerName) {
+		List<UUID> matched = new ArrayList<UUID>();
+		synchronized (this) {
+			for (Map.Entry<UUID, PendingPlayer> e : pending.entrySet()) {
+				if (playerName.equalsIgnoreCase(e.getValue().player.getName())) {
+					matched.add(e.getKey());
+				}
+			}
+		}
+		for (UUID id : matched) {
+			write(collect(id, true));
+		}
+	}
+
+	// Takes the deltas to write out of their slots, which stay in place so reads keep seeing them.
+	private synchronized List<Write> collect(UUID playerId, boolean force) {
+		List<Write> writes = new ArrayList<Write>();
+		long now = System.nanoTime();
+		Iterator<Map.Entry<UUID, PendingPlayer>> players = pending.entrySet().iterator();
+		while (players.hasNext()) {
+			Map.Entry<UUID, PendingPlayer> e = players.next();
+			if (playerId != null && !playerId.equals(e.getKey())) {
+				continue;
+			}
+			PendingPlayer entry = e.getValue();
+			Iterator<Map.Entry<String, Pending>> worlds = entry.worlds.entrySet().iterator();
+			while (worlds.hasNext()) {
+				Map.Entry<String, Pending> w = worlds.next();
+				Pending slot = w.getValue();
+				if (slot.writing || (!force && slot.failures > 0 && slot.retryAt - now > 0)) {
+					continue;
+				}
+				if (slot.failures == 0) {
+					dueMutations -= slot.mutations;
+				}
+				if (slot.delta == 0) {
+					pendingMutations -= slot.mutations;
+					worlds.remove();
+					continue;
+				}
+				slot.writing = true;
+				slot.inFlight = slot.delta;
+				slot.inFlightMutations = slot.mutations;
+				slot.delta = 0;
+				slot.mutations = 0;
+				writes.add(new Write(entry, w.getKey(), slot));
+			}
+			if (entry.worlds.isEmpty()) {
+				players.remove();
+			}
+		}
+		return writes;
+	}
+
+	private void write(List<Write> writes) {
+		for (Write write : writes) {
+			boolean written = write(write.entry.player, write.world, write.slot.inFlight);
+			synchronized (this) {
+				complete(write, written);
+			}
+		}
+	}
+
+	// Callers must hold the lock.
+	private void complete(Write write, boolean written) {
+		Pending slot = write.slot;
+		completedWrites++;
+		slot.writing = false;
+		if (written) {
+			slot.base += slot.inFlight;
+			pendingMutations -= slot.inFlightMutations;
+			if (slot.failures > 0) {
+				log.info("[Vault] Wrote buffered balance change for " + write.entry.player.getUniqueId() + " after "
+						+ slot.failures + " failed attempts");
+				slot.failures = 0;
+				dueMutations += slot.mutations;
+			}
+		} else {
+			slot.delta += slot.inFlight;
+			slot.mutations += slot.inFlightMutations;
+			if (slot.failures == 0) {
+				// Mutations buffered while the write ran no longer count towards the threshold.
+				dueMutations -= slot.mutations - slot.inFlightMutations;
+			}
+			slot.failures++;
+			long backoff = Math.min(MAX_RETRY_MILLIS, MIN_RETRY_MILLIS << Math.min(slot.failures - 1, 16));
+			slot.retryAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoff);
+		}
+		slot.inFlight = 0;
+		slot.inFlightMutations = 0;
+		if (slot.delta == 0 && slot.mutations == 0 && slot.failures == 0) {
+			write.entry.worlds.remove(write.world);
+			if (write.entry.worlds.isEmpty() && pending.get(write.entry.player.getUniqueId()) == write.entry) {
+				pending.remove(write.entry.player.getUniqueId());
+			}
+		}
+	}
+
+	private EconomyResponse writeThrough(OfflinePlayer player, String world, double delta) {
+		if (delta > 0) {
+			return world == null ? delegate.depositPlayer(player, delta) : delegate.depositPlayer(player, world, delta);
+		}
+		return world == null ? delegate.withdrawPlayer(player, -delta) : delegate.withdrawPlayer(player, world, -delta);
+	}
+
+	// Returns false if the write should be retried.
+	private boolean write(OfflinePlayer player, String world, double delta) {
+		EconomyResponse response;
+		try {
+			response = writeThrough(player, world, delta);
+		} catch (RuntimeException e) {
+			log.log(Level.WARNING, "[Vault] Failed to write buffered balance change for " + player.getUniqueId() + ", will retry", e);
+			return false;
+		}
+		if (response != null && response.transactionSuccess()) {
+			return true;
+		}
+		if (response != null && response.errorCode == ErrorCode.ACCOUNT_NOT_FOUND) {
+			log.severe(String.format("[Vault] Dropping buffered balance change of %s for %s, the account no longer exists",
+					delta, player.getUniqueId()));
+			return true;
+		}
+		log.warning(String.format("[Vault] Failed to write buffered balance change of %s for %s, will retry: %s",
+				delta, player.getUniqueId(), response == null ? null : response.errorMessage));
+		return false;
+	}
+
+	private static final class PendingPlayer {
+		final OfflinePlayer player;
+		// Keyed by world name, null for the global account.
+		final Map<String, Pending> worlds = new HashMap<String, Pending>(4);
+
+		PendingPlayer(OfflinePlayer player) {
+			this.player = player;
+		}
+	}
+
+	private static final class Pending {
+		// Balance last written, the delta being written and the delta buffered since.
+		double base;
+		double inFlight;
+		double delta;
+		int mutations;
+		int inFlightMutations;
+		boolean writing;
+		int failures;
+		long retryAt;
+
+		Pending(double base) {
+			this.base = base;
+		}
+
+		double balance() {
+			return base + inFlight + delta;
+		}
+	}
+
+	private static final class Write {
+		final PendingPlayer entry;
+		final String world;
+		final Pending slot;
+
+		Write(PendingPlayer entry, String world, Pending slot) {
+			this.entry = entry;
+			this.world = world;
+			this.slot = slot;
+		}
+	}
+}
@@ -0,0 +1,321 @@
+package net.milkbowl.vault.test;
+
+import static net.milkbowl.vault.test.EconomyFixtures.player;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.AbstractEconomy;
+import net.milkbowl.vault.economy.BankPage;
+import net.milkbowl.vault.economy.EconomyResponse;
+import net.milkbowl.vault.economy.EconomyResponse.ErrorCode;
+
+/**
+ * Runs the defaults of {@link AbstractEconomy} against a provider that only implements the name methods.
+ */
+public class AbstractEconomyTest {
+
+    private final OfflinePlayer alice = player("alice");
+    private final OfflinePlayer bob = player("bob");
+    private final OfflinePlayer carol = player("carol");
+    private NameEconomy economy;
+
+    @Before
+    public void setUp() {
+        economy = new NameEconomy();
+        economy.createPlayerAccount(alice);
+    }
+
+    @Test
+    public void testBankOwnersAndMembers() {
+        assertTrue(economy.createBank("guild", alice).transactionSuccess());
+        assertTrue(economy.createBank("vault", alice).transactionSuccess());
+        assertTrue(economy.createBank("shop", bob).transactionSuccess());
+        economy.addMember("guild", "bob");
+        economy.addMember("shop", "bob");
+
+        assertTrue(economy.checkBankOwner("guild", alice));
+        assertFalse(economy.checkBankOwner("guild", bob));
+        assertFalse(economy.checkBankOwner("missing", alice));
+        assertTrue(economy.checkBankMember("guild", bob));
+        assertFalse(economy.checkBankMember("vault", bob));
+        assertFalse(economy.checkBankMember("missing", bob));
+
+        List<String> owned = economy.getBanksOwnedBy(alice);
+        Collections.sort(owned);
+        assertEquals(Arrays.asList("guild", "vault"), owned);
+        List<String> joined = economy.getBanksWithMember(bob);
+        Collections.sort(joined);
+        assertEquals(Arrays.asList("guild", "shop"), joined);
+        assertTrue(economy.getBanksOwnedBy(carol).isEmpty());
+        assertTrue(economy.getBanksWithMember(carol).isEmpty());
+
+        // Without bank support nothing is owned, even if the provider still answers
+        economy.bankSupport = false;
+        assertFalse(economy.checkBankOwner("guild", alice));
+        assertFalse(economy.checkBankMember("guild", bob));
+        assertTrue(economy.getBanksOwnedBy(alice).isEmpty());
+        assertTrue(economy.getBanksWithMember(bob).isEmpty());
+    }
+
+    @Test
+    public void testBankPages() {
+        for (String name : new String[] { "zeta", "beta", "alpha", "betting", "gamma", "bet" }) {
+            economy.createBank(name, alice);
+        }
+        BankPage page = economy.getBanks("bet", null, 2);
+        assertEquals(Arrays.asList("bet", "beta"), page.getNames());
+        assertTrue(page.hasMore());
+        page = economy.getBanks("bet", page.getNextCursor(), 2);
+        assertEquals(Arrays.asList("betting"), page.getNames());
+        assertFalse(page.hasMore());
+
+        // Exactly a page left: no cursor to an empty page
+        page = economy.getBanks("g", null, 1);
+        assertEquals(Arrays.asList("gamma"), page.getNames());
+        assertNull(page.getNextCursor());
+
+        // A cursor before the prefix starts at the prefix, one past it ends the listing
+        assertEquals(Arrays.asList("gamma"), economy.getBanks("g", "alpha", 10).getNames());
+        assertTrue(economy.getBanks("b", "gamma", 10).getNames().isEmpty());
+        assertTrue(economy.getBanks("x", null, 10).getNames().isEmpty());
+
+        assertEquals(Arrays.asList("zeta"), economy.getBanks(null, "gamma", 10).getNames());
+        assertEquals(6, economy.getBanks("", null, 10).getNames().size());
+        page = economy.getBanks(null, null, 4);
+        assertEquals(Arrays.asList("alpha", "bet", "beta", "betting"), page.getNames());
+        assertEquals(Arrays.asList("gamma", "zeta"), economy.getBanks(null, page.getNextCursor(), 4).getNames());
+        try {
+            economy.getBanks(null, null, 0);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+
+        economy.bankSupport = false;
+        assertTrue(economy.getBanks(null, null, 10).getNames().isEmpty());
+    }
+
+    @Test
+    public void testCreatePlayerAccounts() {
+        OfflinePlayer mallory = player("mallory");
+        economy.refused.add("mallory");
+        List<OfflinePlayer> players = Arrays.asList(alice, bob, carol, mallory);
+
+        assertEquals(Arrays.asList(bob, carol), economy.createPlayerAccounts(players, null));
+        assertTrue(economy.hasAccount(bob));
+        assertFalse(economy.hasAccount(mallory));
+        assertTrue(economy.createPlayerAccounts(players, null).isEmpty());
+
+        assertEquals(Arrays.asList(alice, bob, carol), economy.createPlayerAccounts(players, "nether"));
+        assertTrue(economy.hasAccount(alice, "nether"));
+        assertFalse(economy.hasAccount(mallory, "nether"));
+        assertTrue(economy.createPlayerAccounts(players, "nether").isEmpty());
+        assertTrue(economy.createPlayerAccounts(new ArrayList<OfflinePlayer>(), null).isEmpty());
+    }
+
+    /**
+     * Keeps balances by player name, and by name and world for world accounts.
+     */
+    private static class NameEconomy extends AbstractEconomy {
+
+        final Map<String, Double> balances = new HashMap<String, Double>();
+        final Map<String, String> owners = new HashMap<String, String>();
+        final Map<String, Set<String>> members = new HashMap<String, Set<String>>();
+        final Set<String> refused = new HashSet<String>();
+        boolean bankSupport = true;
+
+        void addMember(String bank, String playerName) {
+            members.get(bank).add(playerName);
+        }
+
+        private static String key(String playerName, String worldName) {
+            return worldName == null ? playerName : playerName + "@" + worldName;
+        }
+
+        private EconomyResponse change(String key, double delta) {
+            Double balance = balances.get(key);
+            if (balance == null) {
+                return EconomyResponse.failure(Math.abs(delta), 0, ErrorCode.ACCOUNT_NOT_FOUND);
+            }
+            if (balance + delta < 0) {
+                return EconomyResponse.failure(-delta, balance, ErrorCode.INSUFFICIENT_FUNDS);
+            }
+            balances.put(key, balance + delta);
+            return EconomyResponse.success(Math.abs(delta), balance + delta);
+        }
+
+        private EconomyResponse bank(String name) {
+            return owners.containsKey(name) ? EconomyResponse.success(0, 0) : EconomyResponse.failure(ErrorCode.BANK_NOT_FOUND);
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public String getName() {
+            return "Names";
+        }
+
+        @Override
+        public boolean hasBankSupport() {
+            return bankSupport;
+        }
+
+        @Override
+        public int fractionalDigits() {
+            return 2;
+        }
+
+        @Override
+        public String currencyNamePlural() {
+            return "Dollars";
+        }
+
+        @Override
+        public String currencyNameSingular() {
+            return "Dollar";
+        }
+
+        @Override
+        public boolean hasAccount(String playerName) {
+            return balances.containsKey(playerName);
+        }
+
+        @Override
+        public boolean hasAccount(String playerName, String worldName) {
+            return balances.containsKey(key(playerName, worldName));
+        }
+
+        @Override
+        public double getBalance(String playerName) {
+            return getBalance(playerName, null);
+        }
+
+        @Override
+        public double getBalance(String playerName, String world) {
+            Double balance = balances.get(key(playerName, world));
+            return balance == null ? 0 : balance;
+        }
+
+        @Override
+        public boolean has(String playerName, double amount) {
+            return getBalance(playerName) >= amount;
+        }
+
+        @Override
+        public boolean has(String playerName, String worldName, double amount) {
+            return getBalance(playerName, worldName) >= amount;
+        }
+
+        @Override
+        public EconomyResponse withdrawPlayer(String playerName, double amount) {
+            return change(playerName, -amount);
+        }
+
+        @Override
+        public EconomyResponse withdrawPlayer(String playerName, String worldName, double amount) {
+            return change(key(playerName, worldName), -amount);
+        }
+
+        @Override
+        public EconomyResponse depositPlayer(String playerName, double amount) {
+            return change(playerName, amount);
+        }
+
+        @Override
+        public EconomyResponse depositPlayer(String playerName, String worldName, double amount) {
+            return change(key(playerName, worldName), amount);
+        }
+
+        @Override
+        public EconomyResponse createBank(String name, String player) {
+            if (owners.containsKey(name)) {
+                return EconomyResponse.failure(ErrorCode.BANK_EXISTS);
+            }
+            owners.put(name, player);
+            members.put(name, new HashSet<String>());
+            return EconomyResponse.success(0, 0);
+        }
+
+        @Override
+        public EconomyResponse deleteBank(String name) {
+            members.remove(name);
+            return owners.remove(name) != null ? EconomyResponse.success(0, 0) : EconomyResponse.failure(ErrorCode.BANK_NOT_FOUND);
+        }
+
+        @Override
+        public EconomyResponse bankBalance(String name) {
+            return bank(name);
+        }
+
+        @Override
+        public EconomyResponse bankHas(String name, double amount) {
+            return bank(name);
+        }
+
+        @Override
+        public EconomyResponse bankWithdraw(String name, double amount) {
+            return EconomyResponse.notImplemented();
+        }
+
+        @Override
+        public EconomyResponse bankDeposit(String name, double amount) {
+            return EconomyResponse.notImplemented();
+        }
+
+        @Override
+        public EconomyResponse isBankOwner(String name, String playerName) {
+            String owner = owners.get(name);
+            if (owner == null) {
+                return EconomyResponse.failure(ErrorCode.BANK_NOT_FOUND);
+            }
+            return owner.equals(playerName) ? EconomyResponse.success(0, 0) : EconomyResponse.failure(ErrorCode.OTHER);
+        }
+
+        @Override
+        public EconomyResponse isBankMember(String name, String playerName) {
+            Set<String> names = members.get(name);
+            if (names == null) {
+                return EconomyResponse.failure(ErrorCode.BANK_NOT_FOUND);
+            }
+            return names.contains(playerName) ? EconomyResponse.success(0, 0) : EconomyResponse.failure(ErrorCode.OTHER);
+        }
+
+        @Override
+        public List<String> getBanks() {
+            return new ArrayList<String>(owners.keySet());
+        }
+
+        @Override
+        public boolean createPlayerAccount(String playerName) {
+            return createPlayerAccount(playerName, null);
+        }
+
+        @Override
+        public boolean createPlayerAccount(String playerName, String worldName) {
+            String key = key(playerName, worldName);
+            if (refused.contains(playerName) || balances.containsKey(key)) {
+                return false;
+            }
+            balances.put(key, 0.0);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package net.milkbowl.vault.test;
+
+import static net.milkbowl.vault.test.EconomyFixtures.player;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.AccountFilterEconomy;
+import net.milkbowl.vault.economy.MemoryEconomy;
+import net.milkbowl.vault.economy.PlayerNameIndex;
+
+public class AccountFilterEconomyTest {
+
+    private final OfflinePlayer alice = player("alice");
+    private final OfflinePlayer bob = player("bob");
+    private final int[] lookups = new int[1];
+    private MemoryEconomy backend;
+    private AccountFilterEconomy economy;
+
+    @Before
+    public void setUp() {
+        backend = new MemoryEconomy("Test", 2, "Dollar", "Dollars") {
+            @Override
+            public boolean hasAccount(OfflinePlayer player) {
+                lookups[0]++;
+                return super.hasAccount(player);
+            }
+        };
+        backend.createPlayerAccount(alice);
+        economy = new AccountFilterEconomy(backend, 100, 0.01, new PlayerNameIndex());
+    }
+
+    @Test
+    public void testAsksTheBackendUntilPrimed() {
+        assertFalse(economy.hasAccount(bob));
+        assertEquals(1, lookups[0]);
+        assertEquals(0, economy.getLocalNegatives());
+    }
+
+    @Test
+    public void testAnswersNegativesLocally() {
+        economy.prime(Arrays.asList(alice, bob));
+        lookups[0] = 0;
+        assertTrue(economy.hasAccount(alice));
+        assertFalse(economy.hasAccount(bob));
+        assertEquals(1, lookups[0]);
+        assertEquals(2, economy.getLookups());
+        assertEquals(1, economy.getLocalNegatives());
+        assertEquals(0.5, economy.getHitRate(), 0);
+    }
+
+    @Test
+    public void testLearnsNewAccounts() {
+        economy.prime(Arrays.asList(alice, bob));
+        assertTrue(economy.createPlayerAccount(bob));
+        assertTrue(economy.hasAccount(bob));
+
+        // Accounts created behind the filter become visible through a deposit
+        OfflinePlayer carol = player("carol");
+        backend.createPlayerAccount(carol);
+        assertTrue(economy.depositPlayer(carol, 1).transactionSuccess());
+        assertTrue(economy.hasAccount(carol));
+    }
+}
@@ -0,0 +1,50 @@
+package net.milkbowl.vault.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.UUID;
+
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.AccountKey;
+import net.milkbowl.vault.economy.BalanceHistory;
+
+public class BalanceHistoryTest {
+
+    @Test
+    public void testDownsamplesOldSamples() {
+        BalanceHistory history = new BalanceHistory(4, new long[] { 10, 100 }, 1 << 20);
+        AccountKey key = new AccountKey(UUID.randomUUID(), null);
+        for (int time = 0; time < 30; time++) {
+            history.record(key, time, time);
+        }
+        assertEquals(7, history.getSampleCount(key));
+        long[] times = new long[7];
+        double[] balances = new double[7];
+        assertEquals(7, history.getSamples(key, 0, Long.MAX_VALUE, times, balances));
+        long[] expectedTimes = { 0, 10, 20, 26, 27, 28, 29 };
+        double[] expectedBalances = { 9, 19, 25, 26, 27, 28, 29 };
+        for (int i = 0; i < 7; i++) {
+            assertEquals(expectedTimes[i], times[i]);
+            assertEquals(expectedBalances[i], balances[i], 0);
+        }
+        assertEquals(3, history.getSamples(key, 15, 27, times, balances));
+        assertEquals(20, times[0]);
+        assertEquals(27, times[2]);
+    }
+
+    @Test
+    public void testStaysWithinBudget() {
+        BalanceHistory probe = new BalanceHistory(8, new long[] { 60000 }, 1 << 20);
+        BalanceHistory history = new BalanceHistory(8, new long[] { 60000 }, probe.getBytesPerAccount() * 2);
+        assertEquals(2, history.getMaxAccounts());
+        AccountKey first = new AccountKey(UUID.randomUUID(), null);
+        AccountKey second = new AccountKey(UUID.randomUUID(), "nether");
+        history.record(first, 1, 1);
+        history.record(second, 1, 2);
+        history.record(new AccountKey(UUID.randomUUID(), null), 1, 3);
+        assertEquals(2, history.size());
+        assertEquals(0, history.getSampleCount(first));
+        assertEquals(1, history.getSampleCount(second));
+    }
+}
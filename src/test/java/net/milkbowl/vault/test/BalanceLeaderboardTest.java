@@ -0,0 +1,73 @@
+package net.milkbowl.vault.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.BalanceEntry;
+import net.milkbowl.vault.economy.BalanceLeaderboard;
+
+public class BalanceLeaderboardTest {
+
+    @Test
+    public void testMatchesSortedBalances() {
+        Random random = new Random(42);
+        BalanceLeaderboard leaderboard = new BalanceLeaderboard();
+        Map<UUID, Double> balances = new HashMap<UUID, Double>();
+        List<UUID> ids = new ArrayList<UUID>();
+        for (int i = 0; i < 200; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        for (int op = 0; op < 5000; op++) {
+            UUID id = ids.get(random.nextInt(ids.size()));
+            if (random.nextInt(10) == 0) {
+                leaderboard.remove(id);
+                balances.remove(id);
+            } else {
+                double balance = random.nextInt(50);
+                leaderboard.update(id, balance);
+                balances.put(id, balance);
+            }
+        }
+
+        List<Map.Entry<UUID, Double>> expected = new ArrayList<Map.Entry<UUID, Double>>(balances.entrySet());
+        Collections.sort(expected, new Comparator<Map.Entry<UUID, Double>>() {
+            @Override
+            public int compare(Map.Entry<UUID, Double> a, Map.Entry<UUID, Double> b) {
+                int c = Double.compare(b.getValue(), a.getValue());
+                return c != 0 ? c : a.getKey().compareTo(b.getKey());
+            }
+        });
+
+        assertEquals(expected.size(), leaderboard.size());
+        List<BalanceEntry> all = leaderboard.top(expected.size() + 10);
+        assertEquals(expected.size(), all.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getKey(), all.get(i).getPlayerId());
+            assertEquals(i + 1, all.get(i).getRank());
+            assertEquals(i + 1, leaderboard.rankOf(expected.get(i).getKey()));
+        }
+
+        List<BalanceEntry> page = leaderboard.page(11, 5);
+        assertEquals(5, page.size());
+        assertEquals(expected.get(10).getKey(), page.get(0).getPlayerId());
+        assertEquals(11, page.get(0).getRank());
+    }
+
+    @Test
+    public void testMissingPlayer() {
+        BalanceLeaderboard leaderboard = new BalanceLeaderboard();
+        assertEquals(0, leaderboard.rankOf(UUID.randomUUID()));
+        assertEquals(0, leaderboard.top(10).size());
+        assertEquals(0, leaderboard.page(1, 10).size());
+    }
+}
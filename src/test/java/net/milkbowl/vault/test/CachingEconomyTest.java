@@ -0,0 +1,93 @@
+package net.milkbowl.vault.test;
+
+import static net.milkbowl.vault.test.EconomyFixtures.player;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.CachingEconomy;
+import net.milkbowl.vault.economy.MemoryEconomy;
+
+public class CachingEconomyTest {
+
+    private final OfflinePlayer alice = player("alice");
+    private final OfflinePlayer bob = player("bob");
+    private final int[] reads = new int[1];
+    // Runs inside the next backend read of alice, after the balance was read.
+    private Runnable duringRead;
+    private MemoryEconomy backend;
+    private CachingEconomy cache;
+
+    @Before
+    public void setUp() {
+        backend = new MemoryEconomy("Test", 2, "Dollar", "Dollars") {
+            @Override
+            public double getBalance(UUID playerId, String worldName) {
+                double balance = super.getBalance(playerId, worldName);
+                if (playerId.equals(alice.getUniqueId())) {
+                    reads[0]++;
+                    Runnable action = duringRead;
+                    duringRead = null;
+                    if (action != null) {
+                        action.run();
+                    }
+                }
+                return balance;
+            }
+        };
+        backend.createPlayerAccount(alice);
+        backend.createPlayerAccount(bob);
+        backend.depositPlayer(alice, 10);
+        cache = new CachingEconomy(backend, 100, 1, TimeUnit.HOURS);
+    }
+
+    @Test
+    public void testCachesWhileOtherAccountsChange() {
+        duringRead = new Runnable() {
+            @Override
+            public void run() {
+                assertTrue(cache.depositPlayer(bob, 1).transactionSuccess());
+                cache.invalidate(bob);
+            }
+        };
+        assertEquals(10, cache.getBalance(alice), 0);
+        assertEquals(10, cache.getBalance(alice), 0);
+        assertEquals(1, reads[0]);
+        assertEquals(1, cache.getBalance(bob), 0);
+    }
+
+    @Test
+    public void testDropsReadRacingAWrite() {
+        duringRead = new Runnable() {
+            @Override
+            public void run() {
+                assertTrue(cache.depositPlayer(alice, 5).transactionSuccess());
+            }
+        };
+        assertEquals(10, cache.getBalance(alice), 0);
+        assertEquals(15, cache.getBalance(alice), 0);
+        assertEquals(1, reads[0]);
+    }
+
+    @Test
+    public void testDropsReadRacingAnInvalidation() {
+        duringRead = new Runnable() {
+            @Override
+            public void run() {
+                backend.depositPlayer(alice, 5);
+                cache.invalidate(alice);
+            }
+        };
+        assertEquals(10, cache.getBalance(alice), 0);
+        assertEquals(15, cache.getBalance(alice), 0);
+        assertEquals(2, reads[0]);
+        assertEquals(15, cache.getBalance(alice), 0);
+        assertEquals(2, reads[0]);
+    }
+}
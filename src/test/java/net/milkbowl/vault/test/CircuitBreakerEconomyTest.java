@@ -0,0 +1,134 @@
+package net.milkbowl.vault.test;
+
+import static net.milkbowl.vault.test.EconomyFixtures.player;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.CircuitBreakerEconomy;
+import net.milkbowl.vault.economy.CircuitBreakerEconomy.State;
+import net.milkbowl.vault.economy.EconomyResponse;
+import net.milkbowl.vault.economy.EconomyResponse.ErrorCode;
+import net.milkbowl.vault.economy.FundHold;
+import net.milkbowl.vault.economy.LinearBalanceTransform;
+import net.milkbowl.vault.economy.MemoryEconomy;
+
+public class CircuitBreakerEconomyTest {
+
+    private volatile boolean stalled;
+
+    @Test
+    public void testOpensAfterTimeoutsAndRecovers() throws InterruptedException {
+        MemoryEconomy backend = new MemoryEconomy("Test", 2, "Dollar", "Dollars") {
+            @Override
+            public double getBalance(UUID playerId, String worldName) {
+                while (stalled) {
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                }
+                return super.getBalance(playerId, worldName);
+            }
+        };
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            CircuitBreakerEconomy economy = new CircuitBreakerEconomy(backend, executor, 50, 2, 200);
+            OfflinePlayer alice = player("alice");
+            backend.createPlayerAccount(alice);
+            backend.depositPlayer(alice, 5);
+            assertEquals(5, economy.getBalance(alice), 0);
+
+            stalled = true;
+            assertEquals(5, economy.getBalance(alice), 0);
+            assertEquals(State.CLOSED, economy.getState());
+            assertEquals(5, economy.getBalance(alice), 0);
+            assertEquals(State.OPEN, economy.getState());
+
+            long start = System.nanoTime();
+            EconomyResponse response = economy.depositPlayer(alice, 1);
+            assertTrue(System.nanoTime() - start < 40000000L);
+            assertFalse(response.transactionSuccess());
+            assertEquals(ErrorCode.CIRCUIT_OPEN, response.errorCode);
+
+            stalled = false;
+            Thread.sleep(250);
+            assertEquals(State.HALF_OPEN, economy.getState());
+            assertTrue(economy.depositPlayer(alice, 1).transactionSuccess());
+            assertEquals(State.CLOSED, economy.getState());
+            assertEquals(6, economy.getBalance(alice), 0);
+        } finally {
+            stalled = false;
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testGuardsEveryAccountCall() {
+        MemoryEconomy backend = new MemoryEconomy("Test", 2, "Dollar", "Dollars") {
+            @Override
+            public double getBalance(UUID playerId, String worldName) {
+                while (stalled) {
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                }
+                return super.getBalance(playerId, worldName);
+            }
+        };
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            CircuitBreakerEconomy economy = new CircuitBreakerEconomy(backend, executor, 50, 1, 60000);
+            OfflinePlayer alice = player("alice");
+            OfflinePlayer carol = player("carol");
+            backend.createPlayerAccount(alice);
+            backend.depositPlayer(alice, 5);
+            FundHold hold = economy.holdFunds(alice, null, 1, 1, TimeUnit.MINUTES);
+            assertNotNull(hold);
+            assertEquals(5, economy.getBalance(alice), 0);
+
+            stalled = true;
+            assertEquals(5, economy.getBalance(alice), 0);
+            assertEquals(State.OPEN, economy.getState());
+
+            // Failed mutations of a known account report its last balance
+            EconomyResponse response = economy.withdrawPlayer(alice, 1);
+            assertEquals(ErrorCode.CIRCUIT_OPEN, response.errorCode);
+            assertEquals(5, response.balance, 0);
+            response = economy.captureHold(hold);
+            assertEquals(ErrorCode.CIRCUIT_OPEN, response.errorCode);
+            assertEquals(5, response.balance, 0);
+            assertEquals(ErrorCode.CIRCUIT_OPEN, economy.compareAndSetBalance(alice, null, 0, 10).errorCode);
+            assertNull(economy.holdFunds(alice, null, 1, 1, TimeUnit.MINUTES));
+            assertFalse(economy.releaseHold(hold));
+            assertNull(economy.getVersionedBalance(alice, null));
+            assertTrue(economy.createPlayerAccounts(Arrays.asList(carol), null).isEmpty());
+            assertEquals(0, economy.transformBalances(LinearBalanceTransform.interest(1), null, null, null).getMatched());
+            assertEquals(ErrorCode.CIRCUIT_OPEN, economy.depositPlayer("alice", 1).errorCode);
+            assertFalse(economy.hasAccount("alice"));
+            assertFalse(economy.createPlayerAccount("carol"));
+
+            stalled = false;
+            assertFalse(backend.hasAccount(carol));
+            assertEquals(5, backend.getBalance(alice), 0);
+            assertEquals(1, backend.getHeldBalance(alice, null), 0);
+        } finally {
+            stalled = false;
+            executor.shutdownNow();
+        }
+    }
+}
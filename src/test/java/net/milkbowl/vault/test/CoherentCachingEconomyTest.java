@@ -0,0 +1,52 @@
+package net.milkbowl.vault.test;
+
+import static net.milkbowl.vault.test.EconomyFixtures.player;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.CoherentCachingEconomy;
+import net.milkbowl.vault.economy.InvalidationNotice;
+import net.milkbowl.vault.economy.LoopbackTransport;
+import net.milkbowl.vault.economy.MemoryEconomy;
+
+public class CoherentCachingEconomyTest {
+
+    @Test
+    public void testChangesEvictOtherCaches() {
+        MemoryEconomy shared = new MemoryEconomy("Test", 2, "Dollar", "Dollars");
+        LoopbackTransport transport = new LoopbackTransport();
+        CoherentCachingEconomy first = new CoherentCachingEconomy(shared, 100, 1, TimeUnit.HOURS, transport, "first");
+        CoherentCachingEconomy second = new CoherentCachingEconomy(shared, 100, 1, TimeUnit.HOURS, transport, "second");
+        OfflinePlayer alice = player("alice");
+        shared.createPlayerAccount(alice);
+        assertEquals(0, second.getBalance(alice), 0);
+
+        assertTrue(first.depositPlayer(alice, 5).transactionSuccess());
+        assertEquals(0, second.getBalance(alice), 0);
+        first.run();
+        assertEquals(5, second.getBalance(alice), 0);
+        assertEquals(5, first.getBalance(alice), 0);
+
+        second.close();
+        first.depositPlayer(alice, 1);
+        first.run();
+        assertEquals(5, second.getBalance(alice), 0);
+    }
+
+    @Test
+    public void testNoticeRoundTrip() throws IOException {
+        UUID id = UUID.randomUUID();
+        InvalidationNotice notice = InvalidationNotice.fromBytes(new InvalidationNotice("lobby", Arrays.asList(id), true).toBytes());
+        assertEquals("lobby", notice.getServerId());
+        assertEquals(Arrays.asList(id), notice.getPlayerIds());
+        assertTrue(notice.isAll());
+    }
+}
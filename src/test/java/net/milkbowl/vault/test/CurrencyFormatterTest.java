@@ -0,0 +1,38 @@
+package net.milkbowl.vault.test;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.CurrencyFormatter;
+
+public class CurrencyFormatterTest {
+
+    private final CurrencyFormatter dollars = new CurrencyFormatter(2, "Dollar", "Dollars");
+
+    @Test
+    public void testFormat() {
+        assertEquals("0.00 Dollars", dollars.format(0));
+        assertEquals("1.00 Dollar", dollars.format(1));
+        assertEquals("1.01 Dollars", dollars.format(1.01));
+        assertEquals("0.29 Dollars", dollars.format(0.285));
+        assertEquals("999.99 Dollars", dollars.format(999.99));
+        assertEquals("1,000.00 Dollars", dollars.format(1000));
+        assertEquals("-1,234,567.89 Dollars", dollars.format(-1234567.891));
+        assertEquals("100,000,000,000,000,000,000.00 Dollars", dollars.format(1e20));
+    }
+
+    @Test
+    public void testDigitsAndNames() {
+        assertEquals("1,235", new CurrencyFormatter(0, "", "").format(1234.5));
+        assertEquals("12.500 Gems", new CurrencyFormatter(3, null, "Gems").format(12.5));
+        assertEquals("12.50", new CurrencyFormatter(-1, "", "").format(12.5));
+    }
+
+    @Test
+    public void testAppend() {
+        StringBuilder out = new StringBuilder("Price: ");
+        dollars.format(42.5, out);
+        assertEquals("Price: 42.50 Dollars", out.toString());
+    }
+}
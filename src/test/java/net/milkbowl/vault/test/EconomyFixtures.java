@@ -0,0 +1,72 @@
+package net.milkbowl.vault.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Shared fixtures of the economy tests.
+ */
+final class EconomyFixtures {
+
+    private EconomyFixtures() {
+    }
+
+    /**
+     * Creates a player that only knows its name and a UUID derived from it.
+     */
+    static OfflinePlayer player(final String name) {
+        final UUID id = UUID.nameUUIDFromBytes(name.getBytes());
+        return (OfflinePlayer) Proxy.newProxyInstance(OfflinePlayer.class.getClassLoader(), new Class<?>[] { OfflinePlayer.class },
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (method.getName().equals("getUniqueId")) {
+                            return id;
+                        }
+                        if (method.getName().equals("getName")) {
+                            return name;
+                        }
+                        if (method.getName().equals("equals")) {
+                            return proxy == args[0];
+                        }
+                        if (method.getName().equals("hashCode")) {
+                            return id.hashCode();
+                        }
+                        if (method.getName().equals("toString")) {
+                            return name;
+                        }
+                        return null;
+                    }
+                });
+    }
+
+    /**
+     * Creates an empty temporary directory; remove it with {@link #delete(File)}.
+     */
+    static File tempDirectory(String prefix) throws IOException {
+        File directory = File.createTempFile(prefix, "");
+        if (!directory.delete() || !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        return directory;
+    }
+
+    /**
+     * Deletes a file, or a directory with everything in it.
+     */
+    static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
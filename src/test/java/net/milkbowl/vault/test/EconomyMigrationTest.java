@@ -0,0 +1,125 @@
+package net.milkbowl.vault.test;
+
+import static net.milkbowl.vault.test.EconomyFixtures.player;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.EconomyMigration;
+import net.milkbowl.vault.economy.EconomyResponse;
+import net.milkbowl.vault.economy.MemoryEconomy;
+import net.milkbowl.vault.economy.MigrationResult;
+
+public class EconomyMigrationTest {
+
+    private final OfflinePlayer alice = player("alice");
+    private final OfflinePlayer bob = player("bob");
+    private MemoryEconomy economy;
+
+    @Before
+    public void setUp() {
+        economy = new MemoryEconomy("Test", 2, "Dollar", "Dollars");
+        economy.createPlayerAccount(alice);
+        economy.createPlayerAccount(bob);
+    }
+
+    @Test
+    public void testMigration() throws IOException, InterruptedException {
+        List<OfflinePlayer> players = new ArrayList<OfflinePlayer>();
+        players.add(alice);
+        players.add(bob);
+        for (int i = 0; i < 50; i++) {
+            OfflinePlayer player = player("player" + i);
+            economy.createPlayerAccount(player);
+            economy.depositPlayer(player, i + 0.5);
+            players.add(player);
+        }
+        economy.createPlayerAccount(bob, "nether");
+        economy.depositPlayer(bob, "nether", 4);
+        economy.createBank("guild", alice);
+        economy.bankDeposit("guild", 6);
+
+        MemoryEconomy destination = new MemoryEconomy("Test", 2, "Dollar", "Dollars");
+        destination.createPlayerAccount(alice);
+        destination.depositPlayer(alice, 99);
+        File checkpoint = File.createTempFile("migration", ".properties");
+        checkpoint.delete();
+        try {
+            EconomyMigration migration = new EconomyMigration(economy, destination, checkpoint, 7, 3);
+            MigrationResult result = migration.migrate(players, Arrays.asList(null, "nether"), null);
+            assertTrue(result.isVerified());
+            assertEquals(53, result.getAccounts());
+            assertEquals(1, result.getBanks());
+            assertEquals(0, destination.getBalance(alice), 0);
+            assertEquals(49.5, destination.getBalance(player("player49")), 0);
+            assertEquals(4, destination.getBalance(bob, "nether"), 0);
+            assertEquals(6, destination.bankBalance("guild").balance, 0);
+            assertFalse(checkpoint.exists());
+
+            economy.depositPlayer(bob, 1);
+            assertTrue(migration.migrate(players, Arrays.asList(null, "nether"), null).isVerified());
+            assertEquals(1, destination.getBalance(bob), 0);
+        } finally {
+            checkpoint.delete();
+        }
+    }
+
+    @Test
+    public void testMigrationStopsWhenWriterDies() throws IOException, InterruptedException {
+        List<OfflinePlayer> players = new ArrayList<OfflinePlayer>();
+        for (int i = 0; i < 50; i++) {
+            OfflinePlayer player = player("player" + i);
+            economy.createPlayerAccount(player);
+            economy.depositPlayer(player, i + 1);
+            players.add(player);
+        }
+        final int[] deposits = new int[1];
+        final boolean[] broken = { true };
+        MemoryEconomy destination = new MemoryEconomy("Test", 2, "Dollar", "Dollars") {
+            @Override
+            public EconomyResponse depositPlayer(UUID playerId, String worldName, double amount) {
+                if (broken[0] && ++deposits[0] > 20) {
+                    throw new BackendError();
+                }
+                return super.depositPlayer(playerId, worldName, amount);
+            }
+        };
+        File checkpoint = File.createTempFile("migration", ".properties");
+        checkpoint.delete();
+        try {
+            EconomyMigration migration = new EconomyMigration(economy, destination, checkpoint, 1, 1);
+            try {
+                migration.migrate(players, Arrays.asList((String) null), null);
+                fail();
+            } catch (BackendError expected) {
+            }
+            assertTrue(checkpoint.exists());
+
+            // The resumed run reports the accounts copied by the first one too
+            broken[0] = false;
+            MigrationResult result = migration.migrate(players, Arrays.asList((String) null), null);
+            assertTrue(result.isVerified());
+            assertEquals(50, result.getAccounts());
+            assertEquals(0, result.getFailedAccounts());
+            assertEquals(50, destination.getBalance(player("player49")), 0);
+        } finally {
+            checkpoint.delete();
+        }
+    }
+
+    private static class BackendError extends Error {
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,86 @@
+package net.milkbowl.vault.test;
+
+import static net.milkbowl.vault.test.EconomyFixtures.player;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.EconomySnapshot;
+import net.milkbowl.vault.economy.MemoryEconomy;
+
+public class EconomySnapshotTest {
+
+    private final OfflinePlayer alice = player("alice");
+    private final OfflinePlayer bob = player("bob");
+    private MemoryEconomy economy;
+
+    @Before
+    public void setUp() {
+        economy = new MemoryEconomy("Test", 2, "Dollar", "Dollars");
+        economy.createPlayerAccount(alice);
+        economy.createPlayerAccount(bob);
+    }
+
+    @Test
+    public void testSnapshotRoundTrip() throws IOException {
+        economy.depositPlayer(alice, 12.34);
+        economy.createPlayerAccount(bob, "nether");
+        economy.depositPlayer(bob, "nether", 5);
+        economy.createBank("guild", alice);
+        economy.addBankMember("guild", bob.getUniqueId());
+        economy.bankDeposit("guild", 8);
+
+        File file = File.createTempFile("snapshot", ".bin");
+        try {
+            economy.snapshot().write(file);
+            MemoryEconomy restored = new MemoryEconomy("Test", 2, "Dollar", "Dollars");
+            restored.restore(EconomySnapshot.read(file));
+            assertEquals(12.34, restored.getBalance(alice), 0);
+            assertTrue(restored.hasAccount(bob));
+            assertEquals(5, restored.getBalance(bob, "nether"), 0);
+            assertEquals(8, restored.bankBalance("guild").balance, 0);
+            assertTrue(restored.checkBankOwner("guild", alice));
+            assertTrue(restored.checkBankMember("guild", bob));
+
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            raf.seek(20);
+            raf.write(raf.read() ^ 1);
+            raf.close();
+            try {
+                EconomySnapshot.read(file);
+                fail("corruption not detected");
+            } catch (IOException expected) {
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testSnapshotWriteCleansUpOnFailure() throws IOException {
+        File target = File.createTempFile("snapshot", "");
+        target.delete();
+        // A non-empty directory can neither be renamed over nor deleted
+        File child = new File(target, "child");
+        assertTrue(target.mkdir());
+        assertTrue(child.createNewFile());
+        try {
+            economy.snapshot().write(target);
+            fail("replaced a directory");
+        } catch (IOException expected) {
+        } finally {
+            child.delete();
+            target.delete();
+        }
+        assertFalse(new File(target.getPath() + ".tmp").exists());
+    }
+}
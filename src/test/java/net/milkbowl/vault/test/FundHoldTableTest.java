@@ -0,0 +1,67 @@
+package net.milkbowl.vault.test;
+
+import static net.milkbowl.vault.test.EconomyFixtures.player;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.FundHold;
+import net.milkbowl.vault.economy.FundHoldTable;
+
+public class FundHoldTableTest {
+
+    @Test
+    public void testSweepsAbandonedHolds() throws InterruptedException {
+        FundHoldTable table = new FundHoldTable();
+        OfflinePlayer alice = player("alice");
+        OfflinePlayer bob = player("bob");
+        assertNotNull(table.hold(alice, null, 5, 10, 10));
+        assertNotNull(table.hold(alice, "nether", 5, 10, 10));
+        assertNotNull(table.hold(bob, null, 5, 10, 60000));
+        assertEquals(3, table.getHoldCount());
+        Thread.sleep(50);
+
+        // Looking at another account drops the expired holds of alice too
+        assertEquals(5, table.getHeld(bob.getUniqueId(), null), 0);
+        assertEquals(1, table.getHoldCount());
+        assertEquals(0, table.getHeld(alice.getUniqueId(), null), 0);
+    }
+
+    @Test
+    public void testConcurrentHoldsOfManyAccounts() throws InterruptedException {
+        final FundHoldTable table = new FundHoldTable();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            final int thread = t;
+            Thread holder = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 500; i++) {
+                        OfflinePlayer player = player("player" + thread + "-" + i);
+                        FundHold hold = table.hold(player, null, 1, 1, 60000);
+                        assertNotNull(hold);
+                        if (i % 2 == 0) {
+                            assertTrue(table.release(hold));
+                        }
+                    }
+                }
+            });
+            threads.add(holder);
+            holder.start();
+        }
+        for (Thread holder : threads) {
+            holder.join();
+        }
+        assertEquals(1000, table.getHoldCount());
+        assertEquals(1, table.getHeld(player("player3-499").getUniqueId(), null), 0);
+        table.clear();
+        assertEquals(0, table.getHoldCount());
+        assertEquals(0, table.getHeld(player("player3-499").getUniqueId(), null), 0);
+    }
+}
@@ -0,0 +1,184 @@
+package net.milkbowl.vault.test;
+
+import static net.milkbowl.vault.test.EconomyFixtures.delete;
+import static net.milkbowl.vault.test.EconomyFixtures.player;
+import static net.milkbowl.vault.test.EconomyFixtures.tempDirectory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.BalanceFilter;
+import net.milkbowl.vault.economy.BalanceTransform;
+import net.milkbowl.vault.economy.EconomyResponse;
+import net.milkbowl.vault.economy.JournalingEconomy;
+import net.milkbowl.vault.economy.LinearBalanceTransform;
+import net.milkbowl.vault.economy.MassUpdateListener;
+import net.milkbowl.vault.economy.MassUpdateResult;
+import net.milkbowl.vault.economy.MemoryEconomy;
+import net.milkbowl.vault.economy.PlayerNameIndex;
+import net.milkbowl.vault.economy.TransactionJournal;
+
+public class JournalingEconomyTest {
+
+    private final OfflinePlayer alice = player("alice");
+    private final OfflinePlayer bob = player("bob");
+    private MemoryEconomy economy;
+
+    @Before
+    public void setUp() {
+        economy = new MemoryEconomy("Test", 2, "Dollar", "Dollars");
+        economy.createPlayerAccount(alice);
+        economy.createPlayerAccount(bob);
+    }
+
+    @Test
+    public void testJournalReplay() throws IOException {
+        File directory = tempDirectory("journal");
+        try {
+            TransactionJournal journal = new TransactionJournal(directory, 16, 4);
+            JournalingEconomy journaled = new JournalingEconomy(economy, journal, new PlayerNameIndex());
+            journaled.depositPlayer(alice, 20);
+            journaled.withdrawPlayer(alice, 5);
+            journaled.withdrawPlayer(bob, 5);
+            journaled.createPlayerAccount(bob, "nether");
+            journaled.depositPlayer(bob, "nether", 7);
+            journaled.createBank("vault", alice);
+            journaled.bankDeposit("vault", 3);
+            journaled.transformBalances(LinearBalanceTransform.interest(0.5), null, null, null);
+            journal.close();
+
+            MemoryEconomy recovered = new MemoryEconomy("Test", 2, "Dollar", "Dollars");
+            assertEquals(7, recovered.replay(directory, 1));
+            assertEquals(22.5, recovered.getBalance(alice), 0);
+            assertFalse(recovered.hasAccount(bob));
+            assertEquals(7, recovered.getBalance(bob, "nether"), 0);
+            assertEquals(3, recovered.bankBalance("vault").balance, 0);
+            assertTrue(recovered.checkBankOwner("vault", alice));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void testJournalReplayWithInterleavedTransform() throws IOException, InterruptedException {
+        File directory = tempDirectory("journal");
+        try {
+            TransactionJournal journal = new TransactionJournal(directory, 16, 4);
+            final List<Thread> writers = new ArrayList<Thread>();
+            final JournalingEconomy[] journaled = new JournalingEconomy[1];
+            MemoryEconomy backend = new MemoryEconomy("Test", 2, "Dollar", "Dollars") {
+                @Override
+                public MassUpdateResult transformBalances(BalanceTransform transform, BalanceFilter filter, String worldName, MassUpdateListener listener) {
+                    MassUpdateResult result = super.transformBalances(transform, filter, worldName, listener);
+                    // A deposit racing the end of the transform must not be journaled ahead of it
+                    Thread writer = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            journaled[0].depositPlayer(alice, 1);
+                        }
+                    });
+                    writers.add(writer);
+                    writer.start();
+                    try {
+                        writer.join(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return result;
+                }
+            };
+            journaled[0] = new JournalingEconomy(backend, journal, new PlayerNameIndex());
+            journaled[0].createPlayerAccount(alice);
+            journaled[0].depositPlayer(alice, 10);
+            journaled[0].transformBalances(LinearBalanceTransform.interest(0.5), null, null, null);
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            journal.close();
+            assertEquals(16, backend.getBalance(alice), 0);
+
+            MemoryEconomy recovered = new MemoryEconomy("Test", 2, "Dollar", "Dollars");
+            recovered.replay(directory, 1);
+            assertEquals(backend.getBalance(alice), recovered.getBalance(alice), 0);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void testRecordsOfOneAccountKeepCallOrder() throws IOException, InterruptedException {
+        File directory = tempDirectory("journal");
+        try {
+            TransactionJournal journal = new TransactionJournal(directory, 16, 4);
+            final List<Thread> writers = new ArrayList<Thread>();
+            final JournalingEconomy[] journaled = new JournalingEconomy[1];
+            MemoryEconomy backend = new MemoryEconomy("Test", 2, "Dollar", "Dollars") {
+                @Override
+                public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+                    EconomyResponse response = super.depositPlayer(player, amount);
+                    if (writers.isEmpty()) {
+                        // A second deposit landing between the first one and its record must not be journaled ahead of it
+                        Thread writer = new Thread(new Runnable() {
+                            @Override
+                            public void run() {
+                                journaled[0].depositPlayer(alice, 10);
+                            }
+                        });
+                        writers.add(writer);
+                        writer.start();
+                        try {
+                            writer.join(100);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return response;
+                }
+            };
+            backend.createPlayerAccount(alice);
+            journaled[0] = new JournalingEconomy(backend, journal, new PlayerNameIndex());
+            journaled[0].depositPlayer(alice, 100);
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            journal.close();
+            assertEquals(110, backend.getBalance(alice), 0);
+
+            MemoryEconomy recovered = new MemoryEconomy("Test", 2, "Dollar", "Dollars");
+            recovered.replay(directory, 1);
+            assertEquals(110, recovered.getBalance(alice), 0);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void testRefusesNamesTooLongToJournal() throws IOException {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            name.append("\u00e9");
+        }
+        File directory = tempDirectory("journal");
+        try {
+            TransactionJournal journal = new TransactionJournal(directory, 16, 4);
+            JournalingEconomy journaled = new JournalingEconomy(economy, journal, new PlayerNameIndex());
+            assertFalse(journaled.createBank(name.toString(), alice).transactionSuccess());
+            assertFalse(economy.getBanks().contains(name.toString()));
+            assertFalse(journaled.createPlayerAccount(alice, name.toString()));
+            assertFalse(economy.hasAccount(alice, name.toString()));
+            assertEquals(1, journal.getNextSequence());
+            journal.close();
+        } finally {
+            delete(directory);
+        }
+    }
+}
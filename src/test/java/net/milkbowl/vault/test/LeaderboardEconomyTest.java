@@ -0,0 +1,104 @@
+package net.milkbowl.vault.test;
+
+import static net.milkbowl.vault.test.EconomyFixtures.player;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.BalanceEntry;
+import net.milkbowl.vault.economy.EconomyResponseHolder;
+import net.milkbowl.vault.economy.FundHold;
+import net.milkbowl.vault.economy.LeaderboardEconomy;
+import net.milkbowl.vault.economy.LinearBalanceTransform;
+import net.milkbowl.vault.economy.MemoryEconomy;
+
+public class LeaderboardEconomyTest {
+
+    private final OfflinePlayer alice = player("alice");
+    private final OfflinePlayer bob = player("bob");
+    private final OfflinePlayer carol = player("carol");
+    private MemoryEconomy backend;
+    private LeaderboardEconomy economy;
+
+    @Before
+    public void setUp() {
+        backend = new MemoryEconomy("Test", 2, "Dollar", "Dollars");
+        economy = new LeaderboardEconomy(backend);
+    }
+
+    @Test
+    public void testFollowsMutations() {
+        assertTrue(economy.createPlayerAccount(alice));
+        assertEquals(1, economy.getBalanceRank(alice));
+        // Accounts created behind the decorator are added when first seen
+        backend.createPlayerAccount(bob);
+        assertEquals(0, economy.getBalanceRank(bob));
+        economy.depositPlayer(alice, 10);
+        economy.depositPlayer(bob, 5);
+        assertTop(alice, 10, bob, 5);
+
+        assertTrue(economy.withdrawPlayer(alice, 8).transactionSuccess());
+        assertTop(bob, 5, alice, 2);
+        assertFalse(economy.withdrawPlayer(alice, 50).transactionSuccess());
+        assertEquals(2, economy.getBalanceRank(alice));
+
+        EconomyResponseHolder result = new EconomyResponseHolder();
+        assertTrue(economy.depositPlayer(alice, null, 4, result));
+        assertTop(alice, 6, bob, 5);
+
+        // A world account does not move the global balance
+        backend.createPlayerAccount(bob, "nether");
+        assertTrue(economy.depositPlayer(bob, "nether", 100).transactionSuccess());
+        assertTop(alice, 6, bob, 5);
+
+        FundHold hold = economy.holdFunds(alice, null, 2, 1, TimeUnit.MINUTES);
+        assertNotNull(hold);
+        assertTrue(economy.captureHold(hold).transactionSuccess());
+        assertTop(bob, 5, alice, 4);
+
+        economy.transformBalances(LinearBalanceTransform.interest(1), null, null, null);
+        assertTop(bob, 10, alice, 8);
+
+        assertEquals(Arrays.asList(carol), economy.createPlayerAccounts(Arrays.asList(alice, carol), null));
+        assertEquals(3, economy.getBalanceRank(carol));
+        assertEquals(3, economy.getLeaderboard().size());
+    }
+
+    @Test
+    public void testSeedAndTrack() {
+        backend.createPlayerAccount(alice);
+        backend.createPlayerAccount(bob);
+        backend.depositPlayer(alice, 3);
+        backend.depositPlayer(bob, 7);
+        economy.seed(Arrays.asList(alice, bob, carol));
+        assertTop(bob, 7, alice, 3);
+        assertEquals(0, economy.getBalanceRank(carol));
+
+        // Changes made behind the decorator show after the player is tracked again
+        backend.depositPlayer(alice, 10);
+        assertEquals(2, economy.getBalanceRank(alice));
+        economy.track(alice);
+        assertTop(alice, 13, bob, 7);
+        economy.refresh();
+        assertEquals(2, economy.getLeaderboard().size());
+    }
+
+    private void assertTop(OfflinePlayer first, double firstBalance, OfflinePlayer second, double secondBalance) {
+        List<BalanceEntry> top = economy.getTopBalances(2);
+        assertEquals(2, top.size());
+        assertEquals(first.getUniqueId(), top.get(0).getPlayerId());
+        assertEquals(firstBalance, top.get(0).getBalance(), 0);
+        assertEquals(1, top.get(0).getRank());
+        assertEquals(second.getUniqueId(), top.get(1).getPlayerId());
+        assertEquals(secondBalance, top.get(1).getBalance(), 0);
+    }
+}
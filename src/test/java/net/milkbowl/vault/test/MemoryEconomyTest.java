@@ -0,0 +1,317 @@
+package net.milkbowl.vault.test;
+
+import static net.milkbowl.vault.test.EconomyFixtures.delete;
+import static net.milkbowl.vault.test.EconomyFixtures.player;
+import static net.milkbowl.vault.test.EconomyFixtures.tempDirectory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.BalanceFilter;
+import net.milkbowl.vault.economy.BalanceTransform;
+import net.milkbowl.vault.economy.BankPage;
+import net.milkbowl.vault.economy.EconomyResponse;
+import net.milkbowl.vault.economy.EconomyResponseHolder;
+import net.milkbowl.vault.economy.EconomyResponse.ErrorCode;
+import net.milkbowl.vault.economy.ForwardingEconomy;
+import net.milkbowl.vault.economy.FundHold;
+import net.milkbowl.vault.economy.JournalingEconomy;
+import net.milkbowl.vault.economy.LinearBalanceTransform;
+import net.milkbowl.vault.economy.MassUpdateListener;
+import net.milkbowl.vault.economy.MassUpdateResult;
+import net.milkbowl.vault.economy.MemoryEconomy;
+import net.milkbowl.vault.economy.PlayerNameIndex;
+import net.milkbowl.vault.economy.TransactionJournal;
+import net.milkbowl.vault.economy.VersionedBalance;
+
+public class MemoryEconomyTest {
+
+    private MemoryEconomy economy;
+    private OfflinePlayer alice;
+    private OfflinePlayer bob;
+
+    @Before
+    public void setUp() {
+        economy = new MemoryEconomy("Test", 2, "Dollar", "Dollars");
+        alice = player("alice");
+        bob = player("bob");
+        economy.createPlayerAccount(alice);
+        economy.createPlayerAccount(bob);
+    }
+
+    @Test
+    public void testDepositAndWithdraw() {
+        assertTrue(economy.depositPlayer(alice, 10.25).transactionSuccess());
+        EconomyResponse response = economy.withdrawPlayer(alice, 0.3);
+        assertTrue(response.transactionSuccess());
+        assertEquals(9.95, response.balance, 0);
+        assertEquals(995, economy.getBalanceMinor(alice));
+
+        response = economy.withdrawPlayer(alice, 10);
+        assertEquals(ErrorCode.INSUFFICIENT_FUNDS, response.errorCode);
+        assertEquals(ErrorCode.INVALID_AMOUNT, economy.depositPlayer(alice, -1).errorCode);
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, economy.depositPlayer(player("carol"), 1).errorCode);
+        assertFalse(economy.createPlayerAccount(alice));
+    }
+
+    @Test
+    public void testConcurrentDeposits() throws InterruptedException {
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 10000; i++) {
+                        economy.depositPlayer(alice, 0.01);
+                        economy.depositPlayer(bob, 1);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40000, economy.getBalanceMinor(alice));
+        assertEquals(40000, economy.getBalance(bob), 0);
+    }
+
+    @Test
+    public void testHolds() {
+        economy.depositPlayer(alice, 100);
+        FundHold hold = economy.holdFunds(alice, null, 60, 1, TimeUnit.MINUTES);
+        assertNotNull(hold);
+        assertNull(economy.holdFunds(alice, null, 50, 1, TimeUnit.MINUTES));
+        assertFalse(economy.has(alice, 50));
+        assertEquals(ErrorCode.INSUFFICIENT_FUNDS, economy.withdrawPlayer(alice, 50).errorCode);
+        assertEquals(100, economy.getBalance(alice), 0);
+
+        assertTrue(economy.captureHold(hold).transactionSuccess());
+        assertEquals(40, economy.getBalance(alice), 0);
+        assertEquals(ErrorCode.HOLD_NOT_FOUND, economy.captureHold(hold).errorCode);
+        assertFalse(economy.releaseHold(hold));
+        assertEquals(0, economy.getHeldBalance(alice, null), 0);
+    }
+
+    @Test
+    public void testClearDropsHolds() {
+        economy.depositPlayer(alice, 100);
+        assertNotNull(economy.holdFunds(alice, null, 60, 1, TimeUnit.MINUTES));
+        economy.clear();
+        assertEquals(0, economy.getHeldBalance(alice, null), 0);
+        economy.createPlayerAccount(alice);
+        economy.depositPlayer(alice, 10);
+        assertTrue(economy.withdrawPlayer(alice, 10).transactionSuccess());
+    }
+
+    @Test
+    public void testWithdrawalWaitsForHoldBeingPlaced() throws InterruptedException {
+        final List<Thread> withdrawals = new ArrayList<Thread>();
+        final MemoryEconomy[] held = new MemoryEconomy[1];
+        final EconomyResponse[] withdrawn = new EconomyResponse[1];
+        held[0] = new MemoryEconomy("Test", 2, "Dollar", "Dollars") {
+            @Override
+            public double getBalance(OfflinePlayer player) {
+                double balance = super.getBalance(player);
+                if (withdrawals.isEmpty()) {
+                    // A withdrawal landing between the balance read and the hold must not spend the held amount
+                    Thread withdrawal = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            withdrawn[0] = held[0].withdrawPlayer(alice, 100);
+                        }
+                    });
+                    withdrawals.add(withdrawal);
+                    withdrawal.start();
+                    try {
+                        withdrawal.join(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return balance;
+            }
+        };
+        held[0].createPlayerAccount(alice);
+        held[0].depositPlayer(alice, 100);
+        assertNotNull(held[0].holdFunds(alice, null, 60, 1, TimeUnit.MINUTES));
+        for (Thread withdrawal : withdrawals) {
+            withdrawal.join();
+        }
+        assertEquals(ErrorCode.INSUFFICIENT_FUNDS, withdrawn[0].errorCode);
+        assertEquals(100, held[0].getBalance(alice.getUniqueId(), null), 0);
+    }
+
+    @Test
+    public void testHolderOverloads() {
+        EconomyResponseHolder result = new EconomyResponseHolder();
+        assertTrue(economy.depositPlayer(alice, null, 10.25, result));
+        assertEquals(10.25, result.getBalance(), 0);
+        assertTrue(economy.withdrawPlayer(alice, null, 0.25, result));
+        assertEquals(ErrorCode.NONE, result.getErrorCode());
+        assertEquals(10, result.getBalance(), 0);
+
+        assertFalse(economy.withdrawPlayer(alice, null, 11, result));
+        assertEquals(ErrorCode.INSUFFICIENT_FUNDS, result.getErrorCode());
+        assertEquals(10, result.getBalance(), 0);
+        assertFalse(economy.depositPlayer(alice, null, -1, result));
+        assertEquals(ErrorCode.INVALID_AMOUNT, result.getErrorCode());
+        assertFalse(economy.depositPlayer(player("carol"), null, 1, result));
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, result.getErrorCode());
+
+        assertNotNull(economy.holdFunds(alice, null, 6, 1, TimeUnit.MINUTES));
+        assertFalse(economy.withdrawPlayer(alice, null, 5, result));
+        assertEquals(ErrorCode.INSUFFICIENT_FUNDS, result.getErrorCode());
+        assertEquals(10, economy.getBalance(alice), 0);
+    }
+
+    @Test
+    public void testForwardsHolderOverloads() throws IOException {
+        final int[] calls = new int[1];
+        MemoryEconomy backend = new MemoryEconomy("Test", 2, "Dollar", "Dollars") {
+            @Override
+            public boolean depositPlayer(OfflinePlayer player, String worldName, double amount, EconomyResponseHolder result) {
+                calls[0]++;
+                return super.depositPlayer(player, worldName, amount, result);
+            }
+        };
+        backend.createPlayerAccount(alice);
+        EconomyResponseHolder result = new EconomyResponseHolder();
+        assertTrue(new ForwardingEconomy(backend) {}.depositPlayer(alice, null, 5, result));
+        assertEquals(1, calls[0]);
+        assertEquals(5, backend.getBalance(alice), 0);
+
+        // Decorators that intercept deposits must still see holder calls
+        File directory = tempDirectory("journal");
+        try {
+            TransactionJournal journal = new TransactionJournal(directory, 16, 4);
+            JournalingEconomy journaled = new JournalingEconomy(backend, journal, new PlayerNameIndex());
+            assertTrue(journaled.depositPlayer(alice, null, 2, result));
+            assertEquals(7, result.getBalance(), 0);
+            journal.close();
+
+            MemoryEconomy recovered = new MemoryEconomy("Test", 2, "Dollar", "Dollars");
+            recovered.replay(directory, 1);
+            assertEquals(7, recovered.getBalance(alice), 0);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void testCompareAndSet() {
+        economy.depositPlayer(alice, 5);
+        VersionedBalance read = economy.getVersionedBalance(alice, null);
+        assertEquals(5, read.getBalance(), 0);
+        economy.depositPlayer(alice, 1);
+        assertEquals(ErrorCode.VERSION_CONFLICT, economy.compareAndSetBalance(alice, null, read.getVersion(), 10).errorCode);
+
+        read = economy.getVersionedBalance(alice, null);
+        assertTrue(economy.compareAndSetBalance(alice, null, read.getVersion(), 10).transactionSuccess());
+        assertEquals(10, economy.getBalance(alice), 0);
+        assertNull(economy.getVersionedBalance(player("carol"), null));
+    }
+
+    @Test
+    public void testTransformBalances() {
+        economy.depositPlayer(alice, 100);
+        economy.depositPlayer(bob, 50);
+        MassUpdateResult result = economy.transformBalances(LinearBalanceTransform.interest(0.1), null, null, null);
+        assertEquals(2, result.getChanged());
+        assertEquals(15, result.getTotalDelta(), 1e-9);
+        assertEquals(110, economy.getBalance(alice), 0);
+        assertEquals(55, economy.getBalance(bob), 0);
+        assertEquals(1, economy.getBalanceRank(alice));
+        assertEquals(2, economy.getTopBalances(5).size());
+    }
+
+    @Test
+    public void testTransformEachBalanceOnCallingThread() {
+        final Thread caller = Thread.currentThread();
+        final List<Thread> writers = new ArrayList<Thread>();
+        final List<OfflinePlayer> players = new ArrayList<OfflinePlayer>();
+        MemoryEconomy serial = new MemoryEconomy("Test", 2, "Dollar", "Dollars") {
+            @Override
+            public EconomyResponse depositPlayer(UUID playerId, String worldName, double amount) {
+                writers.add(Thread.currentThread());
+                return super.depositPlayer(playerId, worldName, amount);
+            }
+
+            @Override
+            protected int getMassUpdateParallelism() {
+                return 1;
+            }
+
+            @Override
+            public MassUpdateResult transformBalances(BalanceTransform transform, BalanceFilter filter, String worldName, MassUpdateListener listener) {
+                return transformEachBalance(players, transform, filter, worldName, listener);
+            }
+        };
+        for (int i = 0; i < 600; i++) {
+            OfflinePlayer player = player("player" + i);
+            players.add(player);
+            serial.createPlayerAccount(player);
+        }
+        final int[] progress = new int[1];
+        MassUpdateResult result = serial.transformBalances(new BalanceTransform() {
+            @Override
+            public double apply(OfflinePlayer player, double balance) {
+                return balance + 1;
+            }
+        }, null, null, new MassUpdateListener() {
+            @Override
+            public void onProgress(int processed, int total) {
+                assertSame(caller, Thread.currentThread());
+                progress[0] = processed;
+            }
+        });
+        assertEquals(600, result.getMatched());
+        assertEquals(600, result.getChanged());
+        assertEquals(600, progress[0]);
+        assertEquals(600, writers.size());
+        for (Thread writer : writers) {
+            assertSame(caller, writer);
+        }
+        assertEquals(1, serial.getBalance(players.get(599)), 0);
+    }
+
+    @Test
+    public void testBanks() {
+        for (String name : Arrays.asList("b", "a", "c", "ab")) {
+            assertTrue(economy.createBank(name, alice).transactionSuccess());
+        }
+        assertEquals(ErrorCode.BANK_EXISTS, economy.createBank("a", bob).errorCode);
+        assertTrue(economy.addBankMember("c", bob.getUniqueId()));
+        assertEquals(Arrays.asList("c"), economy.getBanksWithMember(bob));
+        assertTrue(economy.checkBankMember("c", alice));
+        assertFalse(economy.checkBankOwner("c", bob));
+
+        BankPage page = economy.getBanks(null, null, 3);
+        assertEquals(Arrays.asList("a", "ab", "b"), page.getNames());
+        page = economy.getBanks(null, page.getNextCursor(), 3);
+        assertEquals(Arrays.asList("c"), page.getNames());
+        assertFalse(page.hasMore());
+
+        assertTrue(economy.bankDeposit("a", 3).transactionSuccess());
+        assertEquals(ErrorCode.INSUFFICIENT_FUNDS, economy.bankWithdraw("a", 4).errorCode);
+        assertTrue(economy.deleteBank("a").transactionSuccess());
+        assertEquals(ErrorCode.BANK_NOT_FOUND, economy.bankBalance("a").errorCode);
+        assertEquals(3, economy.getBanksOwnedBy(alice).size());
+    }
+}
@@ -0,0 +1,41 @@
+package net.milkbowl.vault.test;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.MinorUnits;
+
+public class MinorUnitsTest {
+
+    @Test
+    public void testDigits() {
+        assertEquals(MinorUnits.DEFAULT_DIGITS, MinorUnits.digits(-1));
+        assertEquals(0, MinorUnits.digits(0));
+        assertEquals(3, MinorUnits.digits(3));
+        assertEquals(MinorUnits.MAX_DIGITS, MinorUnits.digits(40));
+    }
+
+    @Test
+    public void testToMinorRoundsHalfUp() {
+        assertEquals(29L, MinorUnits.toMinor(0.285, 2));
+        assertEquals(-29L, MinorUnits.toMinor(-0.285, 2));
+        assertEquals(1234L, MinorUnits.toMinor(12.34, 2));
+        assertEquals(-1234L, MinorUnits.toMinor(-12.34, 2));
+        assertEquals(13L, MinorUnits.toMinor(12.5, 0));
+        assertEquals(12L, MinorUnits.toMinor(12.4999, 0));
+        assertEquals(100000000000000000L, MinorUnits.toMinor(1e15, 2));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        for (long minor = -10000; minor <= 10000; minor += 7) {
+            assertEquals(minor, MinorUnits.toMinor(MinorUnits.toMajor(minor, 2), 2));
+        }
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testOverflow() {
+        MinorUnits.toMinor(1e30, 2);
+    }
+}
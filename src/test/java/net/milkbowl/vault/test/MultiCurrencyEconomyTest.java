@@ -0,0 +1,160 @@
+package net.milkbowl.vault.test;
+
+import static net.milkbowl.vault.test.EconomyFixtures.delete;
+import static net.milkbowl.vault.test.EconomyFixtures.player;
+import static net.milkbowl.vault.test.EconomyFixtures.tempDirectory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.BalanceChange;
+import net.milkbowl.vault.economy.BalanceListener;
+import net.milkbowl.vault.economy.CachingEconomy;
+import net.milkbowl.vault.economy.Currency;
+import net.milkbowl.vault.economy.EconomyResponse.ErrorCode;
+import net.milkbowl.vault.economy.JournalingEconomy;
+import net.milkbowl.vault.economy.MemoryEconomy;
+import net.milkbowl.vault.economy.NotifyingEconomy;
+import net.milkbowl.vault.economy.PlayerNameIndex;
+import net.milkbowl.vault.economy.TransactionJournal;
+
+public class MultiCurrencyEconomyTest {
+
+    private final OfflinePlayer alice = player("alice");
+    private final OfflinePlayer bob = player("bob");
+    private MemoryEconomy economy;
+
+    @Before
+    public void setUp() {
+        economy = new MemoryEconomy("Test", 2, "Dollar", "Dollars");
+        economy.createPlayerAccount(alice);
+        economy.createPlayerAccount(bob);
+    }
+
+    @Test
+    public void testDefaultCurrency() {
+        Currency dollars = economy.getCurrency("dollars");
+        assertSame(economy.getDefaultCurrency(), dollars);
+        assertEquals(0, dollars.getId());
+        assertNull(economy.getCurrency("gems"));
+        assertTrue(economy.depositPlayer(alice, null, dollars, 2.5).transactionSuccess());
+        assertTrue(economy.has(alice, null, dollars, 2.5));
+        assertEquals(2.5, economy.getBalances(alice, null)[0], 0);
+
+        CachingEconomy cached = new CachingEconomy(economy, 10, 1, TimeUnit.HOURS);
+        assertEquals(2.5, cached.getBalance(alice), 0);
+        assertTrue(cached.withdrawPlayer(alice, null, cached.getDefaultCurrency(), 1).transactionSuccess());
+        assertEquals(1.5, cached.getBalance(alice), 0);
+        Currency gems = new Currency(1, "Gems", 0, "Gem", "Gems");
+        try {
+            cached.getBalance(alice, null, gems);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            cached.depositPlayer(alice, null, gems, 1);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void testOtherCurrencies() {
+        Currency gems = economy.addCurrency("Gems", 0, "Gem", "Gems");
+        assertEquals(1, gems.getId());
+        assertSame(gems, economy.getCurrency("GEMS"));
+        assertEquals(2, economy.getCurrencies().size());
+        assertSame(gems, economy.getCurrencies().get(1));
+        try {
+            economy.addCurrency("gems", 0, "Gem", "Gems");
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+
+        economy.depositPlayer(alice, 4.5);
+        assertTrue(economy.depositPlayer(alice, null, gems, 3).transactionSuccess());
+        assertEquals(ErrorCode.INSUFFICIENT_FUNDS, economy.withdrawPlayer(alice, null, gems, 4).errorCode);
+        assertEquals(ErrorCode.INVALID_AMOUNT, economy.depositPlayer(alice, null, gems, -1).errorCode);
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, economy.depositPlayer(player("carol"), null, gems, 1).errorCode);
+        assertEquals(2, economy.withdrawPlayer(alice, null, gems, 1).balance, 0);
+        assertTrue(economy.has(alice, null, gems, 2));
+        assertFalse(economy.has(bob, null, gems, 1));
+        assertEquals(4.5, economy.getBalance(alice), 0);
+        double[] balances = economy.getBalances(alice, null);
+        assertEquals(2, balances.length);
+        assertEquals(4.5, balances[0], 0);
+        assertEquals(2, balances[1], 0);
+
+        MemoryEconomy other = new MemoryEconomy("Other", 2, "Dollar", "Dollars");
+        Currency otherGems = other.addCurrency("Gems", 0, "Gem", "Gems");
+        try {
+            economy.getBalance(alice, null, otherGems);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+
+        // Decorators carry other currencies
+        CachingEconomy cached = new CachingEconomy(economy, 10, 1, TimeUnit.HOURS);
+        assertSame(gems, cached.getCurrency("Gems"));
+        assertTrue(cached.depositPlayer(alice, null, gems, 1).transactionSuccess());
+        assertEquals(3, cached.getBalances(alice, null)[1], 0);
+    }
+
+    @Test
+    public void testJournalsOtherCurrencies() throws IOException {
+        Currency gems = economy.addCurrency("Gems", 0, "Gem", "Gems");
+        File directory = tempDirectory("journal");
+        try {
+            TransactionJournal journal = new TransactionJournal(directory, 16, 4);
+            JournalingEconomy journaled = new JournalingEconomy(economy, journal, new PlayerNameIndex());
+            assertTrue(journaled.depositPlayer(alice, null, gems, 3).transactionSuccess());
+            assertTrue(journaled.withdrawPlayer(alice, null, gems, 1).transactionSuccess());
+            assertTrue(journaled.depositPlayer(alice, null, journaled.getDefaultCurrency(), 1).transactionSuccess());
+            journal.close();
+            assertEquals(2, economy.getBalance(alice, null, gems), 0);
+            assertEquals(1, economy.getBalance(alice), 0);
+
+            MemoryEconomy recovered = new MemoryEconomy("Test", 2, "Dollar", "Dollars");
+            Currency recoveredGems = recovered.addCurrency("Gems", 0, "Gem", "Gems");
+            recovered.replay(directory, 1);
+            assertEquals(2, recovered.getBalance(alice, null, recoveredGems), 0);
+            assertEquals(1, recovered.getBalance(alice), 0);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void testNotifiesOtherCurrencies() {
+        Currency gems = economy.addCurrency("Gems", 0, "Gem", "Gems");
+        NotifyingEconomy notifying = new NotifyingEconomy(economy);
+        final List<BalanceChange> changes = new ArrayList<BalanceChange>();
+        notifying.subscribe(new BalanceListener() {
+            @Override
+            public void onBalanceChange(BalanceChange change) {
+                changes.add(change);
+            }
+        });
+        assertTrue(notifying.depositPlayer(alice, null, gems, 3).transactionSuccess());
+        assertTrue(notifying.depositPlayer(alice, 1).transactionSuccess());
+        notifying.run();
+        assertEquals(2, changes.size());
+        assertEquals(gems.getId(), changes.get(0).getCurrencyId());
+        assertEquals(3, changes.get(0).getNewBalance(), 0);
+        assertEquals(0, changes.get(1).getCurrencyId());
+        assertEquals(1, changes.get(1).getNewBalance(), 0);
+    }
+}
@@ -0,0 +1,108 @@
+package net.milkbowl.vault.test;
+
+import static net.milkbowl.vault.test.EconomyFixtures.player;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.BalanceChange;
+import net.milkbowl.vault.economy.BalanceChange.Cause;
+import net.milkbowl.vault.economy.BalanceListener;
+import net.milkbowl.vault.economy.EconomyResponseHolder;
+import net.milkbowl.vault.economy.MemoryEconomy;
+import net.milkbowl.vault.economy.NotifyingEconomy;
+
+public class NotifyingEconomyTest {
+
+    private final OfflinePlayer alice = player("alice");
+    private final OfflinePlayer bob = player("bob");
+    private final List<BalanceChange> all = new ArrayList<BalanceChange>();
+    private final BalanceListener collector = new BalanceListener() {
+        @Override
+        public void onBalanceChange(BalanceChange change) {
+            all.add(change);
+        }
+    };
+    private NotifyingEconomy economy;
+
+    @Before
+    public void setUp() {
+        MemoryEconomy backend = new MemoryEconomy("Test", 2, "Dollar", "Dollars");
+        backend.createPlayerAccount(alice);
+        backend.createPlayerAccount(bob);
+        economy = new NotifyingEconomy(backend);
+        economy.subscribe(collector);
+    }
+
+    @Test
+    public void testCoalescesChangesPerAccount() {
+        final List<BalanceChange> ofAlice = new ArrayList<BalanceChange>();
+        economy.subscribe(alice.getUniqueId(), new BalanceListener() {
+            @Override
+            public void onBalanceChange(BalanceChange change) {
+                ofAlice.add(change);
+            }
+        });
+        assertTrue(economy.depositPlayer(alice, 10).transactionSuccess());
+        assertTrue(economy.withdrawPlayer(alice, 3).transactionSuccess());
+        assertTrue(economy.depositPlayer(bob, 5).transactionSuccess());
+        assertFalse(economy.withdrawPlayer(bob, 50).transactionSuccess());
+        assertTrue(all.isEmpty());
+
+        economy.run();
+        assertEquals(2, all.size());
+        BalanceChange change = all.get(0);
+        assertEquals(alice.getUniqueId(), change.getPlayerId());
+        assertEquals(0, change.getOldBalance(), 0);
+        assertEquals(7, change.getNewBalance(), 0);
+        assertEquals(Cause.MIXED, change.getCause());
+        assertEquals(2, change.getChanges());
+        change = all.get(1);
+        assertEquals(bob.getUniqueId(), change.getPlayerId());
+        assertEquals(5, change.getNewBalance(), 0);
+        assertEquals(Cause.DEPOSIT, change.getCause());
+        assertEquals(1, change.getChanges());
+        assertEquals(1, ofAlice.size());
+
+        economy.run();
+        assertEquals(2, all.size());
+    }
+
+    @Test
+    public void testReportsHolderCalls() {
+        EconomyResponseHolder result = new EconomyResponseHolder();
+        assertTrue(economy.depositPlayer(alice, null, 4, result));
+        assertTrue(economy.withdrawPlayer(alice, null, 1, result));
+        economy.run();
+        assertEquals(1, all.size());
+        assertEquals(3, all.get(0).getNewBalance(), 0);
+        assertEquals(2, all.get(0).getChanges());
+    }
+
+    @Test
+    public void testFailingListenerDoesNotStopDelivery() {
+        economy.unsubscribe(collector);
+        economy.subscribe(new BalanceListener() {
+            @Override
+            public void onBalanceChange(BalanceChange change) {
+                throw new IllegalStateException("listener bug");
+            }
+        });
+        economy.subscribe(collector);
+        economy.depositPlayer(alice, 1);
+        economy.run();
+        assertEquals(1, all.size());
+
+        economy.unsubscribe(collector);
+        economy.depositPlayer(alice, 1);
+        economy.run();
+        assertEquals(1, all.size());
+    }
+}
@@ -0,0 +1,38 @@
+package net.milkbowl.vault.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.UUID;
+
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.PlayerNameIndex;
+
+public class PlayerNameIndexTest {
+
+    @Test
+    public void testIgnoresCase() {
+        PlayerNameIndex index = new PlayerNameIndex();
+        UUID id = UUID.randomUUID();
+        index.remember("Alice", id);
+        assertEquals(id, index.getIfPresent("ALICE"));
+        index.forget("alice");
+        assertNull(index.getIfPresent("Alice"));
+    }
+
+    @Test
+    public void testDropsLeastRecentlyUsedNames() {
+        PlayerNameIndex index = new PlayerNameIndex(2);
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        UUID carol = UUID.randomUUID();
+        index.remember("alice", alice);
+        index.remember("bob", bob);
+        assertEquals(alice, index.getIfPresent("alice"));
+        index.remember("carol", carol);
+        assertNull(index.getIfPresent("bob"));
+        assertEquals(alice, index.getIfPresent("alice"));
+        assertEquals(carol, index.getIfPresent("carol"));
+    }
+}
@@ -0,0 +1,208 @@
+package net.milkbowl.vault.test;
+
+import static net.milkbowl.vault.test.EconomyFixtures.player;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.BalanceEntry;
+import net.milkbowl.vault.economy.BankPage;
+import net.milkbowl.vault.economy.Currency;
+import net.milkbowl.vault.economy.EconomyResponse;
+import net.milkbowl.vault.economy.EconomyResponse.ErrorCode;
+import net.milkbowl.vault.economy.MemoryEconomy;
+import net.milkbowl.vault.economy.PlayerNameIndex;
+import net.milkbowl.vault.economy.ShardedEconomy;
+
+public class ShardedEconomyTest {
+
+    private List<MemoryEconomy> shards;
+    private ShardedEconomy economy;
+
+    @Before
+    public void setUp() {
+        shards = new ArrayList<MemoryEconomy>();
+        for (int i = 0; i < 3; i++) {
+            shards.add(new MemoryEconomy("Shard" + i, 2, "Dollar", "Dollars"));
+        }
+        economy = new ShardedEconomy("Sharded", shards, 64, new PlayerNameIndex());
+    }
+
+    @Test
+    public void testRoutesConsistently() {
+        int[] counts = new int[3];
+        List<UUID> ids = new ArrayList<UUID>();
+        for (int i = 0; i < 3000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            counts[shards.indexOf(economy.getShard(id))]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 600);
+        }
+
+        List<MemoryEconomy> grown = new ArrayList<MemoryEconomy>(shards);
+        grown.add(new MemoryEconomy("Shard3", 2, "Dollar", "Dollars"));
+        ShardedEconomy resharded = new ShardedEconomy("Sharded", grown, 64, new PlayerNameIndex());
+        int moved = 0;
+        for (UUID id : ids) {
+            if (economy.getShard(id) != resharded.getShard(id)) {
+                assertSame(grown.get(3), resharded.getShard(id));
+                moved++;
+            }
+        }
+        assertTrue(moved > 300 && moved < 1200);
+    }
+
+    @Test
+    public void testRoutesCurrenciesWithShardHandles() {
+        // Each shard adds its currencies in its own order, so the shards disagree on the ids
+        for (int i = shards.size() - 1; i >= 0; i--) {
+            if (i != 1) {
+                shards.get(i).addCurrency("Tokens", 0, "Token", "Tokens");
+            }
+            shards.get(i).addCurrency("Gems", 0, "Gem", "Gems");
+            if (i == 1) {
+                shards.get(i).addCurrency("Tokens", 0, "Token", "Tokens");
+            }
+        }
+        Currency gems = economy.getCurrency("Gems");
+        assertSame(shards.get(0).getCurrency("Gems"), gems);
+        assertEquals(3, economy.getCurrencies().size());
+        for (int i = 0; i < 30; i++) {
+            OfflinePlayer player = player("player" + i);
+            MemoryEconomy shard = (MemoryEconomy) economy.getShard(player.getUniqueId());
+            economy.createPlayerAccount(player);
+            economy.depositPlayer(player, 1);
+            assertTrue(economy.depositPlayer(player, null, gems, i).transactionSuccess());
+            assertEquals(i, shard.getBalance(player, null, shard.getCurrency("Gems")), 0);
+            assertEquals(0, shard.getBalance(player, null, shard.getCurrency("Tokens")), 0);
+            assertEquals(i, economy.getBalance(player, null, gems), 0);
+            double[] balances = economy.getBalances(player, null);
+            assertEquals(1, balances[0], 0);
+            assertEquals(i, balances[gems.getId()], 0);
+            assertEquals(0, balances[economy.getCurrency("Tokens").getId()], 0);
+        }
+    }
+
+    @Test
+    public void testAccountsAndBanksLiveOnTheirShard() {
+        OfflinePlayer alice = player("alice");
+        assertTrue(economy.createPlayerAccount(alice));
+        assertTrue(economy.depositPlayer(alice, 5).transactionSuccess());
+        assertEquals(5, economy.getShard(alice.getUniqueId()).getBalance(alice), 0);
+        for (MemoryEconomy shard : shards) {
+            assertEquals(shard == economy.getShard(alice.getUniqueId()), shard.hasAccount(alice));
+        }
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(economy.createBank("bank" + i, alice).transactionSuccess());
+        }
+        assertTrue(economy.bankDeposit("bank7", 3).transactionSuccess());
+        assertEquals(3, economy.getBankShard("bank7").bankBalance("bank7").balance, 0);
+        assertEquals(20, economy.getBanks().size());
+        assertEquals(20, economy.getBanksOwnedBy(alice).size());
+        List<String> paged = new ArrayList<String>();
+        BankPage page = economy.getBanks(null, null, 6);
+        paged.addAll(page.getNames());
+        while (page.hasMore()) {
+            page = economy.getBanks(null, page.getNextCursor(), 6);
+            paged.addAll(page.getNames());
+        }
+        assertEquals(20, paged.size());
+    }
+
+    @Test
+    public void testTransferAndRanking() {
+        List<OfflinePlayer> players = new ArrayList<OfflinePlayer>();
+        for (int i = 0; i < 30; i++) {
+            OfflinePlayer player = player("player" + i);
+            economy.createPlayerAccount(player);
+            economy.depositPlayer(player, i);
+            players.add(player);
+        }
+        OfflinePlayer from = players.get(29);
+        OfflinePlayer to = players.get(0);
+        for (OfflinePlayer candidate : players) {
+            if (economy.getShard(candidate.getUniqueId()) != economy.getShard(from.getUniqueId())) {
+                to = candidate;
+            }
+        }
+        assertNotSame(economy.getShard(from.getUniqueId()), economy.getShard(to.getUniqueId()));
+        double before = economy.getBalance(to);
+        assertTrue(economy.transfer(from, to, null, 4).transactionSuccess());
+        assertEquals(25, economy.getBalance(from), 0);
+        assertEquals(before + 4, economy.getBalance(to), 0);
+
+        List<BalanceEntry> top = economy.getTopBalances(30);
+        assertEquals(30, top.size());
+        for (int i = 0; i < top.size(); i++) {
+            BalanceEntry entry = top.get(i);
+            assertEquals(i + 1, entry.getRank());
+            if (i > 0) {
+                assertTrue(top.get(i - 1).getBalance() >= entry.getBalance());
+            }
+        }
+        for (OfflinePlayer player : players) {
+            int expected = 1;
+            for (OfflinePlayer other : players) {
+                double a = economy.getBalance(other);
+                double b = economy.getBalance(player);
+                if (a > b || (a == b && other.getUniqueId().compareTo(player.getUniqueId()) < 0)) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, economy.getBalanceRank(player));
+        }
+    }
+
+    @Test
+    public void testFailedDepositIsRefunded() {
+        OfflinePlayer payer = player("payer");
+        OfflinePlayer stranger = player("stranger");
+        economy.createPlayerAccount(payer);
+        economy.depositPlayer(payer, 10);
+        EconomyResponse response = economy.transfer(payer, stranger, null, 4);
+        assertFalse(response.transactionSuccess());
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, response.errorCode);
+        assertEquals(10, economy.getBalance(payer), 0);
+    }
+
+    @Test
+    public void testFailedRefundIsReported() {
+        final boolean[] failing = new boolean[1];
+        List<MemoryEconomy> flaky = new ArrayList<MemoryEconomy>();
+        for (int i = 0; i < 3; i++) {
+            flaky.add(new MemoryEconomy("Shard" + i, 2, "Dollar", "Dollars") {
+                @Override
+                public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+                    if (failing[0]) {
+                        throw new IllegalStateException("offline");
+                    }
+                    return super.depositPlayer(player, amount);
+                }
+            });
+        }
+        ShardedEconomy sharded = new ShardedEconomy("Sharded", flaky, 64, new PlayerNameIndex());
+        OfflinePlayer payer = player("payer");
+        OfflinePlayer payee = player("payee");
+        sharded.createPlayerAccount(payer);
+        sharded.createPlayerAccount(payee);
+        sharded.depositPlayer(payer, 10);
+        failing[0] = true;
+        EconomyResponse response = sharded.transfer(payer, payee, null, 4);
+        assertFalse(response.transactionSuccess());
+        assertEquals(ErrorCode.OTHER, response.errorCode);
+        assertEquals(6, response.balance, 0);
+    }
+}
@@ -0,0 +1,179 @@
+package net.milkbowl.vault.test;
+
+import static net.milkbowl.vault.test.EconomyFixtures.player;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.EconomyResponse;
+import net.milkbowl.vault.economy.EconomyResponse.ErrorCode;
+import net.milkbowl.vault.economy.MemoryEconomy;
+import net.milkbowl.vault.economy.SpoolingEconomy;
+
+public class SpoolingEconomyTest {
+
+    private volatile boolean down;
+
+    @Test
+    public void testSpoolsDuringOutageAndReplaysOnce() throws IOException {
+        MemoryEconomy backend = new MemoryEconomy("Test", 2, "Dollar", "Dollars") {
+            @Override
+            public EconomyResponse depositPlayer(UUID playerId, String worldName, double amount) {
+                return down ? EconomyResponse.failure(ErrorCode.CIRCUIT_OPEN) : super.depositPlayer(playerId, worldName, amount);
+            }
+        };
+        final OfflinePlayer alice = player("alice");
+        backend.createPlayerAccount(alice);
+        File file = File.createTempFile("spool", ".bin");
+        file.deleteOnExit();
+        new File(file.getPath() + ".ack").deleteOnExit();
+
+        down = true;
+        SpoolingEconomy economy = spooling(backend, file, alice);
+        assertTrue(economy.depositPlayer(alice, 3).transactionSuccess());
+        down = false;
+        assertTrue(economy.depositPlayer(alice, 4).transactionSuccess());
+        assertEquals(2, economy.getPendingCount());
+        assertEquals(0, backend.getBalance(alice), 0);
+        economy.close();
+
+        economy = spooling(backend, file, alice);
+        assertEquals(2, economy.getPendingCount());
+        economy.run();
+        assertEquals(0, economy.getPendingCount());
+        assertEquals(7, backend.getBalance(alice), 0);
+        assertEquals(8, economy.depositPlayer(alice, 1).balance, 0);
+        economy.close();
+
+        economy = spooling(backend, file, alice);
+        economy.run();
+        assertEquals(8, backend.getBalance(alice), 0);
+        economy.close();
+    }
+
+    @Test
+    public void testReadsIncludeSpooledDeposits() throws IOException {
+        MemoryEconomy backend = new MemoryEconomy("Test", 2, "Dollar", "Dollars") {
+            @Override
+            public EconomyResponse depositPlayer(UUID playerId, String worldName, double amount) {
+                return down ? EconomyResponse.failure(ErrorCode.CIRCUIT_OPEN) : super.depositPlayer(playerId, worldName, amount);
+            }
+        };
+        OfflinePlayer alice = player("alice");
+        backend.createPlayerAccount(alice);
+        backend.createPlayerAccount(alice, "nether");
+        backend.depositPlayer(alice, 2);
+        File file = File.createTempFile("spool", ".bin");
+        file.deleteOnExit();
+        new File(file.getPath() + ".ack").deleteOnExit();
+
+        down = true;
+        SpoolingEconomy economy = spooling(backend, file, alice);
+        assertTrue(economy.depositPlayer(alice, 3).transactionSuccess());
+        assertTrue(economy.depositPlayer(alice, "nether", 1).transactionSuccess());
+        assertEquals(3, economy.getPendingAmount(alice, null), 0);
+        assertEquals(5, economy.getBalance(alice), 0);
+        assertEquals(1, economy.getBalance(alice, "nether"), 0);
+        assertTrue(economy.has(alice, 5));
+        assertFalse(economy.has(alice, 5.5));
+
+        // Spooled deposits cannot be spent before they are replayed
+        assertEquals(ErrorCode.INSUFFICIENT_FUNDS, economy.withdrawPlayer(alice, 4).errorCode);
+        assertTrue(economy.withdrawPlayer(alice, 2).transactionSuccess());
+
+        economy.run();
+        assertEquals(3, economy.getBalance(alice), 0);
+        down = false;
+        economy.run();
+        assertEquals(0, economy.getPendingAmount(alice, null), 0);
+        assertEquals(3, economy.getBalance(alice), 0);
+        assertEquals(1, economy.getBalance(alice, "nether"), 0);
+        assertTrue(economy.withdrawPlayer(alice, 3).transactionSuccess());
+        economy.close();
+    }
+
+    @Test
+    public void testSpooledDepositReportsKnownBalance() throws IOException {
+        MemoryEconomy backend = new MemoryEconomy("Test", 2, "Dollar", "Dollars") {
+            @Override
+            public EconomyResponse depositPlayer(UUID playerId, String worldName, double amount) {
+                return down ? EconomyResponse.failure(ErrorCode.CIRCUIT_OPEN) : super.depositPlayer(playerId, worldName, amount);
+            }
+        };
+        OfflinePlayer alice = player("alice");
+        backend.createPlayerAccount(alice);
+        File file = File.createTempFile("spool", ".bin");
+        file.deleteOnExit();
+        new File(file.getPath() + ".ack").deleteOnExit();
+
+        SpoolingEconomy economy = spooling(backend, file, alice);
+        assertEquals(5, economy.depositPlayer(alice, 5).balance, 0);
+        assertEquals(3, economy.withdrawPlayer(alice, 2).balance, 0);
+        down = true;
+        assertEquals(4, economy.depositPlayer(alice, 1).balance, 0);
+        assertEquals(6, economy.depositPlayer(alice, 2).balance, 0);
+        economy.close();
+    }
+
+    @Test
+    public void testConcurrentReplaysApplyOnce() throws IOException, InterruptedException {
+        final CountDownLatch applying = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        MemoryEconomy backend = new MemoryEconomy("Test", 2, "Dollar", "Dollars") {
+            @Override
+            public EconomyResponse depositPlayer(UUID playerId, String worldName, double amount) {
+                if (down) {
+                    return EconomyResponse.failure(ErrorCode.CIRCUIT_OPEN);
+                }
+                applying.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.depositPlayer(playerId, worldName, amount);
+            }
+        };
+        OfflinePlayer alice = player("alice");
+        backend.createPlayerAccount(alice);
+        File file = File.createTempFile("spool", ".bin");
+        file.deleteOnExit();
+        new File(file.getPath() + ".ack").deleteOnExit();
+
+        down = true;
+        final SpoolingEconomy economy = spooling(backend, file, alice);
+        assertTrue(economy.depositPlayer(alice, 3).transactionSuccess());
+        down = false;
+        Thread first = new Thread(economy);
+        first.start();
+        assertTrue(applying.await(5, TimeUnit.SECONDS));
+        // The deposit is being applied by the first replay, so this one must not apply it again
+        Thread second = new Thread(economy);
+        second.start();
+        second.join(200);
+        release.countDown();
+        first.join();
+        second.join();
+        assertEquals(0, economy.getPendingCount());
+        assertEquals(3, backend.getBalance(alice), 0);
+        economy.close();
+    }
+
+    private static SpoolingEconomy spooling(MemoryEconomy backend, File file, final OfflinePlayer player) throws IOException {
+        return new SpoolingEconomy(backend, file, 1) {
+            @Override
+            protected OfflinePlayer resolvePlayer(UUID playerId) {
+                return player;
+            }
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package net.milkbowl.vault.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.JournalHandler;
+import net.milkbowl.vault.economy.JournalRecord;
+import net.milkbowl.vault.economy.JournalRecord.Type;
+import net.milkbowl.vault.economy.TransactionJournal;
+
+public class TransactionJournalTest {
+
+    @Test
+    public void testAppendRolloverAndReopen() throws IOException {
+        File directory = tempDirectory();
+        UUID player = UUID.randomUUID();
+        TransactionJournal journal = new TransactionJournal(directory, 4, 3);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i + 1, journal.append(Type.DEPOSIT, player, i % 2 == 0 ? null : "world", i, i * 2));
+        }
+        journal.close();
+        assertEquals(3, directory.list().length);
+
+        journal = new TransactionJournal(directory, 4, 3);
+        assertEquals(11, journal.getNextSequence());
+        journal.append(Type.BANK_CREATE, null, "bank", 0, 0);
+        journal.close();
+
+        final List<JournalRecord> records = new ArrayList<JournalRecord>();
+        assertEquals(11, TransactionJournal.scan(directory, 5, new JournalHandler() {
+            @Override
+            public void onRecord(JournalRecord record) {
+                records.add(record);
+            }
+        }));
+        assertEquals(7, records.size());
+        JournalRecord first = records.get(0);
+        assertEquals(5, first.getSequence());
+        assertEquals(player, first.getPlayerId());
+        assertNull(first.getName());
+        assertEquals(4, first.getAmount(), 0);
+        assertEquals("world", records.get(1).getName());
+        JournalRecord last = records.get(6);
+        assertEquals(Type.BANK_CREATE, last.getType());
+        assertNull(last.getPlayerId());
+        assertEquals("bank", last.getName());
+    }
+
+    @Test
+    public void testLongNamesAreTruncated() throws IOException {
+        File directory = tempDirectory();
+        TransactionJournal journal = new TransactionJournal(directory, 8, 8);
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            name.append("é");
+        }
+        journal.append(Type.BANK_DEPOSIT, null, name.toString(), 1, 1);
+        journal.close();
+        final List<JournalRecord> records = new ArrayList<JournalRecord>();
+        TransactionJournal.scan(directory, 1, new JournalHandler() {
+            @Override
+            public void onRecord(JournalRecord record) {
+                records.add(record);
+            }
+        });
+        assertTrue(records.get(0).isNameTruncated());
+        assertEquals(name.substring(0, TransactionJournal.MAX_NAME_BYTES / 2), records.get(0).getName());
+    }
+
+    private static File tempDirectory() throws IOException {
+        File directory = File.createTempFile("journal", "");
+        directory.delete();
+        directory.mkdirs();
+        directory.deleteOnExit();
+        return directory;
+    }
+}
@@ -0,0 +1,56 @@
+package net.milkbowl.vault.test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.UUIDBloomFilter;
+
+public class UUIDBloomFilterTest {
+
+    @Test
+    public void testNoFalseNegatives() {
+        UUIDBloomFilter filter = new UUIDBloomFilter(1000, 0.01);
+        Random random = new Random(42);
+        List<UUID> added = new ArrayList<UUID>();
+        for (int i = 0; i < 2000; i++) {
+            UUID id = new UUID(random.nextLong(), random.nextLong());
+            filter.put(id);
+            added.add(id);
+        }
+        for (UUID id : added) {
+            assertTrue(filter.mightContain(id));
+        }
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        UUIDBloomFilter filter = new UUIDBloomFilter(1000, 0.01);
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            filter.put(new UUID(random.nextLong(), random.nextLong()));
+        }
+        int positives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain(new UUID(random.nextLong(), random.nextLong()))) {
+                positives++;
+            }
+        }
+        assertTrue("false positive rate " + positives / 10000.0, positives < 300);
+    }
+
+    @Test
+    public void testClear() {
+        UUIDBloomFilter filter = new UUIDBloomFilter(10, 0.01);
+        UUID id = UUID.randomUUID();
+        filter.put(id);
+        filter.clear();
+        assertFalse(filter.mightContain(id));
+    }
+}
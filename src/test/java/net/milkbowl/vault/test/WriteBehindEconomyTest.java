@@ -0,0 +1,121 @@
+package net.milkbowl.vault.test;
+
+import static net.milkbowl.vault.test.EconomyFixtures.player;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.milkbowl.vault.economy.EconomyResponse;
+import net.milkbowl.vault.economy.EconomyResponse.ErrorCode;
+import net.milkbowl.vault.economy.MemoryEconomy;
+import net.milkbowl.vault.economy.WriteBehindEconomy;
+
+public class WriteBehindEconomyTest {
+
+    private volatile boolean failing;
+    private int writes;
+    private MemoryEconomy backend;
+    private OfflinePlayer alice;
+
+    @Before
+    public void setUp() {
+        backend = new MemoryEconomy("Test", 2, "Dollar", "Dollars") {
+            @Override
+            public EconomyResponse depositPlayer(UUID playerId, String worldName, double amount) {
+                writes++;
+                return failing ? EconomyResponse.failure(ErrorCode.OTHER) : super.depositPlayer(playerId, worldName, amount);
+            }
+
+            @Override
+            public EconomyResponse withdrawPlayer(UUID playerId, String worldName, double amount) {
+                writes++;
+                return failing ? EconomyResponse.failure(ErrorCode.OTHER) : super.withdrawPlayer(playerId, worldName, amount);
+            }
+        };
+        alice = player("alice");
+        backend.createPlayerAccount(alice);
+    }
+
+    @Test
+    public void testBuffersAndCoalesces() {
+        WriteBehindEconomy economy = new WriteBehindEconomy(backend, 100);
+        assertTrue(economy.depositPlayer(alice, 5).transactionSuccess());
+        EconomyResponse response = economy.withdrawPlayer(alice, 2);
+        assertTrue(response.transactionSuccess());
+        assertEquals(3, response.balance, 0);
+        assertEquals(ErrorCode.INSUFFICIENT_FUNDS, economy.withdrawPlayer(alice, 10).errorCode);
+        assertEquals(0, backend.getBalance(alice), 0);
+        assertEquals(3, economy.getBalance(alice), 0);
+        assertTrue(economy.has(alice, 3));
+        assertFalse(economy.has(alice, 3.01));
+        assertEquals(2, economy.getPendingMutations());
+
+        economy.flush();
+        assertEquals(1, writes);
+        assertEquals(3, backend.getBalance(alice), 0);
+        assertEquals(0, economy.getPendingMutations());
+    }
+
+    @Test
+    public void testFlushesAtThreshold() {
+        WriteBehindEconomy economy = new WriteBehindEconomy(backend, 3);
+        economy.depositPlayer(alice, 1);
+        economy.depositPlayer(alice, 1);
+        assertEquals(0, backend.getBalance(alice), 0);
+        economy.depositPlayer(alice, 1);
+        assertEquals(3, backend.getBalance(alice), 0);
+        assertEquals(0, economy.getPendingMutations());
+    }
+
+    @Test
+    public void testKeepsDeltaWhileBackendFails() {
+        WriteBehindEconomy economy = new WriteBehindEconomy(backend, 2);
+        failing = true;
+        economy.depositPlayer(alice, 5);
+        economy.depositPlayer(alice, 1);
+        assertEquals(1, writes);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(economy.depositPlayer(alice, 1).transactionSuccess());
+            economy.run();
+        }
+        // Backing off: neither the threshold nor the timer retries right away.
+        assertEquals(1, writes);
+        assertEquals(16, economy.getBalance(alice), 0);
+        assertEquals(12, economy.getPendingMutations());
+        economy.flush();
+        assertEquals(2, writes);
+        assertEquals(12, economy.getPendingMutations());
+
+        failing = false;
+        economy.flush();
+        assertEquals(16, backend.getBalance(alice), 0);
+        assertEquals(0, economy.getPendingMutations());
+        economy.depositPlayer(alice, 1);
+        economy.depositPlayer(alice, 1);
+        assertEquals(18, backend.getBalance(alice), 0);
+    }
+
+    @Test
+    public void testRefusesWhatCannotBeWritten() {
+        WriteBehindEconomy economy = new WriteBehindEconomy(backend, 100);
+        assertEquals(ErrorCode.INVALID_AMOUNT, economy.depositPlayer(alice, Double.NaN).errorCode);
+        assertEquals(ErrorCode.INVALID_AMOUNT, economy.depositPlayer(alice, Double.POSITIVE_INFINITY).errorCode);
+        assertEquals(ErrorCode.INVALID_AMOUNT, economy.withdrawPlayer(alice, -1).errorCode);
+        assertEquals(ErrorCode.INVALID_AMOUNT, economy.withdrawPlayer(alice, 0).errorCode);
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, economy.depositPlayer(player("carol"), 1).errorCode);
+        assertEquals(0, economy.getPendingMutations());
+
+        // An account deleted while its delta is buffered is dropped instead of retried forever
+        assertTrue(economy.depositPlayer(alice, 1).transactionSuccess());
+        backend.clear();
+        economy.flush();
+        assertEquals(0, economy.getPendingMutations());
+        assertEquals(2, writes);
+    }
+}